@@ -0,0 +1,212 @@
+package com.dhillon.twitterclone.cache;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A concurrent map holding at most a fixed number of entries, evicting approximately the least recently read.
+ * Reads only set a flag on the entry. Once a write exceeds the bound, a clock hand sweeps the entries: an entry read
+ * since the hand last passed it gets a second chance, and the first one that was not is evicted.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class BoundedMap<K, V> {
+
+    private final ConcurrentHashMap<K, Node<V>> map = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    // Position of the clock hand; guarded by this
+    private Iterator<Map.Entry<K, Node<V>>> hand = Collections.emptyIterator();
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param maxEntries the maximum number of entries held
+     */
+    public BoundedMap(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get a value, marking it as recently read.
+     *
+     * @param key the key
+     * @return the value, or null if absent
+     */
+    public V get(K key) {
+        Node<V> node = map.get(key);
+        if (node == null) {
+            return null;
+        }
+        node.referenced = true;
+        return node.value;
+    }
+
+    /**
+     * Get a value without marking it as recently read, for writes and bookkeeping.
+     *
+     * @param key the key
+     * @return the value, or null if absent
+     */
+    public V peek(K key) {
+        Node<V> node = map.get(key);
+        return node != null ? node.value : null;
+    }
+
+    /**
+     * Add or replace a value. A replaced value keeps its recency.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public void put(K key, V value) {
+        map.compute(key, (k, old) -> new Node<>(value, old != null && old.referenced));
+        evictOverflow();
+    }
+
+    /**
+     * Add a value unless the key is present.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the present value, or null if the value was added
+     */
+    public V putIfAbsent(K key, V value) {
+        Node<V> present = map.putIfAbsent(key, new Node<>(value, false));
+        if (present != null) {
+            return present.value;
+        }
+        evictOverflow();
+        return null;
+    }
+
+    /**
+     * Get the value of a key, computing and adding it if absent. Does not mark the value as recently read.
+     *
+     * @param key the key
+     * @param mappingFunction computes the value of an absent key
+     * @return the present or added value
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        V value = map.computeIfAbsent(key, k -> new Node<>(mappingFunction.apply(k), false)).value;
+        evictOverflow();
+        return value;
+    }
+
+    /**
+     * Replace the value of a present key, or remove it if the function returns null.
+     *
+     * @param key the key
+     * @param remappingFunction computes the new value from the key and the present value
+     * @return the new value, or null if absent or removed
+     */
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Node<V> node = map.computeIfPresent(key, (k, old) -> {
+            V value = remappingFunction.apply(k, old.value);
+            return value != null ? new Node<>(value, old.referenced) : null;
+        });
+        return node != null ? node.value : null;
+    }
+
+    /**
+     * Remove a key.
+     *
+     * @param key the key
+     */
+    public void remove(K key) {
+        map.remove(key);
+    }
+
+    /**
+     * Remove a key only while it maps to the given value instance.
+     *
+     * @param key the key
+     * @param value the expected value
+     * @return true if the key was removed
+     */
+    public boolean remove(K key, V value) {
+        Node<V> node = map.get(key);
+        return node != null && node.value == value && map.remove(key, node);
+    }
+
+    /**
+     * Remove every value matching a predicate.
+     *
+     * @param filter the predicate
+     */
+    public void removeIf(Predicate<? super V> filter) {
+        map.values().removeIf(node -> filter.test(node.value));
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        map.clear();
+    }
+
+    /**
+     * Get a live, unmodifiable view of the keys.
+     *
+     * @return the keys
+     */
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(map.keySet());
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    /**
+     * Sweep the clock hand until the map is back within its bound.
+     * Each entry is passed at most twice, once to clear its flag and once to evict it.
+     */
+    private void evictOverflow() {
+        if (map.size() <= maxEntries) {
+            return;
+        }
+        synchronized (this) {
+            for (long steps = 2L * map.size() + 1; map.size() > maxEntries && steps > 0; steps--) {
+                if (!hand.hasNext()) {
+                    hand = map.entrySet().iterator();
+                    if (!hand.hasNext()) {
+                        return;
+                    }
+                }
+                Map.Entry<K, Node<V>> entry = hand.next();
+                Node<V> node = entry.getValue();
+                if (node.referenced) {
+                    node.referenced = false;
+                } else {
+                    map.remove(entry.getKey(), node);
+                }
+            }
+        }
+    }
+
+    /**
+     * A value and whether it has been read since the clock hand last passed it.
+     */
+    private static final class Node<V> {
+
+        private final V value;
+        private volatile boolean referenced;
+
+        private Node(V value, boolean referenced) {
+            this.value = value;
+            this.referenced = referenced;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.dhillon.twitterclone.cache;
+
+import com.dhillon.twitterclone.config.CacheProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Tells the other application nodes which cache keys this node has evicted.
+ * Keys are collected for a short delay and sent as one message, so a burst of writes costs one message
+ * instead of one per key. Messages from this node are ignored when they come back.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final CacheInvalidationTransport transport;
+    private final TaskScheduler taskScheduler;
+    private final Duration batchDelay;
+    private final int maxBatchKeys;
+    private final List<BiConsumer<String, Collection<String>>> listeners = new CopyOnWriteArrayList<>();
+
+    // Keys evicted since the last message, per cache name; guarded by this
+    private Map<String, Collection<String>> pending = new HashMap<>();
+    private int pendingKeys;
+    private boolean sendScheduled;
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param transport the transport carrying messages between nodes
+     * @param taskScheduler the task scheduler sending delayed batches
+     * @param properties the cache properties
+     */
+    public CacheInvalidationBus(CacheInvalidationTransport transport, TaskScheduler taskScheduler,
+                                CacheProperties properties) {
+        this.transport = transport;
+        this.taskScheduler = taskScheduler;
+        this.batchDelay = properties.invalidation().batchDelay();
+        this.maxBatchKeys = properties.invalidation().maxBatchKeys();
+        transport.onMessage(this::receive);
+    }
+
+    /**
+     * Register a listener for keys evicted on other nodes.
+     *
+     * @param listener receives the cache name and the evicted keys of that cache
+     */
+    public void subscribe(BiConsumer<String, Collection<String>> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Queue an evicted key for the next message.
+     *
+     * @param cacheName the cache name
+     * @param key the evicted key
+     */
+    public void publish(String cacheName, String key) {
+        boolean sendNow;
+        synchronized (this) {
+            if (pending.computeIfAbsent(cacheName, name -> new LinkedHashSet<>()).add(key)) {
+                pendingKeys++;
+            }
+            sendNow = pendingKeys >= maxBatchKeys;
+            if (!sendNow && !sendScheduled) {
+                sendScheduled = true;
+                taskScheduler.schedule(this::send, Instant.now().plus(batchDelay));
+            }
+        }
+        if (sendNow) {
+            send();
+        }
+    }
+
+    /**
+     * Send the keys queued since the last message.
+     */
+    public void send() {
+        Map<String, Collection<String>> batch;
+        synchronized (this) {
+            sendScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+            pendingKeys = 0;
+        }
+
+        try {
+            transport.send(new CacheInvalidationMessage(nodeId, batch));
+        } catch (RuntimeException e) {
+            // Other nodes fall back to the expiry of their in-process entries
+            log.warn("Failed to send invalidation of keys in caches {}", batch.keySet(), e);
+        }
+    }
+
+    /**
+     * Pass the keys of a message from another node to the listeners.
+     *
+     * @param message the message
+     */
+    private void receive(CacheInvalidationMessage message) {
+        if (nodeId.equals(message.origin())) {
+            return;
+        }
+        message.keys().forEach((cacheName, keys) -> listeners.forEach(listener -> listener.accept(cacheName, keys)));
+    }
+}
@@ -0,0 +1,15 @@
+package com.dhillon.twitterclone.cache;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A batch of keys evicted on one node, to be dropped from the in-process tier of the others.
+ *
+ * @param origin the ID of the node that evicted the keys
+ * @param keys the evicted keys per cache name
+ */
+public record CacheInvalidationMessage(
+    String origin,
+    Map<String, Collection<String>> keys
+) {}
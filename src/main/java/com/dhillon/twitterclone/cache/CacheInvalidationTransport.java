@@ -0,0 +1,23 @@
+package com.dhillon.twitterclone.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries cache invalidation messages between application nodes.
+ */
+public interface CacheInvalidationTransport {
+
+    /**
+     * Send a message to every node, including the sending one.
+     *
+     * @param message the message
+     */
+    void send(CacheInvalidationMessage message);
+
+    /**
+     * Register a listener for the messages sent by any node.
+     *
+     * @param listener the listener
+     */
+    void onMessage(Consumer<CacheInvalidationMessage> listener);
+}
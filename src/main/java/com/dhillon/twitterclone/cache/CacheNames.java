@@ -0,0 +1,42 @@
+package com.dhillon.twitterclone.cache;
+
+/**
+ * Names of the caches managed by the {@link TwoTierCacheManager}.
+ */
+public final class CacheNames {
+
+    /**
+     * Posts as seen by an anonymous viewer, keyed by post ID.
+     */
+    public static final String POSTS = "posts";
+
+    /**
+     * Serialized JSON and gzip templates of posts, keyed by post ID. Held in process only.
+     */
+    public static final String POST_PAYLOADS = "post-payloads";
+
+    /**
+     * User profiles with their follower counts, keyed by user ID.
+     */
+    public static final String USER_PROFILES = "user-profiles";
+
+    /**
+     * User IDs keyed by username.
+     */
+    public static final String USERNAMES = "usernames";
+
+    /**
+     * The first page of each home timeline, keyed by user ID.
+     */
+    public static final String TIMELINES = "timelines";
+
+    /**
+     * Follow edges held by each node's in-memory follow graph, keyed by follower and following ID.
+     * Not a managed cache; only its invalidations travel over the {@link CacheInvalidationBus}.
+     */
+    public static final String FOLLOW_GRAPH = "follow-graph";
+
+    private CacheNames() {
+        // Private constructor to prevent instantiation
+    }
+}
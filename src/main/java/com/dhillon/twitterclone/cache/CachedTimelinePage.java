@@ -0,0 +1,17 @@
+package com.dhillon.twitterclone.cache;
+
+import com.dhillon.twitterclone.dto.CursorPage;
+import com.dhillon.twitterclone.dto.PostDto;
+
+/**
+ * The first page of a home timeline as cached, with the timeline version and page size it was read at.
+ *
+ * @param version the timeline version the page was read at
+ * @param size the requested page size
+ * @param page the page as seen by an anonymous viewer
+ */
+public record CachedTimelinePage(
+    String version,
+    int size,
+    CursorPage<PostDto> page
+) {}
@@ -0,0 +1,29 @@
+package com.dhillon.twitterclone.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Process-local cache invalidation transport that delivers messages to its listeners on the sending thread.
+ * Suitable for a single node, and for tests running several nodes in one process.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.cache", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final List<Consumer<CacheInvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(CacheInvalidationMessage message) {
+        listeners.forEach(listener -> listener.accept(message));
+    }
+
+    @Override
+    public void onMessage(Consumer<CacheInvalidationMessage> listener) {
+        listeners.add(listener);
+    }
+}
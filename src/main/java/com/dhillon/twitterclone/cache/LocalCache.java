@@ -0,0 +1,147 @@
+package com.dhillon.twitterclone.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded in-process cache whose entries expire a fixed time after they are written.
+ * Once the bound is exceeded, expired entries are purged first and then the least recently read entries are
+ * evicted, approximately, so reads stay free of locks.
+ */
+public class LocalCache {
+
+    private final BoundedMap<Object, Entry> entries;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    // When expired entries were last purged, in System.nanoTime() terms
+    private volatile long purgedAt = System.nanoTime();
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param maxEntries the maximum number of entries held
+     * @param ttl how long an entry is served after it is written
+     */
+    public LocalCache(int maxEntries, Duration ttl) {
+        this.entries = new BoundedMap<>(maxEntries);
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Get the value of an entry that has not expired.
+     *
+     * @param key the key
+     * @return the value, or null if absent or expired
+     */
+    public Object get(Object key) {
+        Entry entry = getEntry(key);
+        return entry != null ? entry.value() : null;
+    }
+
+    /**
+     * Get an entry that has not expired, counting the read.
+     *
+     * @param key the key
+     * @return the entry, or null if absent or expired
+     */
+    public Entry getEntry(Object key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt() >= 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        entry.reads.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * Add or replace an entry.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public void put(Object key, Object value) {
+        long now = System.nanoTime();
+        if (entries.size() >= maxEntries) {
+            purgeExpired(now);
+        }
+        entries.put(key, new Entry(value, now, now + ttlNanos));
+    }
+
+    /**
+     * Remove an entry.
+     *
+     * @param key the key
+     */
+    public void evict(Object key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Get the number of entries held, including expired entries not yet removed.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Remove expired entries so that they do not take the place of live ones.
+     * Entries expire at most one TTL after they are written, so a full scan is only worth it once per TTL.
+     *
+     * @param now the current {@link System#nanoTime()}
+     */
+    private void purgeExpired(long now) {
+        if (now - purgedAt < ttlNanos) {
+            return;
+        }
+        purgedAt = now;
+        entries.removeIf(entry -> now - entry.expiresAt() >= 0);
+    }
+
+    /**
+     * A cached value, when it was written and expires in {@link System#nanoTime()} terms, and how often it was read.
+     */
+    public static final class Entry {
+
+        private final Object value;
+        private final long writtenAt;
+        private final long expiresAt;
+        private final AtomicLong reads = new AtomicLong();
+
+        private Entry(Object value, long writtenAt, long expiresAt) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+            this.expiresAt = expiresAt;
+        }
+
+        public Object value() {
+            return value;
+        }
+
+        public long writtenAt() {
+            return writtenAt;
+        }
+
+        public long expiresAt() {
+            return expiresAt;
+        }
+
+        public long reads() {
+            return reads.get();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.dhillon.twitterclone.cache;
+
+import com.dhillon.twitterclone.dto.PostDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Serializes posts from cached JSON and gzip templates of their stable fields.
+ * The author's name and avatar, the counters and the viewer flags are written per response, between the serialized
+ * fields around them, so a template holds nothing that changes without the post itself changing.
+ * <p>
+ * The gzip form is a single gzip member whose deflate stream alternates the compressed stable parts with the
+ * volatile fields in stored blocks. Each part is compressed on its own and ends on a byte boundary, so the parts can
+ * be joined without recompressing; only the checksum of the whole payload is computed per response.
+ * Templates are evicted when a post is updated or deleted, not when its counters or its author's profile change.
+ */
+@Component
+public class PostJsonCache {
+
+    // The groups of fields written per response, each in the order Jackson writes them
+    private static final List<String> AUTHOR_FIELDS = List.of("username", "displayName", "profileImage");
+    private static final List<String> COUNTER_FIELDS =
+            List.of("likeCount", "retweetCount", "replyCount", "liked", "retweeted");
+    private static final List<List<String>> VOLATILE_GROUPS = List.of(AUTHOR_FIELDS, COUNTER_FIELDS);
+
+    // The largest stored deflate block
+    private static final int MAX_STORED_BLOCK = 0xffff;
+
+    // Member header with no file name, modification time or extra flags, written by an unknown OS
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final ObjectMapper objectMapper;
+    private final Cache templates;
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param objectMapper the object mapper used for responses
+     * @param cacheManager the cache manager
+     */
+    public PostJsonCache(ObjectMapper objectMapper, CacheManager cacheManager) {
+        this.objectMapper = objectMapper;
+        this.templates = cacheManager.getCache(CacheNames.POST_PAYLOADS);
+    }
+
+    /**
+     * Serialize a post as UTF-8 JSON, the same as the object mapper would.
+     *
+     * @param post the post, with its viewer flags
+     * @return the JSON bytes
+     */
+    public byte[] toJson(PostDto post) {
+        Template template = template(post);
+        byte[][] spans = volatileSpans(post);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(template.size() + spans[0].length + spans[1].length);
+        for (int i = 0; i < spans.length; i++) {
+            out.writeBytes(template.parts().get(i));
+            out.writeBytes(spans[i]);
+        }
+        out.writeBytes(template.parts().get(spans.length));
+        return out.toByteArray();
+    }
+
+    /**
+     * Serialize a post as gzip-compressed UTF-8 JSON.
+     *
+     * @param post the post, with its viewer flags
+     * @return the gzip bytes
+     */
+    public byte[] toGzip(PostDto post) {
+        Template template = template(post);
+        byte[][] spans = volatileSpans(post);
+
+        CRC32 crc = new CRC32();
+        int size = 0;
+        for (int i = 0; i <= spans.length; i++) {
+            crc.update(template.parts().get(i));
+            size += template.parts().get(i).length;
+            if (i < spans.length) {
+                crc.update(spans[i]);
+                size += spans[i].length;
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(template.gzipSize() + spans[0].length
+                + spans[1].length + 5 * (spans.length + 2) + 8);
+        out.writeBytes(GZIP_HEADER);
+        for (int i = 0; i < spans.length; i++) {
+            out.writeBytes(template.gzipParts().get(i));
+            writeStored(out, spans[i]);
+        }
+        out.writeBytes(template.gzipParts().get(spans.length));
+        writeInt(out, (int) crc.getValue());
+        writeInt(out, size);
+        return out.toByteArray();
+    }
+
+    /**
+     * Get the cached template of a post, building it on a miss.
+     *
+     * @param post the post
+     * @return the template
+     */
+    private Template template(PostDto post) {
+        return templates.get(post.id(), () -> buildTemplate(post));
+    }
+
+    /**
+     * Serialize the stable fields of a post around its groups of volatile fields.
+     *
+     * @param post the post
+     * @return the template
+     * @throws JsonProcessingException if the post cannot be serialized
+     */
+    private Template buildTemplate(PostDto post) throws JsonProcessingException {
+        ObjectNode json = objectMapper.valueToTree(post);
+        List<ObjectNode> segments = new ArrayList<>(List.of(objectMapper.createObjectNode()));
+
+        List<String> group = new ArrayList<>();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = json.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            List<String> expected = segments.size() <= VOLATILE_GROUPS.size()
+                    ? VOLATILE_GROUPS.get(segments.size() - 1) : List.of();
+            if (expected.contains(field.getKey())) {
+                group.add(field.getKey());
+                if (group.size() == expected.size()) {
+                    if (!group.equals(expected)) {
+                        throw new IllegalStateException("Post fields are serialized as " + group);
+                    }
+                    group.clear();
+                    segments.add(objectMapper.createObjectNode());
+                }
+            } else if (!group.isEmpty() || VOLATILE_GROUPS.stream().anyMatch(g -> g.contains(field.getKey()))) {
+                throw new IllegalStateException("Post field " + field.getKey() + " is serialized out of order");
+            } else {
+                segments.get(segments.size() - 1).set(field.getKey(), field.getValue());
+            }
+        }
+        if (segments.size() != VOLATILE_GROUPS.size() + 1) {
+            throw new IllegalStateException("Post fields are missing from " + json.fieldNames());
+        }
+
+        // "{a,b}" becomes "{a,b,", then ",c,d," between groups and ",e,f}", so the volatile fields go between them
+        List<byte[]> parts = new ArrayList<>();
+        List<byte[]> gzipParts = new ArrayList<>();
+        for (int i = 0; i < segments.size(); i++) {
+            boolean empty = segments.get(i).isEmpty();
+            boolean last = i == segments.size() - 1;
+            byte[] bytes = objectMapper.writeValueAsBytes(segments.get(i));
+            if (i > 0) {
+                bytes[0] = empty ? (byte) ' ' : (byte) ',';
+            }
+            if (!last) {
+                bytes[bytes.length - 1] = empty && i == 0 ? (byte) ' ' : (byte) ',';
+            }
+            parts.add(bytes);
+            gzipParts.add(deflate(bytes, last));
+        }
+        return new Template(parts, gzipParts);
+    }
+
+    /**
+     * Serialize the groups of volatile fields of a post, each without enclosing braces.
+     *
+     * @param post the post
+     * @return the bytes of the author fields, then of the counters and viewer flags
+     * @throws IllegalStateException if the author fields cannot be serialized
+     */
+    private byte[][] volatileSpans(PostDto post) {
+        byte[] author;
+        try {
+            author = objectMapper.writeValueAsBytes(new Author(post.username(), post.displayName(), post.profileImage()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize the author of post " + post.id(), e);
+        }
+        return new byte[][] {Arrays.copyOfRange(author, 1, author.length - 1), counters(post)};
+    }
+
+    /**
+     * Serialize the counters and viewer flags of a post, without enclosing braces.
+     *
+     * @param post the post
+     * @return the ASCII bytes of the fields
+     */
+    private static byte[] counters(PostDto post) {
+        String fields = "\"likeCount\":" + post.likeCount()
+                + ",\"retweetCount\":" + post.retweetCount()
+                + ",\"replyCount\":" + post.replyCount()
+                + ",\"liked\":" + post.liked()
+                + ",\"retweeted\":" + post.retweeted();
+        return fields.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Compress bytes as raw deflate blocks ending on a byte boundary.
+     *
+     * @param bytes the bytes
+     * @param last whether the blocks end the deflate stream
+     * @return the compressed bytes
+     */
+    private static byte[] deflate(byte[] bytes, boolean last) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(bytes);
+            if (last) {
+                deflater.finish();
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length + 16);
+            byte[] buffer = new byte[1024];
+            int length;
+            // A sync flush is complete once it leaves room in the buffer; finishing is complete once finished
+            do {
+                length = deflater.deflate(buffer, 0, buffer.length, last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+                out.write(buffer, 0, length);
+            } while (last ? !deflater.finished() : length == buffer.length);
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Write bytes as non-final stored deflate blocks: the block header bits padded to a byte, then the length and its
+     * complement, then the bytes.
+     *
+     * @param out the output
+     * @param bytes the bytes
+     */
+    private static void writeStored(ByteArrayOutputStream out, byte[] bytes) {
+        int offset = 0;
+        do {
+            int length = Math.min(bytes.length - offset, MAX_STORED_BLOCK);
+            out.write(0);
+            writeShort(out, length);
+            writeShort(out, ~length);
+            out.write(bytes, offset, length);
+            offset += length;
+        } while (offset < bytes.length);
+    }
+
+    private static void writeShort(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >> 8);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        writeShort(out, value);
+        writeShort(out, value >> 16);
+    }
+
+    /**
+     * Serialized stable fields of a post.
+     *
+     * @param parts the JSON around the groups of volatile fields
+     * @param gzipParts the compressed parts, the last ending the deflate stream
+     */
+    private record Template(List<byte[]> parts, List<byte[]> gzipParts) {
+
+        int size() {
+            return parts.stream().mapToInt(part -> part.length).sum();
+        }
+
+        int gzipSize() {
+            return GZIP_HEADER.length + gzipParts.stream().mapToInt(part -> part.length).sum();
+        }
+    }
+
+    /**
+     * The author fields of a post, serialized with the same settings as the post.
+     */
+    private record Author(String username, String displayName, String profileImage) {}
+}
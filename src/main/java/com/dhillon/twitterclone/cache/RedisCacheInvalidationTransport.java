@@ -0,0 +1,85 @@
+package com.dhillon.twitterclone.cache;
+
+import com.dhillon.twitterclone.config.CacheProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Cache invalidation transport over a Redis pub/sub channel, reaching every node connected to the same Redis.
+ * Delivery is at most once; a node that misses a message serves the old value until its in-process entry expires.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.cache", name = "store", havingValue = "redis")
+public class RedisCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCacheInvalidationTransport.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ChannelTopic channel;
+    private final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param redisTemplate the Redis template
+     * @param objectMapper the object mapper for messages
+     * @param properties the cache properties
+     */
+    public RedisCacheInvalidationTransport(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                                           CacheProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = new ChannelTopic(properties.invalidation().channel());
+        this.container.setConnectionFactory(redisTemplate.getRequiredConnectionFactory());
+    }
+
+    /**
+     * Start listening on the channel.
+     */
+    @PostConstruct
+    public void start() {
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    /**
+     * Stop listening and release the subscription connection.
+     */
+    @PreDestroy
+    public void stop() throws Exception {
+        container.destroy();
+    }
+
+    @Override
+    public void send(CacheInvalidationMessage message) {
+        try {
+            redisTemplate.convertAndSend(channel.getTopic(), objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize cache invalidation message", e);
+        }
+    }
+
+    @Override
+    public void onMessage(Consumer<CacheInvalidationMessage> listener) {
+        container.addMessageListener((message, pattern) -> {
+            try {
+                listener.accept(objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class));
+            } catch (IOException e) {
+                log.warn("Ignored malformed cache invalidation message on {}", channel.getTopic(), e);
+            }
+        }, channel);
+    }
+}
@@ -0,0 +1,334 @@
+package com.dhillon.twitterclone.cache;
+
+import com.dhillon.twitterclone.config.CacheProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache that reads through a bounded in-process tier to an optional shared tier.
+ * Shared hits are copied into the process tier, and writes and evictions go to both.
+ * Evictions are also broadcast, so other nodes drop the key from their own process tier.
+ * A failing shared tier is logged and skipped, so reads fall back to the loader instead of failing.
+ * Keys of the process tier are the string form of the cache keys, as they are in Redis and in broadcasts.
+ * <p>
+ * Loads through {@link #get(Object, Callable)} are single-flight: concurrent misses for a key wait for the
+ * one load in progress instead of each calling the loader. Frequently read entries are also refreshed early,
+ * in the background shortly before they expire, so a hot key never expires under load and its readers keep
+ * being served the current value meanwhile.
+ */
+public class TwoTierCache extends AbstractValueAdaptingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCache.class);
+
+    private final String name;
+    private final LocalCache local;
+    private final Cache shared;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheProperties.RefreshAhead refreshAhead;
+    private final Executor refreshExecutor;
+
+    // Loads in progress, completed with the loaded value or null
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param name the cache name
+     * @param local the in-process tier
+     * @param shared the shared tier, or null for none
+     * @param invalidationBus the bus broadcasting evictions, or null for none
+     * @param refreshAhead the early refresh settings, or null to let entries expire
+     * @param refreshExecutor the executor running early refreshes, required with refresh settings
+     */
+    public TwoTierCache(String name, LocalCache local, Cache shared, CacheInvalidationBus invalidationBus,
+                        CacheProperties.RefreshAhead refreshAhead, Executor refreshExecutor) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.shared = shared;
+        this.invalidationBus = invalidationBus;
+        this.refreshAhead = refreshAhead;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = local.get(key.toString());
+        return value != null ? value : lookupShared(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = key.toString();
+        LocalCache.Entry entry = local.getEntry(localKey);
+        if (entry != null) {
+            if (isDueForRefresh(entry)) {
+                refresh(key, valueLoader, entry.value());
+            }
+            return (T) entry.value();
+        }
+
+        Object cached = lookupShared(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(localKey, load);
+        if (running != null) {
+            coalescedLoads.increment();
+            try {
+                return (T) running.join();
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+
+        try {
+            T value = valueLoader.call();
+            loads.increment();
+            if (value != null) {
+                put(key, value);
+            }
+            load.complete(value);
+            return value;
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(localKey, load);
+        }
+    }
+
+    /**
+     * Read an entry from the shared tier, copying it into the process tier.
+     *
+     * @param key the key
+     * @return the value, or null if absent or the shared tier failed
+     */
+    private Object lookupShared(Object key) {
+        if (shared == null) {
+            return null;
+        }
+
+        Object value;
+        try {
+            ValueWrapper wrapper = shared.get(key);
+            value = wrapper != null ? wrapper.get() : null;
+        } catch (RuntimeException e) {
+            log.warn("Failed to read {} from shared cache {}", key, name, e);
+            return null;
+        }
+        if (value != null) {
+            local.put(key.toString(), value);
+        }
+        return value;
+    }
+
+    /**
+     * Decide whether a read refreshes an entry before it expires.
+     * The probability rises towards one as the entry nears expiry, so among many concurrent readers of a hot
+     * entry one refreshes it shortly before it would expire, while rarely read entries are left to expire.
+     *
+     * @param entry the entry read
+     * @return true if the reader should refresh the entry
+     */
+    private boolean isDueForRefresh(LocalCache.Entry entry) {
+        if (refreshAhead == null) {
+            return false;
+        }
+
+        long now = System.nanoTime();
+        // Rates over the first second of an entry's life are noise, so they are measured over at least a second
+        double seconds = Math.max(now - entry.writtenAt(), 1_000_000_000L) / 1e9;
+        if (entry.reads() / seconds < refreshAhead.minReadsPerSecond()) {
+            return false;
+        }
+
+        double window = (entry.expiresAt() - entry.writtenAt()) * refreshAhead.window();
+        double remaining = entry.expiresAt() - now;
+        return ThreadLocalRandom.current().nextDouble() < Math.exp(-remaining / window);
+    }
+
+    /**
+     * Reload an entry that is still being served on the refresh executor, unless a load of it is already in
+     * progress. A failed refresh is logged and the current value is served until it expires, and a refresh
+     * overtaken by an eviction of the key is dropped rather than caching the value it loaded.
+     *
+     * @param key the key
+     * @param valueLoader the loader
+     * @param current the value being served, for misses waiting on a refresh that could not be started
+     */
+    private void refresh(Object key, Callable<?> valueLoader, Object current) {
+        String localKey = key.toString();
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(localKey, load) != null) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Object value = valueLoader.call();
+                    earlyRefreshes.increment();
+                    if (inFlight.remove(localKey, load)) {
+                        if (value != null) {
+                            put(key, value);
+                        } else {
+                            evictNow(key);
+                        }
+                    }
+                    load.complete(value);
+                } catch (Exception e) {
+                    load.completeExceptionally(e);
+                    log.warn("Failed to refresh {} in cache {}", key, name, e);
+                } finally {
+                    inFlight.remove(localKey, load);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(localKey, load);
+            load.complete(current);
+            log.debug("Skipped refresh of {} in cache {}, executor is saturated", key, name);
+        }
+    }
+
+    /**
+     * Get the number of loader calls on a miss since startup.
+     *
+     * @return the number of loads
+     */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    /**
+     * Get the number of misses since startup that waited for a load already in progress.
+     *
+     * @return the number of coalesced loads
+     */
+    public long getCoalescedLoadCount() {
+        return coalescedLoads.sum();
+    }
+
+    /**
+     * Get the number of entries reloaded before they expired since startup.
+     *
+     * @return the number of early refreshes
+     */
+    public long getEarlyRefreshCount() {
+        return earlyRefreshes.sum();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        local.put(key.toString(), value);
+        if (shared != null) {
+            try {
+                shared.put(key, value);
+            } catch (RuntimeException e) {
+                log.warn("Failed to write {} to shared cache {}", key, name, e);
+            }
+        }
+    }
+
+    /**
+     * Evict an entry from both tiers and tell the other nodes.
+     * Inside a transaction the entry is evicted again once it completes, because a reader between the
+     * first eviction and the commit may have cached the old value again, and other nodes are told only
+     * once the transaction has committed.
+     *
+     * @param key the key
+     */
+    @Override
+    public void evict(Object key) {
+        evictNow(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(key);
+                    if (status == STATUS_COMMITTED) {
+                        broadcast(key);
+                    }
+                }
+            });
+        } else {
+            broadcast(key);
+        }
+    }
+
+    /**
+     * Evict an entry from the process tier only, after another node has evicted it.
+     *
+     * @param key the string form of the key
+     */
+    public void evictLocal(String key) {
+        local.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        if (shared != null) {
+            shared.clear();
+        }
+    }
+
+    /**
+     * Evict an entry from both tiers immediately.
+     *
+     * @param key the key
+     */
+    private void evictNow(Object key) {
+        // Drop the marker of a refresh in progress, so it does not cache the value it read before the eviction
+        inFlight.remove(key.toString());
+        local.evict(key.toString());
+        if (shared != null) {
+            try {
+                shared.evict(key);
+            } catch (RuntimeException e) {
+                log.warn("Failed to evict {} from shared cache {}", key, name, e);
+            }
+        }
+    }
+
+    /**
+     * Tell the other nodes that an entry was evicted.
+     *
+     * @param key the key
+     */
+    private void broadcast(Object key) {
+        if (invalidationBus != null) {
+            invalidationBus.publish(name, key.toString());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.dhillon.twitterclone.cache;
+
+import com.dhillon.twitterclone.config.CacheProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache manager for a fixed set of {@link TwoTierCache}s, each with its own expiry.
+ * Keys evicted on other nodes are dropped from the process tier as their invalidations arrive. With a shared
+ * tier, entries are also held in process for at most the local expiry, which bounds how long one node serves
+ * a value another node has since replaced if an invalidation is lost.
+ */
+@ManagedResource(objectName = "com.dhillon.twitterclone:type=ReadCaches",
+        description = "Two-tier read caches of posts, profiles and home timelines")
+public class TwoTierCacheManager implements CacheManager {
+
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param ttls the expiry of entries per cache name
+     * @param localMaxEntries the maximum number of entries each cache holds in process
+     * @param localTtl the longest an entry is held in process when a shared tier is given
+     * @param shared the cache manager of the shared tier, or null for none
+     * @param invalidationBus the bus exchanging evictions with other nodes, or null for none
+     * @param refreshAhead the early refresh settings, or null to let entries expire
+     * @param refreshExecutor the executor running early refreshes, required with refresh settings
+     */
+    public TwoTierCacheManager(Map<String, Duration> ttls, int localMaxEntries, Duration localTtl,
+                               CacheManager shared, CacheInvalidationBus invalidationBus,
+                               CacheProperties.RefreshAhead refreshAhead, Executor refreshExecutor) {
+        ttls.forEach((name, ttl) -> {
+            Cache sharedCache = shared != null ? shared.getCache(name) : null;
+            Duration processTtl = sharedCache != null && localTtl.compareTo(ttl) < 0 ? localTtl : ttl;
+            caches.put(name, new TwoTierCache(
+                    name, new LocalCache(localMaxEntries, processTtl), sharedCache, invalidationBus, refreshAhead,
+                    refreshExecutor));
+        });
+        if (invalidationBus != null) {
+            invalidationBus.subscribe(this::evictLocal);
+        }
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.get(name);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return caches.keySet();
+    }
+
+    @ManagedAttribute(description = "Loader calls on a miss since startup, across all caches")
+    public long getLoadCount() {
+        return sum(TwoTierCache::getLoadCount);
+    }
+
+    @ManagedAttribute(description = "Misses that waited for a load of the same key already in progress")
+    public long getCoalescedLoadCount() {
+        return sum(TwoTierCache::getCoalescedLoadCount);
+    }
+
+    @ManagedAttribute(description = "Frequently read entries reloaded before they expired")
+    public long getEarlyRefreshCount() {
+        return sum(TwoTierCache::getEarlyRefreshCount);
+    }
+
+    /**
+     * Sum a counter over all caches.
+     *
+     * @param counter the counter of one cache
+     * @return the total
+     */
+    private long sum(ToLongFunction<TwoTierCache> counter) {
+        return caches.values().stream()
+                .filter(TwoTierCache.class::isInstance)
+                .map(TwoTierCache.class::cast)
+                .mapToLong(counter)
+                .sum();
+    }
+
+    /**
+     * Drop keys evicted on another node from the process tier of a cache.
+     *
+     * @param cacheName the cache name
+     * @param keys the string form of the evicted keys
+     */
+    private void evictLocal(String cacheName, Collection<String> keys) {
+        if (caches.get(cacheName) instanceof TwoTierCache cache) {
+            keys.forEach(cache::evictLocal);
+        }
+    }
+}
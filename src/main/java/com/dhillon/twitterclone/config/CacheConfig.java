@@ -0,0 +1,120 @@
+package com.dhillon.twitterclone.config;
+
+import com.dhillon.twitterclone.cache.CacheInvalidationBus;
+import com.dhillon.twitterclone.cache.CacheNames;
+import com.dhillon.twitterclone.cache.CachedTimelinePage;
+import com.dhillon.twitterclone.cache.TwoTierCacheManager;
+import com.dhillon.twitterclone.dto.PostDto;
+import com.dhillon.twitterclone.dto.UserDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Configuration of the read caches: a bounded in-process tier per cache, in front of Redis when
+ * {@code app.cache.store} is {@code redis}, with evictions broadcast to the other nodes.
+ * Hot entries are refreshed early on a small executor of their own, off the request threads.
+ */
+@Configuration
+public class CacheConfig {
+
+    // Each cache holds a single type, so values are stored as plain JSON without type information
+    private static final Map<String, Class<?>> VALUE_TYPES = Map.of(
+            CacheNames.POSTS, PostDto.class,
+            CacheNames.USER_PROFILES, UserDto.class,
+            CacheNames.USERNAMES, UUID.class,
+            CacheNames.TIMELINES, CachedTimelinePage.class);
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties properties, ObjectProvider<RedisConnectionFactory> connectionFactory,
+                                     ObjectMapper objectMapper, CacheInvalidationBus invalidationBus,
+                                     @Qualifier("cacheRefreshExecutor") Executor refreshExecutor) {
+        CacheProperties.Ttl ttl = properties.ttl();
+        Map<String, Duration> ttls = Map.of(
+                CacheNames.POSTS, ttl.post(),
+                CacheNames.POST_PAYLOADS, ttl.post(),
+                CacheNames.USER_PROFILES, ttl.userProfile(),
+                CacheNames.USERNAMES, ttl.userProfile(),
+                CacheNames.TIMELINES, ttl.timeline());
+
+        CacheManager shared = "redis".equals(properties.store())
+                ? redisCacheManager(connectionFactory.getObject(), objectMapper, ttls)
+                : null;
+        return new TwoTierCacheManager(ttls, properties.localMaxEntries(), properties.localTtl(), shared,
+                invalidationBus, properties.refreshAhead(), refreshExecutor);
+    }
+
+    /**
+     * Executor reloading hot entries before they expire. Its queue is bounded, and a refresh it rejects is skipped
+     * while the current value keeps being served.
+     *
+     * @param properties the cache properties
+     * @return the executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor cacheRefreshExecutor(CacheProperties properties) {
+        CacheProperties.RefreshAhead refreshAhead = properties.refreshAhead();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(refreshAhead.threads());
+        executor.setMaxPoolSize(refreshAhead.threads());
+        executor.setQueueCapacity(refreshAhead.maxQueued());
+        executor.setThreadNamePrefix("cache-refresh-");
+        return executor;
+    }
+
+    /**
+     * Build the Redis tier, with the expiry and value serializer of each cache.
+     * Caches without a value type, such as the post payloads rebuilt cheaply from cached posts, stay in process.
+     *
+     * @param connectionFactory the Redis connection factory
+     * @param objectMapper the object mapper for cached values
+     * @param ttls the expiry of entries per cache name
+     * @return the initialized Redis cache manager
+     */
+    private static RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                                       ObjectMapper objectMapper, Map<String, Duration> ttls) {
+        Map<String, RedisCacheConfiguration> configurations = new HashMap<>();
+        VALUE_TYPES.keySet().forEach(name -> configurations.put(name, RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(ttls.get(name))
+                .disableCachingNullValues()
+                .serializeValuesWith(SerializationPair.fromSerializer(valueSerializer(objectMapper, name)))));
+
+        RedisCacheManager manager = RedisCacheManager.builder(connectionFactory)
+                .withInitialCacheConfigurations(configurations)
+                .disableCreateOnMissingCache()
+                .build();
+        manager.afterPropertiesSet();
+        return manager;
+    }
+
+    /**
+     * Create the Redis value serializer of a cache.
+     *
+     * @param objectMapper the object mapper
+     * @param cacheName the cache name
+     * @return the serializer
+     */
+    static RedisSerializer<Object> valueSerializer(ObjectMapper objectMapper, String cacheName) {
+        Class<?> type = VALUE_TYPES.get(cacheName);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown cache: " + cacheName);
+        }
+        return new Jackson2JsonRedisSerializer<>(objectMapper, objectMapper.constructType(type));
+    }
+}
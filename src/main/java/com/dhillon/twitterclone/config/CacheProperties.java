@@ -0,0 +1,72 @@
+package com.dhillon.twitterclone.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.boot.convert.DurationUnit;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Configuration properties for the read caches of posts, user profiles and home timelines.
+ *
+ * @param store the shared cache tier ({@code memory} for none, or {@code redis})
+ * @param localMaxEntries the maximum number of entries each cache holds in process
+ * @param localTtl the longest an entry is served from process memory when a shared tier is configured
+ * @param ttl the expiry of entries per cache
+ * @param invalidation the broadcast of evictions to the other nodes
+ * @param refreshAhead the early refresh of frequently read entries
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public record CacheProperties(
+    @DefaultValue("memory") String store,
+    @DefaultValue("10000") int localMaxEntries,
+    @DefaultValue("60s") Duration localTtl,
+    @DefaultValue Ttl ttl,
+    @DefaultValue Invalidation invalidation,
+    @DefaultValue RefreshAhead refreshAhead
+) {
+
+    /**
+     * Expiry of cached entries, in seconds unless a unit is given.
+     *
+     * @param timeline the expiry of cached home timeline pages
+     * @param userProfile the expiry of cached user profiles
+     * @param post the expiry of cached posts
+     */
+    public record Ttl(
+        @DefaultValue("300") @DurationUnit(ChronoUnit.SECONDS) Duration timeline,
+        @DefaultValue("3600") @DurationUnit(ChronoUnit.SECONDS) Duration userProfile,
+        @DefaultValue("1800") @DurationUnit(ChronoUnit.SECONDS) Duration post
+    ) {}
+
+    /**
+     * Broadcast of evicted keys, so other nodes drop them from their in-process tier.
+     *
+     * @param channel the Redis pub/sub channel carrying invalidation messages
+     * @param batchDelay how long evicted keys are collected before they are sent in one message
+     * @param maxBatchKeys the number of collected keys that sends a message without waiting for the delay
+     */
+    public record Invalidation(
+        @DefaultValue("cache:invalidations") String channel,
+        @DefaultValue("5ms") Duration batchDelay,
+        @DefaultValue("500") int maxBatchKeys
+    ) {}
+
+    /**
+     * Early refresh of frequently read entries, so they are reloaded once in the background before they expire
+     * instead of by every concurrent reader after.
+     * A read refreshes its entry with probability {@code exp(-remaining / (window x lifetime))}.
+     *
+     * @param minReadsPerSecond the read rate from which an entry is refreshed early
+     * @param window the fraction of an entry's lifetime that scales how early it is refreshed
+     * @param threads the number of threads reloading entries in the background
+     * @param maxQueued the number of refreshes waiting for a thread, beyond which refreshes are skipped
+     */
+    public record RefreshAhead(
+        @DefaultValue("10") double minReadsPerSecond,
+        @DefaultValue("0.1") double window,
+        @DefaultValue("2") int threads,
+        @DefaultValue("1000") int maxQueued
+    ) {}
+}
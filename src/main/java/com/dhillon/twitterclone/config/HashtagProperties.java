@@ -0,0 +1,50 @@
+package com.dhillon.twitterclone.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for hashtag counters and trending hashtags.
+ *
+ * @param flushInterval how often aggregated post count changes are written to the database
+ * @param topKCapacity the number of highest-count hashtags tracked in memory
+ * @param trending settings for ranking hashtags by recent use
+ */
+@ConfigurationProperties(prefix = "app.hashtags")
+public record HashtagProperties(
+    @DefaultValue("5s") Duration flushInterval,
+    @DefaultValue("1000") int topKCapacity,
+    @DefaultValue Trending trending
+) {
+
+    /**
+     * Settings for the sliding-window trending ranking.
+     *
+     * @param bucketDuration the length of one time bucket
+     * @param bucketCount the number of buckets; together with the bucket duration this is the longest window
+     * @param halfLife the age at which a post counts half as much as a new one
+     * @param capacity the number of hashtags with a window of their own
+     * @param sketchWidth the number of counters per row of the sketch counting all other hashtags
+     * @param sketchDepth the number of rows of that sketch
+     */
+    public record Trending(
+        @DefaultValue("1m") Duration bucketDuration,
+        @DefaultValue("60") int bucketCount,
+        @DefaultValue("30m") Duration halfLife,
+        @DefaultValue("1000") int capacity,
+        @DefaultValue("4096") int sketchWidth,
+        @DefaultValue("4") int sketchDepth
+    ) {
+
+        /**
+         * Get the longest window that can be ranked over.
+         *
+         * @return the bucket duration times the bucket count
+         */
+        public Duration window() {
+            return bucketDuration.multipliedBy(bucketCount);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.dhillon.twitterclone.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for buffered likes.
+ *
+ * @param flushInterval how often buffered likes and like count changes are written to the database
+ * @param reconciledPostsCapacity the number of post IDs remembered as recounted since startup before the set is reset
+ */
+@ConfigurationProperties(prefix = "app.likes")
+public record LikeProperties(
+    @DefaultValue("2s") Duration flushInterval,
+    @DefaultValue("100000") int reconciledPostsCapacity
+) {}
@@ -0,0 +1,44 @@
+package com.dhillon.twitterclone.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the asynchronous notification pipeline.
+ *
+ * @param queueCapacity the number of notifications queued for writing before producers are held back
+ * @param batchSize the most notifications written in one JDBC batch
+ * @param flushInterval how often queued notifications are written
+ * @param offerTimeout how long a producer waits for queue space before its notification is dropped
+ * @param coalesceWindow how long grouped notifications about the same target keep merging into one
+ * @param maxRetries how many times a failed batch is retried before it is split, or dropped if it cannot be split
+ * @param unread settings for the cached unread counts
+ */
+@ConfigurationProperties(prefix = "app.notifications")
+public record NotificationProperties(
+    @DefaultValue("10000") int queueCapacity,
+    @DefaultValue("500") int batchSize,
+    @DefaultValue("500ms") Duration flushInterval,
+    @DefaultValue("50ms") Duration offerTimeout,
+    @DefaultValue("1h") Duration coalesceWindow,
+    @DefaultValue("3") int maxRetries,
+    @DefaultValue Unread unread
+) {
+
+    /**
+     * Settings for the per-user unread notification counters.
+     *
+     * @param store the counter store backend ({@code memory} or {@code redis})
+     * @param maxCachedUsers the maximum number of counters held by the in-memory store
+     * @param redisTtl how long an untouched counter is kept in Redis
+     * @param reconcileBatchSize the number of counters recounted per query by the reconciliation job
+     */
+    public record Unread(
+        @DefaultValue("memory") String store,
+        @DefaultValue("100000") int maxCachedUsers,
+        @DefaultValue("1d") Duration redisTtl,
+        @DefaultValue("500") int reconcileBatchSize
+    ) {}
+}
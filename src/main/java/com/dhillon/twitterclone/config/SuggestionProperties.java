@@ -0,0 +1,24 @@
+package com.dhillon.twitterclone.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for who-to-follow suggestions.
+ *
+ * @param limit the number of suggestions computed and cached per user
+ * @param timeBudget the longest a single user's computation may run before returning what it has counted
+ * @param sampleSize the most followed accounts, and followings per followed account, visited per computation
+ * @param refreshInterval how often cached suggestions are recomputed
+ * @param maxCachedUsers the number of users whose suggestions are cached
+ */
+@ConfigurationProperties(prefix = "app.suggestions")
+public record SuggestionProperties(
+    @DefaultValue("20") int limit,
+    @DefaultValue("50ms") Duration timeBudget,
+    @DefaultValue("500") int sampleSize,
+    @DefaultValue("PT15M") Duration refreshInterval,
+    @DefaultValue("100000") int maxCachedUsers
+) {}
@@ -0,0 +1,43 @@
+package com.dhillon.twitterclone.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the materialized home timeline.
+ *
+ * @param store the timeline store backend ({@code memory} or {@code redis})
+ * @param maxSize the maximum number of post IDs kept per user timeline
+ * @param maxCachedUsers the maximum number of timelines held by the in-memory store
+ * @param redisTtl how long an untouched timeline is kept in Redis
+ * @param celebrityThreshold follower count above which an author's posts are pulled at read time instead of fanned out
+ * @param pullAuthorsTtl how long a node reuses its copy of the shared set of pulled authors
+ * @param merge limits for merging pulled posts into a timeline page
+ */
+@ConfigurationProperties(prefix = "app.timeline")
+public record TimelineProperties(
+    @DefaultValue("memory") String store,
+    @DefaultValue("800") int maxSize,
+    @DefaultValue("100000") int maxCachedUsers,
+    @DefaultValue("7d") Duration redisTtl,
+    @DefaultValue("10000") long celebrityThreshold,
+    @DefaultValue("10s") Duration pullAuthorsTtl,
+    @DefaultValue Merge merge
+) {
+
+    /**
+     * Limits for the read-time merge of high-follower accounts.
+     *
+     * @param maxSources the maximum number of pulled accounts merged into one read from their own recent posts;
+     *                   the posts of any further followed pulled accounts are read with one combined query
+     * @param perSourceLimit the number of recent posts fetched per pulled account
+     * @param sourceCacheTtl how long a pulled account's recent posts are reused between reads
+     */
+    public record Merge(
+        @DefaultValue("50") int maxSources,
+        @DefaultValue("200") int perSourceLimit,
+        @DefaultValue("5s") Duration sourceCacheTtl
+    ) {}
+}
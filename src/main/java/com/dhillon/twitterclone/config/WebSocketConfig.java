@@ -0,0 +1,90 @@
+package com.dhillon.twitterclone.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * STOMP over WebSocket configuration for pushing notifications and timeline hints.
+ * Each session sends through a bounded outbound buffer; a client that reads too slowly loses its oldest
+ * messages instead of holding memory or a broker thread, and is only closed when a single send blocks
+ * beyond the time limit.
+ */
+@Configuration
+public class WebSocketConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    /**
+     * Replace the session handler with one whose sessions drop the oldest messages on overflow.
+     * The default handler closes the session instead.
+     */
+    @Bean
+    @Override
+    public WebSocketHandler subProtocolWebSocketHandler(AbstractSubscribableChannel clientInboundChannel,
+                                                        AbstractSubscribableChannel clientOutboundChannel) {
+        return new DroppingSubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel);
+    }
+
+    /**
+     * Broker, endpoint and transport settings.
+     *
+     * @param properties the WebSocket properties
+     * @param taskScheduler the task scheduler sending heartbeats, resolved lazily as this configuration defines it
+     * @return the configurer
+     */
+    @Bean
+    public static WebSocketMessageBrokerConfigurer pushBrokerConfigurer(WebSocketProperties properties,
+                                                                        @Lazy TaskScheduler taskScheduler) {
+        return new WebSocketMessageBrokerConfigurer() {
+
+            @Override
+            public void registerStompEndpoints(StompEndpointRegistry registry) {
+                registry.addEndpoint(properties.endpoint()).setAllowedOriginPatterns(properties.allowedOrigins());
+            }
+
+            @Override
+            public void configureMessageBroker(MessageBrokerRegistry registry) {
+                long heartbeat = properties.heartbeat().toMillis();
+                registry.enableSimpleBroker(properties.brokerPrefix())
+                        .setHeartbeatValue(new long[] { heartbeat, heartbeat })
+                        .setTaskScheduler(taskScheduler);
+                registry.setApplicationDestinationPrefixes(properties.applicationDestinationPrefix());
+                registry.setUserDestinationPrefix(properties.userDestinationPrefix());
+            }
+
+            @Override
+            public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+                registration.setSendTimeLimit((int) properties.sendTimeLimit().toMillis());
+                registration.setSendBufferSizeLimit((int) properties.sendBufferSizeLimit().toBytes());
+            }
+        };
+    }
+
+    /**
+     * Session handler that buffers outbound messages per session and drops the oldest once the buffer is full.
+     */
+    private static final class DroppingSubProtocolWebSocketHandler extends SubProtocolWebSocketHandler {
+
+        DroppingSubProtocolWebSocketHandler(AbstractSubscribableChannel clientInboundChannel,
+                                            AbstractSubscribableChannel clientOutboundChannel) {
+            super(clientInboundChannel, clientOutboundChannel);
+        }
+
+        @Override
+        protected WebSocketSession decorateSession(WebSocketSession session) {
+            return new ConcurrentWebSocketSessionDecorator(
+                    session, getSendTimeLimit(), getSendBufferSizeLimit(), OverflowStrategy.DROP);
+        }
+    }
+}
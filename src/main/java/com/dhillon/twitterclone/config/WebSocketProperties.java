@@ -0,0 +1,33 @@
+package com.dhillon.twitterclone.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the STOMP push channel.
+ *
+ * @param allowedOrigins the origin patterns allowed to open a WebSocket
+ * @param endpoint the STOMP endpoint path
+ * @param userDestinationPrefix the prefix of user destinations
+ * @param applicationDestinationPrefix the prefix of destinations handled by the application
+ * @param brokerPrefix the prefix of destinations handled by the in-memory broker
+ * @param heartbeat the interval of STOMP heartbeats in each direction
+ * @param sendTimeLimit how long a single send to a client may block before the session is closed
+ * @param sendBufferSizeLimit the outbound bytes buffered per session before the oldest messages are dropped
+ * @param timelineHintInterval how often pending new-post counts are pushed to timeline subscribers
+ */
+@ConfigurationProperties(prefix = "spring.websocket")
+public record WebSocketProperties(
+    @DefaultValue("*") String allowedOrigins,
+    @DefaultValue("/ws") String endpoint,
+    @DefaultValue("/user") String userDestinationPrefix,
+    @DefaultValue("/app") String applicationDestinationPrefix,
+    @DefaultValue("/topic") String brokerPrefix,
+    @DefaultValue("10s") Duration heartbeat,
+    @DefaultValue("10s") Duration sendTimeLimit,
+    @DefaultValue("64KB") DataSize sendBufferSizeLimit,
+    @DefaultValue("2s") Duration timelineHintInterval
+) {}
@@ -0,0 +1,89 @@
+package com.dhillon.twitterclone.controller;
+
+import com.dhillon.twitterclone.config.HashtagProperties;
+import com.dhillon.twitterclone.dto.HashtagDto;
+import com.dhillon.twitterclone.exception.BadRequestException;
+import com.dhillon.twitterclone.service.HashtagService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * REST controller for hashtag operations.
+ */
+@RestController
+@RequestMapping("/hashtags")
+@Tag(name = "Hashtag", description = "Hashtag APIs")
+public class HashtagController {
+    
+    private static final int MAX_LIMIT = 100;
+    
+    private final HashtagService hashtagService;
+    private final Duration maxWindow;
+    
+    public HashtagController(HashtagService hashtagService, HashtagProperties properties) {
+        this.hashtagService = hashtagService;
+        this.maxWindow = properties.trending().window();
+    }
+    
+    @GetMapping("/trending")
+    @Operation(summary = "Get trending hashtags",
+            description = "Retrieve the hashtags used most over a recent window, with newer posts weighted more heavily")
+    @ApiResponse(responseCode = "200", description = "Hashtags retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = HashtagDto.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid window or limit")
+    public ResponseEntity<List<HashtagDto>> getTrendingHashtags(
+            @Parameter(description = "How far back to look, e.g. 15m or 1h; defaults to the longest supported window")
+            @RequestParam(required = false) String window,
+            @Parameter(description = "Maximum number of hashtags to return")
+            @RequestParam(defaultValue = "10") int limit) {
+        validateLimit(limit);
+        return ResponseEntity.ok(hashtagService.getTrendingHashtags(parseWindow(window), limit));
+    }
+    
+    @GetMapping("/top")
+    @Operation(summary = "Get top hashtags", description = "Retrieve the hashtags used by the most posts of all time")
+    @ApiResponse(responseCode = "200", description = "Hashtags retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = HashtagDto.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid limit")
+    public ResponseEntity<List<HashtagDto>> getTopHashtags(
+            @Parameter(description = "Maximum number of hashtags to return")
+            @RequestParam(defaultValue = "10") int limit) {
+        validateLimit(limit);
+        return ResponseEntity.ok(hashtagService.getTopHashtags(limit));
+    }
+    
+    private void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+    
+    private Duration parseWindow(String window) {
+        if (window == null || window.isBlank()) {
+            return maxWindow;
+        }
+        Duration duration;
+        try {
+            duration = DurationStyle.detectAndParse(window);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid window: " + window);
+        }
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxWindow) > 0) {
+            throw new BadRequestException("Window must be positive and at most " + maxWindow);
+        }
+        return duration;
+    }
+}
@@ -0,0 +1,67 @@
+package com.dhillon.twitterclone.controller;
+
+import com.dhillon.twitterclone.dto.UnreadCountDto;
+import com.dhillon.twitterclone.service.NotificationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * REST controller for notification operations.
+ */
+@RestController
+@RequestMapping("/notifications")
+@Tag(name = "Notification", description = "Notification APIs")
+public class NotificationController {
+    
+    private final NotificationService notificationService;
+    
+    public NotificationController(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+    
+    @GetMapping("/unread-count")
+    @Operation(summary = "Get unread count",
+            description = "Retrieve the number of unread notifications of a user from the counter cache")
+    @ApiResponse(responseCode = "200", description = "Unread count retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = UnreadCountDto.class)))
+    public ResponseEntity<UnreadCountDto> getUnreadCount(
+            @Parameter(description = "ID of the user", required = true)
+            @RequestParam UUID userId) {
+        return ResponseEntity.ok(new UnreadCountDto(userId, notificationService.getUnreadCount(userId)));
+    }
+    
+    @PostMapping("/read")
+    @Operation(summary = "Mark all as read", description = "Mark all notifications of a user as read")
+    @ApiResponse(responseCode = "204", description = "Notifications marked as read")
+    public ResponseEntity<Void> markAllAsRead(
+            @Parameter(description = "ID of the user", required = true)
+            @RequestParam UUID userId) {
+        notificationService.markAllAsRead(userId);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping("/{id}/read")
+    @Operation(summary = "Mark as read", description = "Mark a single notification of a user as read")
+    @ApiResponse(responseCode = "204", description = "Notification marked as read")
+    public ResponseEntity<Void> markAsRead(
+            @Parameter(description = "ID of the notification", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "ID of the user who owns the notification", required = true)
+            @RequestParam UUID userId) {
+        notificationService.markAsRead(userId, id);
+        return ResponseEntity.noContent().build();
+    }
+}
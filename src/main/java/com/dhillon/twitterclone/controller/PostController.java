@@ -1,29 +1,35 @@
 package com.dhillon.twitterclone.controller;
 
+import com.dhillon.twitterclone.cache.PostJsonCache;
+import com.dhillon.twitterclone.dto.CursorPage;
 import com.dhillon.twitterclone.dto.PostDto;
+import com.dhillon.twitterclone.dto.PostVersion;
+import com.dhillon.twitterclone.dto.ViewerState;
 import com.dhillon.twitterclone.entity.Post;
 import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.service.LikeService;
 import com.dhillon.twitterclone.service.PostService;
 import com.dhillon.twitterclone.service.UserService;
+import com.dhillon.twitterclone.service.ViewerStateResolver;
+import com.dhillon.twitterclone.util.ETags;
+import com.dhillon.twitterclone.util.PostMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * REST controller for post operations.
@@ -35,53 +41,128 @@ public class PostController {
     
     private final PostService postService;
     private final UserService userService;
+    private final LikeService likeService;
+    private final ViewerStateResolver viewerStateResolver;
+    private final PostJsonCache postJsonCache;
     
-    public PostController(PostService postService, UserService userService) {
+    public PostController(PostService postService, UserService userService, LikeService likeService,
+                          ViewerStateResolver viewerStateResolver, PostJsonCache postJsonCache) {
         this.postService = postService;
         this.userService = userService;
+        this.likeService = likeService;
+        this.viewerStateResolver = viewerStateResolver;
+        this.postJsonCache = postJsonCache;
     }
     
     @GetMapping
-    @Operation(summary = "Get all posts", description = "Retrieve a list of all posts")
+    @Operation(summary = "Get all posts", description = "Retrieve the latest posts, newest first")
     @ApiResponse(responseCode = "200", description = "Posts retrieved successfully",
-            content = @Content(mediaType = "application/json", schema = @Schema(implementation = PostDto.class)))
-    public ResponseEntity<List<PostDto>> getAllPosts(
-            @RequestParam(defaultValue = "0") int page,
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    public ResponseEntity<CursorPage<PostDto>> getAllPosts(
+            @Parameter(description = "ID of the viewing user, to fill in the liked and retweeted flags")
+            @RequestParam(required = false) UUID viewerId,
+            @Parameter(description = "Cursor returned with the previous page")
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Post> posts = postService.searchPosts("", pageable);
-        List<PostDto> postDTOs = posts.getContent().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(postDTOs);
+        CursorPage<Post> posts = postService.getLatestPosts(cursor, size);
+        return ResponseEntity.ok(toDtos(posts, viewerId));
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get post by ID", description = "Retrieve a specific post by its ID")
-    @ApiResponse(responseCode = "200", description = "Post retrieved successfully")
+    @ApiResponse(responseCode = "200", description = "Post retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = PostDto.class)))
+    @ApiResponse(responseCode = "304", description = "Post unchanged since the tag in If-None-Match")
     @ApiResponse(responseCode = "404", description = "Post not found")
-    public ResponseEntity<PostDto> getPostById(
+    public ResponseEntity<byte[]> getPostById(
             @Parameter(description = "ID of the post to retrieve", required = true)
-            @PathVariable UUID id) {
-        return postService.findById(id)
-                .map(post -> ResponseEntity.ok(convertToDto(post)))
-                .orElse(ResponseEntity.notFound().build());
+            @PathVariable UUID id,
+            @Parameter(description = "ID of the viewing user, to fill in the liked and retweeted flags")
+            @RequestParam(required = false) UUID viewerId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        // The tag is derived from the post's version, so a conditional request loads neither the post nor its author
+        Optional<PostVersion> version = postService.findPostVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ViewerState viewer = viewerStateResolver.resolve(viewerId, List.of(id));
+        
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = ETags.forPost(version.get(), viewer);
+        if (request.checkNotModified(gzip ? ETags.withCoding(etag, "gzip") : etag)) {
+            return null;
+        }
+        
+        Optional<PostDto> post = postService.findPostDto(id).map(found -> found.withViewer(viewer));
+        if (post.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        // The body is spliced from cached serialized fields, compressed already when the client accepts gzip
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(postJsonCache.toGzip(post.get()));
+        }
+        return response.body(postJsonCache.toJson(post.get()));
     }
     
     @GetMapping("/user/{userId}")
     @Operation(summary = "Get posts by user ID", description = "Retrieve all posts from a specific user")
     @ApiResponse(responseCode = "200", description = "Posts retrieved successfully")
-    public ResponseEntity<List<PostDto>> getPostsByUserId(
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    public ResponseEntity<CursorPage<PostDto>> getPostsByUserId(
             @Parameter(description = "ID of the user", required = true)
             @PathVariable UUID userId,
-            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "ID of the viewing user, to fill in the liked and retweeted flags")
+            @RequestParam(required = false) UUID viewerId,
+            @Parameter(description = "Cursor returned with the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<Post> posts = postService.getUserTimeline(userId, cursor, size);
+        return ResponseEntity.ok(toDtos(posts, viewerId));
+    }
+    
+    @GetMapping("/home/{userId}")
+    @Operation(summary = "Get home timeline", description = "Retrieve posts from the user and the accounts they follow")
+    @ApiResponse(responseCode = "200", description = "Posts retrieved successfully")
+    @ApiResponse(responseCode = "304", description = "Page unchanged since the tag in If-None-Match")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    public ResponseEntity<CursorPage<PostDto>> getHomeTimeline(
+            @Parameter(description = "ID of the user", required = true)
+            @PathVariable UUID userId,
+            @Parameter(description = "Cursor returned with the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        // The tag is read before the page, so a page read after a concurrent change is never sent under an older tag
+        String version = postService.getHomeTimelineVersion(userId);
+        if (version != null && request.checkNotModified(ETags.forTimeline(userId, version, cursor, size))) {
+            return null;
+        }
+        
+        CursorPage<PostDto> posts = postService.getHomeTimelineDtos(userId, cursor, size);
+        // The owner of a home timeline is always its viewer
+        return ResponseEntity.ok(withViewer(posts, userId));
+    }
+    
+    @GetMapping("/{id}/replies")
+    @Operation(summary = "Get replies", description = "Retrieve replies to a specific post, newest first")
+    @ApiResponse(responseCode = "200", description = "Replies retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    public ResponseEntity<CursorPage<PostDto>> getReplies(
+            @Parameter(description = "ID of the parent post", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "ID of the viewing user, to fill in the liked and retweeted flags")
+            @RequestParam(required = false) UUID viewerId,
+            @Parameter(description = "Cursor returned with the previous page")
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Post> posts = postService.getUserTimeline(userId, pageable);
-        List<PostDto> postDTOs = posts.getContent().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(postDTOs);
+        CursorPage<Post> replies = postService.getReplies(id, cursor, size);
+        return ResponseEntity.ok(toDtos(replies, viewerId));
     }
     
     @PostMapping
@@ -93,7 +174,7 @@ public class PostController {
             @RequestBody PostDto postDto) {
         Post post = convertToEntity(postDto);
         Post createdPost = postService.createPost(post);
-        return ResponseEntity.status(HttpStatus.CREATED).body(convertToDto(createdPost));
+        return ResponseEntity.status(HttpStatus.CREATED).body(PostMapper.toDto(createdPost));
     }
     
     @PutMapping("/{id}")
@@ -107,7 +188,7 @@ public class PostController {
             @RequestBody PostDto postDto) {
         Post post = convertToEntity(postDto);
         Post updatedPost = postService.updatePost(id, post);
-        return ResponseEntity.ok(convertToDto(updatedPost));
+        return ResponseEntity.ok(PostMapper.toDto(updatedPost));
     }
     
     @DeleteMapping("/{id}")
@@ -132,7 +213,7 @@ public class PostController {
             @RequestBody PostDto replyDto) {
         Post reply = convertToEntity(replyDto);
         Post createdReply = postService.createReply(parentId, reply);
-        return ResponseEntity.status(HttpStatus.CREATED).body(convertToDto(createdReply));
+        return ResponseEntity.status(HttpStatus.CREATED).body(PostMapper.toDto(createdReply));
     }
     
     @PostMapping("/{originalPostId}/repost")
@@ -146,36 +227,65 @@ public class PostController {
             @RequestBody PostDto repostDto) {
         Post repost = convertToEntity(repostDto);
         Post createdRepost = postService.createRepost(originalPostId, repost);
-        return ResponseEntity.status(HttpStatus.CREATED).body(convertToDto(createdRepost));
+        return ResponseEntity.status(HttpStatus.CREATED).body(PostMapper.toDto(createdRepost));
+    }
+    
+    @PostMapping("/{id}/likes")
+    @Operation(summary = "Like post", description = "Like a post; liking a post twice has no further effect")
+    @ApiResponse(responseCode = "204", description = "Post liked")
+    @ApiResponse(responseCode = "404", description = "Post or user not found")
+    public ResponseEntity<Void> likePost(
+            @Parameter(description = "ID of the post to like", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "ID of the liking user", required = true)
+            @RequestParam UUID userId) {
+        likeService.like(userId, id);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @DeleteMapping("/{id}/likes")
+    @Operation(summary = "Unlike post", description = "Remove a like from a post")
+    @ApiResponse(responseCode = "204", description = "Like removed")
+    @ApiResponse(responseCode = "404", description = "Post or user not found")
+    public ResponseEntity<Void> unlikePost(
+            @Parameter(description = "ID of the post to unlike", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "ID of the user removing the like", required = true)
+            @RequestParam UUID userId) {
+        likeService.unlike(userId, id);
+        return ResponseEntity.noContent().build();
     }
     
     /**
-     * Converts Post entity to PostDto
+     * Converts a page of posts to DTOs, resolving the viewer's flags for the whole page at once.
      */
-    private PostDto convertToDto(Post post) {
-        // Convert hashtags to strings
-        List<String> hashtagNames = post.getHashtags().stream()
-                .map(hashtag -> hashtag.getName())
-                .collect(Collectors.toList());
-        
-        return new PostDto(
-            post.getId(),
-            post.getUser().getId(),
-            post.getUser().getUsername(),
-            post.getUser().getDisplayName() != null ? 
-                post.getUser().getDisplayName() : post.getUser().getUsername(),
-            post.getUser().getProfileImage(),
-            post.getContent(),
-            post.getMedia(),
-            post.getLikeCount(),
-            post.getRepostCount(),
-            post.getReplyCount(),
-            false, // liked status would need to be set based on current user
-            false, // retweeted status would need to be set based on current user
-            post.getCreatedAt(),
-            hashtagNames,
-            new ArrayList<>() // mentions would need to be extracted
-        );
+    private CursorPage<PostDto> toDtos(CursorPage<Post> posts, UUID viewerId) {
+        ViewerState viewer = viewerStateResolver.resolve(viewerId, posts.content().stream().map(Post::getId).toList());
+        return posts.map(post -> PostMapper.toDto(post, viewer));
+    }
+    
+    /**
+     * Applies the viewer's flags to a page of cached post DTOs, resolving them for the whole page at once.
+     */
+    private CursorPage<PostDto> withViewer(CursorPage<PostDto> posts, UUID viewerId) {
+        ViewerState viewer = viewerStateResolver.resolve(viewerId, posts.content().stream().map(PostDto::id).toList());
+        return posts.map(post -> post.withViewer(viewer));
+    }
+    
+    /**
+     * Checks whether an Accept-Encoding header names gzip without refusing it with a zero quality.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split("\\s*;\\s*");
+            if (parts[0].equalsIgnoreCase("gzip")) {
+                return Arrays.stream(parts).skip(1).noneMatch(param -> param.matches("q=0(\\.0*)?"));
+            }
+        }
+        return false;
     }
     
     /**
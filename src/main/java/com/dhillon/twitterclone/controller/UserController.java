@@ -1,9 +1,14 @@
 package com.dhillon.twitterclone.controller;
 
+import com.dhillon.twitterclone.dto.CursorPage;
 import com.dhillon.twitterclone.dto.UserDto;
+import com.dhillon.twitterclone.dto.UserSummaryDto;
 import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.service.FollowService;
+import com.dhillon.twitterclone.service.SuggestionService;
 import com.dhillon.twitterclone.service.UserService;
-import com.dhillon.twitterclone.repository.FollowRepository;
+import com.dhillon.twitterclone.util.ETags;
+import com.dhillon.twitterclone.util.UserMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,6 +18,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -27,11 +33,13 @@ import java.util.HashMap;
 public class UserController {
 
     private final UserService userService;
-    private final FollowRepository followRepository;
+    private final FollowService followService;
+    private final SuggestionService suggestionService;
 
-    public UserController(UserService userService, FollowRepository followRepository) {
+    public UserController(UserService userService, FollowService followService, SuggestionService suggestionService) {
         this.userService = userService;
-        this.followRepository = followRepository;
+        this.followService = followService;
+        this.suggestionService = suggestionService;
     }
 
     @GetMapping
@@ -41,7 +49,7 @@ public class UserController {
     public ResponseEntity<List<UserDto>> getAllUsers() {
         List<User> users = userService.searchUsers("");
         List<UserDto> userDTOs = users.stream()
-                .map(this::convertToDto)
+                .map(UserMapper::toDtoWithCounts)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(userDTOs);
     }
@@ -49,15 +57,17 @@ public class UserController {
     @GetMapping("/{idOrUsername}")
     @Operation(summary = "Get user by ID or username", description = "Retrieve a specific user by their ID or username")
     @ApiResponse(responseCode = "200", description = "User retrieved successfully")
+    @ApiResponse(responseCode = "304", description = "User unchanged since the tag in If-None-Match")
     @ApiResponse(responseCode = "404", description = "User not found")
     public ResponseEntity<?> getUser(
             @Parameter(description = "ID or username of the user to retrieve", required = true)
-            @PathVariable String idOrUsername) {
+            @PathVariable String idOrUsername,
+            WebRequest request) {
         try {
             UUID id = UUID.fromString(idOrUsername);
-            Optional<User> userOpt = userService.findById(id);
+            Optional<UserDto> userOpt = userService.findProfileById(id);
             if (userOpt.isPresent()) {
-                return ResponseEntity.ok(convertToDto(userOpt.get()));
+                return request.checkNotModified(ETags.forUser(userOpt.get())) ? null : ResponseEntity.ok(userOpt.get());
             } else {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("status", 404);
@@ -68,9 +78,9 @@ public class UserController {
             }
         } catch (IllegalArgumentException e) {
             // Not a UUID, so treat as username
-            Optional<User> userOpt = userService.findByUsername(idOrUsername);
+            Optional<UserDto> userOpt = userService.findProfileByUsername(idOrUsername);
             if (userOpt.isPresent()) {
-                return ResponseEntity.ok(convertToDto(userOpt.get()));
+                return request.checkNotModified(ETags.forUser(userOpt.get())) ? null : ResponseEntity.ok(userOpt.get());
             } else {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("status", 404);
@@ -97,7 +107,7 @@ public class UserController {
                 return ResponseEntity.notFound().build();
             }
             User updatedUser = userService.updateUser(id, convertToEntity(userDto));
-            return ResponseEntity.ok(convertToDto(updatedUser));
+            return ResponseEntity.ok(UserMapper.toDtoWithCounts(updatedUser));
         } catch (IllegalArgumentException e) {
             // Not a UUID, so treat as username
             Optional<User> existingUser = userService.findByUsername(idOrUsername);
@@ -105,7 +115,7 @@ public class UserController {
                 return ResponseEntity.notFound().build();
             }
             User updatedUser = userService.updateUser(existingUser.get().getId(), convertToEntity(userDto));
-            return ResponseEntity.ok(convertToDto(updatedUser));
+            return ResponseEntity.ok(UserMapper.toDtoWithCounts(updatedUser));
         }
     }
 
@@ -164,7 +174,106 @@ public class UserController {
             @RequestParam String query) {
         List<User> users = userService.searchUsers(query);
         List<UserDto> userDtos = users.stream()
-                .map(this::convertToDto)
+                .map(UserMapper::toDtoWithCounts)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(userDtos);
+    }
+
+    @PostMapping("/{id}/following/{targetId}")
+    @Operation(summary = "Follow user", description = "Follow a user; following a user twice has no further effect")
+    @ApiResponse(responseCode = "204", description = "User followed")
+    @ApiResponse(responseCode = "400", description = "Users cannot follow themselves")
+    @ApiResponse(responseCode = "404", description = "User not found")
+    public ResponseEntity<Void> followUser(
+            @Parameter(description = "ID of the following user", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "ID of the user to follow", required = true)
+            @PathVariable UUID targetId) {
+        followService.follow(id, targetId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{id}/following/{targetId}")
+    @Operation(summary = "Unfollow user", description = "Stop following a user")
+    @ApiResponse(responseCode = "204", description = "User unfollowed")
+    public ResponseEntity<Void> unfollowUser(
+            @Parameter(description = "ID of the following user", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "ID of the user to unfollow", required = true)
+            @PathVariable UUID targetId) {
+        followService.unfollow(id, targetId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{id}/following/{targetId}")
+    @Operation(summary = "Check follow", description = "Check whether a user follows another user")
+    @ApiResponse(responseCode = "200", description = "Follow status retrieved successfully")
+    public ResponseEntity<Map<String, Boolean>> isFollowing(
+            @Parameter(description = "ID of the user who may follow", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "ID of the user who may be followed", required = true)
+            @PathVariable UUID targetId) {
+        return ResponseEntity.ok(Map.of("following", followService.isFollowing(id, targetId)));
+    }
+
+    @GetMapping("/{id}/followers")
+    @Operation(summary = "Get followers", description = "Retrieve a user's followers, most recent follow first")
+    @ApiResponse(responseCode = "200", description = "Followers retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    @ApiResponse(responseCode = "404", description = "User not found")
+    public ResponseEntity<CursorPage<UserSummaryDto>> getFollowers(
+            @Parameter(description = "ID of the user", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Cursor returned with the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(followService.getFollowers(id, cursor, size));
+    }
+
+    @GetMapping("/{id}/following")
+    @Operation(summary = "Get following", description = "Retrieve the users a user follows, most recent follow first")
+    @ApiResponse(responseCode = "200", description = "Followed users retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class)))
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    @ApiResponse(responseCode = "404", description = "User not found")
+    public ResponseEntity<CursorPage<UserSummaryDto>> getFollowing(
+            @Parameter(description = "ID of the user", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Cursor returned with the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(followService.getFollowing(id, cursor, size));
+    }
+
+    @GetMapping("/{id}/mutuals")
+    @Operation(summary = "Get mutual follows", description = "Retrieve users who follow a user and are followed back")
+    @ApiResponse(responseCode = "200", description = "Mutual follows retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "User not found")
+    public ResponseEntity<List<UserDto>> getMutualFollows(
+            @Parameter(description = "ID of the user", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Maximum number of users to return")
+            @RequestParam(defaultValue = "20") int limit) {
+        List<UserDto> userDtos = followService.getMutualFollows(id, limit).stream()
+                .map(UserMapper::toDtoWithCounts)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(userDtos);
+    }
+
+    @GetMapping("/{id}/suggestions")
+    @Operation(summary = "Get follow suggestions",
+            description = "Retrieve accounts followed by the accounts a user follows, best first")
+    @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid limit")
+    @ApiResponse(responseCode = "404", description = "User not found")
+    public ResponseEntity<List<UserDto>> getSuggestions(
+            @Parameter(description = "ID of the user", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Maximum number of suggestions to return")
+            @RequestParam(defaultValue = "10") int limit) {
+        List<UserDto> userDtos = suggestionService.getSuggestions(id, limit).stream()
+                .map(UserMapper::toDtoWithCounts)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(userDtos);
     }
@@ -199,32 +308,7 @@ public class UserController {
         
         User user = convertToEntity(userDto);
         User createdUser = userService.createUser(user);
-        return ResponseEntity.status(HttpStatus.CREATED).body(convertToDto(createdUser));
-    }
-    
-    /**
-     * Converts User entity to UserDto
-     */
-    private UserDto convertToDto(User user) {
-        int followersCount = (int) followRepository.countByFollowingId(user.getId());
-        int followingCount = (int) followRepository.countByFollowerId(user.getId());
-        
-        return new UserDto(
-            user.getId(),
-            user.getUsername(),
-            user.getEmail(),
-            user.getDisplayName(),
-            user.getBio(),
-            user.getLocation(),
-            user.getWebsite(),
-            user.getProfileImage(),
-            user.getHeaderImage(),
-            user.isVerified(),
-            user.getCreatedAt(),
-            followersCount,
-            followingCount,
-            null // no need to expose password
-        );
+        return ResponseEntity.status(HttpStatus.CREATED).body(UserMapper.toDtoWithCounts(createdUser));
     }
     
     /**
@@ -0,0 +1,44 @@
+package com.dhillon.twitterclone.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Schema(description = "A page of results addressed by an opaque cursor")
+public record CursorPage<T>(
+    @Schema(description = "Items of the page")
+    List<T> content,
+
+    @Schema(description = "Cursor to pass for the next page, or null when there are no more results")
+    String nextCursor,
+
+    @Schema(description = "Whether more results follow this page")
+    boolean hasNext
+) {
+    // Compact constructor to ensure content is never null
+    public CursorPage {
+        content = content != null ? content : List.of();
+    }
+
+    /**
+     * Create an empty final page.
+     *
+     * @param <T> the item type
+     * @return the empty page
+     */
+    public static <T> CursorPage<T> empty() {
+        return new CursorPage<>(List.of(), null, false);
+    }
+
+    /**
+     * Convert the items of this page, keeping the cursor.
+     *
+     * @param mapper the item mapper
+     * @param <R> the converted item type
+     * @return the converted page
+     */
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(content.stream().<R>map(mapper).toList(), nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,12 @@
+package com.dhillon.twitterclone.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Data Transfer Object for Hashtag")
+public record HashtagDto(
+    @Schema(description = "Name of the hashtag, without the leading #")
+    String name,
+
+    @Schema(description = "Number of posts using the hashtag")
+    long postCount
+) {}
@@ -0,0 +1,28 @@
+package com.dhillon.twitterclone.dto;
+
+import com.dhillon.twitterclone.entity.NotificationType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Notification pushed to a subscribed client when it is written.
+ */
+@Schema(description = "Notification pushed over the WebSocket channel")
+public record NotificationPushDto(
+    @Schema(description = "Type of the notification", example = "LIKE")
+    NotificationType type,
+
+    @Schema(description = "ID of the most recent user who acted", example = "123e4567-e89b-12d3-a456-426614174000")
+    UUID actorId,
+
+    @Schema(description = "Number of actions the notification stands for", example = "3")
+    int actorCount,
+
+    @Schema(description = "ID of the related post, if any", example = "123e4567-e89b-12d3-a456-426614174000")
+    UUID postId,
+
+    @Schema(description = "Timestamp of the most recent action", example = "2023-03-15T14:30:00")
+    LocalDateTime createdAt
+) {}
@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 import jakarta.validation.constraints.NotBlank;
@@ -66,6 +67,40 @@ public record PostDto(
         mentions = mentions != null ? mentions : new ArrayList<>();
     }
     
+    /**
+     * Copy this post with the liked and retweeted flags of a viewing user.
+     *
+     * @param viewer the viewer state resolved for the page containing the post
+     * @return the post as seen by the viewer
+     */
+    public PostDto withViewer(ViewerState viewer) {
+        return new PostDto(
+            id, userId, username, displayName, profileImage,
+            content, media, likeCount, retweetCount, replyCount,
+            viewer.liked(id), viewer.reposted(id),
+            createdAt, hashtags, mentions
+        );
+    }
+    
+    /**
+     * Copy this post with the display name and avatar of its author's current profile.
+     *
+     * @param author the author's profile
+     * @return the post with the author's current profile, or this post if it already shows it
+     */
+    public PostDto withAuthor(UserDto author) {
+        String authorDisplayName = author.displayName() != null ? author.displayName() : author.username();
+        if (Objects.equals(displayName, authorDisplayName) && Objects.equals(profileImage, author.profileImage())) {
+            return this;
+        }
+        return new PostDto(
+            id, userId, username, authorDisplayName, author.profileImage(),
+            content, media, likeCount, retweetCount, replyCount,
+            liked, retweeted,
+            createdAt, hashtags, mentions
+        );
+    }
+    
     // Factory method for creating a post with just content
     public static PostDto ofContent(String content) {
         return new PostDto(
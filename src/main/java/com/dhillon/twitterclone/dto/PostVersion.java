@@ -0,0 +1,24 @@
+package com.dhillon.twitterclone.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The columns that change whenever a post's response changes, apart from the viewer's flags.
+ * Read by primary key without loading the post, to answer conditional requests.
+ *
+ * @param postId the post ID
+ * @param updatedAt when the post was last edited
+ * @param likeCount the number of likes
+ * @param repostCount the number of reposts
+ * @param replyCount the number of replies
+ * @param authorUpdatedAt when the author's profile was last edited
+ */
+public record PostVersion(
+    UUID postId,
+    LocalDateTime updatedAt,
+    int likeCount,
+    int repostCount,
+    int replyCount,
+    LocalDateTime authorUpdatedAt
+) {}
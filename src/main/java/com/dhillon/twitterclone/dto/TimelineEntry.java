@@ -0,0 +1,45 @@
+package com.dhillon.twitterclone.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * A single entry of a materialized timeline: the post ID and the timestamp used to order it.
+ *
+ * @param postId the post ID
+ * @param createdAt the post creation timestamp
+ */
+public record TimelineEntry(
+    UUID postId,
+    LocalDateTime createdAt
+) {
+    /**
+     * Orders entries newest first, breaking timestamp ties by post ID.
+     */
+    public static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator
+            .comparing(TimelineEntry::createdAt, Comparator.reverseOrder())
+            .thenComparing(TimelineEntry::postId, Comparator.reverseOrder());
+
+    /**
+     * Create an entry from an epoch-millisecond score.
+     *
+     * @param postId the post ID
+     * @param epochMillis the creation time in epoch milliseconds (UTC)
+     * @return the timeline entry
+     */
+    public static TimelineEntry ofEpochMillis(UUID postId, long epochMillis) {
+        return new TimelineEntry(postId, LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC));
+    }
+
+    /**
+     * Get the creation time as epoch milliseconds (UTC), suitable as a sort score.
+     *
+     * @return the epoch-millisecond score
+     */
+    public long epochMillis() {
+        return createdAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,12 @@
+package com.dhillon.twitterclone.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Hint pushed to a subscribed client that its home timeline has new posts.
+ */
+@Schema(description = "New post count pushed over the WebSocket channel")
+public record TimelineHintDto(
+    @Schema(description = "Number of posts added to the home timeline since the last hint", example = "4")
+    int newPosts
+) {}
@@ -0,0 +1,17 @@
+package com.dhillon.twitterclone.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+/**
+ * Number of unread notifications of a user.
+ */
+@Schema(description = "Unread notification count of a user")
+public record UnreadCountDto(
+    @Schema(description = "Unique identifier of the user", example = "123e4567-e89b-12d3-a456-426614174000")
+    UUID userId,
+
+    @Schema(description = "Number of unread notifications", example = "3")
+    long count
+) {}
@@ -0,0 +1,31 @@
+package com.dhillon.twitterclone.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lightweight user projection for follower and following lists.
+ * Read directly from the users and follows columns, without loading User entities.
+ */
+@Schema(description = "User entry of a follower or following list")
+public record UserSummaryDto(
+    @Schema(description = "Unique identifier of the user", example = "123e4567-e89b-12d3-a456-426614174000")
+    UUID id,
+
+    @Schema(description = "Username of the user", example = "johndoe")
+    String username,
+
+    @Schema(description = "Display name of the user", example = "John Doe")
+    String displayName,
+
+    @Schema(description = "Profile image URL of the user", example = "/images/profile/johndoe.jpg")
+    String profileImage,
+
+    @Schema(description = "Flag indicating if the user is verified", example = "false")
+    boolean verified,
+
+    @Schema(description = "Timestamp when the follow was created", example = "2023-03-15T14:30:00")
+    LocalDateTime followedAt
+) {}
@@ -0,0 +1,38 @@
+package com.dhillon.twitterclone.dto;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The relationship of the viewing user to a page of posts.
+ *
+ * @param likedPostIds the IDs of posts on the page the viewer has liked
+ * @param repostedPostIds the IDs of posts on the page the viewer has reposted
+ */
+public record ViewerState(Set<UUID> likedPostIds, Set<UUID> repostedPostIds) {
+
+    /**
+     * State for anonymous viewers: nothing liked or reposted.
+     */
+    public static final ViewerState NONE = new ViewerState(Set.of(), Set.of());
+
+    /**
+     * Check whether the viewer has liked a post.
+     *
+     * @param postId the post ID
+     * @return true if liked
+     */
+    public boolean liked(UUID postId) {
+        return likedPostIds.contains(postId);
+    }
+
+    /**
+     * Check whether the viewer has reposted a post.
+     *
+     * @param postId the post ID
+     * @return true if reposted
+     */
+    public boolean reposted(UUID postId) {
+        return repostedPostIds.contains(postId);
+    }
+}
@@ -4,8 +4,13 @@ import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Entity representing a notification in the system.
@@ -35,6 +40,23 @@ public class Notification {
     
     private boolean read;
     
+    // Identifies the group that LIKE, REPOST and FOLLOW notifications of one target and time window merge into
+    @Column(name = "group_key")
+    private String groupKey;
+    
+    @Column(name = "actor_count")
+    private int actorCount = 1;
+    
+    // Comma-separated IDs of the most recent actors of a group, newest first
+    @Column(name = "sample_actor_ids")
+    private String sampleActorIds;
+    
+    // Every distinct actor of a group, so an actor who acts again is not counted twice; written with JDBC
+    @ElementCollection
+    @CollectionTable(name = "notification_actors", joinColumns = @JoinColumn(name = "notification_id"))
+    @Column(name = "actor_id", nullable = false)
+    private Set<UUID> actorIds = new HashSet<>();
+    
     @CreationTimestamp
     private LocalDateTime createdAt;
     
@@ -145,6 +167,48 @@ public class Notification {
         this.read = read;
     }
     
+    public String getGroupKey() {
+        return groupKey;
+    }
+    
+    public void setGroupKey(String groupKey) {
+        this.groupKey = groupKey;
+    }
+    
+    public int getActorCount() {
+        return actorCount;
+    }
+    
+    public void setActorCount(int actorCount) {
+        this.actorCount = actorCount;
+    }
+    
+    /**
+     * Get the most recent actors of a grouped notification, newest first.
+     *
+     * @return the actor IDs, or an empty list for an ungrouped notification
+     */
+    public List<UUID> getSampleActorIds() {
+        if (sampleActorIds == null || sampleActorIds.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(sampleActorIds.split(",")).map(UUID::fromString).toList();
+    }
+    
+    public void setSampleActorIds(List<UUID> sampleActorIds) {
+        this.sampleActorIds = sampleActorIds.isEmpty() ? null
+                : sampleActorIds.stream().map(UUID::toString).collect(Collectors.joining(","));
+    }
+    
+    /**
+     * Get every distinct actor of a grouped notification.
+     *
+     * @return the actor IDs, or an empty set for an ungrouped notification
+     */
+    public Set<UUID> getActorIds() {
+        return actorIds;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -175,6 +239,7 @@ public class Notification {
                ", actor=" + (actor != null ? actor.getUsername() : null) +
                ", post=" + (post != null ? post.getId() : null) +
                ", read=" + read +
+               ", actorCount=" + actorCount +
                ", createdAt=" + createdAt +
                '}';
     }
@@ -27,5 +27,15 @@ public enum NotificationType {
     /**
      * When a user mentions another user in a post.
      */
-    MENTION
+    MENTION;
+    
+    /**
+     * Check whether notifications of this type about the same target merge into one grouped notification.
+     * Replies and mentions carry content of their own and are always shown individually.
+     *
+     * @return true for likes, reposts and follows
+     */
+    public boolean isGrouped() {
+        return this == LIKE || this == REPOST || this == FOLLOW;
+    }
 } 
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.dhillon.twitterclone.entity;
 
+import com.dhillon.twitterclone.util.HotScore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -30,7 +32,9 @@ public class Post {
     @Column(columnDefinition = "TEXT", nullable = false)
     private String content;
     
+    // Collections are initialized for a whole page of posts per statement when mapped to DTOs
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "post_media", joinColumns = @JoinColumn(name = "post_id"))
     @Column(name = "media_url")
     private List<String> media = new ArrayList<>();
@@ -56,6 +60,7 @@ public class Post {
     private List<Post> reposts = new ArrayList<>();
     
     @ManyToMany
+    @BatchSize(size = 100)
     @JoinTable(
         name = "post_hashtags",
         joinColumns = @JoinColumn(name = "post_id"),
@@ -66,15 +71,20 @@ public class Post {
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Like> likes = new HashSet<>();
     
-    @Column(name = "like_count")
+    // Maintained by atomic updates on likes, replies and reposts; written from the entity only on insert,
+    // so an edit cannot write back counters loaded before a concurrent increment
+    @Column(name = "like_count", updatable = false)
     private int likeCount;
     
-    @Column(name = "reply_count")
+    @Column(name = "reply_count", updatable = false)
     private int replyCount;
     
-    @Column(name = "repost_count")
+    @Column(name = "repost_count", updatable = false)
     private int repostCount;
     
+    @Column(name = "trending_score", updatable = false)
+    private double trendingScore;
+    
     @CreationTimestamp
     private LocalDateTime createdAt;
     
@@ -264,6 +274,20 @@ public class Post {
         this.repostCount = repostCount;
     }
     
+    public double getTrendingScore() {
+        return trendingScore;
+    }
+    
+    /**
+     * Compute the trending score of a new post; the counter updates rescore it afterwards.
+     */
+    @PrePersist
+    void updateTrendingScore() {
+        // The creation timestamp is generated during insert, so a new post is scored as of now
+        LocalDateTime created = createdAt != null ? createdAt : LocalDateTime.now();
+        this.trendingScore = HotScore.of(likeCount, replyCount, repostCount, created);
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
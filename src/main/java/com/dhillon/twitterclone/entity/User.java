@@ -1,6 +1,7 @@
 package com.dhillon.twitterclone.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -45,6 +46,13 @@ public class User {
     @Column(name = "email_verified")
     private boolean emailVerified;
     
+    // Maintained by atomic updates on follow and unfollow; never written from the entity
+    @Column(name = "followers_count", insertable = false, updatable = false)
+    private int followersCount;
+    
+    @Column(name = "following_count", insertable = false, updatable = false)
+    private int followingCount;
+    
     @CreationTimestamp
     private LocalDateTime createdAt;
     
@@ -61,6 +69,7 @@ public class User {
     private List<Follow> followers = new ArrayList<>();
     
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
     @CollectionTable(
         name = "user_roles",
         joinColumns = @JoinColumn(name = "user_id")
@@ -229,6 +238,22 @@ public class User {
         this.headerImage = headerImage;
     }
     
+    public int getFollowersCount() {
+        return followersCount;
+    }
+    
+    public void setFollowersCount(int followersCount) {
+        this.followersCount = followersCount;
+    }
+    
+    public int getFollowingCount() {
+        return followingCount;
+    }
+    
+    public void setFollowingCount(int followingCount) {
+        this.followingCount = followingCount;
+    }
+    
     public boolean isVerified() {
         return verified;
     }
@@ -0,0 +1,17 @@
+package com.dhillon.twitterclone.event;
+
+import java.util.UUID;
+
+/**
+ * Domain event published when a user follows or unfollows another user.
+ * Listeners receive it after the changing transaction commits.
+ *
+ * @param followerId the ID of the user who follows
+ * @param followingId the ID of the followed user
+ * @param following true for a new follow, false for an unfollow
+ */
+public record FollowChangedEvent(
+    UUID followerId,
+    UUID followingId,
+    boolean following
+) {}
@@ -0,0 +1,13 @@
+package com.dhillon.twitterclone.event;
+
+import java.util.Map;
+
+/**
+ * Domain event published when posts gain or lose hashtags through creation, update or deletion.
+ * Listeners receive it after the changing transaction commits.
+ *
+ * @param deltas the change in post count per hashtag name
+ */
+public record HashtagUsageChangedEvent(
+    Map<String, Integer> deltas
+) {}
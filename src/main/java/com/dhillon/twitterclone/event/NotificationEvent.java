@@ -0,0 +1,21 @@
+package com.dhillon.twitterclone.event;
+
+import com.dhillon.twitterclone.entity.NotificationType;
+
+import java.util.UUID;
+
+/**
+ * Domain event published when a user's action should notify another user.
+ * Listeners receive it after the publishing transaction commits, or at once when there is none.
+ *
+ * @param recipientId the ID of the user to notify
+ * @param actorId the ID of the user who acted
+ * @param type the notification type
+ * @param postId the ID of the related post, or null
+ */
+public record NotificationEvent(
+    UUID recipientId,
+    UUID actorId,
+    NotificationType type,
+    UUID postId
+) {}
@@ -0,0 +1,15 @@
+package com.dhillon.twitterclone.event;
+
+import java.util.UUID;
+
+/**
+ * Domain event published when notifications of a user are marked as read.
+ * Listeners receive it after the publishing transaction commits.
+ *
+ * @param userId the ID of the user
+ * @param count the number of notifications that changed from unread to read
+ */
+public record NotificationsReadEvent(
+    UUID userId,
+    int count
+) {}
@@ -0,0 +1,14 @@
+package com.dhillon.twitterclone.event;
+
+import com.dhillon.twitterclone.repository.NotificationRepositoryCustom.NewNotification;
+
+import java.util.List;
+
+/**
+ * Domain event published when a batch of notifications has been written.
+ *
+ * @param notifications the notifications, coalesced per recipient and group
+ */
+public record NotificationsWrittenEvent(
+    List<NewNotification> notifications
+) {}
@@ -0,0 +1,18 @@
+package com.dhillon.twitterclone.event;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Domain event published when a post or repost has been created.
+ * Listeners receive it after the creating transaction commits.
+ *
+ * @param postId the ID of the new post
+ * @param authorId the ID of the author
+ * @param createdAt the creation timestamp of the post
+ */
+public record PostCreatedEvent(
+    UUID postId,
+    UUID authorId,
+    LocalDateTime createdAt
+) {}
@@ -0,0 +1,17 @@
+package com.dhillon.twitterclone.event;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Domain event published when a post has been pushed into materialized home timelines.
+ *
+ * @param postId the ID of the post
+ * @param authorId the ID of the post author
+ * @param userIds the IDs of the users whose timelines received the post
+ */
+public record TimelineUpdatedEvent(
+    UUID postId,
+    UUID authorId,
+    Collection<UUID> userIds
+) {}
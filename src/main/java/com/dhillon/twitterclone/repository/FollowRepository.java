@@ -1,10 +1,19 @@
 package com.dhillon.twitterclone.repository;
 
+import com.dhillon.twitterclone.dto.UserSummaryDto;
 import com.dhillon.twitterclone.entity.Follow;
 import com.dhillon.twitterclone.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,7 +21,10 @@ import java.util.UUID;
  * Repository for Follow entity operations.
  */
 @Repository
-public interface FollowRepository extends JpaRepository<Follow, UUID> {
+public interface FollowRepository extends JpaRepository<Follow, UUID>, FollowRepositoryCustom {
+    
+    // Columns of a UserSummaryDto, read from the joined user u and follow f
+    String SUMMARY_COLUMNS = "u.id, u.username, u.displayName, u.profileImage, u.verified, f.createdAt";
     
     /**
      * Find a follow relationship between two users.
@@ -30,7 +42,76 @@ public interface FollowRepository extends JpaRepository<Follow, UUID> {
      * @param followingId the ID of the user being followed
      * @return true if exists, false otherwise
      */
-    boolean existsByFollowerIdAndFollowingId(UUID followerId, UUID followingId);
+    @Query("SELECT CASE WHEN COUNT(f) > 0 THEN true ELSE false END FROM Follow f " +
+           "WHERE f.follower.id = :followerId AND f.following.id = :followingId")
+    boolean existsByFollowerIdAndFollowingId(@Param("followerId") UUID followerId,
+                                             @Param("followingId") UUID followingId);
+    
+    /**
+     * Find the IDs of all users following a specific user.
+     *
+     * @param userId the ID of the user being followed
+     * @return list of follower IDs
+     */
+    @Query("SELECT f.follower.id FROM Follow f WHERE f.following.id = :userId")
+    List<UUID> findFollowerIdsByFollowingId(@Param("userId") UUID userId);
+    
+    /**
+     * Find which of the given users are followed by a specific user.
+     *
+     * @param followerId the ID of the user who is following
+     * @param candidateIds the IDs of the users to check
+     * @param pageable pagination information
+     * @return list of followed user IDs among the candidates
+     */
+    @Query("SELECT f.following.id FROM Follow f WHERE f.follower.id = :followerId AND f.following.id IN :candidateIds")
+    List<UUID> findFollowingIdsIn(@Param("followerId") UUID followerId,
+                                  @Param("candidateIds") Collection<UUID> candidateIds,
+                                  Pageable pageable);
+    
+    /**
+     * Find users who follow a specific user and are followed back by them.
+     *
+     * @param userId the ID of the user
+     * @param pageable pagination information
+     * @return list of mutual follow IDs
+     */
+    @Query("SELECT f.following.id FROM Follow f WHERE f.follower.id = :userId AND EXISTS " +
+           "(SELECT 1 FROM Follow b WHERE b.follower.id = f.following.id AND b.following.id = :userId)")
+    List<UUID> findMutualFollowIds(@Param("userId") UUID userId, Pageable pageable);
+    
+    /**
+     * Find the followers of a user who followed before a keyset position, most recent follow first.
+     * The tie-break on the follower ID is unique per followed user, so no follow entity needs to be read.
+     *
+     * @param userId the ID of the user being followed
+     * @param createdAt the follow timestamp of the last follower already seen
+     * @param id the ID of the last follower already seen
+     * @param pageable pagination information
+     * @return slice of follower summaries
+     */
+    @Query("SELECT new com.dhillon.twitterclone.dto.UserSummaryDto(" + SUMMARY_COLUMNS + ") " +
+           "FROM Follow f JOIN f.follower u WHERE f.following.id = :userId " +
+           "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND u.id < :id)) " +
+           "ORDER BY f.createdAt DESC, u.id DESC")
+    Slice<UserSummaryDto> findFollowersBefore(@Param("userId") UUID userId, @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") UUID id, Pageable pageable);
+    
+    /**
+     * Find the users a user followed before a keyset position, most recent follow first.
+     *
+     * @param userId the ID of the user who is following
+     * @param createdAt the follow timestamp of the last followed user already seen
+     * @param id the ID of the last followed user already seen
+     * @param pageable pagination information
+     * @return slice of followed user summaries
+     */
+    @Query("SELECT new com.dhillon.twitterclone.dto.UserSummaryDto(" + SUMMARY_COLUMNS + ") " +
+           "FROM Follow f JOIN f.following u WHERE f.follower.id = :userId " +
+           "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND u.id < :id)) " +
+           "ORDER BY f.createdAt DESC, u.id DESC")
+    Slice<UserSummaryDto> findFollowingBefore(@Param("userId") UUID userId, @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") UUID id, Pageable pageable);
     
     /**
      * Count the number of followers a user has.
@@ -56,4 +137,15 @@ public interface FollowRepository extends JpaRepository<Follow, UUID> {
      * @return number of rows affected
      */
     long deleteByFollowerAndFollowing(User follower, User following);
-} 
\ No newline at end of file
+    
+    /**
+     * Delete a follow relationship between two users by their IDs.
+     *
+     * @param followerId the ID of the user who is following
+     * @param followingId the ID of the user being followed
+     * @return number of rows affected
+     */
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.follower.id = :followerId AND f.following.id = :followingId")
+    int deleteByFollowerIdAndFollowingId(@Param("followerId") UUID followerId, @Param("followingId") UUID followingId);
+}
@@ -0,0 +1,17 @@
+package com.dhillon.twitterclone.repository;
+
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Custom Follow operations that are not expressible as derived or JPQL queries.
+ */
+public interface FollowRepositoryCustom {
+    
+    /**
+     * Stream every follow relationship as a pair of user IDs, without materializing entities.
+     *
+     * @param consumer receives the follower ID and the followed user's ID of each follow
+     */
+    void forEachFollow(BiConsumer<UUID, UUID> consumer);
+}
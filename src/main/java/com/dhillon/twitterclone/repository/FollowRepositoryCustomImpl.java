@@ -0,0 +1,40 @@
+package com.dhillon.twitterclone.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * JDBC implementation of the custom Follow operations.
+ */
+public class FollowRepositoryCustomImpl implements FollowRepositoryCustom {
+    
+    private static final String SELECT_FOLLOWS_SQL = "select follower_id, following_id from follows";
+    private static final int FETCH_SIZE = 10_000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Constructor with dependencies.
+     *
+     * @param jdbcTemplate the JDBC template
+     */
+    public FollowRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachFollow(BiConsumer<UUID, UUID> consumer) {
+        // The PostgreSQL driver only streams with a fetch size inside a transaction; otherwise it buffers every row
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_FOLLOWS_SQL);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)));
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,7 +17,7 @@ import java.util.UUID;
  * Repository for Hashtag entity operations.
  */
 @Repository
-public interface HashtagRepository extends JpaRepository<Hashtag, UUID> {
+public interface HashtagRepository extends JpaRepository<Hashtag, UUID>, HashtagRepositoryCustom {
     
     /**
      * Find a hashtag by name.
@@ -25,6 +27,14 @@ public interface HashtagRepository extends JpaRepository<Hashtag, UUID> {
      */
     Optional<Hashtag> findByName(String name);
     
+    /**
+     * Find all hashtags with the given names.
+     *
+     * @param names the names of the hashtags
+     * @return list of existing hashtags
+     */
+    List<Hashtag> findByNameIn(Collection<String> names);
+    
     /**
      * Check if a hashtag exists by name.
      *
@@ -0,0 +1,25 @@
+package com.dhillon.twitterclone.repository;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Custom Hashtag operations that are not expressible as derived or JPQL queries.
+ */
+public interface HashtagRepositoryCustom {
+    
+    /**
+     * Insert hashtags for the given names in a single batch, skipping names that already exist.
+     * Safe against concurrent inserts of the same name.
+     *
+     * @param names the hashtag names
+     */
+    void insertIfAbsent(Collection<String> names);
+    
+    /**
+     * Apply aggregated post count changes in a single batch, never letting a count drop below zero.
+     *
+     * @param deltas the change in post count per hashtag name
+     */
+    void applyPostCountDeltas(Map<String, Long> deltas);
+}
@@ -0,0 +1,61 @@
+package com.dhillon.twitterclone.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of the custom Hashtag operations.
+ */
+public class HashtagRepositoryCustomImpl implements HashtagRepositoryCustom {
+    
+    // Without a conflict target so the statement also runs on H2; name is the only unique key a random ID can hit
+    private static final String INSERT_IF_ABSENT_SQL =
+            "insert into hashtags (id, name) values (?, ?) on conflict do nothing";
+    
+    private static final String APPLY_POST_COUNT_DELTA_SQL =
+            "update hashtags set post_count = greatest(post_count + ?, 0), updated_at = now() where name = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Constructor with dependencies.
+     *
+     * @param jdbcTemplate the JDBC template
+     */
+    public HashtagRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void insertIfAbsent(Collection<String> names) {
+        if (names.isEmpty()) {
+            return;
+        }
+        
+        List<Object[]> rows = new ArrayList<>(names.size());
+        for (String name : names) {
+            rows.add(new Object[] { UUID.randomUUID(), name });
+        }
+        jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, rows);
+    }
+    
+    @Override
+    @Transactional
+    public void applyPostCountDeltas(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        
+        // Rows are updated in name order so concurrent flushes from several nodes cannot deadlock
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((name, delta) -> rows.add(new Object[] { delta, name }));
+        jdbcTemplate.batchUpdate(APPLY_POST_COUNT_DELTA_SQL, rows);
+    }
+}
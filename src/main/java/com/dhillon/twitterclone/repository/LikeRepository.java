@@ -4,8 +4,11 @@ import com.dhillon.twitterclone.entity.Like;
 import com.dhillon.twitterclone.entity.Post;
 import com.dhillon.twitterclone.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,7 +17,7 @@ import java.util.UUID;
  * Repository for Like entity operations.
  */
 @Repository
-public interface LikeRepository extends JpaRepository<Like, UUID> {
+public interface LikeRepository extends JpaRepository<Like, UUID>, LikeRepositoryCustom {
     
     /**
      * Find a like by user and post.
@@ -32,7 +35,9 @@ public interface LikeRepository extends JpaRepository<Like, UUID> {
      * @param postId the ID of the post
      * @return true if exists, false otherwise
      */
-    boolean existsByUserIdAndPostId(UUID userId, UUID postId);
+    @Query("SELECT CASE WHEN COUNT(l) > 0 THEN true ELSE false END FROM Like l " +
+           "WHERE l.user.id = :userId AND l.post.id = :postId")
+    boolean existsByUserIdAndPostId(@Param("userId") UUID userId, @Param("postId") UUID postId);
     
     /**
      * Count the number of likes for a post.
@@ -42,6 +47,16 @@ public interface LikeRepository extends JpaRepository<Like, UUID> {
      */
     long countByPostId(UUID postId);
     
+    /**
+     * Find which of the given posts a user has liked.
+     *
+     * @param userId the ID of the user
+     * @param postIds the IDs of the posts
+     * @return the IDs of the liked posts
+     */
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<UUID> findLikedPostIds(@Param("userId") UUID userId, @Param("postIds") Collection<UUID> postIds);
+    
     /**
      * Find all users who liked a post.
      *
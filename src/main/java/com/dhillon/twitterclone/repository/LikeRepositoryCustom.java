@@ -0,0 +1,29 @@
+package com.dhillon.twitterclone.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Custom Like operations that are not expressible as derived or JPQL queries.
+ */
+public interface LikeRepositoryCustom {
+    
+    /**
+     * Write a batch of buffered like changes and the resulting post like counts in one transaction.
+     * Likes of posts or by users that no longer exist, and likes that are already present, are skipped.
+     *
+     * @param changes the latest like state per user and post; true to like, false to unlike
+     * @param deltas the change in like count per post ID, for posts whose counts are trusted
+     * @param recount the IDs of posts whose like counts are recomputed from their likes instead
+     */
+    void applyLikeChanges(Map<LikeRef, Boolean> changes, Map<UUID, Long> deltas, Collection<UUID> recount);
+    
+    /**
+     * A like of a post by a user.
+     *
+     * @param userId the ID of the user
+     * @param postId the ID of the post
+     */
+    record LikeRef(UUID userId, UUID postId) {}
+}
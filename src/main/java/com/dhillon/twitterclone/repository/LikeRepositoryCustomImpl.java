@@ -0,0 +1,84 @@
+package com.dhillon.twitterclone.repository;
+
+import com.dhillon.twitterclone.util.HotScore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of the custom Like operations.
+ */
+public class LikeRepositoryCustomImpl implements LikeRepositoryCustom {
+    
+    // Guarded rather than relying on on-conflict handling, which H2 does not support for insert ... select
+    private static final String INSERT_LIKE_SQL =
+            "insert into likes (id, user_id, post_id, created_at) select ?, ?, ?, now() " +
+            "where exists (select 1 from posts where id = ?) and exists (select 1 from users where id = ?) " +
+            "and not exists (select 1 from likes where user_id = ? and post_id = ?)";
+    
+    private static final String DELETE_LIKE_SQL =
+            "delete from likes where user_id = ? and post_id = ?";
+    
+    // Same score as HotScore.of, computed from the row before the update
+    private static final String RESCORE = ", trending_score = log10(greatest(%s + reply_count + repost_count, 1)) + " +
+            "(extract(epoch from created_at) - " + HotScore.EPOCH_OFFSET + ") / " + HotScore.DECAY_SECONDS + ".0";
+    
+    private static final String APPLY_LIKE_COUNT_DELTA_SQL =
+            "update posts set like_count = greatest(like_count + ?, 0)" +
+            RESCORE.formatted("greatest(like_count + ?, 0)") + " where id = ?";
+    
+    private static final String LIKE_COUNT = "(select count(*) from likes where post_id = ?)";
+    private static final String RECOUNT_LIKES_SQL =
+            "update posts set like_count = " + LIKE_COUNT + RESCORE.formatted(LIKE_COUNT) + " where id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Constructor with dependencies.
+     *
+     * @param jdbcTemplate the JDBC template
+     */
+    public LikeRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    @Transactional
+    public void applyLikeChanges(Map<LikeRef, Boolean> changes, Map<UUID, Long> deltas, Collection<UUID> recount) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        changes.forEach((like, liked) -> {
+            if (liked) {
+                inserts.add(new Object[] { UUID.randomUUID(), like.userId(), like.postId(), like.postId(),
+                        like.userId(), like.userId(), like.postId() });
+            } else {
+                deletes.add(new Object[] { like.userId(), like.postId() });
+            }
+        });
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_LIKE_SQL, deletes);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LIKE_SQL, inserts);
+        }
+        
+        // Post rows are updated in ID order so concurrent flushes from several nodes cannot deadlock
+        if (!deltas.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(deltas.size());
+            new TreeMap<>(deltas).forEach((postId, delta) -> rows.add(new Object[] { delta, delta, postId }));
+            jdbcTemplate.batchUpdate(APPLY_LIKE_COUNT_DELTA_SQL, rows);
+        }
+        if (!recount.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(recount.size());
+            new TreeSet<>(recount).forEach(postId -> rows.add(new Object[] { postId, postId, postId }));
+            jdbcTemplate.batchUpdate(RECOUNT_LIKES_SQL, rows);
+        }
+    }
+}
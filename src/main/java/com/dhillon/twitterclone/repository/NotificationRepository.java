@@ -16,7 +16,7 @@ import java.util.UUID;
  * Repository for Notification entity operations.
  */
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+public interface NotificationRepository extends JpaRepository<Notification, UUID>, NotificationRepositoryCustom {
     
     /**
      * Find all notifications for a user ordered by creation date descending.
@@ -25,7 +25,8 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
      * @param pageable pagination information
      * @return page of notifications
      */
-    Page<Notification> findByUserIdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC")
+    Page<Notification> findByUserIdOrderByCreatedAtDesc(@Param("userId") UUID userId, Pageable pageable);
     
     /**
      * Find all unread notifications for a user.
@@ -34,7 +35,8 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
      * @param pageable pagination information
      * @return page of unread notifications
      */
-    Page<Notification> findByUserIdAndReadFalseOrderByCreatedAtDesc(UUID userId, Pageable pageable);
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.read = false ORDER BY n.createdAt DESC")
+    Page<Notification> findByUserIdAndReadFalseOrderByCreatedAtDesc(@Param("userId") UUID userId, Pageable pageable);
     
     /**
      * Count unread notifications for a user.
@@ -42,7 +44,8 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
      * @param userId the ID of the user
      * @return count of unread notifications
      */
-    long countByUserIdAndReadFalse(UUID userId);
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.read = false")
+    long countByUserIdAndReadFalse(@Param("userId") UUID userId);
     
     /**
      * Find notifications by type for a user.
@@ -52,7 +55,10 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
      * @param pageable pagination information
      * @return page of notifications
      */
-    Page<Notification> findByUserIdAndTypeOrderByCreatedAtDesc(UUID userId, NotificationType type, Pageable pageable);
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.type = :type ORDER BY n.createdAt DESC")
+    Page<Notification> findByUserIdAndTypeOrderByCreatedAtDesc(@Param("userId") UUID userId,
+                                                               @Param("type") NotificationType type,
+                                                               Pageable pageable);
     
     /**
      * Mark all notifications for a user as read.
@@ -63,4 +69,15 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     @Modifying
     @Query("UPDATE Notification n SET n.read = true WHERE n.user.id = :userId AND n.read = false")
     int markAllAsRead(@Param("userId") UUID userId);
-} 
\ No newline at end of file
+    
+    /**
+     * Mark a single notification of a user as read.
+     *
+     * @param id the ID of the notification
+     * @param userId the ID of the user who owns it
+     * @return number of rows affected, zero if it was already read or belongs to another user
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :id AND n.user.id = :userId AND n.read = false")
+    int markAsRead(@Param("id") UUID id, @Param("userId") UUID userId);
+}
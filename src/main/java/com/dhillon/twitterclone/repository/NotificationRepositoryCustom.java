@@ -0,0 +1,94 @@
+package com.dhillon.twitterclone.repository;
+
+import com.dhillon.twitterclone.entity.NotificationType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Custom Notification operations that are not expressible as derived or JPQL queries.
+ */
+public interface NotificationRepositoryCustom {
+    
+    /**
+     * Write a batch of unread notifications in one transaction.
+     * A grouped notification is merged into the recipient's existing row with the same group key, adding the actors
+     * the group does not have yet to its actor count and sample, and is only inserted when there is none.
+     * A grouped notification whose actors all belong to the group already leaves the row untouched.
+     * Notifications whose recipient, actor or post no longer exists are skipped.
+     *
+     * @param notifications the notifications to write, at most one per recipient and group key
+     * @return the number of rows written and the unread notifications added per recipient
+     */
+    WriteResult insertNotifications(List<NewNotification> notifications);
+    
+    /**
+     * Count the unread notifications of several users.
+     *
+     * @param userIds the user IDs
+     * @return the unread count per user, omitting users without unread notifications
+     */
+    Map<UUID, Long> countUnreadByUserIdIn(Collection<UUID> userIds);
+    
+    /**
+     * The outcome of writing a batch of notifications.
+     *
+     * @param written the number of notification rows inserted or merged into
+     * @param unreadAdded the number of rows per recipient that were inserted or changed from read to unread
+     */
+    record WriteResult(int written, Map<UUID, Integer> unreadAdded) {}
+    
+    /**
+     * A notification to write.
+     *
+     * @param userId the ID of the user to notify
+     * @param type the notification type
+     * @param actorId the ID of the most recent user who acted
+     * @param postId the ID of the related post, or null
+     * @param createdAt the time of the most recent action
+     * @param groupKey the key of the group the notification merges into, or null if it is shown individually
+     * @param actorIds the distinct users who acted, newest first
+     */
+    record NewNotification(UUID userId, NotificationType type, UUID actorId, UUID postId, LocalDateTime createdAt,
+                           String groupKey, List<UUID> actorIds) {
+        
+        /**
+         * The number of actors shown in the sample of a grouped notification, matching the width of its column.
+         */
+        public static final int SAMPLE_SIZE = 5;
+        
+        /**
+         * Create an ungrouped notification of a single action.
+         *
+         * @param userId the ID of the user to notify
+         * @param type the notification type
+         * @param actorId the ID of the user who acted
+         * @param postId the ID of the related post, or null
+         * @param createdAt the time of the action
+         */
+        public NewNotification(UUID userId, NotificationType type, UUID actorId, UUID postId, LocalDateTime createdAt) {
+            this(userId, type, actorId, postId, createdAt, null, List.of(actorId));
+        }
+        
+        /**
+         * Get the number of distinct actors the notification stands for.
+         *
+         * @return the actor count
+         */
+        public int actorCount() {
+            return actorIds.size();
+        }
+        
+        /**
+         * Get the most recent actors shown with the notification.
+         *
+         * @return up to {@link #SAMPLE_SIZE} actor IDs, newest first
+         */
+        public List<UUID> sampleActorIds() {
+            return actorIds.size() <= SAMPLE_SIZE ? actorIds : actorIds.subList(0, SAMPLE_SIZE);
+        }
+    }
+}
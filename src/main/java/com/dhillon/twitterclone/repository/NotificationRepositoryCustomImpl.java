@@ -0,0 +1,234 @@
+package com.dhillon.twitterclone.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC implementation of the custom Notification operations.
+ */
+public class NotificationRepositoryCustomImpl implements NotificationRepositoryCustom {
+    
+    // Five comma-separated UUIDs
+    private static final int SAMPLE_LENGTH = 184;
+    
+    // Adds an actor to the set of a group's row with the given read state, unless the group has it already
+    private static final String ADD_GROUP_ACTOR_SQL = "insert into notification_actors (notification_id, actor_id) " +
+            "select n.id, ? from notifications n where n.user_id = ? and n.group_key = ? and n.read = ? " +
+            "and not exists (select 1 from notification_actors a where a.notification_id = n.id and a.actor_id = ?)";
+    
+    // Newly added actors are prepended and the oldest fall off; a deleted actor leaves the previous one in place
+    private static final String MERGE_GROUP_SQL = "update notifications set actor_count = actor_count + ?, " +
+            "actor_id = coalesce((select id from users where id = ?), actor_id), " +
+            "sample_actor_ids = left(concat(?, ',', sample_actor_ids), " + SAMPLE_LENGTH + "), " +
+            "created_at = greatest(created_at, ?), read = false " +
+            "where user_id = ? and group_key = ?";
+    
+    private static final String INSERT = "insert into notifications " +
+            "(id, user_id, type, actor_id, post_id, read, created_at, group_key, actor_count, sample_actor_ids) " +
+            "select ?, ?, ?, ?, %s, false, ?, ?, ?, ? " +
+            "where exists (select 1 from users where id = ?) and exists (select 1 from users where id = ?) " +
+            "and not exists (select 1 from notifications where user_id = ? and group_key = ?)";
+    
+    // Guarded so a notification about a user or post deleted while it was queued does not fail its whole batch
+    private static final String INSERT_NOTIFICATION_SQL = INSERT.formatted("null");
+    private static final String INSERT_POST_NOTIFICATION_SQL = INSERT.formatted("?") +
+            " and exists (select 1 from posts where id = ?)";
+    
+    private static final String INSERT_GROUP_ACTOR_SQL =
+            "insert into notification_actors (notification_id, actor_id) values (?, ?)";
+    
+    private static final String COUNT_UNREAD_SQL = "select user_id, count(*) from notifications " +
+            "where read = false and user_id in (:userIds) group by user_id";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    
+    /**
+     * Constructor with dependencies.
+     *
+     * @param jdbcTemplate the JDBC template
+     */
+    public NotificationRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+    
+    @Override
+    @Transactional
+    public WriteResult insertNotifications(List<NewNotification> notifications) {
+        List<NewNotification> toInsert = new ArrayList<>();
+        List<NewNotification> grouped = new ArrayList<>();
+        for (NewNotification notification : notifications) {
+            (notification.groupKey() != null ? grouped : toInsert).add(notification);
+        }
+        
+        int written = 0;
+        Map<UUID, Integer> unreadAdded = new HashMap<>();
+        if (!grouped.isEmpty()) {
+            // Group rows are updated in key order so concurrent flushes from several nodes cannot deadlock
+            grouped.sort(Comparator.comparing(NewNotification::userId).thenComparing(NewNotification::groupKey));
+            // Rows that were still unread first, then rows that were read and become unread again
+            List<NewNotification> unmerged = merge(grouped, false);
+            written += grouped.size() - unmerged.size();
+            List<NewNotification> missing = merge(unmerged, true);
+            written += unmerged.size() - missing.size();
+            Set<NewNotification> notMerged = new HashSet<>(missing);
+            for (NewNotification notification : unmerged) {
+                if (!notMerged.contains(notification)) {
+                    unreadAdded.merge(notification.userId(), 1, Integer::sum);
+                }
+            }
+            toInsert.addAll(missing);
+        }
+        
+        List<NewNotification> plain = new ArrayList<>();
+        List<NewNotification> withPost = new ArrayList<>();
+        for (NewNotification notification : toInsert) {
+            (notification.postId() == null ? plain : withPost).add(notification);
+        }
+        written += insert(INSERT_NOTIFICATION_SQL, plain, false, unreadAdded);
+        written += insert(INSERT_POST_NOTIFICATION_SQL, withPost, true, unreadAdded);
+        return new WriteResult(written, unreadAdded);
+    }
+    
+    @Override
+    public Map<UUID, Long> countUnreadByUserIdIn(Collection<UUID> userIds) {
+        Map<UUID, Long> counts = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return counts;
+        }
+        namedJdbcTemplate.query(COUNT_UNREAD_SQL, Map.of("userIds", userIds),
+                (RowCallbackHandler) rs -> counts.put(rs.getObject(1, UUID.class), rs.getLong(2)));
+        return counts;
+    }
+    
+    /**
+     * Merge grouped notifications into existing rows with a given read state.
+     * Only the actors a group does not have yet are added to its count and sample.
+     *
+     * @param notifications the grouped notifications
+     * @param read the read state of the rows to merge into
+     * @return the notifications that found no row to merge into or brought no new actors
+     */
+    private List<NewNotification> merge(List<NewNotification> notifications, boolean read) {
+        if (notifications.isEmpty()) {
+            return notifications;
+        }
+        List<Object[]> actorRows = new ArrayList<>();
+        for (NewNotification notification : notifications) {
+            for (UUID actorId : notification.actorIds()) {
+                actorRows.add(new Object[] { actorId, notification.userId(), notification.groupKey(), read, actorId });
+            }
+        }
+        int[] added = jdbcTemplate.batchUpdate(ADD_GROUP_ACTOR_SQL, actorRows);
+        
+        List<Object[]> rows = new ArrayList<>(notifications.size());
+        List<NewNotification> unmerged = new ArrayList<>();
+        int next = 0;
+        for (NewNotification notification : notifications) {
+            List<UUID> newActors = new ArrayList<>();
+            for (UUID actorId : notification.actorIds()) {
+                if (added[next++] > 0) {
+                    newActors.add(actorId);
+                }
+            }
+            if (newActors.isEmpty()) {
+                unmerged.add(notification);
+                continue;
+            }
+            List<UUID> sample = newActors.subList(0, Math.min(newActors.size(), NewNotification.SAMPLE_SIZE));
+            rows.add(new Object[] { newActors.size(), newActors.get(0), join(sample),
+                    Timestamp.valueOf(notification.createdAt()), notification.userId(), notification.groupKey() });
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(MERGE_GROUP_SQL, rows);
+        }
+        return unmerged;
+    }
+    
+    /**
+     * Insert notifications with one guarded statement, counting the unread rows added per recipient.
+     * The actors of the grouped notifications inserted start their groups' actor sets.
+     *
+     * @param sql the insert statement
+     * @param notifications the notifications to insert
+     * @param withPost whether the statement takes the post ID
+     * @param unreadAdded the unread rows added per recipient, updated in place
+     * @return the number of rows inserted
+     */
+    private int insert(String sql, List<NewNotification> notifications, boolean withPost,
+                       Map<UUID, Integer> unreadAdded) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+        List<UUID> ids = new ArrayList<>(notifications.size());
+        List<Object[]> rows = new ArrayList<>(notifications.size());
+        for (NewNotification notification : notifications) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            List<Object> row = new ArrayList<>(14);
+            row.add(id);
+            row.add(notification.userId());
+            row.add(notification.type().name());
+            row.add(notification.actorId());
+            if (withPost) {
+                row.add(notification.postId());
+            }
+            row.addAll(Arrays.asList(Timestamp.valueOf(notification.createdAt()), notification.groupKey(),
+                    notification.actorCount(), join(notification.sampleActorIds()), notification.userId(),
+                    notification.actorId(),
+                    notification.userId(), notification.groupKey()));
+            if (withPost) {
+                row.add(notification.postId());
+            }
+            rows.add(row.toArray());
+        }
+        
+        int[] counts = jdbcTemplate.batchUpdate(sql, rows);
+        int inserted = 0;
+        List<Object[]> actorRows = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            // Drivers that report no count are assumed to have inserted the row
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                NewNotification notification = notifications.get(i);
+                unreadAdded.merge(notification.userId(), 1, Integer::sum);
+                inserted++;
+                if (notification.groupKey() != null) {
+                    for (UUID actorId : notification.actorIds()) {
+                        actorRows.add(new Object[] { ids.get(i), actorId });
+                    }
+                }
+            }
+        }
+        if (!actorRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_GROUP_ACTOR_SQL, actorRows);
+        }
+        return inserted;
+    }
+    
+    /**
+     * Format actor IDs for the sample column.
+     *
+     * @param actorIds the actor IDs, newest first
+     * @return the comma-separated actor IDs
+     */
+    private static String join(List<UUID> actorIds) {
+        return actorIds.stream().map(UUID::toString).collect(Collectors.joining(","));
+    }
+}
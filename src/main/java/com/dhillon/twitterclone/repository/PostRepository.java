@@ -1,15 +1,24 @@
 package com.dhillon.twitterclone.repository;
 
+import com.dhillon.twitterclone.dto.PostVersion;
+import com.dhillon.twitterclone.dto.TimelineEntry;
 import com.dhillon.twitterclone.entity.Post;
 import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.util.HotScore;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -18,6 +27,20 @@ import java.util.UUID;
 @Repository
 public interface PostRepository extends JpaRepository<Post, UUID> {
     
+    // JPQL form of HotScore.of, split around the engagement sum; right-hand sides see the row before the update
+    String HOT_SCORE_ENGAGEMENT = "log10(greatest(";
+    String HOT_SCORE_AGE = ", 1)) + (extract(epoch from p.createdAt) - " + HotScore.EPOCH_OFFSET + ") / " +
+            HotScore.DECAY_SECONDS + ".0";
+    
+    /**
+     * Get the ID of a post's author without loading the post.
+     *
+     * @param postId the post ID
+     * @return the author's ID, or empty if the post does not exist
+     */
+    @Query("SELECT p.user.id FROM Post p WHERE p.id = :postId")
+    Optional<UUID> findAuthorIdById(@Param("postId") UUID postId);
+    
     /**
      * Find all posts by user ordered by creation date descending (user timeline).
      *
@@ -28,13 +51,37 @@ public interface PostRepository extends JpaRepository<Post, UUID> {
     Page<Post> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
     
     /**
-     * Find all posts by user ID ordered by creation date descending (user timeline).
+     * Find posts by user ID created before a keyset position, newest first (user timeline).
+     * Only the page size of the pageable is used; no count query is issued.
      *
      * @param userId the user ID
+     * @param createdAt the creation timestamp of the last post already seen
+     * @param id the ID of the last post already seen
      * @param pageable pagination information
-     * @return page of posts
+     * @return slice of posts
      */
-    Page<Post> findByUserIdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT p FROM Post p WHERE p.user.id = :userId " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<Post> findByUserIdBefore(@Param("userId") UUID userId, @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") UUID id, Pageable pageable);
+    
+    /**
+     * Find posts created before a keyset position, newest first.
+     * Only the page size of the pageable is used; no count query is issued.
+     *
+     * @param createdAt the creation timestamp of the last post already seen
+     * @param id the ID of the last post already seen
+     * @param pageable pagination information
+     * @return slice of posts
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT p FROM Post p " +
+           "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<Post> findLatestBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+                                 Pageable pageable);
     
     /**
      * Find all posts that have a specific hashtag.
@@ -43,6 +90,7 @@ public interface PostRepository extends JpaRepository<Post, UUID> {
      * @param pageable pagination information
      * @return page of posts
      */
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT p FROM Post p JOIN p.hashtags h WHERE h.id = :hashtagId ORDER BY p.createdAt DESC")
     Page<Post> findByHashtagId(@Param("hashtagId") UUID hashtagId, Pageable pageable);
     
@@ -53,6 +101,7 @@ public interface PostRepository extends JpaRepository<Post, UUID> {
      * @param pageable pagination information
      * @return page of posts
      */
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT p FROM Post p JOIN p.hashtags h WHERE h.name = :hashtagName ORDER BY p.createdAt DESC")
     Page<Post> findByHashtagName(@Param("hashtagName") String hashtagName, Pageable pageable);
     
@@ -63,37 +112,176 @@ public interface PostRepository extends JpaRepository<Post, UUID> {
      * @param pageable pagination information
      * @return page of posts
      */
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT p FROM Post p WHERE LOWER(p.content) LIKE LOWER(CONCAT('%', :query, '%')) ORDER BY p.createdAt DESC")
     Page<Post> searchPosts(@Param("query") String query, Pageable pageable);
     
     /**
-     * Find all replies to a specific post.
+     * Find replies to a specific post created before a keyset position, newest first.
+     * Only the page size of the pageable is used; no count query is issued.
      *
      * @param parentId the parent post ID
+     * @param createdAt the creation timestamp of the last reply already seen
+     * @param id the ID of the last reply already seen
      * @param pageable pagination information
-     * @return page of reply posts
+     * @return slice of reply posts
      */
-    Page<Post> findByParentIdOrderByCreatedAtDesc(UUID parentId, Pageable pageable);
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT p FROM Post p WHERE p.parent.id = :parentId " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<Post> findRepliesBefore(@Param("parentId") UUID parentId, @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") UUID id, Pageable pageable);
     
     /**
-     * Find home timeline posts (posts from followed users).
+     * Find a post by ID together with its author, hashtags and media.
+     * Used by cache loaders, which may run outside any session and so cannot initialize lazy associations.
+     *
+     * @param id the post ID
+     * @return the post, if found
+     */
+    @EntityGraph(attributePaths = {"user", "hashtags", "media"})
+    @Query("SELECT p FROM Post p WHERE p.id = :id")
+    Optional<Post> findWithDetailsById(@Param("id") UUID id);
+    
+    /**
+     * Find the version of a post, read from the post row and its author's row only.
+     *
+     * @param id the post ID
+     * @return the version, if the post exists
+     */
+    @Query("SELECT new com.dhillon.twitterclone.dto.PostVersion(" +
+           "p.id, p.updatedAt, p.likeCount, p.repostCount, p.replyCount, u.updatedAt) " +
+           "FROM Post p JOIN p.user u WHERE p.id = :id")
+    Optional<PostVersion> findVersionById(@Param("id") UUID id);
+    
+    /**
+     * Find posts by ID together with their authors.
+     * Used to load a page of timeline entries in a single statement.
+     *
+     * @param ids the post IDs
+     * @return list of posts in no particular order
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT p FROM Post p WHERE p.id IN :ids")
+    List<Post> findAllWithUserByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    /**
+     * Find home timeline entries (IDs of top-level posts from followed users and the user)
+     * created before a keyset position.
+     * Used to rebuild a materialized home timeline and to read past its end; regular reads go through
+     * the timeline store.
      *
      * @param userId the user ID
+     * @param createdAt the creation timestamp of the last entry already seen
+     * @param id the ID of the last entry already seen
      * @param pageable pagination information
-     * @return page of posts
+     * @return list of timeline entries, newest first
+     */
+    @Query("SELECT new com.dhillon.twitterclone.dto.TimelineEntry(p.id, p.createdAt) FROM Post p " +
+           "WHERE (p.user.id IN (SELECT f.following.id FROM Follow f WHERE f.follower.id = :userId) " +
+           "OR p.user.id = :userId) " +
+           "AND p.isReply = false " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<TimelineEntry> findHomeTimelineEntries(@Param("userId") UUID userId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") UUID id, Pageable pageable);
+    
+    /**
+     * Find timeline entries for a single author's top-level posts created before a keyset position.
+     * Used to pull posts of high-follower accounts into home timelines at read time.
+     *
+     * @param userId the author ID
+     * @param createdAt the creation timestamp of the last entry already seen
+     * @param id the ID of the last entry already seen
+     * @param pageable pagination information
+     * @return list of timeline entries, newest first
+     */
+    @Query("SELECT new com.dhillon.twitterclone.dto.TimelineEntry(p.id, p.createdAt) FROM Post p " +
+           "WHERE p.user.id = :userId AND p.isReply = false " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<TimelineEntry> findTimelineEntriesByUserId(@Param("userId") UUID userId,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") UUID id, Pageable pageable);
+    
+    /**
+     * Find timeline entries for several authors' top-level posts created before a keyset position.
+     * Used to pull posts of the followed high-follower accounts beyond the per-account merge sources in one query.
+     *
+     * @param userIds the author IDs
+     * @param createdAt the creation timestamp of the last entry already seen
+     * @param id the ID of the last entry already seen
+     * @param pageable pagination information
+     * @return list of timeline entries, newest first
+     */
+    @Query("SELECT new com.dhillon.twitterclone.dto.TimelineEntry(p.id, p.createdAt) FROM Post p " +
+           "WHERE p.user.id IN :userIds AND p.isReply = false " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<TimelineEntry> findTimelineEntriesByUserIdIn(@Param("userIds") Collection<UUID> userIds,
+                                                      @Param("createdAt") LocalDateTime createdAt,
+                                                      @Param("id") UUID id, Pageable pageable);
+    
+    /**
+     * Find which of the given posts a user has reposted.
+     *
+     * @param userId the ID of the user
+     * @param postIds the IDs of the original posts
+     * @return the IDs of the reposted posts
      */
-    @Query("SELECT p FROM Post p WHERE p.user.id IN " +
-           "(SELECT f.following.id FROM Follow f WHERE f.follower.id = :userId) " +
-           "OR p.user.id = :userId " +
-           "ORDER BY p.createdAt DESC")
-    Page<Post> findHomeTimeline(@Param("userId") UUID userId, Pageable pageable);
+    @Query("SELECT p.originalPost.id FROM Post p WHERE p.user.id = :userId AND p.isRepost = true " +
+           "AND p.originalPost.id IN :postIds")
+    List<UUID> findRepostedPostIds(@Param("userId") UUID userId, @Param("postIds") Collection<UUID> postIds);
     
     /**
-     * Find trending posts based on like count, repost count, and reply count.
+     * Find trending posts by their stored, time-decayed engagement score.
+     * Reads the first rows of the trending score index rather than sorting the table.
      *
      * @param pageable pagination information
-     * @return page of trending posts
+     * @return slice of trending posts, highest score first
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT p FROM Post p ORDER BY p.trendingScore DESC, p.id DESC")
+    Slice<Post> findTrendingPosts(Pageable pageable);
+    
+    /**
+     * Recompute the trending score of posts created since the given time from their current counters.
+     * Catches counter changes made without going through the entity, which do not update the score.
+     *
+     * @param since the earliest creation timestamp to recompute
+     * @return the number of posts updated
+     */
+    @Modifying
+    @Query("UPDATE Post p SET p.trendingScore = " + HOT_SCORE_ENGAGEMENT + "p.likeCount + p.replyCount + p.repostCount" +
+           HOT_SCORE_AGE + " WHERE p.createdAt >= :since")
+    int refreshTrendingScores(@Param("since") LocalDateTime since);
+    
+    /**
+     * Atomically add to a post's reply count, never going below zero, and rescore it.
+     * A single UPDATE takes the row lock only for the statement, so concurrent replies never lose an increment.
+     *
+     * @param id the post ID
+     * @param delta the amount to add, negative to decrement
+     * @return the number of posts updated
+     */
+    @Modifying
+    @Query("UPDATE Post p SET p.replyCount = greatest(p.replyCount + :delta, 0), p.trendingScore = " +
+           HOT_SCORE_ENGAGEMENT + "p.likeCount + greatest(p.replyCount + :delta, 0) + p.repostCount" + HOT_SCORE_AGE +
+           " WHERE p.id = :id")
+    int addToReplyCount(@Param("id") UUID id, @Param("delta") int delta);
+    
+    /**
+     * Atomically add to a post's repost count, never going below zero, and rescore it.
+     *
+     * @param id the post ID
+     * @param delta the amount to add, negative to decrement
+     * @return the number of posts updated
      */
-    @Query("SELECT p FROM Post p ORDER BY (p.likeCount + p.repostCount + p.replyCount) DESC, p.createdAt DESC")
-    Page<Post> findTrendingPosts(Pageable pageable);
+    @Modifying
+    @Query("UPDATE Post p SET p.repostCount = greatest(p.repostCount + :delta, 0), p.trendingScore = " +
+           HOT_SCORE_ENGAGEMENT + "p.likeCount + p.replyCount + greatest(p.repostCount + :delta, 0)" + HOT_SCORE_AGE +
+           " WHERE p.id = :id")
+    int addToRepostCount(@Param("id") UUID id, @Param("delta") int delta);
 } 
\ No newline at end of file
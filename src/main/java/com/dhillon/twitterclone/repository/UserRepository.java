@@ -2,6 +2,7 @@ package com.dhillon.twitterclone.repository;
 
 import com.dhillon.twitterclone.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -59,20 +60,47 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     List<User> searchUsers(@Param("query") String query);
     
     /**
-     * Find users that are being followed by a specific user.
+     * Get a user's stored follower count without loading the user.
      *
-     * @param userId the ID of the user who is following
-     * @return list of users being followed
+     * @param userId the ID of the user
+     * @return the follower count, or empty if the user does not exist
      */
-    @Query("SELECT f.following FROM Follow f WHERE f.follower.id = :userId")
-    List<User> findFollowingByUserId(@Param("userId") UUID userId);
+    @Query("SELECT u.followersCount FROM User u WHERE u.id = :userId")
+    Optional<Integer> findFollowersCountById(@Param("userId") UUID userId);
     
     /**
-     * Find users that are following a specific user.
+     * Atomically add to a user's follower count, never going below zero.
      *
-     * @param userId the ID of the user being followed
-     * @return list of followers
+     * @param userId the ID of the user
+     * @param delta the amount to add, negative to decrement
+     * @return the number of users updated
      */
-    @Query("SELECT f.follower FROM Follow f WHERE f.following.id = :userId")
-    List<User> findFollowersByUserId(@Param("userId") UUID userId);
-} 
\ No newline at end of file
+    @Modifying
+    @Query("UPDATE User u SET u.followersCount = greatest(u.followersCount + :delta, 0) WHERE u.id = :userId")
+    int addToFollowersCount(@Param("userId") UUID userId, @Param("delta") int delta);
+    
+    /**
+     * Atomically add to the number of users a user follows, never going below zero.
+     *
+     * @param userId the ID of the user
+     * @param delta the amount to add, negative to decrement
+     * @return the number of users updated
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.followingCount = greatest(u.followingCount + :delta, 0) WHERE u.id = :userId")
+    int addToFollowingCount(@Param("userId") UUID userId, @Param("delta") int delta);
+    
+    /**
+     * Recompute the follower and following counts of every user whose stored counts disagree with the follows table.
+     *
+     * @return the number of users repaired
+     */
+    @Modifying
+    @Query(value = "UPDATE users u SET " +
+           "followers_count = (SELECT count(*) FROM follows f WHERE f.following_id = u.id), " +
+           "following_count = (SELECT count(*) FROM follows f WHERE f.follower_id = u.id) " +
+           "WHERE u.followers_count <> (SELECT count(*) FROM follows f WHERE f.following_id = u.id) " +
+           "OR u.following_count <> (SELECT count(*) FROM follows f WHERE f.follower_id = u.id)",
+           nativeQuery = true)
+    int repairFollowCounts();
+}
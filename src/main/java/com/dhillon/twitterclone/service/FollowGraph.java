@@ -0,0 +1,87 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.event.FollowChangedEvent;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Process-local copy of the follow graph, answering relationship queries without touching the database.
+ * Answers are only authoritative once the graph has been loaded.
+ */
+public interface FollowGraph {
+
+    /**
+     * Load the graph from the follows table, replacing any previous contents.
+     * Follow changes committed while loading are applied on top of the loaded graph.
+     */
+    void load();
+
+    /**
+     * Load the graph again, repairing any follow change that reached the table without reaching this graph,
+     * such as a change on another node whose message was lost.
+     */
+    void reload();
+
+    /**
+     * Check whether the graph has finished loading.
+     *
+     * @return true once the graph reflects the follows table
+     */
+    boolean isLoaded();
+
+    /**
+     * Apply a committed follow or unfollow to the graph.
+     *
+     * @param event the follow changed event
+     */
+    void onFollowChanged(FollowChangedEvent event);
+
+    /**
+     * Check whether one user follows another.
+     *
+     * @param followerId the ID of the user who may follow
+     * @param followingId the ID of the user who may be followed
+     * @return true if the follow exists
+     */
+    boolean follows(UUID followerId, UUID followingId);
+
+    /**
+     * Get the number of users following a user.
+     *
+     * @param userId the user ID
+     * @return the follower count
+     */
+    int followerCount(UUID userId);
+
+    /**
+     * Get the number of users a user follows.
+     *
+     * @param userId the user ID
+     * @return the following count
+     */
+    int followingCount(UUID userId);
+
+    /**
+     * Find users who follow a user and are followed back by them, in no particular order.
+     *
+     * @param userId the user ID
+     * @param limit the maximum number of users to return
+     * @return the IDs of the mutual follows
+     */
+    List<UUID> findMutualFollowIds(UUID userId, int limit);
+
+    /**
+     * Suggest accounts to follow from the accounts followed by the accounts a user follows.
+     * Each followed account votes for its followings with weight 1 / ln(2 + its following count), so accounts that
+     * follow everyone count for little. Large neighborhoods are sampled, and counting stops at the deadline with
+     * whatever has been counted so far.
+     *
+     * @param userId the user ID
+     * @param limit the maximum number of suggestions
+     * @param sampleSize the most followed accounts, and followings per followed account, to visit
+     * @param deadlineNanos the {@link System#nanoTime()} at which counting stops
+     * @return the IDs of suggested accounts, best first, excluding the user and accounts they already follow
+     */
+    List<UUID> findFollowSuggestions(UUID userId, int limit, int sampleSize, long deadlineNanos);
+}
@@ -0,0 +1,79 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.dto.CursorPage;
+import com.dhillon.twitterclone.dto.UserSummaryDto;
+import com.dhillon.twitterclone.entity.User;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service for follow relationships between users.
+ */
+public interface FollowService {
+
+    /**
+     * Follow a user, updating both users' follow counts in the same transaction.
+     * Following a user that is already followed has no effect.
+     *
+     * @param followerId the ID of the user who follows
+     * @param followingId the ID of the user to follow
+     * @return true if the follow was created
+     */
+    boolean follow(UUID followerId, UUID followingId);
+
+    /**
+     * Unfollow a user, updating both users' follow counts in the same transaction.
+     * Unfollowing a user that is not followed has no effect.
+     *
+     * @param followerId the ID of the user who follows
+     * @param followingId the ID of the user to unfollow
+     * @return true if a follow was removed
+     */
+    boolean unfollow(UUID followerId, UUID followingId);
+
+    /**
+     * Check whether one user follows another.
+     *
+     * @param followerId the ID of the user who may follow
+     * @param followingId the ID of the user who may be followed
+     * @return true if the follow exists
+     */
+    boolean isFollowing(UUID followerId, UUID followingId);
+
+    /**
+     * Get users who follow a user and are followed back by them.
+     *
+     * @param userId the user ID
+     * @param limit the maximum number of users to return
+     * @return the mutual follows
+     */
+    List<User> getMutualFollows(UUID userId, int limit);
+
+    /**
+     * Get a page of a user's followers, most recent follow first.
+     *
+     * @param userId the user ID
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the page size
+     * @return page of follower summaries
+     */
+    CursorPage<UserSummaryDto> getFollowers(UUID userId, String cursor, int size);
+
+    /**
+     * Get a page of the users a user follows, most recent follow first.
+     *
+     * @param userId the user ID
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the page size
+     * @return page of followed user summaries
+     */
+    CursorPage<UserSummaryDto> getFollowing(UUID userId, String cursor, int size);
+
+    /**
+     * Recompute stored follow counts that disagree with the follows table.
+     *
+     * @return the number of users repaired
+     */
+    int repairFollowCounts();
+}
@@ -0,0 +1,42 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.dto.HashtagDto;
+import com.dhillon.twitterclone.event.HashtagUsageChangedEvent;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Service for hashtag post counters and trending hashtags.
+ */
+public interface HashtagService {
+
+    /**
+     * Record post count changes for hashtags; they are aggregated in memory and written in batches.
+     *
+     * @param event the hashtag usage changed event
+     */
+    void onHashtagUsageChanged(HashtagUsageChangedEvent event);
+
+    /**
+     * Write all aggregated post count changes to the database.
+     */
+    void flushPostCounts();
+
+    /**
+     * Get the hashtags with the most posts of all time.
+     *
+     * @param limit the maximum number of hashtags to return
+     * @return the hashtags, highest post count first
+     */
+    List<HashtagDto> getTopHashtags(int limit);
+
+    /**
+     * Get the hashtags used most over a recent window, weighting newer posts more heavily.
+     *
+     * @param window how far back to look, at most the configured trending window
+     * @param limit the maximum number of hashtags to return
+     * @return the hashtags with their post counts in the window, highest decayed score first
+     */
+    List<HashtagDto> getTrendingHashtags(Duration window, int limit);
+}
@@ -0,0 +1,94 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.dto.TimelineEntry;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Storage for materialized home timelines: a bounded, newest-first list of post IDs per user.
+ */
+public interface HomeTimelineStore {
+
+    /**
+     * Check whether a user's timeline has been materialized.
+     *
+     * @param userId the user ID
+     * @return true if the timeline exists in the store
+     */
+    boolean isMaterialized(UUID userId);
+
+    /**
+     * Start collecting pushes to a timeline about to be rebuilt from the database.
+     * A post committed after the rebuild has read the database but before {@link #replace} runs would otherwise
+     * be skipped by its fan-out and missing from the rebuilt timeline for good.
+     *
+     * @param userId the user ID
+     * @return the generation of the timeline, to pass to {@link #replace}
+     */
+    long beginRebuild(UUID userId);
+
+    /**
+     * Install a user's rebuilt timeline, together with the entries pushed since {@link #beginRebuild}.
+     * If a concurrent rebuild installed the timeline first, the entries are merged into it.
+     * If the timeline was evicted since the rebuild began, its generation has moved on and the entries, which may
+     * predate the change that caused the eviction, are discarded; the next read rebuilds the timeline again.
+     *
+     * @param userId the user ID
+     * @param generation the generation returned by {@link #beginRebuild}
+     * @param entries the entries, newest first
+     * @return true if the timeline was installed, false if it was evicted since the rebuild began
+     */
+    boolean replace(UUID userId, long generation, List<TimelineEntry> entries);
+
+    /**
+     * Push an entry onto the timelines of the given users.
+     * Timelines that are neither materialized nor being rebuilt are skipped; they are rebuilt on the next read.
+     *
+     * @param userIds the IDs of the users whose timelines receive the entry
+     * @param entry the entry to push
+     */
+    void push(Collection<UUID> userIds, TimelineEntry entry);
+
+    /**
+     * Read a range of a user's timeline, starting strictly after a position.
+     *
+     * @param userId the user ID
+     * @param after the position to read after, in timeline order
+     * @param limit the maximum number of entries to return
+     * @return the entries, newest first
+     */
+    List<TimelineEntry> range(UUID userId, TimelineEntry after, int limit);
+
+    /**
+     * Get the number of entries in a user's timeline.
+     *
+     * @param userId the user ID
+     * @return the number of entries
+     */
+    long size(UUID userId);
+
+    /**
+     * Drop a user's timeline so that it is rebuilt on the next read.
+     * Advances the timeline's generation, so a rebuild already in progress does not install its entries.
+     *
+     * @param userId the user ID
+     */
+    void evict(UUID userId);
+
+    /**
+     * Register an author whose posts are pulled at read time instead of being fanned out.
+     *
+     * @param authorId the author ID
+     */
+    void addPullAuthor(UUID authorId);
+
+    /**
+     * Get all authors whose posts are pulled at read time.
+     *
+     * @return the pulled author IDs
+     */
+    Set<UUID> getPullAuthors();
+}
@@ -0,0 +1,43 @@
+package com.dhillon.twitterclone.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Service for liking and unliking posts.
+ */
+public interface LikeService {
+
+    /**
+     * Like a post. Liking a post that is already liked has no effect.
+     *
+     * @param userId the ID of the user
+     * @param postId the ID of the post
+     * @return true if the post was not liked by the user before
+     */
+    boolean like(UUID userId, UUID postId);
+
+    /**
+     * Remove a like from a post. Unliking a post that is not liked has no effect.
+     *
+     * @param userId the ID of the user
+     * @param postId the ID of the post
+     * @return true if the post was liked by the user before
+     */
+    boolean unlike(UUID userId, UUID postId);
+
+    /**
+     * Get a user's like changes for the given posts that have not been written to the database yet.
+     *
+     * @param userId the ID of the user
+     * @param postIds the IDs of the posts
+     * @return the buffered like state per post ID; posts without buffered changes are absent
+     */
+    Map<UUID, Boolean> getPendingLikes(UUID userId, Collection<UUID> postIds);
+
+    /**
+     * Write all buffered likes and like count changes to the database.
+     */
+    void flushLikes();
+}
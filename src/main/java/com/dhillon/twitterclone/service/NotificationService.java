@@ -0,0 +1,76 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.event.FollowChangedEvent;
+import com.dhillon.twitterclone.event.NotificationEvent;
+import com.dhillon.twitterclone.event.NotificationsReadEvent;
+
+import java.util.UUID;
+
+/**
+ * Service for producing notifications off the request path and tracking unread counts.
+ * Notifications are queued after the triggering transaction commits and written in batches.
+ */
+public interface NotificationService {
+
+    /**
+     * Queue a notification for writing. Notifications of users about their own actions are ignored.
+     * When the queue stays full for longer than the configured timeout the notification is dropped.
+     *
+     * @param event the notification event
+     */
+    void onNotification(NotificationEvent event);
+
+    /**
+     * Queue a follow notification for the followed user.
+     *
+     * @param event the follow changed event
+     */
+    void onFollowChanged(FollowChangedEvent event);
+
+    /**
+     * Write queued notifications in batches until the queue is empty.
+     *
+     * @return the number of notifications written
+     */
+    int flushNotifications();
+
+    /**
+     * Get the number of unread notifications of a user from the counter cache.
+     * The table is only counted when the user has no cached counter.
+     *
+     * @param userId the user ID
+     * @return the unread count
+     */
+    long getUnreadCount(UUID userId);
+
+    /**
+     * Mark all notifications of a user as read.
+     *
+     * @param userId the user ID
+     * @return the number of notifications that were unread
+     */
+    int markAllAsRead(UUID userId);
+
+    /**
+     * Mark a single notification of a user as read.
+     *
+     * @param userId the user ID
+     * @param notificationId the notification ID
+     * @return true if the notification was unread
+     */
+    boolean markAsRead(UUID userId, UUID notificationId);
+
+    /**
+     * Adjust the cached unread count of a user after notifications were marked as read.
+     *
+     * @param event the notifications read event
+     */
+    void onNotificationsRead(NotificationsReadEvent event);
+
+    /**
+     * Recount all cached unread counters from the table, correcting any drift.
+     *
+     * @return the number of counters recounted
+     */
+    int reconcileUnreadCounts();
+}
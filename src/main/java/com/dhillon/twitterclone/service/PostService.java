@@ -1,8 +1,13 @@
 package com.dhillon.twitterclone.service;
 
+import com.dhillon.twitterclone.dto.CursorPage;
+import com.dhillon.twitterclone.dto.PostDto;
+import com.dhillon.twitterclone.dto.PostVersion;
 import com.dhillon.twitterclone.entity.Post;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +26,22 @@ public interface PostService {
      */
     Optional<Post> findById(UUID id);
     
+    /**
+     * Find a post as seen by an anonymous viewer, served from the post cache.
+     *
+     * @param id the post ID
+     * @return optional post DTO if found
+     */
+    Optional<PostDto> findPostDto(UUID id);
+    
+    /**
+     * Find the version of a post without loading it, to answer conditional requests.
+     *
+     * @param id the post ID
+     * @return the version, if the post exists
+     */
+    Optional<PostVersion> findPostVersion(UUID id);
+    
     /**
      * Create a new post.
      *
@@ -45,23 +66,61 @@ public interface PostService {
      */
     void deletePost(UUID id);
     
+    /**
+     * Get the latest posts from all users.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the page size
+     * @return page of posts
+     */
+    CursorPage<Post> getLatestPosts(String cursor, int size);
+    
     /**
      * Get user timeline (posts by a specific user).
      *
      * @param userId the user ID
-     * @param pageable pagination information
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the page size
      * @return page of posts
      */
-    Page<Post> getUserTimeline(UUID userId, Pageable pageable);
+    CursorPage<Post> getUserTimeline(UUID userId, String cursor, int size);
     
     /**
      * Get home timeline (posts from followed users).
      *
      * @param userId the user ID
-     * @param pageable pagination information
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the page size
      * @return page of posts
      */
-    Page<Post> getHomeTimeline(UUID userId, Pageable pageable);
+    CursorPage<Post> getHomeTimeline(UUID userId, String cursor, int size);
+    
+    /**
+     * Get a home timeline page as seen by an anonymous viewer.
+     * First pages are served from the timeline cache while the timeline has not changed.
+     *
+     * @param userId the user ID
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the page size
+     * @return page of post DTOs
+     */
+    CursorPage<PostDto> getHomeTimelineDtos(UUID userId, String cursor, int size);
+    
+    /**
+     * Get the version of a home timeline, to answer conditional requests without reading a page.
+     *
+     * @param userId the user ID
+     * @return the version, or null if the timeline is not materialized
+     * @see TimelineService#getVersion(UUID)
+     */
+    String getHomeTimelineVersion(UUID userId);
+    
+    /**
+     * Drop the follower's cached first home timeline page after a follow or unfollow.
+     *
+     * @param event the follow changed event
+     */
+    void onFollowChanged(FollowChangedEvent event);
     
     /**
      * Search for posts.
@@ -73,12 +132,17 @@ public interface PostService {
     Page<Post> searchPosts(String query, Pageable pageable);
     
     /**
-     * Get trending posts.
+     * Get trending posts, ranked by engagement with newer posts weighted more heavily.
      *
      * @param pageable pagination information
-     * @return page of posts
+     * @return slice of posts
      */
-    Page<Post> getTrendingPosts(Pageable pageable);
+    Slice<Post> getTrendingPosts(Pageable pageable);
+    
+    /**
+     * Recompute the stored trending scores of recent posts from their current counters.
+     */
+    void refreshTrendingScores();
     
     /**
      * Get posts by hashtag.
@@ -93,10 +157,11 @@ public interface PostService {
      * Get replies to a post.
      *
      * @param postId the parent post ID
-     * @param pageable pagination information
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the page size
      * @return page of reply posts
      */
-    Page<Post> getReplies(UUID postId, Pageable pageable);
+    CursorPage<Post> getReplies(UUID postId, String cursor, int size);
     
     /**
      * Create a reply to a post.
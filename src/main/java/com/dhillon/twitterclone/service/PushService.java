@@ -0,0 +1,67 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.event.NotificationsWrittenEvent;
+import com.dhillon.twitterclone.event.TimelineUpdatedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.UUID;
+
+/**
+ * Service for pushing notifications and new-post hints to connected clients.
+ * Clients subscribe to {@code /topic/users/{userId}/notifications} and {@code /topic/users/{userId}/timeline};
+ * nothing is sent for users without a subscription.
+ */
+public interface PushService {
+
+    /**
+     * Push written notifications to their subscribed recipients.
+     *
+     * @param event the notifications written event
+     */
+    void onNotificationsWritten(NotificationsWrittenEvent event);
+
+    /**
+     * Count a new post for each subscribed user whose timeline received it, to be pushed with the next hint.
+     *
+     * @param event the timeline updated event
+     */
+    void onTimelineUpdated(TimelineUpdatedEvent event);
+
+    /**
+     * Push the pending new-post counts to timeline subscribers.
+     *
+     * @return the number of users sent a hint
+     */
+    int flushTimelineHints();
+
+    /**
+     * Check whether any session is subscribed to a user's topics.
+     *
+     * @param userId the user ID
+     * @return true if the user has a subscriber
+     */
+    boolean hasSubscribers(UUID userId);
+
+    /**
+     * Track a new subscription to a user topic.
+     *
+     * @param event the session subscribe event
+     */
+    void onSubscribe(SessionSubscribeEvent event);
+
+    /**
+     * Stop tracking a subscription.
+     *
+     * @param event the session unsubscribe event
+     */
+    void onUnsubscribe(SessionUnsubscribeEvent event);
+
+    /**
+     * Stop tracking all subscriptions of a closed session.
+     *
+     * @param event the session disconnect event
+     */
+    void onDisconnect(SessionDisconnectEvent event);
+}
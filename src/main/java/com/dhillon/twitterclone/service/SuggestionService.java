@@ -0,0 +1,36 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service for who-to-follow suggestions computed from the follow graph.
+ */
+public interface SuggestionService {
+
+    /**
+     * Get accounts a user may want to follow, best first.
+     * Suggestions are served from a per-user cache and computed on first request.
+     *
+     * @param userId the user ID
+     * @param limit the maximum number of suggestions
+     * @return the suggested users
+     */
+    List<User> getSuggestions(UUID userId, int limit);
+
+    /**
+     * Recompute the suggestions of every cached user.
+     */
+    void refreshSuggestions();
+
+    /**
+     * Update the follower's cached suggestions after a follow or unfollow.
+     * A newly followed account is removed at once; the rest are recomputed on the next read.
+     *
+     * @param event the follow changed event
+     */
+    void onFollowChanged(FollowChangedEvent event);
+}
@@ -0,0 +1,54 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.dto.CursorPage;
+import com.dhillon.twitterclone.entity.Post;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
+import com.dhillon.twitterclone.event.PostCreatedEvent;
+
+import java.util.UUID;
+
+/**
+ * Service for maintaining and reading materialized home timelines.
+ */
+public interface TimelineService {
+
+    /**
+     * Fan a newly created post out to the timelines of the author and their followers.
+     *
+     * @param event the post created event
+     */
+    void fanOut(PostCreatedEvent event);
+
+    /**
+     * Get a user's home timeline from the materialized store, rebuilding it if necessary.
+     *
+     * @param userId the user ID
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size the page size
+     * @return page of posts
+     */
+    CursorPage<Post> getHomeTimeline(UUID userId, String cursor, int size);
+
+    /**
+     * Get a version of a user's materialized timeline that changes whenever a post is pushed into it
+     * or a followed pulled account posts.
+     *
+     * @param userId the user ID
+     * @return the version, or null if the timeline is not materialized
+     */
+    String getVersion(UUID userId);
+
+    /**
+     * Drop a user's materialized timeline so that it is rebuilt on the next read.
+     *
+     * @param userId the user ID
+     */
+    void invalidate(UUID userId);
+
+    /**
+     * Drop the follower's materialized timeline after a follow or unfollow, so it is rebuilt with the change.
+     *
+     * @param event the follow changed event
+     */
+    void onFollowChanged(FollowChangedEvent event);
+}
@@ -0,0 +1,52 @@
+package com.dhillon.twitterclone.service;
+
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Storage for cached per-user unread notification counts.
+ * Counters are only adjusted while cached; a missing counter is loaded from the database on the next read.
+ */
+public interface UnreadCountStore {
+
+    /**
+     * Get a user's cached unread count.
+     *
+     * @param userId the user ID
+     * @return the count, or empty if it is not cached
+     */
+    OptionalLong get(UUID userId);
+
+    /**
+     * Set a user's unread count, replacing any cached value.
+     *
+     * @param userId the user ID
+     * @param count the unread count
+     */
+    void put(UUID userId, long count);
+
+    /**
+     * Cache a user's unread count unless one is already cached.
+     *
+     * @param userId the user ID
+     * @param count the unread count
+     */
+    void putIfAbsent(UUID userId, long count);
+
+    /**
+     * Adjust a user's cached unread count, never going below zero.
+     * Users without a cached count are skipped.
+     *
+     * @param userId the user ID
+     * @param delta the amount to add, negative to decrement
+     */
+    void add(UUID userId, long delta);
+
+    /**
+     * Visit the IDs of all users with a cached count.
+     *
+     * @param action the action to run for each user ID
+     */
+    void forEachUserId(Consumer<UUID> action);
+}
@@ -1,6 +1,8 @@
 package com.dhillon.twitterclone.service;
 
+import com.dhillon.twitterclone.dto.UserDto;
 import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
 
 import java.util.List;
 import java.util.Optional;
@@ -27,6 +29,22 @@ public interface UserService {
      */
     Optional<User> findByUsername(String username);
     
+    /**
+     * Find a user's profile with follower counts by ID, served from the profile cache.
+     *
+     * @param id the user ID
+     * @return optional user DTO if found
+     */
+    Optional<UserDto> findProfileById(UUID id);
+    
+    /**
+     * Find a user's profile with follower counts by username, served from the profile cache.
+     *
+     * @param username the username
+     * @return optional user DTO if found
+     */
+    Optional<UserDto> findProfileByUsername(String username);
+    
     /**
      * Find a user by email.
      *
@@ -82,4 +100,11 @@ public interface UserService {
      * @return true if available, false otherwise
      */
     boolean isEmailAvailable(String email);
-} 
\ No newline at end of file
+    
+    /**
+     * Drop the cached profiles of both users after a follow or unfollow, so their counts are reloaded.
+     *
+     * @param event the follow changed event
+     */
+    void onFollowChanged(FollowChangedEvent event);
+}
@@ -0,0 +1,21 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.dto.ViewerState;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Resolves which posts of a page the viewing user has liked or reposted.
+ */
+public interface ViewerStateResolver {
+
+    /**
+     * Resolve the viewer's state for a page of posts with one query for likes and one for reposts.
+     *
+     * @param viewerId the ID of the viewing user, or null for anonymous viewers
+     * @param postIds the IDs of the posts on the page
+     * @return the viewer state
+     */
+    ViewerState resolve(UUID viewerId, Collection<UUID> postIds);
+}
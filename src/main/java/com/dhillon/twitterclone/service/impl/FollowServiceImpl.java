@@ -0,0 +1,170 @@
+package com.dhillon.twitterclone.service.impl;
+
+import com.dhillon.twitterclone.dto.CursorPage;
+import com.dhillon.twitterclone.dto.TimelineEntry;
+import com.dhillon.twitterclone.dto.UserSummaryDto;
+import com.dhillon.twitterclone.entity.Follow;
+import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
+import com.dhillon.twitterclone.exception.BadRequestException;
+import com.dhillon.twitterclone.exception.ResourceNotFoundException;
+import com.dhillon.twitterclone.repository.FollowRepository;
+import com.dhillon.twitterclone.repository.UserRepository;
+import com.dhillon.twitterclone.service.FollowGraph;
+import com.dhillon.twitterclone.service.FollowService;
+import com.dhillon.twitterclone.util.CursorCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the FollowService interface.
+ * Follower and following counts are stored on users and adjusted with atomic increments alongside each
+ * follow write, so reading them never counts the follows table.
+ * Relationship queries are answered from the in-memory follow graph once it has loaded.
+ */
+@Service
+public class FollowServiceImpl implements FollowService {
+
+    private static final Logger log = LoggerFactory.getLogger(FollowServiceImpl.class);
+
+    private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+    private final FollowGraph followGraph;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param followRepository the follow repository
+     * @param userRepository the user repository
+     * @param followGraph the in-memory follow graph
+     * @param eventPublisher the application event publisher
+     */
+    public FollowServiceImpl(FollowRepository followRepository, UserRepository userRepository,
+                             FollowGraph followGraph, ApplicationEventPublisher eventPublisher) {
+        this.followRepository = followRepository;
+        this.userRepository = userRepository;
+        this.followGraph = followGraph;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public boolean follow(UUID followerId, UUID followingId) {
+        if (followerId.equals(followingId)) {
+            throw new BadRequestException("Users cannot follow themselves");
+        }
+        if (!userRepository.existsById(followerId)) {
+            throw new ResourceNotFoundException("User", "id", followerId);
+        }
+        if (!userRepository.existsById(followingId)) {
+            throw new ResourceNotFoundException("User", "id", followingId);
+        }
+        if (followRepository.existsByFollowerIdAndFollowingId(followerId, followingId)) {
+            return false;
+        }
+
+        followRepository.save(new Follow(userRepository.getReferenceById(followerId),
+                userRepository.getReferenceById(followingId)));
+        userRepository.addToFollowingCount(followerId, 1);
+        userRepository.addToFollowersCount(followingId, 1);
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId, followingId, true));
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean unfollow(UUID followerId, UUID followingId) {
+        if (followRepository.deleteByFollowerIdAndFollowingId(followerId, followingId) == 0) {
+            return false;
+        }
+
+        userRepository.addToFollowingCount(followerId, -1);
+        userRepository.addToFollowersCount(followingId, -1);
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId, followingId, false));
+        return true;
+    }
+
+    @Override
+    public boolean isFollowing(UUID followerId, UUID followingId) {
+        if (followGraph.isLoaded()) {
+            return followGraph.follows(followerId, followingId);
+        }
+        return followRepository.existsByFollowerIdAndFollowingId(followerId, followingId);
+    }
+
+    @Override
+    public List<User> getMutualFollows(UUID userId, int limit) {
+        requireUser(userId);
+
+        PageRequest page = CursorCodec.pageRequest(limit);
+        List<UUID> ids = followGraph.isLoaded()
+                ? followGraph.findMutualFollowIds(userId, page.getPageSize())
+                : followRepository.findMutualFollowIds(userId, page);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Users deleted since the graph saw them are skipped
+        Map<UUID, User> usersById = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream()
+                .map(usersById::get)
+                .filter(user -> user != null)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CursorPage<UserSummaryDto> getFollowers(UUID userId, String cursor, int size) {
+        TimelineEntry after = CursorCodec.decode(cursor);
+        PageRequest page = CursorCodec.pageRequest(size);
+        requireUser(userId);
+        return CursorCodec.toPage(
+                followRepository.findFollowersBefore(userId, after.createdAt(), after.postId(), page),
+                UserSummaryDto::followedAt, UserSummaryDto::id);
+    }
+
+    @Override
+    public CursorPage<UserSummaryDto> getFollowing(UUID userId, String cursor, int size) {
+        TimelineEntry after = CursorCodec.decode(cursor);
+        PageRequest page = CursorCodec.pageRequest(size);
+        requireUser(userId);
+        return CursorCodec.toPage(
+                followRepository.findFollowingBefore(userId, after.createdAt(), after.postId(), page),
+                UserSummaryDto::followedAt, UserSummaryDto::id);
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${app.user.follow-count-repair-cron:0 30 3 * * *}")
+    public int repairFollowCounts() {
+        int repaired = userRepository.repairFollowCounts();
+        if (repaired > 0) {
+            log.info("Repaired follow counts of {} users", repaired);
+        }
+        return repaired;
+    }
+
+    /**
+     * Check that a user exists.
+     *
+     * @param userId the user ID
+     * @throws ResourceNotFoundException if the user does not exist
+     */
+    private void requireUser(UUID userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+    }
+}
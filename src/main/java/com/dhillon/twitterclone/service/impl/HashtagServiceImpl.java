@@ -0,0 +1,169 @@
+package com.dhillon.twitterclone.service.impl;
+
+import com.dhillon.twitterclone.config.HashtagProperties;
+import com.dhillon.twitterclone.dto.HashtagDto;
+import com.dhillon.twitterclone.entity.Hashtag;
+import com.dhillon.twitterclone.event.HashtagUsageChangedEvent;
+import com.dhillon.twitterclone.repository.HashtagRepository;
+import com.dhillon.twitterclone.service.HashtagService;
+import com.dhillon.twitterclone.util.TopKCounter;
+import com.dhillon.twitterclone.util.TrendingTracker;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Implementation of the HashtagService interface.
+ * Post count changes are summed per hashtag in memory and flushed as one batched update, so a burst of posts
+ * on the same tag costs one row update per flush. Trending hashtags are served from an in-memory top-K that
+ * is adjusted as changes arrive and refreshed from the database for tags outside it after each flush.
+ * Trending hashtags are ranked by recent use only, from a decayed sliding window fed by the same changes.
+ */
+@Service
+public class HashtagServiceImpl implements HashtagService {
+
+    private static final Logger log = LoggerFactory.getLogger(HashtagServiceImpl.class);
+
+    private final HashtagRepository hashtagRepository;
+    private final TaskScheduler taskScheduler;
+    private final TopKCounter<String> topHashtags;
+    private final TrendingTracker<String> trendingHashtags;
+    private final int topKCapacity;
+    private final Duration flushInterval;
+
+    // Post count changes not yet written to the database
+    private final Map<String, Long> pendingDeltas = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> flushTask;
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param hashtagRepository the hashtag repository
+     * @param taskScheduler the task scheduler running the periodic flush
+     * @param properties the hashtag properties
+     */
+    public HashtagServiceImpl(HashtagRepository hashtagRepository, TaskScheduler taskScheduler,
+                              HashtagProperties properties) {
+        this.hashtagRepository = hashtagRepository;
+        this.taskScheduler = taskScheduler;
+        this.topKCapacity = properties.topKCapacity();
+        this.topHashtags = new TopKCounter<>(topKCapacity);
+        this.flushInterval = properties.flushInterval();
+
+        HashtagProperties.Trending trending = properties.trending();
+        this.trendingHashtags = new TrendingTracker<>(trending.bucketDuration().toMillis(), trending.bucketCount(),
+                trending.halfLife().toMillis(), trending.capacity(), trending.sketchWidth(), trending.sketchDepth());
+    }
+
+    /**
+     * Start the periodic flush of aggregated post counts.
+     */
+    @PostConstruct
+    public void startFlushing() {
+        flushTask = taskScheduler.scheduleWithFixedDelay(this::flushPostCounts, flushInterval);
+    }
+
+    /**
+     * Seed the top-K from the persisted counts once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTopHashtags() {
+        hashtagRepository.findAllByOrderByPostCountDesc(PageRequest.of(0, topKCapacity))
+                .forEach(hashtag -> topHashtags.offer(hashtag.getName(), hashtag.getPostCount()));
+    }
+
+    @Override
+    @TransactionalEventListener
+    public void onHashtagUsageChanged(HashtagUsageChangedEvent event) {
+        long now = System.currentTimeMillis();
+        event.deltas().forEach((name, delta) -> {
+            if (delta != 0) {
+                pendingDeltas.merge(name, (long) delta, Long::sum);
+                topHashtags.add(name, delta);
+            }
+            // Trending reflects when hashtags were used, so later removals do not rewind it
+            if (delta > 0) {
+                trendingHashtags.add(name, delta, now);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void flushPostCounts() {
+        Map<String, Long> batch = new HashMap<>();
+        // remove() hands over each sum atomically; changes arriving afterwards start a new entry
+        for (String name : pendingDeltas.keySet()) {
+            Long delta = pendingDeltas.remove(name);
+            if (delta != null && delta != 0) {
+                batch.put(name, delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            hashtagRepository.applyPostCountDeltas(batch);
+        } catch (RuntimeException e) {
+            // Keep the changes for the next flush rather than losing them
+            batch.forEach((name, delta) -> pendingDeltas.merge(name, delta, Long::sum));
+            log.warn("Failed to flush post counts for {} hashtags, will retry", batch.size(), e);
+            return;
+        }
+
+        // Tags that just gained posts may now belong in the top-K
+        List<String> candidates = new ArrayList<>();
+        batch.forEach((name, delta) -> {
+            if (delta > 0 && !topHashtags.contains(name)) {
+                candidates.add(name);
+            }
+        });
+        if (!candidates.isEmpty()) {
+            for (Hashtag hashtag : hashtagRepository.findByNameIn(candidates)) {
+                long unflushed = pendingDeltas.getOrDefault(hashtag.getName(), 0L);
+                topHashtags.offer(hashtag.getName(), hashtag.getPostCount() + unflushed);
+            }
+        }
+        log.debug("Flushed post counts for {} hashtags", batch.size());
+    }
+
+    /**
+     * Write outstanding changes before the application shuts down.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        flushPostCounts();
+    }
+
+    @Override
+    public List<HashtagDto> getTopHashtags(int limit) {
+        return topHashtags.top(limit).stream()
+                .map(entry -> new HashtagDto(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    public List<HashtagDto> getTrendingHashtags(Duration window, int limit) {
+        return trendingHashtags.top(window.toMillis(), limit, System.currentTimeMillis()).stream()
+                .map(trend -> new HashtagDto(trend.key(), trend.count()))
+                .toList();
+    }
+}
@@ -0,0 +1,386 @@
+package com.dhillon.twitterclone.service.impl;
+
+import com.dhillon.twitterclone.cache.CacheInvalidationBus;
+import com.dhillon.twitterclone.cache.CacheNames;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
+import com.dhillon.twitterclone.repository.FollowRepository;
+import com.dhillon.twitterclone.service.FollowGraph;
+import com.dhillon.twitterclone.util.SortedIntSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory follow graph.
+ * User IDs are mapped to dense int IDs and each user's followers and followings are kept as sorted int arrays,
+ * so a relationship check is a binary search and mutual follows are a linear merge of two arrays.
+ * Follow suggestions count two-hop paths in parallel on the common fork/join pool.
+ * <p>
+ * Each node holds its own copy. Follow changes committed on a node are sent to the others over the invalidation
+ * bus as changed edges, which the receivers re-read from the database, so messages arriving late or out of order
+ * still leave the right edge. The graph is also reloaded periodically, which repairs edges whose message was lost.
+ */
+@Component
+public class InMemoryFollowGraph implements FollowGraph {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryFollowGraph.class);
+
+    // Followed accounts counted by one fork/join leaf
+    private static final int SUGGESTION_CHUNK = 32;
+
+    private final FollowRepository followRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Graph graph = new Graph();
+    private List<FollowChangedEvent> changesDuringLoad;
+    private boolean loaded;
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param followRepository the follow repository
+     * @param invalidationBus the bus exchanging changed edges with other nodes, or null for none
+     */
+    public InMemoryFollowGraph(FollowRepository followRepository, CacheInvalidationBus invalidationBus) {
+        this.followRepository = followRepository;
+        this.invalidationBus = invalidationBus;
+        if (invalidationBus != null) {
+            invalidationBus.subscribe((cacheName, keys) -> {
+                if (CacheNames.FOLLOW_GRAPH.equals(cacheName)) {
+                    refreshEdges(keys);
+                }
+            });
+        }
+    }
+
+    /**
+     * Load the graph in the background once the application has started.
+     */
+    @Override
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringLoad != null) {
+                return;
+            }
+            changesDuringLoad = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.nanoTime();
+        Graph loading = new Graph();
+        try {
+            followRepository.forEachFollow(loading::appendUnordered);
+            loading.compact();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            changesDuringLoad = null;
+            lock.writeLock().unlock();
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Replaying is idempotent, so changes already visible to the load are harmless
+            changesDuringLoad.forEach(loading::apply);
+            changesDuringLoad = null;
+            graph = loading;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded follow graph of {} users in {} ms",
+                loading.userCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.follow-graph.reload-interval:PT1H}",
+               initialDelayString = "${app.follow-graph.reload-interval:PT1H}")
+    public void reload() {
+        load();
+    }
+
+    @Override
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    @TransactionalEventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        apply(event);
+        if (invalidationBus != null) {
+            invalidationBus.publish(CacheNames.FOLLOW_GRAPH, event.followerId() + ":" + event.followingId());
+        }
+    }
+
+    @Override
+    public boolean follows(UUID followerId, UUID followingId) {
+        lock.readLock().lock();
+        try {
+            Integer follower = graph.ids.get(followerId);
+            Integer following = graph.ids.get(followingId);
+            return follower != null && following != null && graph.following.get(follower).contains(following);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int followerCount(UUID userId) {
+        lock.readLock().lock();
+        try {
+            Integer id = graph.ids.get(userId);
+            return id != null ? graph.followers.get(id).size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int followingCount(UUID userId) {
+        lock.readLock().lock();
+        try {
+            Integer id = graph.ids.get(userId);
+            return id != null ? graph.following.get(id).size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<UUID> findMutualFollowIds(UUID userId, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer id = graph.ids.get(userId);
+            if (id == null) {
+                return List.of();
+            }
+            int[] mutuals = graph.following.get(id).intersect(graph.followers.get(id), limit);
+            List<UUID> result = new ArrayList<>(mutuals.length);
+            for (int mutual : mutuals) {
+                result.add(graph.uuids.get(mutual));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<UUID> findFollowSuggestions(UUID userId, int limit, int sampleSize, long deadlineNanos) {
+        Graph snapshot;
+        int id;
+        int[] followed;
+        lock.readLock().lock();
+        try {
+            snapshot = graph;
+            Integer found = snapshot.ids.get(userId);
+            if (found == null) {
+                return List.of();
+            }
+            id = found;
+            followed = sample(snapshot.following.get(id), sampleSize);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (followed.length == 0) {
+            return List.of();
+        }
+
+        // Leaves take the read lock themselves; holding it here while they wait could deadlock behind a writer
+        Map<Integer, Double> scores = ForkJoinPool.commonPool().invoke(
+                new TwoHopTask(snapshot, followed, 0, followed.length, sampleSize, deadlineNanos));
+
+        lock.readLock().lock();
+        try {
+            SortedIntSet alreadyFollowed = snapshot.following.get(id);
+            return scores.entrySet().stream()
+                    .filter(entry -> entry.getKey() != id && !alreadyFollowed.contains(entry.getKey()))
+                    .sorted(Map.Entry.<Integer, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(entry -> snapshot.uuids.get(entry.getKey()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-read edges changed on another node from the database and apply them.
+     *
+     * @param keys the changed edges, as follower and following ID separated by a colon
+     */
+    private void refreshEdges(Collection<String> keys) {
+        for (String key : keys) {
+            int separator = key.indexOf(':');
+            UUID followerId = UUID.fromString(key.substring(0, separator));
+            UUID followingId = UUID.fromString(key.substring(separator + 1));
+            apply(new FollowChangedEvent(followerId, followingId,
+                    followRepository.existsByFollowerIdAndFollowingId(followerId, followingId)));
+        }
+    }
+
+    /**
+     * Apply a follow or unfollow to the graph, and to the graph being loaded if a load is in progress.
+     *
+     * @param event the follow changed event
+     */
+    private void apply(FollowChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            graph.apply(event);
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Pick up to a number of values spread evenly across a set.
+     *
+     * @param set the set
+     * @param sampleSize the maximum number of values
+     * @return the sampled values
+     */
+    private static int[] sample(SortedIntSet set, int sampleSize) {
+        int count = Math.min(set.size(), sampleSize);
+        int[] sampled = new int[count];
+        for (int i = 0; i < count; i++) {
+            sampled[i] = set.get((int) ((long) i * set.size() / count));
+        }
+        return sampled;
+    }
+
+    /**
+     * Scores the followings of a range of followed accounts, splitting the range across the pool.
+     */
+    private final class TwoHopTask extends RecursiveTask<Map<Integer, Double>> {
+
+        private final Graph snapshot;
+        private final int[] followed;
+        private final int from;
+        private final int to;
+        private final int sampleSize;
+        private final long deadlineNanos;
+
+        TwoHopTask(Graph snapshot, int[] followed, int from, int to, int sampleSize, long deadlineNanos) {
+            this.snapshot = snapshot;
+            this.followed = followed;
+            this.from = from;
+            this.to = to;
+            this.sampleSize = sampleSize;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        protected Map<Integer, Double> compute() {
+            if (to - from > SUGGESTION_CHUNK) {
+                int middle = (from + to) >>> 1;
+                TwoHopTask right = new TwoHopTask(snapshot, followed, middle, to, sampleSize, deadlineNanos);
+                right.fork();
+                Map<Integer, Double> scores = new TwoHopTask(
+                        snapshot, followed, from, middle, sampleSize, deadlineNanos).compute();
+                right.join().forEach((candidate, score) -> scores.merge(candidate, score, Double::sum));
+                return scores;
+            }
+
+            Map<Integer, Double> scores = new HashMap<>();
+            lock.readLock().lock();
+            try {
+                for (int i = from; i < to && System.nanoTime() < deadlineNanos; i++) {
+                    SortedIntSet followings = snapshot.following.get(followed[i]);
+                    double weight = 1.0 / Math.log(2 + followings.size());
+                    for (int candidate : sample(followings, sampleSize)) {
+                        scores.merge(candidate, weight, Double::sum);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return scores;
+        }
+    }
+
+    /**
+     * Adjacency of every user with at least one follow, indexed by dense int ID.
+     */
+    private static final class Graph {
+
+        private final Map<UUID, Integer> ids = new HashMap<>();
+        private final List<UUID> uuids = new ArrayList<>();
+        private final List<SortedIntSet> following = new ArrayList<>();
+        private final List<SortedIntSet> followers = new ArrayList<>();
+
+        void apply(FollowChangedEvent event) {
+            int follower = idOf(event.followerId());
+            int followed = idOf(event.followingId());
+            if (event.following()) {
+                following.get(follower).add(followed);
+                followers.get(followed).add(follower);
+            } else {
+                following.get(follower).remove(followed);
+                followers.get(followed).remove(follower);
+            }
+        }
+
+        void appendUnordered(UUID followerId, UUID followingId) {
+            int follower = idOf(followerId);
+            int followed = idOf(followingId);
+            following.get(follower).appendUnordered(followed);
+            followers.get(followed).appendUnordered(follower);
+        }
+
+        void compact() {
+            following.forEach(SortedIntSet::compact);
+            followers.forEach(SortedIntSet::compact);
+        }
+
+        int userCount() {
+            return uuids.size();
+        }
+
+        private int idOf(UUID userId) {
+            Integer id = ids.get(userId);
+            if (id != null) {
+                return id;
+            }
+            int newId = uuids.size();
+            ids.put(userId, newId);
+            uuids.add(userId);
+            following.add(new SortedIntSet());
+            followers.add(new SortedIntSet());
+            return newId;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.dhillon.twitterclone.service.impl;
+
+import com.dhillon.twitterclone.cache.BoundedMap;
+import com.dhillon.twitterclone.config.TimelineProperties;
+import com.dhillon.twitterclone.dto.TimelineEntry;
+import com.dhillon.twitterclone.service.HomeTimelineStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-local home timeline store.
+ * Suitable for a single node; timelines are rebuilt from the database after a restart.
+ * Once the user bound is exceeded the least recently read timelines are dropped and rebuilt on demand.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.timeline", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryHomeTimelineStore implements HomeTimelineStore {
+
+    private final BoundedMap<UUID, Timeline> timelines;
+    private final Set<UUID> pullAuthors = ConcurrentHashMap.newKeySet();
+    // Every timeline instance gets its own generation, so one created after an eviction never matches an older one
+    private final AtomicLong generations = new AtomicLong();
+    private final int maxSize;
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param properties the timeline properties
+     */
+    public InMemoryHomeTimelineStore(TimelineProperties properties) {
+        this.maxSize = properties.maxSize();
+        this.timelines = new BoundedMap<>(properties.maxCachedUsers());
+    }
+
+    @Override
+    public boolean isMaterialized(UUID userId) {
+        Timeline timeline = timelines.peek(userId);
+        return timeline != null && timeline.isMaterialized();
+    }
+
+    @Override
+    public long beginRebuild(UUID userId) {
+        // Pushes land in the placeholder while the rebuild reads the database
+        Timeline timeline = new Timeline(generations.incrementAndGet());
+        Timeline present = timelines.putIfAbsent(userId, timeline);
+        return (present != null ? present : timeline).generation;
+    }
+
+    @Override
+    public boolean replace(UUID userId, long generation, List<TimelineEntry> entries) {
+        // Filled in place, so a push holding the placeholder cannot add to an instance that was swapped out
+        Timeline timeline = timelines.peek(userId);
+        if (timeline == null || timeline.generation != generation) {
+            return false;
+        }
+        timeline.fill(entries, maxSize);
+        return true;
+    }
+
+    @Override
+    public void push(Collection<UUID> userIds, TimelineEntry entry) {
+        for (UUID userId : userIds) {
+            Timeline timeline = timelines.peek(userId);
+            if (timeline != null) {
+                timeline.add(entry, maxSize);
+            }
+        }
+    }
+
+    @Override
+    public List<TimelineEntry> range(UUID userId, TimelineEntry after, int limit) {
+        Timeline timeline = timelines.get(userId);
+        return timeline != null ? timeline.range(after, limit) : List.of();
+    }
+
+    @Override
+    public long size(UUID userId) {
+        Timeline timeline = timelines.peek(userId);
+        return timeline != null ? timeline.size() : 0;
+    }
+
+    @Override
+    public void evict(UUID userId) {
+        // The placeholder of a rebuild in progress goes too, which moves the timeline on to a new generation
+        timelines.remove(userId);
+    }
+
+    @Override
+    public void addPullAuthor(UUID authorId) {
+        pullAuthors.add(authorId);
+    }
+
+    @Override
+    public Set<UUID> getPullAuthors() {
+        return Set.copyOf(pullAuthors);
+    }
+
+    /**
+     * A single user's timeline, kept sorted newest first and trimmed to the configured size.
+     * Until it is filled by a rebuild it only collects pushes and is not materialized.
+     */
+    private static final class Timeline {
+
+        private final TreeSet<TimelineEntry> entries = new TreeSet<>(TimelineEntry.NEWEST_FIRST);
+        private final long generation;
+        private boolean materialized;
+
+        Timeline(long generation) {
+            this.generation = generation;
+        }
+
+        synchronized boolean isMaterialized() {
+            return materialized;
+        }
+
+        synchronized void fill(List<TimelineEntry> rebuilt, int maxSize) {
+            rebuilt.forEach(entry -> add(entry, maxSize));
+            materialized = true;
+        }
+
+        synchronized void add(TimelineEntry entry, int maxSize) {
+            entries.add(entry);
+            while (entries.size() > maxSize) {
+                entries.pollLast();
+            }
+        }
+
+        synchronized List<TimelineEntry> range(TimelineEntry after, int limit) {
+            List<TimelineEntry> result = new ArrayList<>(Math.min(limit, entries.size()));
+            for (TimelineEntry entry : entries.tailSet(after, false)) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.add(entry);
+            }
+            return result;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.dhillon.twitterclone.service.impl;
+
+import com.dhillon.twitterclone.cache.BoundedMap;
+import com.dhillon.twitterclone.config.NotificationProperties;
+import com.dhillon.twitterclone.service.UnreadCountStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Process-local unread count store.
+ * Suitable for a single node; counters are reloaded from the database after a restart.
+ * Once the user bound is exceeded the least recently read counters are dropped and reloaded on demand.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.notifications.unread", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryUnreadCountStore implements UnreadCountStore {
+
+    private final BoundedMap<UUID, Long> counts;
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param properties the notification properties
+     */
+    public InMemoryUnreadCountStore(NotificationProperties properties) {
+        this.counts = new BoundedMap<>(properties.unread().maxCachedUsers());
+    }
+
+    @Override
+    public OptionalLong get(UUID userId) {
+        Long count = counts.get(userId);
+        return count != null ? OptionalLong.of(count) : OptionalLong.empty();
+    }
+
+    @Override
+    public void put(UUID userId, long count) {
+        counts.put(userId, count);
+    }
+
+    @Override
+    public void putIfAbsent(UUID userId, long count) {
+        counts.putIfAbsent(userId, count);
+    }
+
+    @Override
+    public void add(UUID userId, long delta) {
+        counts.computeIfPresent(userId, (id, count) -> Math.max(0, count + delta));
+    }
+
+    @Override
+    public void forEachUserId(Consumer<UUID> action) {
+        counts.keySet().forEach(action);
+    }
+}
@@ -0,0 +1,271 @@
+package com.dhillon.twitterclone.service.impl;
+
+import com.dhillon.twitterclone.cache.CacheNames;
+import com.dhillon.twitterclone.config.LikeProperties;
+import com.dhillon.twitterclone.entity.NotificationType;
+import com.dhillon.twitterclone.event.NotificationEvent;
+import com.dhillon.twitterclone.exception.ResourceNotFoundException;
+import com.dhillon.twitterclone.repository.LikeRepository;
+import com.dhillon.twitterclone.repository.LikeRepositoryCustom.LikeRef;
+import com.dhillon.twitterclone.repository.PostRepository;
+import com.dhillon.twitterclone.repository.UserRepository;
+import com.dhillon.twitterclone.service.LikeService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Implementation of the LikeService interface using a write-behind buffer.
+ * Likes are recorded in memory, with like count changes summed per post in striped counters, and written
+ * in one batched transaction per flush. A burst of likes on a viral post therefore costs one row update per
+ * flush instead of one contended update per like.
+ * Like counts are recounted from the likes table the first time a post is flushed after startup, so counts
+ * left inconsistent by a crash or another node are repaired as soon as the post is liked again.
+ */
+@Service
+public class LikeServiceImpl implements LikeService {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeServiceImpl.class);
+
+    private final LikeRepository likeRepository;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final TaskScheduler taskScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache postCache;
+    private final Duration flushInterval;
+    private final int reconciledPostsCapacity;
+
+    // Recording takes the read lock so many likes proceed in parallel; a flush takes the write lock only to swap buffers
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Buffer current = new Buffer();
+    // The buffer being written, consulted until its transaction has committed
+    private volatile Buffer flushing;
+
+    // Posts whose like counts have been recounted since startup
+    private final Set<UUID> reconciledPosts = ConcurrentHashMap.newKeySet();
+    private ScheduledFuture<?> flushTask;
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param likeRepository the like repository
+     * @param postRepository the post repository
+     * @param userRepository the user repository
+     * @param taskScheduler the task scheduler running the periodic flush
+     * @param eventPublisher the application event publisher
+     * @param cacheManager the cache manager
+     * @param properties the like properties
+     */
+    public LikeServiceImpl(LikeRepository likeRepository, PostRepository postRepository,
+                           UserRepository userRepository, TaskScheduler taskScheduler,
+                           ApplicationEventPublisher eventPublisher, CacheManager cacheManager,
+                           LikeProperties properties) {
+        this.likeRepository = likeRepository;
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.taskScheduler = taskScheduler;
+        this.eventPublisher = eventPublisher;
+        this.postCache = cacheManager.getCache(CacheNames.POSTS);
+        this.flushInterval = properties.flushInterval();
+        this.reconciledPostsCapacity = properties.reconciledPostsCapacity();
+    }
+
+    /**
+     * Start the periodic flush of buffered likes.
+     */
+    @PostConstruct
+    public void startFlushing() {
+        flushTask = taskScheduler.scheduleWithFixedDelay(this::flushLikes, flushInterval);
+    }
+
+    @Override
+    public boolean like(UUID userId, UUID postId) {
+        return record(userId, postId, true);
+    }
+
+    @Override
+    public boolean unlike(UUID userId, UUID postId) {
+        return record(userId, postId, false);
+    }
+
+    @Override
+    public Map<UUID, Boolean> getPendingLikes(UUID userId, Collection<UUID> postIds) {
+        Buffer buffer = current;
+        Buffer inFlight = flushing;
+        if (buffer.changes.isEmpty() && inFlight == null) {
+            return Map.of();
+        }
+
+        Map<UUID, Boolean> pending = new HashMap<>();
+        for (UUID postId : postIds) {
+            LikeRef like = new LikeRef(userId, postId);
+            Boolean liked = buffer.changes.get(like);
+            if (liked == null && inFlight != null) {
+                liked = inFlight.changes.get(like);
+            }
+            if (liked != null) {
+                pending.put(postId, liked);
+            }
+        }
+        return pending;
+    }
+
+    @Override
+    public synchronized void flushLikes() {
+        Buffer batch;
+        swapLock.writeLock().lock();
+        try {
+            if (current.changes.isEmpty()) {
+                return;
+            }
+            batch = current;
+            flushing = batch;
+            current = new Buffer();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        Map<UUID, Long> deltas = new HashMap<>();
+        Set<UUID> recount = new HashSet<>();
+        for (LikeRef like : batch.changes.keySet()) {
+            if (!reconciledPosts.contains(like.postId())) {
+                recount.add(like.postId());
+            }
+        }
+        batch.deltas.forEach((postId, adder) -> {
+            long delta = adder.sum();
+            if (delta != 0 && !recount.contains(postId)) {
+                deltas.put(postId, delta);
+            }
+        });
+
+        try {
+            likeRepository.applyLikeChanges(batch.changes, deltas, recount);
+        } catch (RuntimeException e) {
+            requeue(batch);
+            log.warn("Failed to flush {} like changes, will retry", batch.changes.size(), e);
+            return;
+        } finally {
+            flushing = null;
+        }
+        // Cached posts carry their like counts, so the ones just written are reloaded on the next read
+        deltas.keySet().forEach(postCache::evict);
+        recount.forEach(postCache::evict);
+
+        // A bounded memory of recounted posts; forgetting them only costs another recount
+        if (reconciledPosts.size() + recount.size() > reconciledPostsCapacity) {
+            reconciledPosts.clear();
+        }
+        reconciledPosts.addAll(recount);
+        log.debug("Flushed {} like changes across {} posts", batch.changes.size(), deltas.size() + recount.size());
+    }
+
+    /**
+     * Write outstanding likes before the application shuts down.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        flushLikes();
+    }
+
+    /**
+     * Record the latest like state of a user for a post, counting it only if it changes the state.
+     *
+     * @param userId the ID of the user
+     * @param postId the ID of the post
+     * @param liked the new state
+     * @return true if the state changed
+     */
+    private boolean record(UUID userId, UUID postId, boolean liked) {
+        UUID authorId = postRepository.findAuthorIdById(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+
+        LikeRef like = new LikeRef(userId, postId);
+        boolean[] changed = new boolean[1];
+        swapLock.readLock().lock();
+        try {
+            Buffer buffer = current;
+            // compute() serializes concurrent requests for the same like, so each state change is counted once
+            buffer.changes.compute(like, (key, pending) -> {
+                boolean wasLiked = pending != null ? pending : isLikedInStore(key);
+                changed[0] = wasLiked != liked;
+                return changed[0] ? Boolean.valueOf(liked) : pending;
+            });
+            if (changed[0]) {
+                buffer.deltas.computeIfAbsent(postId, id -> new LongAdder()).add(liked ? 1 : -1);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+
+        if (changed[0] && liked) {
+            eventPublisher.publishEvent(new NotificationEvent(authorId, userId, NotificationType.LIKE, postId));
+        }
+        return changed[0];
+    }
+
+    /**
+     * Check whether a like exists, including likes whose flush is in progress.
+     *
+     * @param like the like
+     * @return true if the like exists
+     */
+    private boolean isLikedInStore(LikeRef like) {
+        Buffer inFlight = flushing;
+        Boolean pending = inFlight != null ? inFlight.changes.get(like) : null;
+        return pending != null ? pending : likeRepository.existsByUserIdAndPostId(like.userId(), like.postId());
+    }
+
+    /**
+     * Return a failed batch to the current buffer. Changes recorded since the swap are newer and win.
+     *
+     * @param batch the failed batch
+     */
+    private void requeue(Buffer batch) {
+        swapLock.readLock().lock();
+        try {
+            batch.changes.forEach(current.changes::putIfAbsent);
+            batch.deltas.forEach((postId, adder) ->
+                    current.deltas.computeIfAbsent(postId, id -> new LongAdder()).add(adder.sum()));
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Likes recorded since the last swap.
+     */
+    private static final class Buffer {
+
+        // Latest like state per user and post
+        final Map<LikeRef, Boolean> changes = new ConcurrentHashMap<>();
+        // Like count change per post
+        final Map<UUID, LongAdder> deltas = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,374 @@
+package com.dhillon.twitterclone.service.impl;
+
+import com.dhillon.twitterclone.config.NotificationProperties;
+import com.dhillon.twitterclone.entity.NotificationType;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
+import com.dhillon.twitterclone.event.NotificationEvent;
+import com.dhillon.twitterclone.event.NotificationsReadEvent;
+import com.dhillon.twitterclone.event.NotificationsWrittenEvent;
+import com.dhillon.twitterclone.repository.NotificationRepository;
+import com.dhillon.twitterclone.repository.NotificationRepositoryCustom.NewNotification;
+import com.dhillon.twitterclone.repository.NotificationRepositoryCustom.WriteResult;
+import com.dhillon.twitterclone.service.NotificationService;
+import com.dhillon.twitterclone.service.UnreadCountStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of the NotificationService interface using a bounded queue and batched JDBC inserts.
+ * Producers only pay for a queue offer after their transaction has committed; a periodic flush writes
+ * queued notifications in batches. A full queue holds producers back for a short timeout and then drops,
+ * so a slow database cannot exhaust memory. Queue depth and drop counts are exposed over JMX.
+ * A batch whose write keeps failing is split in half after a few retries, so one bad notification only costs
+ * itself, and a single notification that still fails is dropped and logged.
+ * Likes, reposts and follows of the same target within a window are coalesced into one notification,
+ * first within each batch and then into the recipient's existing row.
+ * Unread counts are served from a counter store kept up to date by the writes and mark-read operations,
+ * with a periodic recount correcting any drift.
+ */
+@Service
+@ManagedResource(objectName = "com.dhillon.twitterclone:type=NotificationPipeline",
+        description = "Asynchronous notification pipeline")
+public class NotificationServiceImpl implements NotificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationServiceImpl.class);
+
+    private final NotificationRepository notificationRepository;
+    private final UnreadCountStore unreadCountStore;
+    private final TaskScheduler taskScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<NewNotification> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+    private final long coalesceWindowMillis;
+    private final int reconcileBatchSize;
+    private final int maxRetries;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    // Batches whose write failed, retried in order before anything else is taken from the queue; guarded by this
+    private final Deque<FailedBatch> retries = new ArrayDeque<>();
+    private ScheduledFuture<?> flushTask;
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param notificationRepository the notification repository
+     * @param unreadCountStore the unread count store
+     * @param taskScheduler the task scheduler running the periodic flush
+     * @param eventPublisher the application event publisher
+     * @param properties the notification properties
+     */
+    public NotificationServiceImpl(NotificationRepository notificationRepository, UnreadCountStore unreadCountStore,
+                                   TaskScheduler taskScheduler, ApplicationEventPublisher eventPublisher,
+                                   NotificationProperties properties) {
+        this.notificationRepository = notificationRepository;
+        this.unreadCountStore = unreadCountStore;
+        this.taskScheduler = taskScheduler;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.batchSize = properties.batchSize();
+        this.flushInterval = properties.flushInterval();
+        this.offerTimeout = properties.offerTimeout();
+        this.coalesceWindowMillis = properties.coalesceWindow().toMillis();
+        this.reconcileBatchSize = properties.unread().reconcileBatchSize();
+        this.maxRetries = properties.maxRetries();
+    }
+
+    /**
+     * Start the periodic flush of queued notifications.
+     */
+    @PostConstruct
+    public void startFlushing() {
+        flushTask = taskScheduler.scheduleWithFixedDelay(this::flushNotifications, flushInterval);
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotification(NotificationEvent event) {
+        if (event.recipientId().equals(event.actorId())) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        NewNotification notification = event.type().isGrouped()
+                ? new NewNotification(event.recipientId(), event.type(), event.actorId(), event.postId(), now,
+                        groupKey(event), List.of(event.actorId()))
+                : new NewNotification(event.recipientId(), event.type(), event.actorId(), event.postId(), now);
+        try {
+            if (queue.offer(notification, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                queued.increment();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.increment();
+        log.debug("Dropped {} notification for user {}, queue full", event.type(), event.recipientId());
+    }
+
+    @Override
+    @TransactionalEventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        if (event.following()) {
+            onNotification(new NotificationEvent(event.followingId(), event.followerId(), NotificationType.FOLLOW, null));
+        }
+    }
+
+    @Override
+    public synchronized int flushNotifications() {
+        int total = 0;
+        boolean more = true;
+        while (more) {
+            FailedBatch failed = retries.pollFirst();
+            List<NewNotification> batch;
+            if (failed != null) {
+                batch = failed.notifications();
+            } else {
+                batch = new ArrayList<>(batchSize);
+                more = queue.drainTo(batch, batchSize) == batchSize;
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<NewNotification> merged = coalesce(batch);
+                coalesced.add(batch.size() - merged.size());
+                batch = merged;
+            }
+
+            try {
+                WriteResult result = notificationRepository.insertNotifications(batch);
+                result.unreadAdded().forEach(unreadCountStore::add);
+                total += result.written();
+                eventPublisher.publishEvent(new NotificationsWrittenEvent(batch));
+            } catch (RuntimeException e) {
+                failedBatches.increment();
+                onWriteFailed(batch, failed != null ? failed.failures() + 1 : 1, e);
+                break;
+            }
+            written.add(batch.size());
+        }
+
+        if (total > 0) {
+            log.debug("Wrote {} notifications", total);
+        }
+        return total;
+    }
+
+    /**
+     * Schedule a failed batch for another attempt, split it once it has failed too often,
+     * or drop it if it is a single notification.
+     *
+     * @param batch the batch
+     * @param failures the number of times the batch has failed to write
+     * @param cause the exception of the last failure
+     */
+    private void onWriteFailed(List<NewNotification> batch, int failures, RuntimeException cause) {
+        if (failures <= maxRetries) {
+            retries.addFirst(new FailedBatch(batch, failures));
+            log.warn("Failed to write {} notifications, will retry", batch.size(), cause);
+        } else if (batch.size() > 1) {
+            int half = batch.size() / 2;
+            retries.addFirst(new FailedBatch(batch.subList(half, batch.size()), 0));
+            retries.addFirst(new FailedBatch(batch.subList(0, half), 0));
+            log.warn("Failed to write {} notifications {} times, splitting the batch", batch.size(), failures, cause);
+        } else {
+            NewNotification notification = batch.get(0);
+            deadLettered.increment();
+            log.error("Dropped {} notification for user {} after {} failed writes: {}", notification.type(),
+                    notification.userId(), failures, notification, cause);
+        }
+    }
+
+    @Override
+    public long getUnreadCount(UUID userId) {
+        OptionalLong cached = unreadCountStore.get(userId);
+        if (cached.isPresent()) {
+            return cached.getAsLong();
+        }
+        long count = notificationRepository.countByUserIdAndReadFalse(userId);
+        // A write landing between the count and this put is missed until the next reconciliation
+        unreadCountStore.putIfAbsent(userId, count);
+        return count;
+    }
+
+    @Override
+    @Transactional
+    public int markAllAsRead(UUID userId) {
+        int updated = notificationRepository.markAllAsRead(userId);
+        if (updated > 0) {
+            eventPublisher.publishEvent(new NotificationsReadEvent(userId, updated));
+        }
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public boolean markAsRead(UUID userId, UUID notificationId) {
+        if (notificationRepository.markAsRead(notificationId, userId) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new NotificationsReadEvent(userId, 1));
+        return true;
+    }
+
+    @Override
+    @TransactionalEventListener
+    public void onNotificationsRead(NotificationsReadEvent event) {
+        unreadCountStore.add(event.userId(), -event.count());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.notifications.unread.reconcile-interval:PT10M}")
+    public int reconcileUnreadCounts() {
+        List<UUID> userIds = new ArrayList<>();
+        unreadCountStore.forEachUserId(userIds::add);
+        for (int from = 0; from < userIds.size(); from += reconcileBatchSize) {
+            List<UUID> chunk = userIds.subList(from, Math.min(from + reconcileBatchSize, userIds.size()));
+            Map<UUID, Long> counts = notificationRepository.countUnreadByUserIdIn(chunk);
+            chunk.forEach(userId -> unreadCountStore.put(userId, counts.getOrDefault(userId, 0L)));
+        }
+        log.debug("Reconciled {} unread counters", userIds.size());
+        return userIds.size();
+    }
+
+    /**
+     * Build the key a grouped notification merges under: its type, target post and coalescing window.
+     *
+     * @param event the notification event
+     * @return the group key
+     */
+    private String groupKey(NotificationEvent event) {
+        long window = System.currentTimeMillis() / coalesceWindowMillis;
+        return event.type() + ":" + (event.postId() != null ? event.postId() : "") + ":" + window;
+    }
+
+    /**
+     * Merge grouped notifications for the same recipient and group key within a batch.
+     * The batch is in queue order, so later notifications are the more recent ones.
+     *
+     * @param batch the notifications taken from the queue
+     * @return the batch with each group merged into its first position
+     */
+    private static List<NewNotification> coalesce(List<NewNotification> batch) {
+        Map<List<Object>, NewNotification> merged = new LinkedHashMap<>();
+        for (NewNotification notification : batch) {
+            List<Object> key = notification.groupKey() != null
+                    ? List.of(notification.userId(), notification.groupKey())
+                    : List.of(notification);
+            merged.merge(key, notification, NotificationServiceImpl::mergeNotifications);
+        }
+        return merged.size() == batch.size() ? batch : new ArrayList<>(merged.values());
+    }
+
+    /**
+     * Merge a newer notification into an older one of the same group.
+     * An actor who acted more than once, such as by unliking and liking again, is counted once.
+     *
+     * @param older the older notification
+     * @param newer the newer notification
+     * @return the merged notification
+     */
+    private static NewNotification mergeNotifications(NewNotification older, NewNotification newer) {
+        List<UUID> actorIds = Stream.concat(newer.actorIds().stream(), older.actorIds().stream())
+                .distinct()
+                .toList();
+        return new NewNotification(older.userId(), older.type(), newer.actorId(), older.postId(), newer.createdAt(),
+                older.groupKey(), actorIds);
+    }
+
+    /**
+     * Write outstanding notifications before the application shuts down.
+     */
+    @PreDestroy
+    public synchronized void flushOnShutdown() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        flushNotifications();
+        int lost = queue.size() + retries.stream().mapToInt(failed -> failed.notifications().size()).sum();
+        if (lost > 0) {
+            log.error("Shutting down with {} notifications unwritten", lost);
+        }
+    }
+
+    @ManagedAttribute(description = "Notifications waiting to be written")
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @ManagedAttribute(description = "Free queue slots before producers are held back")
+    public int getRemainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    @ManagedAttribute(description = "Notifications queued since startup")
+    public long getQueuedCount() {
+        return queued.sum();
+    }
+
+    @ManagedAttribute(description = "Notifications written since startup, after coalescing")
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    @ManagedAttribute(description = "Notifications merged into another of the same group within a batch")
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    @ManagedAttribute(description = "Notifications dropped because the queue was full")
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @ManagedAttribute(description = "Batch writes that failed and were retried")
+    public long getFailedBatchCount() {
+        return failedBatches.sum();
+    }
+
+    @ManagedAttribute(description = "Notifications dropped because their writes kept failing")
+    public long getDeadLetteredCount() {
+        return deadLettered.sum();
+    }
+
+    /**
+     * A batch whose write failed and the number of times it failed since it was last split.
+     *
+     * @param notifications the notifications
+     * @param failures the number of failed writes
+     */
+    private record FailedBatch(List<NewNotification> notifications, int failures) {}
+}
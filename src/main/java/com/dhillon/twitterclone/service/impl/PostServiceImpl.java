@@ -1,19 +1,49 @@
 package com.dhillon.twitterclone.service.impl;
 
+import com.dhillon.twitterclone.cache.CacheNames;
+import com.dhillon.twitterclone.cache.CachedTimelinePage;
+import com.dhillon.twitterclone.dto.CursorPage;
+import com.dhillon.twitterclone.dto.PostDto;
+import com.dhillon.twitterclone.dto.PostVersion;
+import com.dhillon.twitterclone.dto.TimelineEntry;
+import com.dhillon.twitterclone.dto.UserDto;
 import com.dhillon.twitterclone.entity.Hashtag;
+import com.dhillon.twitterclone.entity.NotificationType;
 import com.dhillon.twitterclone.entity.Post;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
+import com.dhillon.twitterclone.event.HashtagUsageChangedEvent;
+import com.dhillon.twitterclone.event.NotificationEvent;
+import com.dhillon.twitterclone.event.PostCreatedEvent;
 import com.dhillon.twitterclone.exception.ResourceNotFoundException;
 import com.dhillon.twitterclone.repository.HashtagRepository;
 import com.dhillon.twitterclone.repository.PostRepository;
 import com.dhillon.twitterclone.service.PostService;
+import com.dhillon.twitterclone.service.TimelineService;
+import com.dhillon.twitterclone.service.UserService;
+import com.dhillon.twitterclone.util.CursorCodec;
+import com.dhillon.twitterclone.util.PostMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -29,19 +59,42 @@ public class PostServiceImpl implements PostService {
     
     private final PostRepository postRepository;
     private final HashtagRepository hashtagRepository;
+    private final TimelineService timelineService;
+    private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache postCache;
+    private final Cache payloadCache;
+    private final Cache timelineCache;
+    
+    private static final Logger log = LoggerFactory.getLogger(PostServiceImpl.class);
     
     // Pattern to match hashtags in post content
     private static final Pattern HASHTAG_PATTERN = Pattern.compile("#(\\w+)");
     
+    // Only recent posts can realistically trend, so older scores are left alone by the periodic refresh
+    private static final Duration TRENDING_REFRESH_WINDOW = Duration.ofDays(7);
+    
     /**
      * Constructor with dependencies.
      *
      * @param postRepository the post repository
      * @param hashtagRepository the hashtag repository
+     * @param timelineService the timeline service
+     * @param userService the user service, resolving the current profiles of cached posts' authors
+     * @param eventPublisher the application event publisher
+     * @param cacheManager the cache manager
      */
-    public PostServiceImpl(PostRepository postRepository, HashtagRepository hashtagRepository) {
+    public PostServiceImpl(PostRepository postRepository, HashtagRepository hashtagRepository,
+                           TimelineService timelineService, UserService userService,
+                           ApplicationEventPublisher eventPublisher, CacheManager cacheManager) {
         this.postRepository = postRepository;
         this.hashtagRepository = hashtagRepository;
+        this.timelineService = timelineService;
+        this.userService = userService;
+        this.eventPublisher = eventPublisher;
+        this.postCache = cacheManager.getCache(CacheNames.POSTS);
+        this.payloadCache = cacheManager.getCache(CacheNames.POST_PAYLOADS);
+        this.timelineCache = cacheManager.getCache(CacheNames.TIMELINES);
     }
     
     @Override
@@ -49,13 +102,35 @@ public class PostServiceImpl implements PostService {
         return postRepository.findById(id);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<PostDto> findPostDto(UUID id) {
+        // Concurrent misses for a post share one load, so an expiring viral post costs one query.
+        // Early refreshes run this loader on another thread without the session, so it fetches what the DTO reads
+        PostDto post = postCache.get(id,
+                () -> postRepository.findWithDetailsById(id).map(PostMapper::toDto).orElse(null));
+        return Optional.ofNullable(post)
+                .map(cached -> userService.findProfileById(cached.userId()).map(cached::withAuthor).orElse(cached));
+    }
+    
+    @Override
+    public Optional<PostVersion> findPostVersion(UUID id) {
+        return postRepository.findVersionById(id);
+    }
+    
     @Override
     @Transactional
     public Post createPost(Post post) {
         // Extract and process hashtags
         processHashtags(post);
         
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        
+        // Fan out to follower timelines once the transaction commits
+        publishPostCreated(savedPost);
+        publishHashtagUsage(List.of(), savedPost.getHashtags());
+        
+        return savedPost;
     }
     
     @Override
@@ -69,11 +144,16 @@ public class PostServiceImpl implements PostService {
             existingPost.setContent(updatedPost.getContent());
             
             // Re-process hashtags
+            List<Hashtag> previousHashtags = new ArrayList<>(existingPost.getHashtags());
             existingPost.getHashtags().clear();
             processHashtags(existingPost);
+            publishHashtagUsage(previousHashtags, existingPost.getHashtags());
         }
         
-        return postRepository.save(existingPost);
+        Post savedPost = postRepository.save(existingPost);
+        postCache.evict(id);
+        payloadCache.evict(id);
+        return savedPost;
     }
     
     @Override
@@ -82,17 +162,92 @@ public class PostServiceImpl implements PostService {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", id));
         
+        // Replies are deleted along with the post, so their hashtags lose a post too
+        List<UUID> removedIds = new ArrayList<>();
+        List<Hashtag> removedHashtags = new ArrayList<>();
+        collectThread(post, removedIds, removedHashtags);
+        
         postRepository.delete(post);
+        if (post.getParent() != null) {
+            postRepository.addToReplyCount(post.getParent().getId(), -1);
+            postCache.evict(post.getParent().getId());
+        }
+        if (post.getOriginalPost() != null) {
+            postRepository.addToRepostCount(post.getOriginalPost().getId(), -1);
+            postCache.evict(post.getOriginalPost().getId());
+        }
+        removedIds.forEach(postCache::evict);
+        removedIds.forEach(payloadCache::evict);
+        publishHashtagUsage(removedHashtags, List.of());
     }
     
     @Override
-    public Page<Post> getUserTimeline(UUID userId, Pageable pageable) {
-        return postRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
+    public CursorPage<Post> getLatestPosts(String cursor, int size) {
+        TimelineEntry after = CursorCodec.decode(cursor);
+        return CursorCodec.toPage(postRepository.findLatestBefore(
+                after.createdAt(), after.postId(), CursorCodec.pageRequest(size)));
+    }
+    
+    @Override
+    public CursorPage<Post> getUserTimeline(UUID userId, String cursor, int size) {
+        TimelineEntry after = CursorCodec.decode(cursor);
+        return CursorCodec.toPage(postRepository.findByUserIdBefore(
+                userId, after.createdAt(), after.postId(), CursorCodec.pageRequest(size)));
+    }
+    
+    @Override
+    public CursorPage<Post> getHomeTimeline(UUID userId, String cursor, int size) {
+        return timelineService.getHomeTimeline(userId, cursor, size);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PostDto> getHomeTimelineDtos(UUID userId, String cursor, int size) {
+        // Only first pages are cached, and only while no post has been pushed into the timeline or posted
+        // by a followed pulled account since
+        String version = cursor == null ? timelineService.getVersion(userId) : null;
+        if (version != null) {
+            CachedTimelinePage cached = timelineCache.get(userId, CachedTimelinePage.class);
+            if (cached != null && cached.version().equals(version) && cached.size() == size) {
+                CursorPage<PostDto> page = cached.page();
+                return new CursorPage<>(withCurrentAuthors(page.content()), page.nextCursor(), page.hasNext());
+            }
+        }
+        
+        CursorPage<PostDto> page = getHomeTimeline(userId, cursor, size).map(PostMapper::toDto);
+        if (version != null) {
+            timelineCache.put(userId, new CachedTimelinePage(version, size, page));
+        }
+        return page;
+    }
+    
+    @Override
+    public String getHomeTimelineVersion(UUID userId) {
+        return timelineService.getVersion(userId);
+    }
+    
+    /**
+     * Show cached posts with their authors' current display names and avatars.
+     * Cached posts are not evicted when their author edits a profile, but cached profiles are, so the author fields
+     * are taken from the profile cache on every read instead.
+     *
+     * @param posts the cached posts
+     * @return the posts with their authors' current profiles
+     */
+    private List<PostDto> withCurrentAuthors(List<PostDto> posts) {
+        Map<UUID, Optional<UserDto>> authors = new HashMap<>();
+        return posts.stream()
+                .map(post -> authors.computeIfAbsent(post.userId(), userService::findProfileById)
+                        .map(post::withAuthor)
+                        .orElse(post))
+                .toList();
     }
     
     @Override
-    public Page<Post> getHomeTimeline(UUID userId, Pageable pageable) {
-        return postRepository.findHomeTimeline(userId, pageable);
+    @TransactionalEventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        // A rebuilt timeline can have the same version as before, so the cached page is dropped outright
+        timelineCache.evict(event.followerId());
     }
     
     @Override
@@ -101,18 +256,29 @@ public class PostServiceImpl implements PostService {
     }
     
     @Override
-    public Page<Post> getTrendingPosts(Pageable pageable) {
+    public Slice<Post> getTrendingPosts(Pageable pageable) {
         return postRepository.findTrendingPosts(pageable);
     }
     
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.post.trending-refresh-interval:PT10M}",
+               initialDelayString = "${app.post.trending-refresh-interval:PT10M}")
+    public void refreshTrendingScores() {
+        int updated = postRepository.refreshTrendingScores(LocalDateTime.now().minus(TRENDING_REFRESH_WINDOW));
+        log.debug("Refreshed trending scores of {} posts", updated);
+    }
+    
     @Override
     public Page<Post> getPostsByHashtag(String hashtag, Pageable pageable) {
         return postRepository.findByHashtagName(hashtag, pageable);
     }
     
     @Override
-    public Page<Post> getReplies(UUID postId, Pageable pageable) {
-        return postRepository.findByParentIdOrderByCreatedAtDesc(postId, pageable);
+    public CursorPage<Post> getReplies(UUID postId, String cursor, int size) {
+        TimelineEntry after = CursorCodec.decode(cursor);
+        return CursorCodec.toPage(postRepository.findRepliesBefore(
+                postId, after.createdAt(), after.postId(), CursorCodec.pageRequest(size)));
     }
     
     @Override
@@ -128,10 +294,13 @@ public class PostServiceImpl implements PostService {
         processHashtags(reply);
         
         Post savedReply = postRepository.save(reply);
+        publishHashtagUsage(List.of(), savedReply.getHashtags());
+        
+        // Increment in the database rather than read-modify-write, so concurrent replies are all counted
+        postRepository.addToReplyCount(parentId, 1);
+        postCache.evict(parentId);
         
-        // Update parent post reply count
-        parentPost.setReplyCount(parentPost.getReplyCount() + 1);
-        postRepository.save(parentPost);
+        publishNotification(parentPost, savedReply, NotificationType.REPLY, savedReply.getId());
         
         return savedReply;
     }
@@ -149,10 +318,14 @@ public class PostServiceImpl implements PostService {
         processHashtags(repost);
         
         Post savedRepost = postRepository.save(repost);
+        publishHashtagUsage(List.of(), savedRepost.getHashtags());
         
-        // Update original post repost count
-        originalPost.setRepostCount(originalPost.getRepostCount() + 1);
-        postRepository.save(originalPost);
+        // Increment in the database rather than read-modify-write, so concurrent reposts are all counted
+        postRepository.addToRepostCount(originalPostId, 1);
+        postCache.evict(originalPostId);
+        
+        publishPostCreated(savedRepost);
+        publishNotification(originalPost, savedRepost, NotificationType.REPOST, originalPostId);
         
         return savedRepost;
     }
@@ -173,10 +346,68 @@ public class PostServiceImpl implements PostService {
         return hashtags;
     }
     
+    /**
+     * Publish a PostCreatedEvent for a saved post.
+     *
+     * @param post the saved post
+     */
+    private void publishPostCreated(Post post) {
+        LocalDateTime createdAt = post.getCreatedAt() != null ? post.getCreatedAt() : LocalDateTime.now();
+        eventPublisher.publishEvent(new PostCreatedEvent(post.getId(), post.getUser().getId(), createdAt));
+    }
+    
+    /**
+     * Publish a NotificationEvent telling the author of a post about another user's post that refers to it.
+     *
+     * @param target the post being replied to or reposted
+     * @param post the saved reply or repost
+     * @param type the notification type
+     * @param postId the ID of the post the notification links to
+     */
+    private void publishNotification(Post target, Post post, NotificationType type, UUID postId) {
+        if (target.getUser() != null && post.getUser() != null) {
+            eventPublisher.publishEvent(new NotificationEvent(
+                    target.getUser().getId(), post.getUser().getId(), type, postId));
+        }
+    }
+    
+    /**
+     * Publish a HashtagUsageChangedEvent for hashtags removed from and added to posts.
+     * Hashtags appearing in both collections cancel out.
+     *
+     * @param removed the hashtags that lost a post
+     * @param added the hashtags that gained a post
+     */
+    private void publishHashtagUsage(Collection<Hashtag> removed, Collection<Hashtag> added) {
+        Map<String, Integer> deltas = new HashMap<>();
+        removed.forEach(hashtag -> deltas.merge(hashtag.getName(), -1, Integer::sum));
+        added.forEach(hashtag -> deltas.merge(hashtag.getName(), 1, Integer::sum));
+        deltas.values().removeIf(delta -> delta == 0);
+        
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(new HashtagUsageChangedEvent(deltas));
+        }
+    }
+    
+    /**
+     * Collect the IDs and hashtags of a post and, recursively, of its replies.
+     *
+     * @param post the post
+     * @param ids the list to add the post IDs to
+     * @param hashtags the list to add the hashtags to
+     */
+    private void collectThread(Post post, List<UUID> ids, List<Hashtag> hashtags) {
+        ids.add(post.getId());
+        hashtags.addAll(post.getHashtags());
+        for (Post reply : post.getReplies()) {
+            collectThread(reply, ids, hashtags);
+        }
+    }
+    
     /**
      * Process hashtags in a post.
-     * Extracts hashtags from content, finds or creates Hashtag entities,
-     * and associates them with the post.
+     * Extracts hashtags from content and resolves them to Hashtag entities in a fixed number of
+     * round trips: one lookup, and for new names one batched insert and one more lookup.
      *
      * @param post the post to process
      */
@@ -185,19 +416,20 @@ public class PostServiceImpl implements PostService {
             return;
         }
         
-        List<String> hashtagNames = extractHashtags(post.getContent());
-        Set<Hashtag> hashtags = new HashSet<>();
-        
-        for (String name : hashtagNames) {
-            // Find existing hashtag or create a new one
-            Hashtag hashtag = hashtagRepository.findByName(name)
-                    .orElseGet(() -> {
-                        Hashtag newHashtag = new Hashtag();
-                        newHashtag.setName(name);
-                        return hashtagRepository.save(newHashtag);
-                    });
+        // Repeated tags in the same post resolve to the same hashtag
+        Set<String> names = new LinkedHashSet<>(extractHashtags(post.getContent()));
+        if (names.isEmpty()) {
+            post.setHashtags(new HashSet<>());
+            return;
+        }
+        
+        Set<Hashtag> hashtags = new HashSet<>(hashtagRepository.findByNameIn(names));
+        if (hashtags.size() < names.size()) {
+            Set<String> missing = new LinkedHashSet<>(names);
+            hashtags.forEach(hashtag -> missing.remove(hashtag.getName()));
             
-            hashtags.add(hashtag);
+            hashtagRepository.insertIfAbsent(missing);
+            hashtags.addAll(hashtagRepository.findByNameIn(missing));
         }
         
         post.setHashtags(hashtags);
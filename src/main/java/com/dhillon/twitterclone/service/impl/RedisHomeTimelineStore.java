@@ -0,0 +1,250 @@
+package com.dhillon.twitterclone.service.impl;
+
+import com.dhillon.twitterclone.config.TimelineProperties;
+import com.dhillon.twitterclone.dto.TimelineEntry;
+import com.dhillon.twitterclone.service.HomeTimelineStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Redis-backed home timeline store, shared by all application nodes.
+ * Each timeline is a sorted set of post IDs scored by creation time.
+ * A marker key records that a timeline is materialized, since Redis drops a sorted set once it is empty.
+ * While a timeline is rebuilt, pushes to it are collected in a pending set that the rebuild merges in.
+ * Evictions advance a per-user generation counter, and a rebuild only installs its entries if the generation it
+ * began with is still current.
+ * The set of pulled authors is read on every fan-out and timeline read, so each node reuses a copy of it for a
+ * short time; an author newly added on another node may have a few posts fanned out meanwhile, which reads dedupe.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.timeline", name = "store", havingValue = "redis")
+public class RedisHomeTimelineStore implements HomeTimelineStore {
+
+    private static final String KEY_PREFIX = "timeline:home:";
+    private static final String MATERIALIZED_PREFIX = "timeline:materialized:";
+    private static final String REBUILDING_PREFIX = "timeline:rebuilding:";
+    private static final String PENDING_PREFIX = "timeline:pending:";
+    private static final String GENERATION_PREFIX = "timeline:generation:";
+    private static final String PULL_AUTHORS_KEY = "timeline:pull-authors";
+
+    // Longest a rebuild collects pushes before its markers expire, in case the rebuilding node dies
+    private static final Duration REBUILD_TIMEOUT = Duration.ofMinutes(1);
+
+    // Adds the entry to a materialized timeline, trims it and aligns its expiry with the marker,
+    // or collects the entry while the timeline is being rebuilt
+    private static final byte[] PUSH_SCRIPT = (
+            "local ttl = redis.call('PTTL', KEYS[2]) " +
+            "if ttl > 0 then " +
+            "redis.call('ZADD', KEYS[1], ARGV[1], ARGV[2]) " +
+            "redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[3]) + 1)) " +
+            "redis.call('PEXPIRE', KEYS[1], ttl) " +
+            "return 1 end " +
+            "if redis.call('EXISTS', KEYS[3]) == 1 then " +
+            "redis.call('ZADD', KEYS[4], ARGV[1], ARGV[2]) " +
+            "redis.call('EXPIRE', KEYS[4], ARGV[4]) " +
+            "return 2 end " +
+            "return 0").getBytes(StandardCharsets.UTF_8);
+
+    // Starts collecting pushes and returns the current generation, zero if the timeline was never evicted
+    private static final RedisScript<Long> BEGIN_REBUILD_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('SET', KEYS[3], '1', 'EX', ARGV[1]) " +
+            "return tonumber(redis.call('GET', KEYS[5]) or '0')", Long.class);
+
+    // Unless the timeline was evicted since the rebuild began, merges the rebuilt entries and the collected pushes
+    // into the timeline in one step, trims it and marks it materialized, even when it is empty
+    private static final RedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[5]) or '0') ~= ARGV[3] then return 0 end " +
+            "for i = 4, #ARGV, 2 do redis.call('ZADD', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+            "if redis.call('EXISTS', KEYS[4]) == 1 then " +
+            "redis.call('ZUNIONSTORE', KEYS[1], 2, KEYS[1], KEYS[4], 'AGGREGATE', 'MAX') " +
+            "redis.call('DEL', KEYS[4]) end " +
+            "redis.call('DEL', KEYS[3]) " +
+            "redis.call('SET', KEYS[2], '1', 'EX', ARGV[2]) " +
+            "if redis.call('EXISTS', KEYS[1]) == 1 then " +
+            "redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[1]) + 1)) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[2]) end " +
+            "return 1", Long.class);
+
+    // Drops the timeline, its markers and collected pushes, and advances the generation so that a rebuild in
+    // progress does not install entries read before the eviction
+    private static final RedisScript<Long> EVICT_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1], KEYS[2], KEYS[3], KEYS[4]) " +
+            "local generation = redis.call('INCR', KEYS[5]) " +
+            "redis.call('EXPIRE', KEYS[5], ARGV[1]) " +
+            "return generation", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final int maxSize;
+    private final Duration ttl;
+    private final long pullAuthorsTtlNanos;
+
+    private volatile PullAuthors pullAuthors;
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param redisTemplate the Redis template
+     * @param properties the timeline properties
+     */
+    public RedisHomeTimelineStore(StringRedisTemplate redisTemplate, TimelineProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.maxSize = properties.maxSize();
+        this.ttl = properties.redisTtl();
+        this.pullAuthorsTtlNanos = properties.pullAuthorsTtl().toNanos();
+    }
+
+    @Override
+    public boolean isMaterialized(UUID userId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(MATERIALIZED_PREFIX + userId));
+    }
+
+    @Override
+    public long beginRebuild(UUID userId) {
+        Long generation = redisTemplate.execute(BEGIN_REBUILD_SCRIPT, keys(userId),
+                Long.toString(REBUILD_TIMEOUT.toSeconds()));
+        return generation != null ? generation : 0;
+    }
+
+    @Override
+    public boolean replace(UUID userId, long generation, List<TimelineEntry> entries) {
+        List<String> args = new ArrayList<>();
+        args.add(Integer.toString(maxSize));
+        args.add(Long.toString(ttl.toSeconds()));
+        args.add(Long.toString(generation));
+        for (TimelineEntry entry : entries.subList(0, Math.min(entries.size(), maxSize))) {
+            args.add(Long.toString(entry.epochMillis()));
+            args.add(entry.postId().toString());
+        }
+        Long installed = redisTemplate.execute(REPLACE_SCRIPT, keys(userId), args.toArray());
+        return installed != null && installed == 1;
+    }
+
+    @Override
+    public void push(Collection<UUID> userIds, TimelineEntry entry) {
+        byte[] score = Long.toString(entry.epochMillis()).getBytes(StandardCharsets.UTF_8);
+        byte[] member = entry.postId().toString().getBytes(StandardCharsets.UTF_8);
+        byte[] limit = Integer.toString(maxSize).getBytes(StandardCharsets.UTF_8);
+        byte[] pendingTtl = Long.toString(REBUILD_TIMEOUT.toSeconds()).getBytes(StandardCharsets.UTF_8);
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (UUID userId : userIds) {
+                List<String> keys = keys(userId);
+                connection.scriptingCommands().eval(PUSH_SCRIPT, ReturnType.INTEGER, 4,
+                        bytes(keys.get(0)), bytes(keys.get(1)), bytes(keys.get(2)), bytes(keys.get(3)),
+                        score, member, limit, pendingTtl);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<TimelineEntry> range(UUID userId, TimelineEntry after, int limit) {
+        String key = key(userId);
+        double maxScore = after.epochMillis();
+
+        // Members sharing the cursor's score are ordered by Redis lexicographically, so fetch all of them
+        // and apply the timeline order here
+        Long ties = redisTemplate.opsForZSet().count(key, maxScore, maxScore);
+        long fetch = limit + (ties != null ? ties : 0);
+        Set<TypedTuple<String>> tuples = redisTemplate.opsForZSet()
+                .reverseRangeByScoreWithScores(key, Double.NEGATIVE_INFINITY, maxScore, 0, fetch);
+        if (tuples == null) {
+            return List.of();
+        }
+
+        List<TimelineEntry> entries = new ArrayList<>(tuples.size());
+        for (TypedTuple<String> tuple : tuples) {
+            TimelineEntry entry = TimelineEntry.ofEpochMillis(
+                    UUID.fromString(tuple.getValue()), tuple.getScore().longValue());
+            if (TimelineEntry.NEWEST_FIRST.compare(entry, after) > 0) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(TimelineEntry.NEWEST_FIRST);
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    @Override
+    public long size(UUID userId) {
+        Long size = redisTemplate.opsForZSet().zCard(key(userId));
+        return size != null ? size : 0;
+    }
+
+    @Override
+    public void evict(UUID userId) {
+        // Outlives any rebuild that could still be comparing against it
+        redisTemplate.execute(EVICT_SCRIPT, keys(userId), Long.toString(ttl.toSeconds()));
+    }
+
+    @Override
+    public void addPullAuthor(UUID authorId) {
+        redisTemplate.opsForSet().add(PULL_AUTHORS_KEY, authorId.toString());
+        // Reload on the next read so this node stops fanning out the author's posts at once
+        pullAuthors = null;
+    }
+
+    @Override
+    public Set<UUID> getPullAuthors() {
+        long now = System.nanoTime();
+        PullAuthors snapshot = pullAuthors;
+        if (snapshot == null || now - snapshot.loadedAt() > pullAuthorsTtlNanos) {
+            snapshot = new PullAuthors(loadPullAuthors(), now);
+            pullAuthors = snapshot;
+        }
+        return snapshot.authorIds();
+    }
+
+    private Set<UUID> loadPullAuthors() {
+        Set<String> members = redisTemplate.opsForSet().members(PULL_AUTHORS_KEY);
+        if (members == null || members.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<UUID> authorIds = new HashSet<>(members.size());
+        members.forEach(member -> authorIds.add(UUID.fromString(member)));
+        return Collections.unmodifiableSet(authorIds);
+    }
+
+    private String key(UUID userId) {
+        return KEY_PREFIX + userId;
+    }
+
+    /**
+     * Get the keys of a user's timeline, in the order the scripts expect them.
+     *
+     * @param userId the user ID
+     * @return the timeline, materialized marker, rebuilding marker, pending set and generation keys
+     */
+    private List<String> keys(UUID userId) {
+        return List.of(key(userId), MATERIALIZED_PREFIX + userId, REBUILDING_PREFIX + userId, PENDING_PREFIX + userId,
+                GENERATION_PREFIX + userId);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A node's copy of the pulled authors and the time it was loaded.
+     *
+     * @param authorIds the author IDs
+     * @param loadedAt the load time in nanoseconds
+     */
+    private record PullAuthors(Set<UUID> authorIds, long loadedAt) {}
+}
@@ -0,0 +1,83 @@
+package com.dhillon.twitterclone.service.impl;
+
+import com.dhillon.twitterclone.config.NotificationProperties;
+import com.dhillon.twitterclone.service.UnreadCountStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Redis-backed unread count store, shared by all application nodes.
+ * Each counter is a string key that expires when left untouched.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.notifications.unread", name = "store", havingValue = "redis")
+public class RedisUnreadCountStore implements UnreadCountStore {
+
+    private static final String KEY_PREFIX = "notifications:unread:";
+
+    // Adjusts the counter only if it is cached, clamping at zero
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then " +
+            "local count = redis.call('INCRBY', KEYS[1], ARGV[1]) " +
+            "if count < 0 then redis.call('SET', KEYS[1], 0, 'KEEPTTL') end " +
+            "return 1 end " +
+            "return 0", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param redisTemplate the Redis template
+     * @param properties the notification properties
+     */
+    public RedisUnreadCountStore(StringRedisTemplate redisTemplate, NotificationProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = properties.unread().redisTtl();
+    }
+
+    @Override
+    public OptionalLong get(UUID userId) {
+        String count = redisTemplate.opsForValue().get(key(userId));
+        return count != null ? OptionalLong.of(Long.parseLong(count)) : OptionalLong.empty();
+    }
+
+    @Override
+    public void put(UUID userId, long count) {
+        redisTemplate.opsForValue().set(key(userId), Long.toString(count), ttl);
+    }
+
+    @Override
+    public void putIfAbsent(UUID userId, long count) {
+        redisTemplate.opsForValue().setIfAbsent(key(userId), Long.toString(count), ttl);
+    }
+
+    @Override
+    public void add(UUID userId, long delta) {
+        redisTemplate.execute(ADD_SCRIPT, List.of(key(userId)), Long.toString(delta));
+    }
+
+    @Override
+    public void forEachUserId(Consumer<UUID> action) {
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            keys.forEachRemaining(key -> action.accept(UUID.fromString(key.substring(KEY_PREFIX.length()))));
+        }
+    }
+
+    private String key(UUID userId) {
+        return KEY_PREFIX + userId;
+    }
+}
@@ -0,0 +1,187 @@
+package com.dhillon.twitterclone.service.impl;
+
+import com.dhillon.twitterclone.config.WebSocketProperties;
+import com.dhillon.twitterclone.dto.NotificationPushDto;
+import com.dhillon.twitterclone.dto.TimelineHintDto;
+import com.dhillon.twitterclone.event.NotificationsWrittenEvent;
+import com.dhillon.twitterclone.event.TimelineUpdatedEvent;
+import com.dhillon.twitterclone.repository.NotificationRepositoryCustom.NewNotification;
+import com.dhillon.twitterclone.service.PushService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of the PushService interface using the in-memory STOMP broker.
+ * Notifications are pushed as soon as they are written. New-post hints are summed per user and pushed
+ * periodically, so a burst of posts costs each subscriber one message.
+ */
+@Service
+public class StompPushService implements PushService {
+
+    private static final Logger log = LoggerFactory.getLogger(StompPushService.class);
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final TaskScheduler taskScheduler;
+    private final String topicPrefix;
+    private final Pattern userTopic;
+    private final Duration hintInterval;
+
+    // Subscription IDs per session, mapped to the user whose topic they follow
+    private final Map<String, Map<String, UUID>> sessions = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> subscriberCounts = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> pendingHints = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> hintTask;
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param messagingTemplate the template sending to the broker
+     * @param taskScheduler the task scheduler running the periodic hint flush
+     * @param properties the WebSocket properties
+     */
+    public StompPushService(SimpMessageSendingOperations messagingTemplate, TaskScheduler taskScheduler,
+                            WebSocketProperties properties) {
+        this.messagingTemplate = messagingTemplate;
+        this.taskScheduler = taskScheduler;
+        this.topicPrefix = properties.brokerPrefix() + "/users/";
+        this.userTopic = Pattern.compile(Pattern.quote(topicPrefix) + "([0-9a-fA-F-]{36})/(notifications|timeline)");
+        this.hintInterval = properties.timelineHintInterval();
+    }
+
+    /**
+     * Start the periodic push of new-post hints.
+     */
+    @PostConstruct
+    public void startHints() {
+        hintTask = taskScheduler.scheduleWithFixedDelay(this::flushTimelineHints, hintInterval);
+    }
+
+    /**
+     * Stop pushing new-post hints.
+     */
+    @PreDestroy
+    public void stopHints() {
+        if (hintTask != null) {
+            hintTask.cancel(false);
+        }
+    }
+
+    @Override
+    @EventListener
+    public void onNotificationsWritten(NotificationsWrittenEvent event) {
+        for (NewNotification notification : event.notifications()) {
+            if (hasSubscribers(notification.userId())) {
+                messagingTemplate.convertAndSend(topicPrefix + notification.userId() + "/notifications",
+                        new NotificationPushDto(notification.type(), notification.actorId(),
+                                notification.actorCount(), notification.postId(), notification.createdAt()));
+            }
+        }
+    }
+
+    @Override
+    @EventListener
+    public void onTimelineUpdated(TimelineUpdatedEvent event) {
+        for (UUID userId : event.userIds()) {
+            // Authors already know about their own posts
+            if (!userId.equals(event.authorId()) && hasSubscribers(userId)) {
+                pendingHints.merge(userId, 1, Integer::sum);
+            }
+        }
+    }
+
+    @Override
+    public int flushTimelineHints() {
+        int sent = 0;
+        for (UUID userId : pendingHints.keySet()) {
+            Integer newPosts = pendingHints.remove(userId);
+            if (newPosts != null) {
+                messagingTemplate.convertAndSend(topicPrefix + userId + "/timeline", new TimelineHintDto(newPosts));
+                sent++;
+            }
+        }
+        if (sent > 0) {
+            log.debug("Pushed timeline hints to {} users", sent);
+        }
+        return sent;
+    }
+
+    @Override
+    public boolean hasSubscribers(UUID userId) {
+        return subscriberCounts.containsKey(userId);
+    }
+
+    @Override
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        Matcher matcher = userTopic.matcher(destination);
+        if (!matcher.matches()) {
+            return;
+        }
+
+        UUID userId = UUID.fromString(matcher.group(1));
+        Map<String, UUID> subscriptions = sessions.computeIfAbsent(
+                accessor.getSessionId(), id -> new ConcurrentHashMap<>());
+        if (subscriptions.put(accessor.getSubscriptionId(), userId) == null) {
+            subscriberCounts.merge(userId, 1, Integer::sum);
+        }
+    }
+
+    @Override
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        Map<String, UUID> subscriptions = sessions.get(accessor.getSessionId());
+        if (subscriptions != null) {
+            release(subscriptions.remove(accessor.getSubscriptionId()));
+        }
+    }
+
+    @Override
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, UUID> subscriptions = sessions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    /**
+     * Drop one subscriber of a user, forgetting the user and any pending hint with the last one.
+     *
+     * @param userId the user ID, or null if no subscription was removed
+     */
+    private void release(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        if (subscriberCounts.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null) == null) {
+            pendingHints.remove(userId);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.dhillon.twitterclone.service.impl;
+
+import com.dhillon.twitterclone.cache.BoundedMap;
+import com.dhillon.twitterclone.config.SuggestionProperties;
+import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
+import com.dhillon.twitterclone.exception.BadRequestException;
+import com.dhillon.twitterclone.exception.ResourceNotFoundException;
+import com.dhillon.twitterclone.repository.UserRepository;
+import com.dhillon.twitterclone.service.FollowGraph;
+import com.dhillon.twitterclone.service.SuggestionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the SuggestionService interface.
+ * Suggestions are computed from the in-memory follow graph within a fixed time budget per user,
+ * cached per user and recomputed periodically for every cached user.
+ * Once the user bound is exceeded the least recently read users' suggestions are dropped and recomputed on demand.
+ */
+@Service
+public class SuggestionServiceImpl implements SuggestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestionServiceImpl.class);
+
+    private final FollowGraph followGraph;
+    private final UserRepository userRepository;
+    private final SuggestionProperties properties;
+
+    private final BoundedMap<UUID, CachedSuggestions> cache;
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param followGraph the in-memory follow graph
+     * @param userRepository the user repository
+     * @param properties the suggestion properties
+     */
+    public SuggestionServiceImpl(FollowGraph followGraph, UserRepository userRepository,
+                                 SuggestionProperties properties) {
+        this.followGraph = followGraph;
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.cache = new BoundedMap<>(properties.maxCachedUsers());
+    }
+
+    @Override
+    public List<User> getSuggestions(UUID userId, int limit) {
+        if (limit < 1 || limit > properties.limit()) {
+            throw new BadRequestException("Limit must be between 1 and " + properties.limit());
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        if (!followGraph.isLoaded()) {
+            return List.of();
+        }
+
+        CachedSuggestions cached = cache.get(userId);
+        if (cached == null || cached.stale()) {
+            cached = compute(userId);
+        }
+        List<UUID> ids = cached.userIds().subList(0, Math.min(limit, cached.userIds().size()));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Users deleted since the graph saw them are skipped
+        Map<UUID, User> usersById = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream()
+                .map(usersById::get)
+                .filter(user -> user != null)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.suggestions.refresh-interval:PT15M}")
+    public void refreshSuggestions() {
+        if (!followGraph.isLoaded() || cache.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        int refreshed = 0;
+        for (UUID userId : cache.keySet()) {
+            compute(userId);
+            refreshed++;
+        }
+        log.debug("Refreshed follow suggestions of {} users in {} ms",
+                refreshed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    @TransactionalEventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        // The graph applies the same event independently, so the recomputation waits for the next read
+        cache.computeIfPresent(event.followerId(), (userId, cached) -> event.following()
+                ? new CachedSuggestions(cached.userIds().stream()
+                        .filter(id -> !id.equals(event.followingId())).toList(), true)
+                : new CachedSuggestions(cached.userIds(), true));
+    }
+
+    /**
+     * Compute and cache a user's suggestions within the configured time budget.
+     *
+     * @param userId the user ID
+     * @return the cached suggestions
+     */
+    private CachedSuggestions compute(UUID userId) {
+        long deadline = System.nanoTime() + properties.timeBudget().toNanos();
+        List<UUID> ids = followGraph.findFollowSuggestions(userId, properties.limit(), properties.sampleSize(), deadline);
+        CachedSuggestions cached = new CachedSuggestions(ids, false);
+        cache.put(userId, cached);
+        return cached;
+    }
+
+    /**
+     * A user's cached suggestions.
+     *
+     * @param userIds the suggested user IDs, best first
+     * @param stale whether the user's follows have changed since the suggestions were computed
+     */
+    private record CachedSuggestions(List<UUID> userIds, boolean stale) {}
+}
@@ -0,0 +1,333 @@
+package com.dhillon.twitterclone.service.impl;
+
+import com.dhillon.twitterclone.config.TimelineProperties;
+import com.dhillon.twitterclone.dto.CursorPage;
+import com.dhillon.twitterclone.dto.TimelineEntry;
+import com.dhillon.twitterclone.entity.Post;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
+import com.dhillon.twitterclone.event.PostCreatedEvent;
+import com.dhillon.twitterclone.event.TimelineUpdatedEvent;
+import com.dhillon.twitterclone.repository.FollowRepository;
+import com.dhillon.twitterclone.repository.PostRepository;
+import com.dhillon.twitterclone.repository.UserRepository;
+import com.dhillon.twitterclone.service.HomeTimelineStore;
+import com.dhillon.twitterclone.service.TimelineService;
+import com.dhillon.twitterclone.util.CursorCodec;
+import com.dhillon.twitterclone.util.TimelineMerger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the TimelineService interface using hybrid fan-out.
+ * Posts from regular accounts are pushed into the materialized timelines of their followers after commit,
+ * so reading a home timeline page costs one store range read plus one primary-key lookup.
+ * Posts from accounts above the celebrity threshold are not fanned out; they are pulled and merged
+ * into the page at read time instead.
+ */
+@Service
+public class TimelineServiceImpl implements TimelineService {
+
+    private static final Logger log = LoggerFactory.getLogger(TimelineServiceImpl.class);
+
+    private final HomeTimelineStore timelineStore;
+    private final PostRepository postRepository;
+    private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TimelineProperties properties;
+
+    // Recent posts of pulled accounts, shared by all readers for a short time
+    private final Map<UUID, PulledSource> pulledSources = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param timelineStore the home timeline store
+     * @param postRepository the post repository
+     * @param followRepository the follow repository
+     * @param userRepository the user repository
+     * @param eventPublisher the application event publisher
+     * @param properties the timeline properties
+     */
+    public TimelineServiceImpl(HomeTimelineStore timelineStore, PostRepository postRepository,
+                               FollowRepository followRepository, UserRepository userRepository,
+                               ApplicationEventPublisher eventPublisher, TimelineProperties properties) {
+        this.timelineStore = timelineStore;
+        this.postRepository = postRepository;
+        this.followRepository = followRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+    }
+
+    @Override
+    @Async
+    @TransactionalEventListener
+    public void fanOut(PostCreatedEvent event) {
+        UUID authorId = event.authorId();
+        TimelineEntry entry = new TimelineEntry(event.postId(), event.createdAt());
+
+        // Accounts stay pulled once they cross the threshold, so none of their posts fall between the two paths
+        if (userRepository.findFollowersCountById(authorId).orElse(0) > properties.celebrityThreshold()) {
+            timelineStore.addPullAuthor(authorId);
+        }
+
+        if (timelineStore.getPullAuthors().contains(authorId)) {
+            timelineStore.push(List.of(authorId), entry);
+            pulledSources.remove(authorId);
+            log.debug("Skipped fan-out of post {} from pulled account {}", event.postId(), authorId);
+            return;
+        }
+
+        List<UUID> recipients = new ArrayList<>(followRepository.findFollowerIdsByFollowingId(authorId));
+        recipients.add(authorId);
+
+        timelineStore.push(recipients, entry);
+        eventPublisher.publishEvent(new TimelineUpdatedEvent(event.postId(), authorId, recipients));
+        log.debug("Fanned out post {} to {} timelines", event.postId(), recipients.size());
+    }
+
+    @Override
+    public CursorPage<Post> getHomeTimeline(UUID userId, String cursor, int size) {
+        TimelineEntry after = CursorCodec.decode(cursor);
+        // One entry beyond the page tells whether another page follows
+        int fetch = CursorCodec.pageRequest(size).getPageSize() + 1;
+
+        // A rebuild discarded for an eviction that overtook it is stale, so this read goes to the database instead
+        boolean materialized = timelineStore.isMaterialized(userId) || rebuild(userId);
+
+        List<List<TimelineEntry>> sources = new ArrayList<>();
+        sources.add(materialized ? storedEntries(userId, after, fetch) : postRepository.findHomeTimelineEntries(
+                userId, after.createdAt(), after.postId(), PageRequest.of(0, fetch)));
+        List<UUID> pulledAuthors = findPulledAuthors(userId);
+        for (UUID authorId : mergedSources(pulledAuthors)) {
+            sources.add(pulledEntries(authorId, after, fetch));
+        }
+        List<UUID> overflow = overflowSources(pulledAuthors);
+        if (!overflow.isEmpty()) {
+            sources.add(postRepository.findTimelineEntriesByUserIdIn(
+                    overflow, after.createdAt(), after.postId(), PageRequest.of(0, fetch)));
+        }
+
+        List<TimelineEntry> entries = sources.size() == 1 ? sources.get(0) : TimelineMerger.merge(sources, fetch);
+        boolean hasNext = entries.size() > size;
+        if (hasNext) {
+            entries = entries.subList(0, size);
+        }
+
+        TimelineEntry last = entries.isEmpty() ? null : entries.get(entries.size() - 1);
+        String nextCursor = hasNext ? CursorCodec.encode(last.createdAt(), last.postId()) : null;
+        return new CursorPage<>(loadPosts(entries), nextCursor, hasNext);
+    }
+
+    @Override
+    public String getVersion(UUID userId) {
+        if (!timelineStore.isMaterialized(userId)) {
+            return null;
+        }
+        // The size tells apart pushes that land below the newest entry, until the timeline is full
+        List<TimelineEntry> head = timelineStore.range(userId, CursorCodec.START, 1);
+        StringBuilder version = new StringBuilder()
+                .append(head.isEmpty() ? "" : head.get(0).postId())
+                .append('/').append(timelineStore.size(userId));
+
+        // Posts of pulled accounts never reach the store, so the newest one of each followed account is added
+        List<UUID> pulledAuthors = findPulledAuthors(userId);
+        for (UUID authorId : mergedSources(pulledAuthors)) {
+            List<TimelineEntry> recent = recentEntries(authorId);
+            version.append('/').append(recent.isEmpty() ? "" : recent.get(0).postId());
+        }
+        List<UUID> overflow = overflowSources(pulledAuthors);
+        if (!overflow.isEmpty()) {
+            TimelineEntry start = CursorCodec.START;
+            List<TimelineEntry> newest = postRepository.findTimelineEntriesByUserIdIn(
+                    overflow, start.createdAt(), start.postId(), PageRequest.of(0, 1));
+            version.append('/').append(newest.isEmpty() ? "" : newest.get(0).postId());
+        }
+        return version.toString();
+    }
+
+    @Override
+    public void invalidate(UUID userId) {
+        timelineStore.evict(userId);
+    }
+
+    @Override
+    @TransactionalEventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        invalidate(event.followerId());
+    }
+
+    /**
+     * Rebuild a user's timeline from the database, keeping only the newest entries.
+     * Posts fanned out while the query runs are collected by the store and kept.
+     * A rebuild overtaken by an eviction, such as after a follow change, is not installed.
+     *
+     * @param userId the user ID
+     * @return true if the rebuilt timeline was installed
+     */
+    private boolean rebuild(UUID userId) {
+        long generation = timelineStore.beginRebuild(userId);
+        TimelineEntry start = CursorCodec.START;
+        List<TimelineEntry> entries = postRepository.findHomeTimelineEntries(
+                userId, start.createdAt(), start.postId(), PageRequest.of(0, properties.maxSize()));
+        if (!timelineStore.replace(userId, generation, entries)) {
+            log.debug("Discarded rebuild of home timeline for user {} evicted meanwhile", userId);
+            return false;
+        }
+        log.debug("Rebuilt home timeline for user {} with {} entries", userId, entries.size());
+        return true;
+    }
+
+    /**
+     * Find all the pulled accounts a user follows.
+     *
+     * @param userId the user ID
+     * @return the IDs of followed pulled accounts
+     */
+    private List<UUID> findPulledAuthors(UUID userId) {
+        Set<UUID> pullAuthors = timelineStore.getPullAuthors();
+        if (pullAuthors.isEmpty()) {
+            return List.of();
+        }
+        return followRepository.findFollowingIdsIn(userId, pullAuthors, Pageable.unpaged());
+    }
+
+    /**
+     * Get the pulled accounts merged into a read from their own recent posts, up to the configured number of sources.
+     *
+     * @param pulledAuthors the followed pulled accounts
+     * @return the accounts merged one source each
+     */
+    private List<UUID> mergedSources(List<UUID> pulledAuthors) {
+        return pulledAuthors.subList(0, Math.min(pulledAuthors.size(), properties.merge().maxSources()));
+    }
+
+    /**
+     * Get the pulled accounts beyond the configured number of sources, whose posts are read with one combined query.
+     *
+     * @param pulledAuthors the followed pulled accounts
+     * @return the remaining accounts, or an empty list
+     */
+    private List<UUID> overflowSources(List<UUID> pulledAuthors) {
+        return pulledAuthors.subList(Math.min(pulledAuthors.size(), properties.merge().maxSources()),
+                pulledAuthors.size());
+    }
+
+    /**
+     * Read a user's materialized timeline after a position.
+     * Once the read runs past the end of a trimmed timeline it continues from the database.
+     *
+     * @param userId the user ID
+     * @param after the position to read after
+     * @param limit the maximum number of entries to return
+     * @return the entries, newest first
+     */
+    private List<TimelineEntry> storedEntries(UUID userId, TimelineEntry after, int limit) {
+        List<TimelineEntry> entries = timelineStore.range(userId, after, limit);
+        if (entries.size() >= limit || timelineStore.size(userId) < properties.maxSize()) {
+            return entries;
+        }
+
+        TimelineEntry from = entries.isEmpty() ? after : entries.get(entries.size() - 1);
+        List<TimelineEntry> result = new ArrayList<>(entries);
+        result.addAll(postRepository.findHomeTimelineEntries(
+                userId, from.createdAt(), from.postId(), PageRequest.of(0, limit - entries.size())));
+        return result;
+    }
+
+    /**
+     * Read a pulled account's posts after a position.
+     * Recent posts are served from a short-lived cache shared by all readers; deeper reads go to the database.
+     *
+     * @param authorId the author ID
+     * @param after the position to read after
+     * @param limit the maximum number of entries to return
+     * @return the entries, newest first
+     */
+    private List<TimelineEntry> pulledEntries(UUID authorId, TimelineEntry after, int limit) {
+        List<TimelineEntry> recent = recentEntries(authorId);
+        List<TimelineEntry> result = new ArrayList<>(limit);
+        for (TimelineEntry entry : recent) {
+            if (result.size() >= limit) {
+                return result;
+            }
+            if (TimelineEntry.NEWEST_FIRST.compare(entry, after) > 0) {
+                result.add(entry);
+            }
+        }
+        if (recent.size() < properties.merge().perSourceLimit()) {
+            return result;
+        }
+
+        TimelineEntry from = result.isEmpty() ? after : result.get(result.size() - 1);
+        result.addAll(postRepository.findTimelineEntriesByUserId(
+                authorId, from.createdAt(), from.postId(), PageRequest.of(0, limit - result.size())));
+        return result;
+    }
+
+    /**
+     * Get the recent posts of a pulled account, reusing a recent load if one is fresh enough.
+     *
+     * @param authorId the author ID
+     * @return the author's recent entries, newest first
+     */
+    private List<TimelineEntry> recentEntries(UUID authorId) {
+        long now = System.nanoTime();
+        PulledSource source = pulledSources.get(authorId);
+        if (source == null || now - source.loadedAt() > properties.merge().sourceCacheTtl().toNanos()) {
+            TimelineEntry start = CursorCodec.START;
+            List<TimelineEntry> entries = postRepository.findTimelineEntriesByUserId(
+                    authorId, start.createdAt(), start.postId(),
+                    PageRequest.of(0, properties.merge().perSourceLimit()));
+            source = new PulledSource(entries, now);
+            pulledSources.put(authorId, source);
+        }
+        return source.entries();
+    }
+
+    /**
+     * Load posts for the given entries in a single query, preserving timeline order.
+     * Entries whose posts have since been deleted are skipped.
+     *
+     * @param entries the timeline entries
+     * @return the posts in timeline order
+     */
+    private List<Post> loadPosts(List<TimelineEntry> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        List<UUID> ids = entries.stream().map(TimelineEntry::postId).distinct().toList();
+        Map<UUID, Post> postsById = postRepository.findAllWithUserByIdIn(ids).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        return ids.stream()
+                .map(postsById::get)
+                .filter(post -> post != null)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Recent entries of a pulled account and the time they were loaded.
+     *
+     * @param entries the entries, newest first
+     * @param loadedAt the load time in nanoseconds
+     */
+    private record PulledSource(List<TimelineEntry> entries, long loadedAt) {}
+}
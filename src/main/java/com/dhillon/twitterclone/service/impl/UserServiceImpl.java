@@ -1,12 +1,19 @@
 package com.dhillon.twitterclone.service.impl;
 
+import com.dhillon.twitterclone.cache.CacheNames;
+import com.dhillon.twitterclone.dto.UserDto;
 import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
 import com.dhillon.twitterclone.exception.ResourceNotFoundException;
 import com.dhillon.twitterclone.repository.UserRepository;
 import com.dhillon.twitterclone.service.UserService;
+import com.dhillon.twitterclone.util.UserMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,16 +27,21 @@ public class UserServiceImpl implements UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final Cache profileCache;
+    private final Cache usernameCache;
     
     /**
      * Constructor with dependencies.
      *
      * @param userRepository the user repository
      * @param passwordEncoder the password encoder
+     * @param cacheManager the cache manager
      */
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, CacheManager cacheManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.profileCache = cacheManager.getCache(CacheNames.USER_PROFILES);
+        this.usernameCache = cacheManager.getCache(CacheNames.USERNAMES);
     }
     
     @Override
@@ -42,6 +54,24 @@ public class UserServiceImpl implements UserService {
         return userRepository.findByUsername(username);
     }
     
+    @Override
+    public Optional<UserDto> findProfileById(UUID id) {
+        return Optional.ofNullable(profileCache.get(id,
+                () -> userRepository.findById(id).map(UserMapper::toDtoWithCounts).orElse(null)));
+    }
+    
+    @Override
+    public Optional<UserDto> findProfileByUsername(String username) {
+        // Usernames never change, so only the ID is cached by username and the profile is shared with ID lookups
+        UUID id = usernameCache.get(username, () -> userRepository.findByUsername(username)
+                .map(user -> {
+                    profileCache.put(user.getId(), UserMapper.toDtoWithCounts(user));
+                    return user.getId();
+                })
+                .orElse(null));
+        return id != null ? findProfileById(id) : Optional.empty();
+    }
+    
     @Override
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
@@ -92,7 +122,9 @@ public class UserServiceImpl implements UserService {
             existingUser.setHeaderImage(updatedUser.getHeaderImage());
         }
         
-        return userRepository.save(existingUser);
+        User savedUser = userRepository.save(existingUser);
+        profileCache.evict(id);
+        return savedUser;
     }
     
     @Override
@@ -102,6 +134,8 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
         
         userRepository.delete(user);
+        profileCache.evict(id);
+        usernameCache.evict(user.getUsername());
     }
     
     @Override
@@ -118,4 +152,11 @@ public class UserServiceImpl implements UserService {
     public boolean isEmailAvailable(String email) {
         return !userRepository.existsByEmail(email);
     }
-} 
\ No newline at end of file
+    
+    @Override
+    @TransactionalEventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        profileCache.evict(event.followerId());
+        profileCache.evict(event.followingId());
+    }
+}
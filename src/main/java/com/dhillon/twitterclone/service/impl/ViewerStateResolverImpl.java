@@ -0,0 +1,61 @@
+package com.dhillon.twitterclone.service.impl;
+
+import com.dhillon.twitterclone.dto.ViewerState;
+import com.dhillon.twitterclone.repository.LikeRepository;
+import com.dhillon.twitterclone.repository.PostRepository;
+import com.dhillon.twitterclone.service.LikeService;
+import com.dhillon.twitterclone.service.ViewerStateResolver;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Implementation of the ViewerStateResolver interface.
+ * Stored likes are overlaid with the viewer's likes still waiting in the like buffer, so a post liked a
+ * moment ago shows as liked before the buffer is flushed.
+ */
+@Service
+public class ViewerStateResolverImpl implements ViewerStateResolver {
+
+    private final LikeRepository likeRepository;
+    private final PostRepository postRepository;
+    private final LikeService likeService;
+
+    /**
+     * Constructor with dependencies.
+     *
+     * @param likeRepository the like repository
+     * @param postRepository the post repository
+     * @param likeService the like service holding buffered likes
+     */
+    public ViewerStateResolverImpl(LikeRepository likeRepository, PostRepository postRepository,
+                                   LikeService likeService) {
+        this.likeRepository = likeRepository;
+        this.postRepository = postRepository;
+        this.likeService = likeService;
+    }
+
+    @Override
+    public ViewerState resolve(UUID viewerId, Collection<UUID> postIds) {
+        if (viewerId == null || postIds.isEmpty()) {
+            return ViewerState.NONE;
+        }
+
+        Set<UUID> liked = new HashSet<>(likeRepository.findLikedPostIds(viewerId, postIds));
+        Map<UUID, Boolean> pending = likeService.getPendingLikes(viewerId, postIds);
+        pending.forEach((postId, isLiked) -> {
+            if (isLiked) {
+                liked.add(postId);
+            } else {
+                liked.remove(postId);
+            }
+        });
+
+        Set<UUID> reposted = new HashSet<>(postRepository.findRepostedPostIds(viewerId, postIds));
+        return new ViewerState(liked, reposted);
+    }
+}
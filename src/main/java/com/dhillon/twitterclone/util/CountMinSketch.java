@@ -0,0 +1,79 @@
+package com.dhillon.twitterclone.util;
+
+/**
+ * Count-min sketch: approximate counts for an unbounded set of keys in fixed memory.
+ * Estimates never undercount; they overcount by at most a small fraction of the total with high probability.
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final long[][] counters;
+    private final int[] seeds;
+
+    /**
+     * Create a sketch with the given dimensions.
+     *
+     * @param width the number of counters per row; larger widths reduce overcounting
+     * @param depth the number of rows; more rows reduce the chance of a bad estimate
+     */
+    public CountMinSketch(int width, int depth) {
+        this.width = width;
+        this.counters = new long[depth][width];
+        this.seeds = new int[depth];
+        for (int row = 0; row < depth; row++) {
+            seeds[row] = 0x9E3779B9 * (row + 1);
+        }
+    }
+
+    /**
+     * Add to the count of a key.
+     *
+     * @param key the key
+     * @param count the amount to add
+     * @return the new estimated count of the key
+     */
+    public long add(Object key, long count) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            int column = column(hash, row);
+            counters[row][column] += count;
+            estimate = Math.min(estimate, counters[row][column]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Estimate the count of a key.
+     *
+     * @param key the key
+     * @return the estimated count
+     */
+    public long estimate(Object key) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            estimate = Math.min(estimate, counters[row][column(hash, row)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Multiply every counter by a factor, ageing out old counts.
+     *
+     * @param factor the factor between 0 and 1
+     */
+    public void scale(double factor) {
+        for (long[] row : counters) {
+            for (int column = 0; column < row.length; column++) {
+                row[column] = (long) (row[column] * factor);
+            }
+        }
+    }
+
+    private int column(int hash, int row) {
+        int mixed = (hash ^ seeds[row]) * 0x85EBCA6B;
+        mixed ^= mixed >>> 13;
+        return Math.floorMod(mixed, width);
+    }
+}
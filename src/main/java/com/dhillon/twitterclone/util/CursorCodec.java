@@ -0,0 +1,120 @@
+package com.dhillon.twitterclone.util;
+
+import com.dhillon.twitterclone.dto.CursorPage;
+import com.dhillon.twitterclone.dto.TimelineEntry;
+import com.dhillon.twitterclone.entity.Post;
+import com.dhillon.twitterclone.exception.BadRequestException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Utility class for encoding and decoding opaque keyset pagination cursors.
+ * A cursor is the (createdAt, id) position of the last item of a page; the next page starts strictly after it.
+ */
+public class CursorCodec {
+
+    /**
+     * Position before the newest possible post, used when no cursor is given.
+     */
+    public static final TimelineEntry START = new TimelineEntry(
+            new UUID(-1L, -1L), LocalDateTime.of(9999, 12, 31, 23, 59, 59));
+
+    /**
+     * Largest page size a client may request.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final char SEPARATOR = '|';
+
+    private CursorCodec() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Encode a position as an opaque cursor.
+     *
+     * @param createdAt the creation timestamp of the last item
+     * @param id the ID of the last item
+     * @return the cursor
+     */
+    public static String encode(LocalDateTime createdAt, UUID id) {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor into a position.
+     *
+     * @param cursor the cursor, or null for the first page
+     * @return the position to read after
+     * @throws BadRequestException if the cursor is malformed
+     */
+    public static TimelineEntry decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new TimelineEntry(
+                    UUID.fromString(raw.substring(separator + 1)),
+                    LocalDateTime.parse(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Create a page request for a keyset query, validating the requested size.
+     *
+     * @param size the requested page size
+     * @return the page request for the first page of the given size
+     * @throws BadRequestException if the size is out of range
+     */
+    public static PageRequest pageRequest(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(0, size);
+    }
+
+    /**
+     * Build a cursor page from a slice of posts ordered by (createdAt, id) descending.
+     *
+     * @param slice the slice of posts
+     * @return the cursor page
+     */
+    public static CursorPage<Post> toPage(Slice<Post> slice) {
+        return toPage(slice, Post::getCreatedAt, Post::getId);
+    }
+
+    /**
+     * Build a cursor page from a slice of items ordered by a (timestamp, id) key descending.
+     *
+     * @param slice the slice of items
+     * @param createdAt extracts the timestamp of an item's position
+     * @param id extracts the ID of an item's position
+     * @param <T> the item type
+     * @return the cursor page
+     */
+    public static <T> CursorPage<T> toPage(Slice<T> slice, Function<T, LocalDateTime> createdAt, Function<T, UUID> id) {
+        List<T> content = slice.getContent();
+        if (!slice.hasNext() || content.isEmpty()) {
+            return new CursorPage<>(content, null, false);
+        }
+        T last = content.get(content.size() - 1);
+        return new CursorPage<>(content, encode(createdAt.apply(last), id.apply(last)), true);
+    }
+}
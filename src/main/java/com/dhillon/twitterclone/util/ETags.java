@@ -0,0 +1,110 @@
+package com.dhillon.twitterclone.util;
+
+import com.dhillon.twitterclone.dto.PostVersion;
+import com.dhillon.twitterclone.dto.UserDto;
+import com.dhillon.twitterclone.dto.ViewerState;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Utility class for computing strong entity tags.
+ * Post and timeline tags are digests of versions read before anything else is loaded, so a conditional GET is
+ * answered without loading entities or serializing a body: a post's edit time, counters, author's edit time and
+ * viewer flags, or a timeline's version with the requested page. Profile tags are digests of the cached profile.
+ */
+public class ETags {
+
+    // Hex digits of the digest kept in a tag
+    private static final int TAG_LENGTH = 32;
+
+    private ETags() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Compute the tag of a post as a viewer sees it.
+     *
+     * @param version the version of the post
+     * @param viewer the viewer state resolved for the post
+     * @return the quoted tag
+     */
+    public static String forPost(PostVersion version, ViewerState viewer) {
+        MessageDigest digest = newDigest();
+        update(digest, version.postId(), version.updatedAt(), version.likeCount(), version.repostCount(),
+                version.replyCount(), version.authorUpdatedAt(), viewer.liked(version.postId()),
+                viewer.reposted(version.postId()));
+        return tag(digest);
+    }
+
+    /**
+     * Compute the tag of a page of a home timeline.
+     * The tag changes when posts enter or leave the timeline, not when the counters or the viewer flags of the posts
+     * on the page change; clients read those from the posts themselves.
+     *
+     * @param userId the owner of the timeline
+     * @param version the timeline version
+     * @param cursor the cursor of the page, or null for the first page
+     * @param size the page size
+     * @return the quoted tag
+     */
+    public static String forTimeline(UUID userId, String version, String cursor, int size) {
+        MessageDigest digest = newDigest();
+        update(digest, userId, version, cursor, size);
+        return tag(digest);
+    }
+
+    /**
+     * Compute the tag of a user profile.
+     *
+     * @param user the profile
+     * @return the quoted tag
+     */
+    public static String forUser(UserDto user) {
+        MessageDigest digest = newDigest();
+        update(digest, user.id(), user.username(), user.email(), user.displayName(), user.bio(), user.location(),
+                user.website(), user.profileImage(), user.headerImage(), user.verified(), user.createdAt(),
+                user.followersCount(), user.followingCount());
+        return tag(digest);
+    }
+
+    /**
+     * Derive the tag of another content coding of the same representation, such as its gzip form.
+     *
+     * @param etag the quoted tag of the unencoded representation
+     * @param contentCoding the content coding
+     * @return the quoted tag of the encoded representation
+     */
+    public static String withCoding(String etag, String contentCoding) {
+        return etag.substring(0, etag.length() - 1) + "-" + contentCoding + "\"";
+    }
+
+    /**
+     * Add fields to a digest, each followed by a separator so adjacent fields cannot run into each other.
+     *
+     * @param digest the digest
+     * @param fields the fields
+     */
+    private static void update(MessageDigest digest, Object... fields) {
+        for (Object field : fields) {
+            digest.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String tag(MessageDigest digest) {
+        return "\"" + HexFormat.of().formatHex(digest.digest()).substring(0, TAG_LENGTH) + "\"";
+    }
+}
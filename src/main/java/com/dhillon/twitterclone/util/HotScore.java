@@ -0,0 +1,42 @@
+package com.dhillon.twitterclone.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Time-decayed engagement score used to rank trending posts.
+ * The score is the order of magnitude of a post's engagement plus its age bonus: every {@link #DECAY_SECONDS}
+ * of recency is worth ten times the engagement. Because the age bonus only depends on creation time, a stored
+ * score never goes stale as time passes; it only has to change when the post's counters do.
+ */
+public final class HotScore {
+
+    /**
+     * Seconds of recency worth one order of magnitude of engagement.
+     */
+    public static final long DECAY_SECONDS = 45000;
+
+    /**
+     * Reference point for the age bonus, in epoch seconds (2020-01-01T00:00:00Z), keeping scores small.
+     */
+    public static final long EPOCH_OFFSET = 1577836800;
+
+    private HotScore() {
+    }
+
+    /**
+     * Compute the score of a post.
+     *
+     * @param likeCount the like count
+     * @param replyCount the reply count
+     * @param repostCount the repost count
+     * @param createdAt the creation timestamp
+     * @return the score
+     */
+    public static double of(int likeCount, int replyCount, int repostCount, LocalDateTime createdAt) {
+        long engagement = Math.max((long) likeCount + replyCount + repostCount, 1);
+        // Fractional seconds, as extract(epoch ...) returns them in the database refresh
+        double seconds = createdAt.toEpochSecond(ZoneOffset.UTC) - EPOCH_OFFSET + createdAt.getNano() / 1e9;
+        return Math.log10(engagement) + seconds / DECAY_SECONDS;
+    }
+}
@@ -1,6 +1,7 @@
 package com.dhillon.twitterclone.util;
 
 import com.dhillon.twitterclone.dto.PostDto;
+import com.dhillon.twitterclone.dto.ViewerState;
 import com.dhillon.twitterclone.entity.Hashtag;
 import com.dhillon.twitterclone.entity.Post;
 
@@ -14,12 +15,23 @@ import java.util.stream.Collectors;
 public class PostMapper {
     
     /**
-     * Convert a Post entity to a PostDto.
+     * Convert a Post entity to a PostDto as seen by an anonymous viewer.
      *
      * @param post the post entity
      * @return the post DTO
      */
     public static PostDto toDto(Post post) {
+        return toDto(post, ViewerState.NONE);
+    }
+    
+    /**
+     * Convert a Post entity to a PostDto with the liked and retweeted flags of the viewing user.
+     *
+     * @param post the post entity
+     * @param viewer the viewer state resolved for the page containing the post
+     * @return the post DTO
+     */
+    public static PostDto toDto(Post post, ViewerState viewer) {
         if (post == null) {
             return null;
         }
@@ -41,8 +53,8 @@ public class PostMapper {
             post.getLikeCount(),
             post.getRepostCount(),
             post.getReplyCount(),
-            false, // liked - would need to be set based on current user
-            false, // retweeted - would need to be set based on current user
+            viewer.liked(post.getId()),
+            viewer.reposted(post.getId()),
             post.getCreatedAt(),
             hashtagNames,
             new ArrayList<>() // mentions - would need to be extracted
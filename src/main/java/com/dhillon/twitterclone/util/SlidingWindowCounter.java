@@ -0,0 +1,82 @@
+package com.dhillon.twitterclone.util;
+
+import java.util.Arrays;
+
+/**
+ * Event counts for one key in a ring of fixed-length time buckets.
+ * Buckets are addressed by their absolute index (time divided by bucket length) and reused lazily
+ * once they fall out of the ring, so no background rotation is needed.
+ */
+public class SlidingWindowCounter {
+
+    private final long[] counts;
+    private final long[] bucketIndexes;
+
+    /**
+     * Create a counter covering the given number of buckets.
+     *
+     * @param bucketCount the number of buckets in the ring
+     */
+    public SlidingWindowCounter(int bucketCount) {
+        this.counts = new long[bucketCount];
+        this.bucketIndexes = new long[bucketCount];
+        Arrays.fill(bucketIndexes, -1);
+    }
+
+    /**
+     * Add events to a bucket.
+     *
+     * @param bucketIndex the absolute index of the bucket
+     * @param count the number of events
+     */
+    public void add(long bucketIndex, long count) {
+        int slot = slot(bucketIndex);
+        if (bucketIndexes[slot] != bucketIndex) {
+            bucketIndexes[slot] = bucketIndex;
+            counts[slot] = 0;
+        }
+        counts[slot] += count;
+    }
+
+    /**
+     * Sum the events in the most recent buckets.
+     *
+     * @param currentBucket the absolute index of the current bucket
+     * @param buckets the number of buckets to include, at most the ring size
+     * @return the number of events
+     */
+    public long sum(long currentBucket, int buckets) {
+        long sum = 0;
+        for (int age = 0; age < Math.min(buckets, counts.length); age++) {
+            sum += count(currentBucket - age);
+        }
+        return sum;
+    }
+
+    /**
+     * Score the most recent buckets with exponential decay, weighting a bucket of age {@code a} by {@code decay^a}.
+     *
+     * @param currentBucket the absolute index of the current bucket
+     * @param buckets the number of buckets to include, at most the ring size
+     * @param decay the per-bucket decay factor between 0 and 1
+     * @return the decayed score
+     */
+    public double decayedScore(long currentBucket, int buckets, double decay) {
+        double score = 0;
+        double weight = 1;
+        for (int age = 0; age < Math.min(buckets, counts.length); age++) {
+            score += count(currentBucket - age) * weight;
+            weight *= decay;
+        }
+        return score;
+    }
+
+    private long count(long bucketIndex) {
+        int slot = slot(bucketIndex);
+        return bucketIndexes[slot] == bucketIndex ? counts[slot] : 0;
+    }
+
+    private int slot(long bucketIndex) {
+        return (int) Math.floorMod(bucketIndex, (long) counts.length);
+    }
+}
@@ -0,0 +1,146 @@
+package com.dhillon.twitterclone.util;
+
+import java.util.Arrays;
+
+/**
+ * A set of ints kept as a sorted primitive array.
+ * Membership is a binary search and intersections are a linear merge, with four bytes per member
+ * instead of a boxed entry per member. Not thread-safe; callers guard concurrent access.
+ */
+public class SortedIntSet {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] values = EMPTY;
+    private int size;
+
+    /**
+     * Add a value.
+     *
+     * @param value the value
+     * @return true if the value was not already present
+     */
+    public boolean add(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index >= 0) {
+            return false;
+        }
+
+        int insertAt = -index - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(4, size + (size >> 1)));
+        }
+        System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+        values[insertAt] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Remove a value, releasing spare capacity once the set has shrunk to a quarter of it.
+     *
+     * @param value the value
+     * @return true if the value was present
+     */
+    public boolean remove(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) {
+            return false;
+        }
+
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        if (values.length > 16 && size < values.length / 4) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Check whether a value is present.
+     *
+     * @param value the value
+     * @return true if present
+     */
+    public boolean contains(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    /**
+     * Get the number of values.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the value at a position in ascending order.
+     *
+     * @param index the position, from zero to size - 1
+     * @return the value
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return values[index];
+    }
+
+    /**
+     * Find the values present in both sets, in ascending order.
+     *
+     * @param other the other set
+     * @param limit the maximum number of values to return
+     * @return the common values
+     */
+    public int[] intersect(SortedIntSet other, int limit) {
+        int[] result = new int[Math.min(limit, Math.min(size, other.size))];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size && count < result.length) {
+            int a = values[i];
+            int b = other.values[j];
+            if (a == b) {
+                result[count++] = a;
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Append a value without keeping the array sorted, for bulk loading.
+     * {@link #compact()} must be called before the set is used again.
+     *
+     * @param value the value
+     */
+    public void appendUnordered(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(4, size + (size >> 1)));
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Sort and de-duplicate values appended by a bulk load and release spare capacity.
+     */
+    public void compact() {
+        Arrays.sort(values, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || values[i] != values[distinct - 1]) {
+                values[distinct++] = values[i];
+            }
+        }
+        size = distinct;
+        values = size == 0 ? EMPTY : Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,76 @@
+package com.dhillon.twitterclone.util;
+
+import com.dhillon.twitterclone.dto.TimelineEntry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Utility class for merging several newest-first timeline sources into one.
+ */
+public class TimelineMerger {
+
+    private TimelineMerger() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * K-way merge of newest-first sources by creation time.
+     * Posts appearing in more than one source are returned once.
+     *
+     * @param sources the sources, each sorted newest first
+     * @param limit the maximum number of entries to return
+     * @return the merged entries, newest first
+     */
+    public static List<TimelineEntry> merge(List<List<TimelineEntry>> sources, int limit) {
+        PriorityQueue<SourceCursor> heap = new PriorityQueue<>(Math.max(1, sources.size()),
+                (a, b) -> TimelineEntry.NEWEST_FIRST.compare(a.current(), b.current()));
+        for (List<TimelineEntry> source : sources) {
+            if (!source.isEmpty()) {
+                heap.add(new SourceCursor(source));
+            }
+        }
+
+        List<TimelineEntry> result = new ArrayList<>(limit);
+        Set<UUID> seen = new HashSet<>();
+
+        while (!heap.isEmpty() && result.size() < limit) {
+            SourceCursor cursor = heap.poll();
+            TimelineEntry entry = cursor.current();
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+
+            if (seen.add(entry.postId())) {
+                result.add(entry);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Read position within a single source.
+     */
+    private static final class SourceCursor {
+
+        private final List<TimelineEntry> source;
+        private int position;
+
+        SourceCursor(List<TimelineEntry> source) {
+            this.source = source;
+        }
+
+        TimelineEntry current() {
+            return source.get(position);
+        }
+
+        boolean advance() {
+            return ++position < source.size();
+        }
+    }
+}
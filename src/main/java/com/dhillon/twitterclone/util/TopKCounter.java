@@ -0,0 +1,96 @@
+package com.dhillon.twitterclone.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Bounded set of the keys with the highest counts, kept sorted as counts change.
+ * Updates and reads cost O(log capacity); keys outside the top are not tracked.
+ *
+ * @param <K> the key type
+ */
+public class TopKCounter<K extends Comparable<K>> {
+
+    private final int capacity;
+    private final Map<K, Long> counts = new HashMap<>();
+    private final TreeSet<Map.Entry<K, Long>> ranking = new TreeSet<>(
+            Map.Entry.<K, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()));
+
+    /**
+     * Create a counter tracking at most the given number of keys.
+     *
+     * @param capacity the maximum number of tracked keys
+     */
+    public TopKCounter(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Check whether a key is currently tracked.
+     *
+     * @param key the key
+     * @return true if the key is among the tracked keys
+     */
+    public synchronized boolean contains(K key) {
+        return counts.containsKey(key);
+    }
+
+    /**
+     * Adjust the count of a tracked key; untracked keys are ignored.
+     *
+     * @param key the key
+     * @param delta the change in count
+     * @return true if the key is tracked
+     */
+    public synchronized boolean add(K key, long delta) {
+        Long count = counts.get(key);
+        if (count == null) {
+            return false;
+        }
+        put(key, count + delta);
+        return true;
+    }
+
+    /**
+     * Offer the absolute count of a key, tracking it if it ranks within the capacity.
+     *
+     * @param key the key
+     * @param count the absolute count
+     */
+    public synchronized void offer(K key, long count) {
+        put(key, count);
+        while (ranking.size() > capacity) {
+            Map.Entry<K, Long> lowest = ranking.pollLast();
+            counts.remove(lowest.getKey());
+        }
+    }
+
+    /**
+     * Get the highest-ranked keys with their counts.
+     *
+     * @param limit the maximum number of keys to return
+     * @return the entries, highest count first
+     */
+    public synchronized List<Map.Entry<K, Long>> top(int limit) {
+        List<Map.Entry<K, Long>> result = new ArrayList<>(Math.min(limit, ranking.size()));
+        for (Map.Entry<K, Long> entry : ranking) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    private void put(K key, long count) {
+        Long previous = counts.put(key, count);
+        if (previous != null) {
+            ranking.remove(Map.entry(key, previous));
+        }
+        ranking.add(Map.entry(key, count));
+    }
+}
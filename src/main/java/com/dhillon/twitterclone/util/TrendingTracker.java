@@ -0,0 +1,183 @@
+package com.dhillon.twitterclone.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recent-activity ranking of keys over a sliding window of fixed-length time buckets.
+ * Each tracked key keeps its counts in a ring of buckets and is scored with exponential decay, so recent
+ * events outweigh older ones. Memory is bounded: every key is counted in a count-min sketch, and only keys
+ * whose decayed estimate reaches the tail of the tracked set get a ring of their own.
+ *
+ * @param <K> the key type
+ */
+public class TrendingTracker<K extends Comparable<K>> {
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final double decay;
+    private final int capacity;
+    private final Map<K, SlidingWindowCounter> tracked = new HashMap<>();
+    private final CountMinSketch sketch;
+
+    private long currentBucket = Long.MIN_VALUE;
+    // Smallest decayed score among tracked keys as of the last trim, or 0 while there is room;
+    // sketch estimates decay at the same rate, so the two are comparable
+    private long admissionThreshold;
+
+    /**
+     * Create a tracker.
+     *
+     * @param bucketMillis the length of a bucket in milliseconds
+     * @param bucketCount the number of buckets in the window
+     * @param halfLifeMillis the age in milliseconds at which an event counts half as much as a new one
+     * @param capacity the number of keys kept after each trim; at most twice as many are tracked in between
+     * @param sketchWidth the number of counters per count-min sketch row
+     * @param sketchDepth the number of count-min sketch rows
+     */
+    public TrendingTracker(long bucketMillis, int bucketCount, long halfLifeMillis, int capacity,
+                           int sketchWidth, int sketchDepth) {
+        this.bucketMillis = bucketMillis;
+        this.bucketCount = bucketCount;
+        this.decay = Math.pow(0.5, (double) bucketMillis / halfLifeMillis);
+        this.capacity = capacity;
+        this.sketch = new CountMinSketch(sketchWidth, sketchDepth);
+    }
+
+    /**
+     * Record events for a key.
+     *
+     * @param key the key
+     * @param count the number of events
+     * @param nowMillis the current time in epoch milliseconds
+     */
+    public synchronized void add(K key, long count, long nowMillis) {
+        advance(nowMillis);
+        long estimate = sketch.add(key, count);
+
+        SlidingWindowCounter counter = tracked.get(key);
+        if (counter == null) {
+            if (estimate < admissionThreshold || tracked.size() >= capacity * 2) {
+                return;
+            }
+            counter = new SlidingWindowCounter(bucketCount);
+            tracked.put(key, counter);
+            // Earlier events only exist in the sketch; carrying them over keeps a late riser from being
+            // trimmed straight away
+            count = estimate;
+        }
+        counter.add(currentBucket, count);
+    }
+
+    /**
+     * Get the keys with the highest decayed scores over the most recent part of the window.
+     *
+     * @param windowMillis the length of the window to rank over, at most the full window
+     * @param limit the maximum number of keys to return
+     * @param nowMillis the current time in epoch milliseconds
+     * @return the trending keys, highest score first
+     */
+    public synchronized List<Trend<K>> top(long windowMillis, int limit, long nowMillis) {
+        advance(nowMillis);
+        int buckets = buckets(windowMillis);
+
+        List<Trend<K>> trends = new ArrayList<>();
+        tracked.forEach((key, counter) -> {
+            long count = counter.sum(currentBucket, buckets);
+            if (count > 0) {
+                trends.add(new Trend<>(key, count, counter.decayedScore(currentBucket, buckets, decay)));
+            }
+        });
+        trends.sort(Trend.<K>highestFirst());
+        return trends.size() > limit ? trends.subList(0, limit) : trends;
+    }
+
+    /**
+     * Get the number of tracked keys.
+     *
+     * @return the number of keys with a window of their own
+     */
+    public synchronized int size() {
+        return tracked.size();
+    }
+
+    /**
+     * Get the length of the full window.
+     *
+     * @return the window length in milliseconds
+     */
+    public long windowMillis() {
+        return bucketMillis * bucketCount;
+    }
+
+    /**
+     * Move to the bucket containing the given time, decaying the sketch and trimming tracked keys
+     * once per bucket boundary crossed.
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     */
+    private void advance(long nowMillis) {
+        long bucket = Math.floorDiv(nowMillis, bucketMillis);
+        if (bucket <= currentBucket) {
+            return;
+        }
+        long elapsed = currentBucket == Long.MIN_VALUE ? 0 : bucket - currentBucket;
+        currentBucket = bucket;
+        if (elapsed > 0) {
+            sketch.scale(Math.pow(decay, Math.min(elapsed, bucketCount)));
+            trim();
+        }
+    }
+
+    /**
+     * Drop keys with nothing left in the window, then the lowest-scoring keys beyond capacity.
+     */
+    private void trim() {
+        List<Trend<K>> ranked = new ArrayList<>(tracked.size());
+        Iterator<Map.Entry<K, SlidingWindowCounter>> iterator = tracked.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, SlidingWindowCounter> entry = iterator.next();
+            long count = entry.getValue().sum(currentBucket, bucketCount);
+            if (count == 0) {
+                iterator.remove();
+            } else {
+                ranked.add(new Trend<>(entry.getKey(), count,
+                        entry.getValue().decayedScore(currentBucket, bucketCount, decay)));
+            }
+        }
+
+        if (ranked.size() < capacity) {
+            admissionThreshold = 0;
+            return;
+        }
+        ranked.sort(Trend.<K>highestFirst());
+        for (Trend<K> evicted : ranked.subList(capacity, ranked.size())) {
+            tracked.remove(evicted.key());
+        }
+        admissionThreshold = (long) Math.ceil(ranked.get(capacity - 1).score());
+    }
+
+    private int buckets(long windowMillis) {
+        return (int) Math.min(bucketCount, Math.max(1, (windowMillis + bucketMillis - 1) / bucketMillis));
+    }
+
+    /**
+     * A key's activity over a window.
+     *
+     * @param key the key
+     * @param count the number of events in the window
+     * @param score the decayed score of those events
+     * @param <K> the key type
+     */
+    public record Trend<K extends Comparable<K>>(K key, long count, double score) {
+
+        static <K extends Comparable<K>> Comparator<Trend<K>> highestFirst() {
+            return Comparator.comparingDouble((Trend<K> trend) -> trend.score()).reversed()
+                    .thenComparing(Trend::key);
+        }
+    }
+}
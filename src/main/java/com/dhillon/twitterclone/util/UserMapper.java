@@ -2,7 +2,6 @@ package com.dhillon.twitterclone.util;
 
 import com.dhillon.twitterclone.dto.UserDto;
 import com.dhillon.twitterclone.entity.User;
-import com.dhillon.twitterclone.repository.FollowRepository;
 
 /**
  * Mapper utility class for User and UserDto conversion.
@@ -43,14 +42,12 @@ public class UserMapper {
     }
     
     /**
-     * Convert User entity to UserDto with follower counts.
+     * Convert User entity to UserDto with the follower counts stored on the user.
      *
      * @param user the user entity
-     * @param followersCount the followers count
-     * @param followingCount the following count
      * @return the user DTO with follower counts
      */
-    public static UserDto toDtoWithCounts(User user, long followersCount, long followingCount) {
+    public static UserDto toDtoWithCounts(User user) {
         if (user == null) {
             return null;
         }
@@ -67,8 +64,8 @@ public class UserMapper {
             user.getHeaderImage(),
             user.isVerified(),
             user.getCreatedAt(),
-            (int) followersCount,
-            (int) followingCount,
+            user.getFollowersCount(),
+            user.getFollowingCount(),
             null
         );
     }
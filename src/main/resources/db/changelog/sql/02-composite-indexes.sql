@@ -0,0 +1,23 @@
+--liquibase formatted sql
+
+--changeset liquibase:5
+-- Composite indexes matching the filter + (created_at desc, id desc) order of the hot keyset queries,
+-- so the planner can read the first rows of an index range instead of sorting every matching row
+create index idx_posts_user_created_id on posts(user_id, created_at desc, id desc);
+create index idx_posts_parent_created_id on posts(parent_id, created_at desc, id desc);
+create index idx_posts_created_id on posts(created_at desc, id desc);
+create index idx_notifications_user_created on notifications(user_id, created_at desc);
+create index idx_notifications_user_read_created on notifications(user_id, read, created_at desc);
+create index idx_post_hashtags_hashtag_post on post_hashtags(hashtag_id, post_id);
+create index idx_follows_following_follower on follows(following_id, follower_id);
+
+-- Single-column indexes now covered by the leading column of a composite index
+drop index idx_posts_user_id;
+drop index idx_posts_parent_id;
+drop index idx_posts_created_at;
+drop index idx_notifications_user_id;
+drop index idx_follows_following_id;
+
+--changeset liquibase:6 dbms:postgresql
+-- Covering index for timeline entry reads of top-level posts (id and created_at only, no heap access)
+create index idx_posts_user_top_level on posts(user_id, created_at desc, id desc) where is_reply = false;
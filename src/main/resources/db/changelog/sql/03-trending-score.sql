@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset liquibase:7
+-- Stored time-decayed engagement score (see HotScore), so trending posts are read from an index
+-- instead of sorting every post by its counters
+alter table posts add column trending_score double precision not null default 0;
+update posts set trending_score =
+    log10(greatest(like_count + reply_count + repost_count, 1)) + (extract(epoch from created_at) - 1577836800) / 45000.0;
+create index idx_posts_trending_score on posts(trending_score desc, id desc);
@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset liquibase:8
+-- Viewer repost flags look up a page of original posts for one user; leading with original_post_id alone
+-- would read every repost of a viral post
+create index idx_posts_original_user on posts(original_post_id, user_id);
+
+--changeset liquibase:9 dbms:postgresql
+-- Now covered by the leading column of idx_posts_original_user (H2 keeps it to back the foreign key)
+drop index idx_posts_original_post_id;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset liquibase:10
+-- Stored follow counts, maintained on follow and unfollow, so mapping a user never counts the follows table
+alter table users add column followers_count int not null default 0;
+alter table users add column following_count int not null default 0;
+update users u set
+    followers_count = (select count(*) from follows f where f.following_id = u.id),
+    following_count = (select count(*) from follows f where f.follower_id = u.id);
@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset liquibase:11
+-- Keyset reads of follower and following lists, most recent follow first; the listed user's ID is the tie-break
+create index idx_follows_following_created_follower on follows(following_id, created_at desc, follower_id desc);
+create index idx_follows_follower_created_following on follows(follower_id, created_at desc, following_id desc);
+
+--changeset liquibase:12 dbms:postgresql
+-- Now covered by the leading columns of the list indexes and the unique (follower_id, following_id) constraint
+-- (H2 keeps them to back the foreign keys)
+drop index idx_follows_following_follower;
+drop index idx_follows_follower_id;
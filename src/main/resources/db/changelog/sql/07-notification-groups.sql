@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset liquibase:13
+-- Grouped LIKE, REPOST and FOLLOW notifications: one row per recipient, target and time window,
+-- with the number of actors and a sample of the most recent ones (up to five comma-separated IDs)
+alter table notifications add column group_key varchar(80);
+alter table notifications add column actor_count integer not null default 1;
+alter table notifications add column sample_actor_ids varchar(184);
+create unique index idx_notifications_user_group on notifications(user_id, group_key);
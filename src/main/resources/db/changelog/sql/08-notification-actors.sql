@@ -0,0 +1,11 @@
+--liquibase formatted sql
+
+--changeset liquibase:14
+-- Every distinct actor of a grouped notification, so liking again after an unlike or following again
+-- after an unfollow does not add to its actor count or sample
+create table notification_actors (
+    notification_id uuid not null references notifications(id) on delete cascade,
+    actor_id uuid not null,
+    primary key (notification_id, actor_id)
+);
+comment on table notification_actors is 'Distinct actors of grouped notifications';
@@ -0,0 +1,125 @@
+package com.dhillon.twitterclone.benchmark;
+
+import com.dhillon.twitterclone.cache.CacheNames;
+import com.dhillon.twitterclone.cache.PostJsonCache;
+import com.dhillon.twitterclone.cache.TwoTierCacheManager;
+import com.dhillon.twitterclone.dto.PostDto;
+import com.dhillon.twitterclone.entity.Hashtag;
+import com.dhillon.twitterclone.entity.Post;
+import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.util.PostMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares serving a post from the PostJsonCache templates with mapping the entity and serializing it with Jackson,
+ * for plain and gzip-encoded responses. Not run by the test suite; run {@link #main} on the test classpath after
+ * {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private PostJsonCache postJsonCache;
+    private Post post;
+    private PostDto dto;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        postJsonCache = new PostJsonCache(objectMapper, new TwoTierCacheManager(
+                Map.of(CacheNames.POST_PAYLOADS, Duration.ofMinutes(30)), 100, Duration.ofMinutes(1),
+                null, null, null, null));
+
+        User author = new User();
+        author.setId(UUID.randomUUID());
+        author.setUsername("alice");
+        author.setDisplayName("Alice");
+        author.setProfileImage("/images/alice.png");
+
+        post = new Post();
+        post.setId(UUID.randomUUID());
+        post.setUser(author);
+        post.setContent("Benchmarking the read path of a post with a few tags #java #spring #performance");
+        post.setMedia(new ArrayList<>(List.of("/media/1.png", "/media/2.png")));
+        post.setHashtags(new HashSet<>(Set.of(hashtag("java"), hashtag("spring"), hashtag("performance"))));
+        post.setLikeCount(1234);
+        post.setRepostCount(56);
+        post.setReplyCount(78);
+        post.setCreatedAt(LocalDateTime.of(2024, 5, 1, 12, 0));
+
+        // The cached paths serialize the DTO as served from the post cache, warming its template first
+        dto = PostMapper.toDto(post);
+        postJsonCache.toJson(dto);
+    }
+
+    @Benchmark
+    public byte[] mapperAndJackson() throws IOException {
+        return objectMapper.writeValueAsBytes(PostMapper.toDto(post));
+    }
+
+    @Benchmark
+    public byte[] jackson() throws IOException {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public byte[] cachedJson() {
+        return postJsonCache.toJson(dto);
+    }
+
+    @Benchmark
+    public byte[] mapperAndJacksonGzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            objectMapper.writeValue(gzip, PostMapper.toDto(post));
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] cachedGzip() {
+        return postJsonCache.toGzip(dto);
+    }
+
+    private static Hashtag hashtag(String name) {
+        Hashtag hashtag = new Hashtag(name);
+        hashtag.setId(UUID.randomUUID());
+        return hashtag;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PostSerializationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
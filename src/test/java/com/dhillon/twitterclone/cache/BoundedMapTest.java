@@ -0,0 +1,85 @@
+package com.dhillon.twitterclone.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the BoundedMap and the LocalCache built on it.
+ */
+public class BoundedMapTest {
+
+    @Test
+    public void put_OverBound_EvictsEntryNotReadSinceLastSweep() {
+        // Arrange
+        BoundedMap<Integer, String> map = new BoundedMap<>(2);
+        map.put(1, "one");
+        map.put(2, "two");
+        map.get(1);
+
+        // Act
+        map.put(3, "three");
+
+        // Assert
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.keySet()).containsExactlyInAnyOrder(1, 3);
+    }
+
+    @Test
+    public void put_WhenEveryEntryWasRead_StillStaysWithinBound() {
+        // Arrange
+        BoundedMap<Integer, String> map = new BoundedMap<>(3);
+        for (int key = 1; key <= 3; key++) {
+            map.put(key, "value");
+            map.get(key);
+        }
+
+        // Act
+        for (int key = 4; key <= 10; key++) {
+            map.put(key, "value");
+        }
+
+        // Assert
+        assertThat(map.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void peek_DoesNotProtectEntryFromEviction() {
+        // Arrange
+        BoundedMap<Integer, String> map = new BoundedMap<>(2);
+        map.put(1, "one");
+        map.put(2, "two");
+        map.peek(1);
+        map.get(2);
+
+        // Act
+        map.put(3, "three");
+
+        // Assert
+        assertThat(map.keySet()).containsExactlyInAnyOrder(2, 3);
+    }
+
+    @Test
+    public void localCachePut_WhenFull_PurgesExpiredEntriesBeforeLiveOnes() throws InterruptedException {
+        // Arrange
+        LocalCache cache = new LocalCache(2, Duration.ofMillis(200));
+        cache.put(1, "expiring");
+        // Read while live, so the clock alone would keep it over the unread entry below
+        cache.get(1);
+        Thread.sleep(250);
+        cache.put(2, "live");
+
+        // Act
+        cache.put(3, "new");
+        int size = cache.size();
+        Object live = cache.get(2);
+        Object added = cache.get(3);
+
+        // Assert
+        assertThat(size).isEqualTo(2);
+        assertThat(live).isEqualTo("live");
+        assertThat(added).isEqualTo("new");
+    }
+}
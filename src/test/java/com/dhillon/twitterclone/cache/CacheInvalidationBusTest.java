@@ -0,0 +1,139 @@
+package com.dhillon.twitterclone.cache;
+
+import com.dhillon.twitterclone.config.CacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for the CacheInvalidationBus, with two nodes sharing an in-memory transport.
+ */
+@ExtendWith(MockitoExtension.class)
+public class CacheInvalidationBusTest {
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private final List<CacheInvalidationMessage> sent = new ArrayList<>();
+    private CacheInvalidationBus busA;
+    private Cache cacheA;
+    private Cache cacheB;
+
+    @BeforeEach
+    public void setup() {
+        CacheInvalidationTransport transport = new InMemoryCacheInvalidationTransport();
+        transport.onMessage(sent::add);
+        busA = new CacheInvalidationBus(transport, taskScheduler, properties(3));
+        CacheInvalidationBus busB = new CacheInvalidationBus(transport, taskScheduler, properties(3));
+        cacheA = node(busA).getCache(CacheNames.POSTS);
+        cacheB = node(busB).getCache(CacheNames.POSTS);
+    }
+
+    @Test
+    public void evict_DropsKeyFromOtherNodesOnceSent() {
+        // Arrange
+        cacheA.put("key", "value");
+        cacheB.put("key", "value");
+
+        // Act
+        cacheA.evict("key");
+        Object beforeSend = cacheB.get("key", String.class);
+        busA.send();
+
+        // Assert
+        assertThat(beforeSend).isEqualTo("value");
+        assertThat(cacheB.get("key")).isNull();
+        verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    public void evict_BurstOfKeys_SendsOneMessage() {
+        // Act
+        cacheA.evict("first");
+        cacheA.evict("second");
+        cacheA.evict("first");
+        busA.send();
+
+        // Assert
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0).keys()).containsOnlyKeys(CacheNames.POSTS);
+        assertThat(sent.get(0).keys().get(CacheNames.POSTS)).containsExactly("first", "second");
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    public void evict_AtMaxBatchKeys_SendsWithoutWaiting() {
+        // Act
+        cacheA.evict("first");
+        cacheA.evict("second");
+        cacheA.evict("third");
+
+        // Assert
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0).keys().get(CacheNames.POSTS)).hasSize(3);
+    }
+
+    @Test
+    public void evict_InsideTransaction_SendsOnlyAfterCommit() {
+        // Arrange
+        cacheB.put("committed", "value");
+        cacheB.put("rolledBack", "value");
+        List<TransactionSynchronization> committed;
+        List<TransactionSynchronization> rolledBack;
+
+        // Act
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cacheA.evict("committed");
+            committed = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cacheA.evict("rolledBack");
+            rolledBack = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        busA.send();
+        boolean sentBeforeCompletion = !sent.isEmpty();
+        committed.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        rolledBack.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        busA.send();
+
+        // Assert
+        assertThat(sentBeforeCompletion).isFalse();
+        assertThat(cacheB.get("committed")).isNull();
+        assertThat(cacheB.get("rolledBack", String.class)).isEqualTo("value");
+    }
+
+    private TwoTierCacheManager node(CacheInvalidationBus bus) {
+        return new TwoTierCacheManager(Map.of(CacheNames.POSTS, Duration.ofMinutes(30)), 100, Duration.ofMinutes(1),
+                null, bus, null, null);
+    }
+
+    private CacheProperties properties(int maxBatchKeys) {
+        return new CacheProperties("memory", 100, Duration.ofMinutes(1),
+                new CacheProperties.Ttl(Duration.ofMinutes(5), Duration.ofHours(1), Duration.ofMinutes(30)),
+                new CacheProperties.Invalidation("cache:invalidations", Duration.ofMillis(5), maxBatchKeys),
+                new CacheProperties.RefreshAhead(10, 0.1, 2, 1000));
+    }
+}
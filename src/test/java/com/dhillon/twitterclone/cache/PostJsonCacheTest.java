@@ -0,0 +1,126 @@
+package com.dhillon.twitterclone.cache;
+
+import com.dhillon.twitterclone.dto.PostDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the PostJsonCache, checked against the object mapper it replaces on the read path.
+ */
+public class PostJsonCacheTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private CacheManager cacheManager;
+    private PostJsonCache postJsonCache;
+
+    @BeforeEach
+    public void setup() {
+        cacheManager = new TwoTierCacheManager(Map.of(CacheNames.POST_PAYLOADS, Duration.ofMinutes(30)),
+                100, Duration.ofMinutes(1), null, null, null, null);
+        postJsonCache = new PostJsonCache(objectMapper, cacheManager);
+    }
+
+    @Test
+    public void toJson_MatchesObjectMapperOutput() throws Exception {
+        // Arrange
+        PostDto post = post("Grüße #java \"quoted\"", 12, 3, 4, true, false);
+
+        // Act
+        byte[] json = postJsonCache.toJson(post);
+
+        // Assert
+        assertThat(json).isEqualTo(objectMapper.writeValueAsBytes(post));
+    }
+
+    @Test
+    public void toJson_WhenCountersChange_ReusesTemplateOfStableFields() throws Exception {
+        // Arrange
+        PostDto post = post("Hello", 1, 0, 0, false, false);
+        postJsonCache.toJson(post);
+        PostDto liked = new PostDto(post.id(), post.userId(), post.username(), post.displayName(), post.profileImage(),
+                post.content(), post.media(), 2, 0, 0, true, false, post.createdAt(), post.hashtags(), post.mentions());
+
+        // Act
+        byte[] json = postJsonCache.toJson(liked);
+
+        // Assert
+        assertThat(json).isEqualTo(objectMapper.writeValueAsBytes(liked));
+    }
+
+    @Test
+    public void toJson_UntilTemplateEvicted_KeepsStableFields() throws Exception {
+        // Arrange
+        PostDto post = post("Hello", 0, 0, 0, false, false);
+        PostDto edited = new PostDto(post.id(), post.userId(), post.username(), post.displayName(), post.profileImage(),
+                "Edited", post.media(), 0, 0, 0, false, false, post.createdAt(), post.hashtags(), post.mentions());
+        postJsonCache.toJson(post);
+
+        // Act
+        byte[] beforeEviction = postJsonCache.toJson(edited);
+        cacheManager.getCache(CacheNames.POST_PAYLOADS).evict(post.id());
+        byte[] afterEviction = postJsonCache.toJson(edited);
+
+        // Assert
+        assertThat(beforeEviction).isEqualTo(objectMapper.writeValueAsBytes(post));
+        assertThat(afterEviction).isEqualTo(objectMapper.writeValueAsBytes(edited));
+    }
+
+    @Test
+    public void toGzip_DecompressesToObjectMapperOutput() throws Exception {
+        // Arrange
+        PostDto post = post("Hello ".repeat(40) + "#java", 1000, 25, 7, false, true);
+        postJsonCache.toGzip(post);
+
+        // Act
+        byte[] gzip = postJsonCache.toGzip(post);
+
+        // Assert
+        assertThat(gunzip(gzip)).isEqualTo(objectMapper.writeValueAsBytes(post));
+        assertThat(gzip.length).isLessThan(objectMapper.writeValueAsBytes(post).length);
+    }
+
+    @Test
+    public void toJsonAndGzip_WhenAuthorProfileChanges_ServeNewProfileFromSameTemplate() throws Exception {
+        // Arrange
+        PostDto post = post("Hello", 1, 0, 0, false, false);
+        postJsonCache.toJson(post);
+        PostDto renamed = new PostDto(post.id(), post.userId(), post.username(), "Alice \"A\" Smith", null,
+                post.content(), post.media(), 1, 0, 0, false, false, post.createdAt(), post.hashtags(), post.mentions());
+
+        // Act
+        byte[] json = postJsonCache.toJson(renamed);
+        byte[] gzip = postJsonCache.toGzip(renamed);
+
+        // Assert
+        assertThat(json).isEqualTo(objectMapper.writeValueAsBytes(renamed));
+        assertThat(gunzip(gzip)).isEqualTo(objectMapper.writeValueAsBytes(renamed));
+    }
+
+    private PostDto post(String content, int likes, int reposts, int replies, boolean liked, boolean reposted) {
+        return new PostDto(UUID.randomUUID(), UUID.randomUUID(), "alice", "Alice", "/images/alice.png", content,
+                List.of("/media/1.png"), likes, reposts, replies, liked, reposted, LocalDateTime.of(2024, 5, 1, 12, 0),
+                List.of("java"), List.of("bob"));
+    }
+
+    private byte[] gunzip(byte[] gzip) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.dhillon.twitterclone.cache;
+
+import com.dhillon.twitterclone.config.CacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the TwoTierCache, with a concurrent map standing in for the Redis tier.
+ */
+public class TwoTierCacheTest {
+
+    private Cache shared;
+    private LocalCache local;
+    private TwoTierCache cache;
+
+    @BeforeEach
+    public void setup() {
+        shared = new ConcurrentMapCache("posts", false);
+        local = new LocalCache(100, Duration.ofMinutes(1));
+        cache = new TwoTierCache("posts", local, shared, null, null, null);
+    }
+
+    @Test
+    public void get_WhenOnlyInSharedTier_CopiesIntoLocalTier() {
+        // Arrange
+        shared.put("key", "value");
+
+        // Act
+        String value = cache.get("key", String.class);
+
+        // Assert
+        assertThat(value).isEqualTo("value");
+        assertThat(local.get("key")).isEqualTo("value");
+    }
+
+    @Test
+    public void get_WhenLocalEntryExpired_ReadsSharedTier() {
+        // Arrange
+        local = new LocalCache(100, Duration.ZERO);
+        cache = new TwoTierCache("posts", local, shared, null, null, null);
+        cache.put("key", "old");
+        shared.put("key", "new");
+
+        // Act
+        String value = cache.get("key", String.class);
+
+        // Assert
+        assertThat(value).isEqualTo("new");
+    }
+
+    @Test
+    public void getWithLoader_OnMiss_LoadsAndWritesBothTiers() {
+        // Act
+        String loaded = cache.get("key", () -> "value");
+        String cached = cache.get("key", () -> "other");
+
+        // Assert
+        assertThat(loaded).isEqualTo("value");
+        assertThat(cached).isEqualTo("value");
+        assertThat(shared.get("key", String.class)).isEqualTo("value");
+    }
+
+    @Test
+    public void getWithLoader_ConcurrentMisses_ShareOneLoad() throws Exception {
+        // Arrange
+        int readers = 8;
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        List<Future<String>> results = new ArrayList<>();
+
+        try {
+            // Act
+            for (int i = 0; i < readers; i++) {
+                results.add(executor.submit(() -> cache.get("key", () -> {
+                    calls.incrementAndGet();
+                    release.await();
+                    return "value";
+                })));
+            }
+            // The loader is held until every other reader waits on it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cache.getCoalescedLoadCount() < readers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            // Assert
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(cache.getLoadCount()).isEqualTo(1);
+        assertThat(cache.getCoalescedLoadCount()).isEqualTo(readers - 1);
+    }
+
+    @Test
+    public void getWithLoader_WhenHotEntryNearsExpiry_RefreshesEarly() {
+        // Arrange
+        // A window far longer than the lifetime makes every read of the entry due for refresh
+        cache = new TwoTierCache("posts", local, shared, null, new CacheProperties.RefreshAhead(0, 1e9, 1, 10),
+                Runnable::run);
+        cache.put("key", "old");
+
+        // Act
+        String served = cache.get("key", () -> "new");
+
+        // Assert
+        assertThat(served).isEqualTo("old");
+        assertThat(cache.get("key", String.class)).isEqualTo("new");
+        assertThat(cache.getEarlyRefreshCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void getWithLoader_WhenHotEntryNearsExpiry_ServesCurrentValueWithoutWaitingForRefresh() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        cache = new TwoTierCache("posts", local, shared, null, new CacheProperties.RefreshAhead(0, 1e9, 1, 10), executor);
+        cache.put("key", "old");
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        try {
+            // Act
+            String first = cache.get("key", () -> {
+                calls.incrementAndGet();
+                release.await();
+                return "new";
+            });
+            String second = cache.get("key", () -> {
+                calls.incrementAndGet();
+                return "other";
+            });
+            release.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+            // Assert
+            assertThat(first).isEqualTo("old");
+            assertThat(second).isEqualTo("old");
+            assertThat(calls).hasValue(1);
+            assertThat(cache.get("key", String.class)).isEqualTo("new");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getWithLoader_WhenEvictedDuringRefresh_DoesNotCacheRefreshedValue() {
+        // Arrange
+        List<Runnable> refreshes = new ArrayList<>();
+        cache = new TwoTierCache("posts", local, shared, null, new CacheProperties.RefreshAhead(0, 1e9, 1, 10),
+                refreshes::add);
+        cache.put("key", "old");
+        cache.get("key", () -> "stale");
+
+        // Act
+        cache.evict("key");
+        refreshes.forEach(Runnable::run);
+
+        // Assert
+        assertThat(cache.get("key")).isNull();
+        assertThat(shared.get("key")).isNull();
+    }
+
+    @Test
+    public void getWithLoader_WhenEntryRarelyRead_DoesNotRefreshEarly() {
+        // Arrange
+        cache = new TwoTierCache("posts", local, shared, null, new CacheProperties.RefreshAhead(1000, 1e9, 1, 10),
+                Runnable::run);
+        cache.put("key", "old");
+
+        // Act
+        String served = cache.get("key", () -> "new");
+
+        // Assert
+        assertThat(served).isEqualTo("old");
+        assertThat(cache.get("key", String.class)).isEqualTo("old");
+        assertThat(cache.getEarlyRefreshCount()).isZero();
+    }
+
+    @Test
+    public void evict_InsideTransaction_EvictsAgainAfterCompletion() {
+        // Arrange
+        cache.put("key", "old");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            cache.evict("key");
+            // A concurrent reader caches the value it read before the commit
+            cache.put("key", "old");
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertThat(cache.get("key")).isNull();
+        assertThat(shared.get("key")).isNull();
+    }
+
+    @Test
+    public void put_BeyondBound_KeepsLocalTierWithinBound() {
+        // Arrange
+        local = new LocalCache(10, Duration.ofMinutes(1));
+        cache = new TwoTierCache("posts", local, null, null, null, null);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+
+        // Assert
+        assertThat(local.size()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,52 @@
+package com.dhillon.twitterclone.config;
+
+import com.dhillon.twitterclone.cache.CacheNames;
+import com.dhillon.twitterclone.cache.CachedTimelinePage;
+import com.dhillon.twitterclone.dto.CursorPage;
+import com.dhillon.twitterclone.dto.PostDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the Redis value serializers of the CacheConfig.
+ */
+public class CacheConfigTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    public void valueSerializer_RoundTripsTimelinePage() {
+        // Arrange
+        PostDto post = new PostDto(UUID.randomUUID(), UUID.randomUUID(), "alice", "Alice", null, "Hello #java",
+                List.of(), 3, 1, 2, false, false, LocalDateTime.of(2024, 5, 1, 12, 0), List.of("java"), List.of());
+        CachedTimelinePage page = new CachedTimelinePage("v1", 20, new CursorPage<>(List.of(post), "cursor", true));
+        RedisSerializer<Object> serializer = CacheConfig.valueSerializer(objectMapper, CacheNames.TIMELINES);
+
+        // Act
+        Object result = serializer.deserialize(serializer.serialize(page));
+
+        // Assert
+        assertThat(result).isEqualTo(page);
+    }
+
+    @Test
+    public void valueSerializer_RoundTripsUserId() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        RedisSerializer<Object> serializer = CacheConfig.valueSerializer(objectMapper, CacheNames.USERNAMES);
+
+        // Act
+        Object result = serializer.deserialize(serializer.serialize(id));
+
+        // Assert
+        assertThat(result).isEqualTo(id);
+    }
+}
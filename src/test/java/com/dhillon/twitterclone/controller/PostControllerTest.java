@@ -0,0 +1,185 @@
+package com.dhillon.twitterclone.controller;
+
+import com.dhillon.twitterclone.cache.CacheNames;
+import com.dhillon.twitterclone.cache.PostJsonCache;
+import com.dhillon.twitterclone.cache.TwoTierCacheManager;
+import com.dhillon.twitterclone.dto.CursorPage;
+import com.dhillon.twitterclone.dto.PostDto;
+import com.dhillon.twitterclone.dto.PostVersion;
+import com.dhillon.twitterclone.dto.ViewerState;
+import com.dhillon.twitterclone.exception.GlobalExceptionHandler;
+import com.dhillon.twitterclone.service.LikeService;
+import com.dhillon.twitterclone.service.PostService;
+import com.dhillon.twitterclone.service.UserService;
+import com.dhillon.twitterclone.service.ViewerStateResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Controller tests for the conditional reads of PostController.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PostControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private PostService postService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private LikeService likeService;
+
+    @Mock
+    private ViewerStateResolver viewerStateResolver;
+
+    private PostDto post;
+
+    private PostVersion version;
+
+    @BeforeEach
+    public void setup() {
+        PostJsonCache postJsonCache = new PostJsonCache(Jackson2ObjectMapperBuilder.json().build(),
+                new TwoTierCacheManager(Map.of(CacheNames.POST_PAYLOADS, Duration.ofMinutes(30)),
+                        100, Duration.ofMinutes(1), null, null, null, null));
+        PostController postController = new PostController(postService, userService, likeService,
+                viewerStateResolver, postJsonCache);
+        mockMvc = MockMvcBuilders.standaloneSetup(postController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        post = new PostDto(UUID.randomUUID(), UUID.randomUUID(), "alice", "Alice", null, "Hello #java",
+                List.of(), 3, 0, 1, false, false, LocalDateTime.of(2024, 5, 1, 12, 0), List.of("java"), List.of());
+        version = new PostVersion(post.id(), post.createdAt(), 3, 0, 1, LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+
+    @Test
+    public void getPostById_WithMatchingETag_ReturnsNotModifiedWithoutLoadingPost() throws Exception {
+        // Arrange
+        when(postService.findPostVersion(post.id())).thenReturn(Optional.of(version));
+        when(postService.findPostDto(post.id())).thenReturn(Optional.of(post));
+        when(viewerStateResolver.resolve(any(), eq(List.of(post.id())))).thenReturn(ViewerState.NONE);
+        String etag = mockMvc.perform(get("/posts/" + post.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.likeCount", is(3)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/posts/" + post.id()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(postService, times(1)).findPostDto(post.id());
+    }
+
+    @Test
+    public void getPostById_WhenCountersChange_ReturnsNewBodyForOldETag() throws Exception {
+        // Arrange
+        PostVersion liked = new PostVersion(post.id(), version.updatedAt(), 4, 0, 1, version.authorUpdatedAt());
+        when(postService.findPostVersion(post.id())).thenReturn(Optional.of(version)).thenReturn(Optional.of(liked));
+        when(postService.findPostDto(post.id())).thenReturn(Optional.of(post));
+        when(viewerStateResolver.resolve(any(), eq(List.of(post.id())))).thenReturn(ViewerState.NONE);
+        String etag = mockMvc.perform(get("/posts/" + post.id()))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/posts/" + post.id()).header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void getPostById_WhenViewerLikesPost_ReturnsNewBodyForOldETag() throws Exception {
+        // Arrange
+        UUID viewerId = UUID.randomUUID();
+        when(postService.findPostVersion(post.id())).thenReturn(Optional.of(version));
+        when(postService.findPostDto(post.id())).thenReturn(Optional.of(post));
+        when(viewerStateResolver.resolve(viewerId, List.of(post.id())))
+                .thenReturn(ViewerState.NONE)
+                .thenReturn(new ViewerState(Set.of(post.id()), Set.of()));
+        String etag = mockMvc.perform(get("/posts/" + post.id()).param("viewerId", viewerId.toString()))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/posts/" + post.id()).param("viewerId", viewerId.toString())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.liked", is(true)));
+    }
+
+    @Test
+    public void getPostById_WithGzip_TagsEncodedRepresentationSeparately() throws Exception {
+        // Arrange
+        when(postService.findPostVersion(post.id())).thenReturn(Optional.of(version));
+        when(postService.findPostDto(post.id())).thenReturn(Optional.of(post));
+        when(viewerStateResolver.resolve(any(), eq(List.of(post.id())))).thenReturn(ViewerState.NONE);
+        String etag = mockMvc.perform(get("/posts/" + post.id()))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/posts/" + post.id()).header("Accept-Encoding", "gzip, deflate")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", endsWith("-gzip\"")));
+    }
+
+    @Test
+    public void getHomeTimeline_WithMatchingETag_ReturnsNotModifiedWithoutReadingPage() throws Exception {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        when(postService.getHomeTimelineVersion(userId)).thenReturn("v1");
+        when(postService.getHomeTimelineDtos(userId, null, 20))
+                .thenReturn(new CursorPage<>(List.of(post), null, false));
+        when(viewerStateResolver.resolve(userId, List.of(post.id()))).thenReturn(ViewerState.NONE);
+        String etag = mockMvc.perform(get("/posts/home/" + userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/posts/home/" + userId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(postService, times(1)).getHomeTimelineDtos(userId, null, 20);
+        verify(viewerStateResolver, times(1)).resolve(userId, List.of(post.id()));
+    }
+
+    @Test
+    public void getHomeTimeline_WithETagOfOtherPage_ReturnsPage() throws Exception {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        when(postService.getHomeTimelineVersion(userId)).thenReturn("v1");
+        when(postService.getHomeTimelineDtos(eq(userId), any(), eq(20)))
+                .thenReturn(new CursorPage<>(List.of(post), "next", true));
+        when(viewerStateResolver.resolve(userId, List.of(post.id()))).thenReturn(ViewerState.NONE);
+        String etag = mockMvc.perform(get("/posts/home/" + userId))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/posts/home/" + userId).param("cursor", "next").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+}
@@ -4,8 +4,10 @@ import com.dhillon.twitterclone.exception.GlobalExceptionHandler;
 import com.dhillon.twitterclone.dto.UserDto;
 import com.dhillon.twitterclone.entity.User;
 import com.dhillon.twitterclone.exception.ResourceNotFoundException;
-import com.dhillon.twitterclone.repository.FollowRepository;
+import com.dhillon.twitterclone.service.FollowService;
+import com.dhillon.twitterclone.service.SuggestionService;
 import com.dhillon.twitterclone.service.UserService;
+import com.dhillon.twitterclone.util.UserMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -41,7 +43,10 @@ public class UserControllerTest {
     private UserService userService;
     
     @Mock
-    private FollowRepository followRepository;
+    private FollowService followService;
+    
+    @Mock
+    private SuggestionService suggestionService;
     
     @InjectMocks
     private UserController userController;
@@ -67,9 +72,9 @@ public class UserControllerTest {
     @Test
     public void getUserByUsername_WhenUserExists_ReturnsUser() throws Exception {
         // Arrange
-        when(userService.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(followRepository.countByFollowingId(testUserId)).thenReturn(10L);
-        when(followRepository.countByFollowerId(testUserId)).thenReturn(20L);
+        testUser.setFollowersCount(10);
+        testUser.setFollowingCount(20);
+        when(userService.findProfileByUsername("testuser")).thenReturn(Optional.of(UserMapper.toDtoWithCounts(testUser)));
         
         // Act & Assert
         mockMvc.perform(get("/users/testuser"))
@@ -80,15 +85,13 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.followersCount", is(10)))
                 .andExpect(jsonPath("$.followingCount", is(20)));
         
-        verify(userService).findByUsername("testuser");
-        verify(followRepository).countByFollowingId(testUserId);
-        verify(followRepository).countByFollowerId(testUserId);
+        verify(userService).findProfileByUsername("testuser");
     }
     
     @Test
     public void getUserByUsername_WhenUserDoesNotExist_ReturnsNotFound() throws Exception {
         // Arrange
-        when(userService.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        when(userService.findProfileByUsername("nonexistent")).thenReturn(Optional.empty());
         
         // Act & Assert
         mockMvc.perform(get("/users/nonexistent"))
@@ -96,7 +99,39 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.status", is(404)))
                 .andExpect(jsonPath("$.error", is("Not Found")));
         
-        verify(userService).findByUsername("nonexistent");
+        verify(userService).findProfileByUsername("nonexistent");
+    }
+    
+    @Test
+    public void getUser_WithMatchingETag_ReturnsNotModified() throws Exception {
+        // Arrange
+        UserDto profile = UserMapper.toDtoWithCounts(testUser);
+        when(userService.findProfileById(testUserId)).thenReturn(Optional.of(profile));
+        String etag = mockMvc.perform(get("/users/" + testUserId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        
+        // Act & Assert
+        mockMvc.perform(get("/users/" + testUserId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+    }
+    
+    @Test
+    public void getUser_AfterFollowerCountChanges_ReturnsNewBodyForOldETag() throws Exception {
+        // Arrange
+        when(userService.findProfileById(testUserId)).thenReturn(Optional.of(UserMapper.toDtoWithCounts(testUser)));
+        String etag = mockMvc.perform(get("/users/" + testUserId))
+                .andReturn().getResponse().getHeader("ETag");
+        testUser.setFollowersCount(1);
+        when(userService.findProfileById(testUserId)).thenReturn(Optional.of(UserMapper.toDtoWithCounts(testUser)));
+        
+        // Act & Assert
+        mockMvc.perform(get("/users/" + testUserId).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.followersCount", is(1)));
     }
     
     @Test
@@ -188,8 +223,6 @@ public class UserControllerTest {
         user2.setUsername("test2");
         
         when(userService.searchUsers("test")).thenReturn(Arrays.asList(user1, user2));
-        when(followRepository.countByFollowingId(any(UUID.class))).thenReturn(0L);
-        when(followRepository.countByFollowerId(any(UUID.class))).thenReturn(0L);
         
         // Act & Assert
         mockMvc.perform(get("/users/search").param("query", "test"))
@@ -287,8 +320,8 @@ public class UserControllerTest {
         
         when(userService.findByUsername("johndoe")).thenReturn(Optional.of(testUser));
         when(userService.updateUser(eq(testUserId), any(User.class))).thenReturn(updatedUser);
-        when(followRepository.countByFollowingId(testUserId)).thenReturn(10L);
-        when(followRepository.countByFollowerId(testUserId)).thenReturn(20L);
+        testUser.setFollowersCount(10);
+        testUser.setFollowingCount(20);
         
         // Act & Assert
         mockMvc.perform(put("/users/johndoe")
@@ -357,4 +390,29 @@ public class UserControllerTest {
         
         verify(userService).findByUsername("nonexistent");
     }
-} 
\ No newline at end of file
+    
+    @Test
+    public void followUser_ReturnsNoContent() throws Exception {
+        // Arrange
+        UUID targetId = UUID.randomUUID();
+        when(followService.follow(testUserId, targetId)).thenReturn(true);
+        
+        // Act & Assert
+        mockMvc.perform(post("/users/" + testUserId + "/following/" + targetId))
+                .andExpect(status().isNoContent());
+        
+        verify(followService).follow(testUserId, targetId);
+    }
+    
+    @Test
+    public void getMutualFollows_ReturnsUsers() throws Exception {
+        // Arrange
+        when(followService.getMutualFollows(testUserId, 20)).thenReturn(Arrays.asList(testUser));
+        
+        // Act & Assert
+        mockMvc.perform(get("/users/" + testUserId + "/mutuals"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].username", is("testuser")));
+    }
+}
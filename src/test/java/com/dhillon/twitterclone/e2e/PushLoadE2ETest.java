@@ -0,0 +1,128 @@
+package com.dhillon.twitterclone.e2e;
+
+import com.dhillon.twitterclone.dto.NotificationPushDto;
+import com.dhillon.twitterclone.entity.NotificationType;
+import com.dhillon.twitterclone.event.NotificationsWrittenEvent;
+import com.dhillon.twitterclone.repository.NotificationRepositoryCustom.NewNotification;
+import com.dhillon.twitterclone.service.PushService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test for the STOMP push channel.
+ * Opens thousands of concurrent sessions against one node, each subscribed to its own user's notifications,
+ * and checks that a push reaches every session. The session count is set with {@code -Dpush.load.sessions}.
+ * Excluded from the default test run; run it with {@code mvn test -Pload-tests}.
+ */
+@Tag("load")
+public class PushLoadE2ETest extends E2EBaseTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PushLoadE2ETest.class);
+
+    private static final int SESSIONS = Integer.getInteger("push.load.sessions", 2000);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PushService pushService;
+
+    private final List<StompSession> sessions = new ArrayList<>();
+    private WebSocketStompClient stompClient;
+
+    @AfterEach
+    public void disconnect() {
+        sessions.forEach(StompSession::disconnect);
+        if (stompClient != null) {
+            stompClient.stop();
+        }
+    }
+
+    @Test
+    public void push_ReachesThousandsOfConcurrentSessions() throws Exception {
+        // Arrange
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(Jackson2ObjectMapperBuilder.json().build());
+        stompClient.setMessageConverter(converter);
+        String url = "ws://localhost:" + port + "/api/ws";
+
+        List<CompletableFuture<StompSession>> connecting = new ArrayList<>(SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            connecting.add(stompClient.connectAsync(url, new StompSessionHandlerAdapter() {}));
+        }
+        CompletableFuture.allOf(connecting.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+
+        CountDownLatch received = new CountDownLatch(SESSIONS);
+        List<UUID> userIds = new ArrayList<>(SESSIONS);
+        for (CompletableFuture<StompSession> future : connecting) {
+            StompSession session = future.get();
+            sessions.add(session);
+            UUID userId = UUID.randomUUID();
+            userIds.add(userId);
+            session.subscribe("/topic/users/" + userId + "/notifications", new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return NotificationPushDto.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    received.countDown();
+                }
+            });
+        }
+        awaitSubscribed(userIds);
+
+        UUID actorId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        List<NewNotification> notifications = userIds.stream()
+                .map(userId -> new NewNotification(userId, NotificationType.FOLLOW, actorId, null, now))
+                .toList();
+
+        // Act
+        long start = System.nanoTime();
+        pushService.onNotificationsWritten(new NotificationsWrittenEvent(notifications));
+        boolean delivered = received.await(30, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertThat(delivered).as("%d of %d sessions received the push within %d ms",
+                SESSIONS - received.getCount(), SESSIONS, elapsedMillis).isTrue();
+        log.info("Pushed to {} concurrent sessions in {} ms", SESSIONS, elapsedMillis);
+    }
+
+    private void awaitSubscribed(List<UUID> userIds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        for (UUID userId : userIds) {
+            while (!pushService.hasSubscribers(userId)) {
+                assertThat(System.nanoTime()).as("subscription of user %s", userId).isLessThan(deadline);
+                Thread.sleep(10);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.dhillon.twitterclone.repository;
+
+import com.dhillon.twitterclone.dto.TimelineEntry;
+import com.dhillon.twitterclone.dto.UserSummaryDto;
+import com.dhillon.twitterclone.entity.Follow;
+import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.util.CursorCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the FollowRepository.
+ * Uses DataJpaTest which sets up an in-memory database.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class FollowRepositoryTest {
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private FollowRepository followRepository;
+    
+    private User celebrity;
+    
+    @BeforeEach
+    public void setup() {
+        celebrity = persistUser("celebrity");
+    }
+    
+    @Test
+    public void findFollowersBefore_PagesThroughEveryFollowerOnce() {
+        // Arrange
+        List<User> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User follower = persistUser("follower" + i);
+            entityManager.persist(new Follow(follower, celebrity));
+            followers.add(follower);
+        }
+        entityManager.flush();
+        
+        // Act
+        List<UserSummaryDto> seen = new ArrayList<>();
+        TimelineEntry after = CursorCodec.START;
+        Slice<UserSummaryDto> slice;
+        do {
+            slice = followRepository.findFollowersBefore(celebrity.getId(), after.createdAt(), after.postId(),
+                    PageRequest.of(0, 2));
+            seen.addAll(slice.getContent());
+            UserSummaryDto last = slice.getContent().get(slice.getContent().size() - 1);
+            after = new TimelineEntry(last.id(), last.followedAt());
+        } while (slice.hasNext());
+        
+        // Assert
+        assertThat(seen).extracting(UserSummaryDto::id)
+                .containsExactlyInAnyOrderElementsOf(followers.stream().map(User::getId).toList());
+        assertThat(seen).extracting(UserSummaryDto::username).allMatch(name -> name.startsWith("follower"));
+    }
+    
+    @Test
+    public void findFollowingBefore_ReturnsFollowedUsersOnly() {
+        // Arrange
+        User fan = persistUser("fan");
+        entityManager.persist(new Follow(fan, celebrity));
+        entityManager.persist(new Follow(celebrity, fan));
+        entityManager.flush();
+        TimelineEntry start = CursorCodec.START;
+        
+        // Act
+        Slice<UserSummaryDto> following = followRepository.findFollowingBefore(
+                fan.getId(), start.createdAt(), start.postId(), PageRequest.of(0, 20));
+        
+        // Assert
+        assertThat(following.getContent()).extracting(UserSummaryDto::id).containsExactly(celebrity.getId());
+        assertThat(following.hasNext()).isFalse();
+    }
+    
+    private User persistUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPasswordHash("hashedpassword");
+        return entityManager.persist(user);
+    }
+}
@@ -0,0 +1,73 @@
+package com.dhillon.twitterclone.repository;
+
+import com.dhillon.twitterclone.entity.Hashtag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the HashtagRepository.
+ * Uses DataJpaTest which sets up an in-memory database.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class HashtagRepositoryTest {
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private HashtagRepository hashtagRepository;
+    
+    private Hashtag existing;
+    
+    @BeforeEach
+    public void setup() {
+        existing = entityManager.persistAndFlush(new Hashtag("java"));
+    }
+    
+    @Test
+    public void insertIfAbsent_SkipsExistingNamesAndInsertsNewOnes() {
+        // Act
+        hashtagRepository.insertIfAbsent(List.of("java", "spring", "kotlin"));
+        
+        // Assert
+        List<Hashtag> hashtags = hashtagRepository.findByNameIn(List.of("java", "spring", "kotlin"));
+        assertThat(hashtags).extracting(Hashtag::getName).containsExactlyInAnyOrder("java", "spring", "kotlin");
+        assertThat(hashtags).filteredOn(hashtag -> hashtag.getName().equals("java"))
+                .extracting(Hashtag::getId).containsExactly(existing.getId());
+    }
+    
+    @Test
+    public void applyPostCountDeltas_UpdatesCountsWithoutGoingNegative() {
+        // Arrange
+        entityManager.persistAndFlush(new Hashtag("spring"));
+        
+        // Act
+        hashtagRepository.applyPostCountDeltas(Map.of("java", 3L, "spring", -2L));
+        entityManager.clear();
+        
+        // Assert
+        assertThat(hashtagRepository.findByName("java")).get().extracting(Hashtag::getPostCount).isEqualTo(3);
+        assertThat(hashtagRepository.findByName("spring")).get().extracting(Hashtag::getPostCount).isEqualTo(0);
+    }
+    
+    @Test
+    public void findByNameIn_WhenSomeNamesMissing_ReturnsOnlyExisting() {
+        // Act
+        List<Hashtag> hashtags = hashtagRepository.findByNameIn(List.of("java", "missing"));
+        
+        // Assert
+        assertThat(hashtags).extracting(Hashtag::getName).containsExactly("java");
+    }
+}
@@ -0,0 +1,130 @@
+package com.dhillon.twitterclone.repository;
+
+import com.dhillon.twitterclone.entity.Like;
+import com.dhillon.twitterclone.entity.Post;
+import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.repository.LikeRepositoryCustom.LikeRef;
+import com.dhillon.twitterclone.util.HotScore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Integration tests for the LikeRepository.
+ * Uses DataJpaTest which sets up an in-memory database.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class LikeRepositoryTest {
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private LikeRepository likeRepository;
+    
+    private User alice;
+    private User bob;
+    private Post post;
+    
+    @BeforeEach
+    public void setup() {
+        alice = persistUser("alice");
+        bob = persistUser("bob");
+        post = new Post();
+        post.setUser(alice);
+        post.setContent("Post");
+        post = entityManager.persistAndFlush(post);
+    }
+    
+    @Test
+    public void applyLikeChanges_InsertsAndDeletesLikesAndAppliesDeltas() {
+        // Arrange
+        entityManager.persistAndFlush(new Like(alice, post));
+        
+        // Act
+        likeRepository.applyLikeChanges(Map.of(
+                new LikeRef(alice.getId(), post.getId()), false,
+                new LikeRef(bob.getId(), post.getId()), true,
+                new LikeRef(bob.getId(), UUID.randomUUID()), true), Map.of(post.getId(), 2L), Set.of());
+        entityManager.clear();
+        
+        // Assert
+        assertThat(likeRepository.existsByUserIdAndPostId(alice.getId(), post.getId())).isFalse();
+        assertThat(likeRepository.existsByUserIdAndPostId(bob.getId(), post.getId())).isTrue();
+        assertThat(likeRepository.count()).isEqualTo(1);
+        Post updated = entityManager.find(Post.class, post.getId());
+        assertThat(updated.getLikeCount()).isEqualTo(2);
+        assertThat(updated.getTrendingScore())
+                .isCloseTo(HotScore.of(2, 0, 0, updated.getCreatedAt()), within(1e-6));
+    }
+    
+    @Test
+    public void applyLikeChanges_SkipsLikesThatAlreadyExist() {
+        // Arrange
+        entityManager.persistAndFlush(new Like(bob, post));
+        
+        // Act
+        likeRepository.applyLikeChanges(Map.of(new LikeRef(bob.getId(), post.getId()), true), Map.of(), Set.of());
+        
+        // Assert
+        assertThat(likeRepository.countByPostId(post.getId())).isEqualTo(1);
+    }
+    
+    @Test
+    public void applyLikeChanges_RecountsLikeCountsFromLikes() {
+        // Arrange
+        entityManager.getEntityManager().createQuery("UPDATE Post p SET p.likeCount = 42 WHERE p.id = :id")
+                .setParameter("id", post.getId())
+                .executeUpdate();
+        entityManager.persistAndFlush(new Like(alice, post));
+        
+        // Act
+        likeRepository.applyLikeChanges(Map.of(new LikeRef(bob.getId(), post.getId()), true),
+                Map.of(), Set.of(post.getId()));
+        entityManager.clear();
+        
+        // Assert
+        assertThat(entityManager.find(Post.class, post.getId()).getLikeCount())
+                .isEqualTo(likeRepository.countByPostId(post.getId()))
+                .isEqualTo(2);
+    }
+    
+    @Test
+    public void findLikedPostIds_ReturnsOnlyTheViewersLikesOnThePage() {
+        // Arrange
+        Post other = new Post();
+        other.setUser(bob);
+        other.setContent("Other");
+        other = entityManager.persist(other);
+        entityManager.persist(new Like(alice, post));
+        entityManager.persistAndFlush(new Like(bob, other));
+        
+        // Act
+        List<UUID> liked = likeRepository.findLikedPostIds(alice.getId(), List.of(post.getId(), other.getId()));
+        
+        // Assert
+        assertThat(liked).containsExactly(post.getId());
+    }
+    
+    private User persistUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPasswordHash("hashedpassword");
+        return entityManager.persist(user);
+    }
+}
@@ -0,0 +1,164 @@
+package com.dhillon.twitterclone.repository;
+
+import com.dhillon.twitterclone.entity.Notification;
+import com.dhillon.twitterclone.entity.NotificationType;
+import com.dhillon.twitterclone.entity.Post;
+import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.repository.NotificationRepositoryCustom.NewNotification;
+import com.dhillon.twitterclone.repository.NotificationRepositoryCustom.WriteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Integration tests for the NotificationRepository.
+ * Uses DataJpaTest which sets up an in-memory database.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class NotificationRepositoryTest {
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    private User alice;
+    private User bob;
+    private Post post;
+    
+    @BeforeEach
+    public void setup() {
+        alice = persistUser("alice");
+        bob = persistUser("bob");
+        post = new Post();
+        post.setUser(alice);
+        post.setContent("Post");
+        post = entityManager.persistAndFlush(post);
+    }
+    
+    @Test
+    public void insertNotifications_InsertsUnreadRowsAndSkipsMissingReferences() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        List<NewNotification> batch = List.of(
+                new NewNotification(alice.getId(), NotificationType.LIKE, bob.getId(), post.getId(), now),
+                new NewNotification(alice.getId(), NotificationType.FOLLOW, bob.getId(), null, now.plusSeconds(1)),
+                new NewNotification(alice.getId(), NotificationType.LIKE, bob.getId(), UUID.randomUUID(), now),
+                new NewNotification(UUID.randomUUID(), NotificationType.FOLLOW, bob.getId(), null, now));
+        
+        // Act
+        WriteResult result = notificationRepository.insertNotifications(batch);
+        entityManager.clear();
+        
+        // Assert
+        assertThat(result.written()).isEqualTo(2);
+        assertThat(result.unreadAdded()).containsExactly(entry(alice.getId(), 2));
+        List<Notification> notifications = notificationRepository
+                .findByUserIdAndReadFalseOrderByCreatedAtDesc(alice.getId(), PageRequest.of(0, 10)).getContent();
+        assertThat(notifications).extracting(Notification::getType)
+                .containsExactly(NotificationType.FOLLOW, NotificationType.LIKE);
+    }
+    
+    @Test
+    public void insertNotifications_MergesGroupedNotificationIntoExistingRow() {
+        // Arrange
+        User carol = persistUser("carol");
+        entityManager.flush();
+        LocalDateTime now = LocalDateTime.now();
+        String groupKey = "LIKE:" + post.getId() + ":1";
+        notificationRepository.insertNotifications(List.of(new NewNotification(alice.getId(), NotificationType.LIKE,
+                bob.getId(), post.getId(), now, groupKey, List.of(bob.getId()))));
+        
+        // Act
+        WriteResult result = notificationRepository.insertNotifications(List.of(new NewNotification(alice.getId(),
+                NotificationType.LIKE, carol.getId(), post.getId(), now.plusSeconds(1), groupKey,
+                List.of(carol.getId(), UUID.randomUUID()))));
+        entityManager.clear();
+        
+        // Assert
+        assertThat(result.written()).isEqualTo(1);
+        assertThat(result.unreadAdded()).isEmpty();
+        List<Notification> notifications = notificationRepository
+                .findByUserIdAndReadFalseOrderByCreatedAtDesc(alice.getId(), PageRequest.of(0, 10)).getContent();
+        assertThat(notifications).singleElement().satisfies(notification -> {
+            assertThat(notification.getActorCount()).isEqualTo(3);
+            assertThat(notification.getActor().getId()).isEqualTo(carol.getId());
+            assertThat(notification.getSampleActorIds()).hasSize(3).startsWith(carol.getId()).endsWith(bob.getId());
+        });
+    }
+    
+    @Test
+    public void insertNotifications_WhenActorsAlreadyInGroup_CountsOnlyNewActors() {
+        // Arrange
+        User carol = persistUser("carol");
+        entityManager.flush();
+        LocalDateTime now = LocalDateTime.now();
+        String groupKey = "LIKE:" + post.getId() + ":1";
+        notificationRepository.insertNotifications(List.of(new NewNotification(alice.getId(), NotificationType.LIKE,
+                bob.getId(), post.getId(), now, groupKey, List.of(bob.getId()))));
+        
+        // Act
+        WriteResult repeated = notificationRepository.insertNotifications(List.of(new NewNotification(alice.getId(),
+                NotificationType.LIKE, bob.getId(), post.getId(), now.plusSeconds(1), groupKey,
+                List.of(bob.getId()))));
+        WriteResult result = notificationRepository.insertNotifications(List.of(new NewNotification(alice.getId(),
+                NotificationType.LIKE, bob.getId(), post.getId(), now.plusSeconds(2), groupKey,
+                List.of(bob.getId(), carol.getId()))));
+        entityManager.clear();
+        
+        // Assert
+        assertThat(repeated.written()).isZero();
+        assertThat(result.written()).isEqualTo(1);
+        List<Notification> notifications = notificationRepository
+                .findByUserIdAndReadFalseOrderByCreatedAtDesc(alice.getId(), PageRequest.of(0, 10)).getContent();
+        assertThat(notifications).singleElement().satisfies(notification -> {
+            assertThat(notification.getActorCount()).isEqualTo(2);
+            assertThat(notification.getSampleActorIds()).containsExactly(carol.getId(), bob.getId());
+            assertThat(notification.getActorIds()).containsExactlyInAnyOrder(bob.getId(), carol.getId());
+        });
+    }
+    
+    @Test
+    public void insertNotifications_MergeIntoReadRow_CountsAsUnreadAddedAndMatchesTableCount() {
+        // Arrange
+        User carol = persistUser("carol");
+        entityManager.flush();
+        String groupKey = "FOLLOW::1";
+        notificationRepository.insertNotifications(List.of(new NewNotification(alice.getId(), NotificationType.FOLLOW,
+                bob.getId(), null, LocalDateTime.now(), groupKey, List.of(bob.getId()))));
+        notificationRepository.markAllAsRead(alice.getId());
+        
+        // Act
+        WriteResult result = notificationRepository.insertNotifications(List.of(new NewNotification(alice.getId(),
+                NotificationType.FOLLOW, carol.getId(), null, LocalDateTime.now(), groupKey,
+                List.of(carol.getId()))));
+        
+        // Assert
+        assertThat(result.unreadAdded()).containsExactly(entry(alice.getId(), 1));
+        assertThat(notificationRepository.countUnreadByUserIdIn(List.of(alice.getId(), bob.getId())))
+                .containsExactly(entry(alice.getId(), 1L));
+    }
+    
+    private User persistUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPasswordHash("hashedpassword");
+        return entityManager.persist(user);
+    }
+}
@@ -0,0 +1,206 @@
+package com.dhillon.twitterclone.repository;
+
+import com.dhillon.twitterclone.entity.Post;
+import com.dhillon.twitterclone.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrency tests for the atomic PostRepository counter updates.
+ * Runs outside the test transaction so each thread commits its own update against the same row.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PostCounterConcurrencyTest {
+    
+    private static final int THREADS = 8;
+    private static final int UPDATES_PER_THREAD = 50;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private LikeRepository likeRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate transactionTemplate;
+    private User author;
+    private Post post;
+    
+    @BeforeEach
+    public void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        
+        author = new User();
+        author.setUsername("viral");
+        author.setEmail("viral@example.com");
+        author.setPasswordHash("hashedpassword");
+        author = userRepository.save(author);
+        
+        post = new Post();
+        post.setUser(author);
+        post.setContent("Viral post");
+        post = postRepository.save(post);
+    }
+    
+    @AfterEach
+    public void cleanup() {
+        postRepository.deleteById(post.getId());
+        userRepository.deleteById(author.getId());
+    }
+    
+    @Test
+    public void addToReplyCount_FromManyThreads_CountsEveryIncrement() throws Exception {
+        // Act
+        hammer(thread -> postRepository.addToReplyCount(post.getId(), 1));
+        
+        // Assert
+        assertThat(postRepository.findById(post.getId()).orElseThrow().getReplyCount())
+                .isEqualTo(THREADS * UPDATES_PER_THREAD);
+    }
+    
+    @Test
+    public void addToRepostCount_WithConcurrentIncrementsAndDecrements_IsExact() throws Exception {
+        // Arrange
+        transactionTemplate.executeWithoutResult(status -> postRepository.addToRepostCount(post.getId(), 1000));
+        
+        // Act
+        hammer(thread -> postRepository.addToRepostCount(post.getId(), thread % 2 == 0 ? 2 : -1));
+        
+        // Assert
+        int expected = 1000 + (THREADS / 2) * UPDATES_PER_THREAD * 2 - (THREADS / 2) * UPDATES_PER_THREAD;
+        assertThat(postRepository.findById(post.getId()).orElseThrow().getRepostCount()).isEqualTo(expected);
+    }
+    
+    @Test
+    public void addToReplyCount_WhenDecrementingPastZero_StopsAtZero() {
+        // Act
+        transactionTemplate.executeWithoutResult(status -> postRepository.addToReplyCount(post.getId(), -1));
+        
+        // Assert
+        assertThat(postRepository.findById(post.getId()).orElseThrow().getReplyCount()).isZero();
+    }
+    
+    @Test
+    public void edit_BetweenLoadAndCommitOfConcurrentIncrements_KeepsIncrements() throws Exception {
+        // Arrange
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch incremented = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        
+        try {
+            // Act
+            Future<?> edit = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                Post loadedPost = postRepository.findById(post.getId()).orElseThrow();
+                loaded.countDown();
+                awaitQuietly(incremented);
+                loadedPost.setContent("Edited");
+                postRepository.save(loadedPost);
+            }));
+            loaded.await();
+            transactionTemplate.executeWithoutResult(status -> {
+                postRepository.addToReplyCount(post.getId(), 1);
+                postRepository.addToRepostCount(post.getId(), 1);
+                likeRepository.applyLikeChanges(Map.of(), Map.of(post.getId(), 1L), Set.of());
+            });
+            incremented.countDown();
+            edit.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        // Assert
+        Post stored = postRepository.findById(post.getId()).orElseThrow();
+        assertThat(stored.getContent()).isEqualTo("Edited");
+        assertThat(stored.getReplyCount()).isEqualTo(1);
+        assertThat(stored.getRepostCount()).isEqualTo(1);
+        assertThat(stored.getLikeCount()).isEqualTo(1);
+    }
+    
+    @Test
+    public void edits_RunningWithRepliesAndLikes_LoseNoIncrements() throws Exception {
+        // Act
+        hammer(thread -> {
+            if (thread % 2 == 0) {
+                Post loadedPost = postRepository.findById(post.getId()).orElseThrow();
+                loadedPost.setContent("Edit from thread " + thread);
+                postRepository.save(loadedPost);
+            } else {
+                postRepository.addToReplyCount(post.getId(), 1);
+                likeRepository.applyLikeChanges(Map.of(), Map.of(post.getId(), 1L), Set.of());
+            }
+        });
+        
+        // Assert
+        Post stored = postRepository.findById(post.getId()).orElseThrow();
+        assertThat(stored.getReplyCount()).isEqualTo(THREADS / 2 * UPDATES_PER_THREAD);
+        assertThat(stored.getLikeCount()).isEqualTo(THREADS / 2 * UPDATES_PER_THREAD);
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Run the update from all threads at once, each update in its own transaction.
+     *
+     * @param update the update, given the index of the thread running it
+     */
+    private void hammer(IntConsumer update) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < UPDATES_PER_THREAD; j++) {
+                        transactionTemplate.executeWithoutResult(status -> update.accept(thread));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
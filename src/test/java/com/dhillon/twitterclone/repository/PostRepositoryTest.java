@@ -0,0 +1,208 @@
+package com.dhillon.twitterclone.repository;
+
+import com.dhillon.twitterclone.dto.PostDto;
+import com.dhillon.twitterclone.dto.TimelineEntry;
+import com.dhillon.twitterclone.entity.Hashtag;
+import com.dhillon.twitterclone.entity.Post;
+import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.util.CursorCodec;
+import com.dhillon.twitterclone.util.PostMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Integration tests for the PostRepository.
+ * Uses DataJpaTest which sets up an in-memory database.
+ * Hibernate statistics are enabled to count the statements issued per page.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class PostRepositoryTest {
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private User testUser;
+    
+    @BeforeEach
+    public void setup() {
+        testUser = new User();
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+        testUser.setPasswordHash("hashedpassword");
+        testUser = entityManager.persistAndFlush(testUser);
+    }
+    
+    @Test
+    public void findByUserIdBefore_FollowingCursors_ReturnsEveryPostOnce() {
+        // Arrange
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            posts.add(persistPost("Post " + i, null));
+        }
+        posts.sort(Comparator.comparing(Post::getCreatedAt).thenComparing(Post::getId).reversed());
+        
+        // Act
+        List<UUID> seen = new ArrayList<>();
+        TimelineEntry after = CursorCodec.START;
+        Slice<Post> slice;
+        do {
+            slice = postRepository.findByUserIdBefore(
+                    testUser.getId(), after.createdAt(), after.postId(), PageRequest.of(0, 2));
+            slice.forEach(post -> seen.add(post.getId()));
+            Post last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            after = new TimelineEntry(last.getId(), last.getCreatedAt());
+        } while (slice.hasNext());
+        
+        // Assert
+        assertThat(seen).containsExactlyElementsOf(posts.stream().map(Post::getId).toList());
+    }
+    
+    @Test
+    public void findRepliesBefore_ReturnsOnlyRepliesToParent() {
+        // Arrange
+        Post parent = persistPost("Parent", null);
+        Post reply = persistPost("Reply", parent);
+        persistPost("Unrelated", null);
+        
+        // Act
+        Slice<Post> slice = postRepository.findRepliesBefore(parent.getId(),
+                CursorCodec.START.createdAt(), CursorCodec.START.postId(), PageRequest.of(0, 10));
+        
+        // Assert
+        assertThat(slice.getContent()).extracting(Post::getId).containsExactly(reply.getId());
+        assertThat(slice.hasNext()).isFalse();
+    }
+    
+    @Test
+    public void findLatestBefore_MappingPageToDtos_UsesConstantNumberOfStatements() {
+        // Arrange
+        Hashtag java = persistHashtag("java");
+        Hashtag spring = persistHashtag("spring");
+        for (int i = 0; i < 20; i++) {
+            User author = i % 4 == 0 ? testUser : persistUser("author" + i);
+            Post post = new Post();
+            post.setUser(author);
+            post.setContent("Post " + i + " #java #spring");
+            post.setMedia(new ArrayList<>(List.of("https://example.com/" + i + ".png")));
+            post.setHashtags(new HashSet<>(Set.of(java, spring)));
+            entityManager.persist(post);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        // Act
+        Slice<Post> slice = postRepository.findLatestBefore(
+                CursorCodec.START.createdAt(), CursorCodec.START.postId(), PageRequest.of(0, 20));
+        List<PostDto> dtos = PostMapper.toDtoList(slice.getContent());
+        
+        // Assert
+        assertThat(dtos).hasSize(20);
+        assertThat(dtos).allSatisfy(dto -> {
+            assertThat(dto.hashtags()).containsExactlyInAnyOrder("java", "spring");
+            assertThat(dto.media()).hasSize(1);
+        });
+        // Page with authors, then one batch each for author roles, hashtags and media
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+    
+    @Test
+    public void findTrendingPosts_RanksEngagementWithRecencyBonus() {
+        // Arrange
+        Post quiet = persistPost("Quiet", null);
+        Post popular = persistPost("Popular", 50, 0);
+        Post oldPopular = persistPost("Old popular", 500, 0);
+        oldPopular.setCreatedAt(LocalDateTime.now().minusDays(3));
+        entityManager.flush();
+        // Scores are stored, so the backdated post is rescored the way the periodic refresh would
+        postRepository.refreshTrendingScores(LocalDateTime.now().minusDays(7));
+        entityManager.clear();
+        
+        // Act
+        Slice<Post> slice = postRepository.findTrendingPosts(PageRequest.of(0, 10));
+        
+        // Assert
+        assertThat(slice.getContent()).extracting(Post::getId)
+                .containsExactly(popular.getId(), quiet.getId(), oldPopular.getId());
+    }
+    
+    @Test
+    public void refreshTrendingScores_MatchesScoreComputedOnWrite() {
+        // Arrange
+        Post post = persistPost("Post", 12, 3);
+        double scoreOnWrite = post.getTrendingScore();
+        entityManager.clear();
+        
+        // Act
+        int updated = postRepository.refreshTrendingScores(LocalDateTime.now().minusDays(1));
+        
+        // Assert
+        assertThat(updated).isEqualTo(1);
+        assertThat(postRepository.findById(post.getId()).orElseThrow().getTrendingScore())
+                .isCloseTo(scoreOnWrite, within(1e-6));
+    }
+    
+    private User persistUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPasswordHash("hashedpassword");
+        return entityManager.persist(user);
+    }
+    
+    private Hashtag persistHashtag(String name) {
+        Hashtag hashtag = new Hashtag();
+        hashtag.setName(name);
+        return entityManager.persist(hashtag);
+    }
+    
+    private Post persistPost(String content, Post parent) {
+        Post post = new Post();
+        post.setUser(testUser);
+        post.setContent(content);
+        post.setReply(parent != null);
+        post.setParent(parent);
+        return entityManager.persistAndFlush(post);
+    }
+    
+    private Post persistPost(String content, int likeCount, int replyCount) {
+        Post post = new Post();
+        post.setUser(testUser);
+        post.setContent(content);
+        // Counters are only written from the entity on insert
+        post.setLikeCount(likeCount);
+        post.setReplyCount(replyCount);
+        return entityManager.persistAndFlush(post);
+    }
+}
@@ -0,0 +1,267 @@
+package com.dhillon.twitterclone.repository;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query plan tests for the hot PostRepository, LikeRepository, NotificationRepository and FollowRepository queries.
+ * Each repository method is called, and every statement it sends to the database is recorded with its bound
+ * parameters and explained against the migrated schema, to check that it is answered from an index rather than
+ * a full table scan.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanTest.RecordingConfig.class)
+public class QueryPlanTest {
+
+    private static final UUID ID = UUID.randomUUID();
+    private static final UUID OTHER_ID = UUID.randomUUID();
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final PageRequest PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+            hotQuery("PostRepository.findWithDetailsById",
+                test -> test.postRepository.findWithDetailsById(ID)),
+            hotQuery("PostRepository.findVersionById",
+                test -> test.postRepository.findVersionById(ID)),
+            hotQuery("PostRepository.findByUserIdBefore",
+                test -> test.postRepository.findByUserIdBefore(ID, NOW, ID, PAGE)),
+            hotQuery("PostRepository.findLatestBefore",
+                test -> test.postRepository.findLatestBefore(NOW, ID, PAGE)),
+            hotQuery("PostRepository.findRepliesBefore",
+                test -> test.postRepository.findRepliesBefore(ID, NOW, ID, PAGE)),
+            hotQuery("PostRepository.findTimelineEntriesByUserId",
+                test -> test.postRepository.findTimelineEntriesByUserId(ID, NOW, ID, PAGE)),
+            hotQuery("PostRepository.findTimelineEntriesByUserIdIn",
+                test -> test.postRepository.findTimelineEntriesByUserIdIn(List.of(ID, OTHER_ID), NOW, ID, PAGE)),
+            hotQuery("PostRepository.findHomeTimelineEntries",
+                test -> test.postRepository.findHomeTimelineEntries(ID, NOW, ID, PAGE)),
+            hotQuery("PostRepository.findByHashtagName",
+                test -> test.postRepository.findByHashtagName("java", PAGE)),
+            hotQuery("PostRepository.findTrendingPosts",
+                test -> test.postRepository.findTrendingPosts(PAGE)),
+            hotQuery("PostRepository.findRepostedPostIds",
+                test -> test.postRepository.findRepostedPostIds(ID, List.of(ID, OTHER_ID))),
+            hotQuery("LikeRepository.existsByUserIdAndPostId",
+                test -> test.likeRepository.existsByUserIdAndPostId(ID, OTHER_ID)),
+            hotQuery("LikeRepository.findLikedPostIds",
+                test -> test.likeRepository.findLikedPostIds(ID, List.of(ID, OTHER_ID))),
+            hotQuery("NotificationRepository.findByUserIdOrderByCreatedAtDesc",
+                test -> test.notificationRepository.findByUserIdOrderByCreatedAtDesc(ID, PAGE)),
+            hotQuery("NotificationRepository.findByUserIdAndReadFalseOrderByCreatedAtDesc",
+                test -> test.notificationRepository.findByUserIdAndReadFalseOrderByCreatedAtDesc(ID, PAGE)),
+            hotQuery("NotificationRepository.countByUserIdAndReadFalse",
+                test -> test.notificationRepository.countByUserIdAndReadFalse(ID)),
+            hotQuery("NotificationRepository.countUnreadByUserIdIn",
+                test -> test.notificationRepository.countUnreadByUserIdIn(List.of(ID, OTHER_ID))),
+            hotQuery("FollowRepository.existsByFollowerIdAndFollowingId",
+                test -> test.followRepository.existsByFollowerIdAndFollowingId(ID, OTHER_ID)),
+            hotQuery("FollowRepository.findFollowerIdsByFollowingId",
+                test -> test.followRepository.findFollowerIdsByFollowingId(ID)),
+            hotQuery("FollowRepository.findFollowersBefore",
+                test -> test.followRepository.findFollowersBefore(ID, NOW, ID, PAGE)),
+            hotQuery("FollowRepository.findFollowingBefore",
+                test -> test.followRepository.findFollowingBefore(ID, NOW, ID, PAGE)),
+            hotQuery("FollowRepository.findFollowingIdsIn",
+                test -> test.followRepository.findFollowingIdsIn(ID, List.of(ID, OTHER_ID), PAGE))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    public void explain_HotQuery_UsesIndex(String name, HotQuery query) {
+        // Act
+        List<RecordedStatement> statements = RecordingConfig.RECORDER.record(() -> query.run(this));
+        List<String> plans = statements.stream().map(this::explain).toList();
+
+        // Assert
+        assertThat(plans).as(name + " statements").isNotEmpty();
+        for (String plan : plans) {
+            assertThat(plan).as(name + " plan:%n%s", plan).doesNotContain("tableScan");
+        }
+    }
+
+    /**
+     * Explain a recorded statement with the parameters it was executed with.
+     *
+     * @param statement the statement
+     * @return the plan
+     */
+    private String explain(RecordedStatement statement) {
+        List<String> plan = jdbcTemplate.query(connection -> {
+            PreparedStatement explain = connection.prepareStatement("explain " + statement.sql());
+            for (ParameterBinding binding : statement.bindings()) {
+                binding.applyTo(explain);
+            }
+            return explain;
+        }, (rs, rowNum) -> rs.getString(1));
+        return String.join("\n", plan);
+    }
+
+    private static Arguments hotQuery(String name, HotQuery query) {
+        return Arguments.of(name, query);
+    }
+
+    /**
+     * A call of a repository method.
+     */
+    @FunctionalInterface
+    interface HotQuery {
+        void run(QueryPlanTest test);
+    }
+
+    /**
+     * A prepared statement and the parameters bound to it.
+     *
+     * @param sql the SQL
+     * @param bindings the parameter setter calls, in order
+     */
+    record RecordedStatement(String sql, List<ParameterBinding> bindings) {}
+
+    /**
+     * A call of one of the parameter setters of a prepared statement, such as {@code setObject(1, value)}.
+     *
+     * @param setter the setter
+     * @param args the arguments, starting with the parameter index
+     */
+    record ParameterBinding(Method setter, Object[] args) {
+
+        void applyTo(PreparedStatement statement) throws SQLException {
+            try {
+                setter.invoke(statement, args);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                throw (SQLException) e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Records the statements prepared on the data source while a block runs.
+     */
+    static class StatementRecorder {
+
+        private List<RecordedStatement> recorded;
+
+        synchronized List<RecordedStatement> record(Runnable block) {
+            recorded = new ArrayList<>();
+            try {
+                block.run();
+                return recorded;
+            } finally {
+                recorded = null;
+            }
+        }
+
+        DataSource wrap(DataSource dataSource) {
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return proxy(Connection.class, super.getConnection(), (connection, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        List<RecordedStatement> statements = recorded;
+                        if (statements != null && result instanceof PreparedStatement prepared) {
+                            RecordedStatement statement = new RecordedStatement((String) args[0], new ArrayList<>());
+                            statements.add(statement);
+                            return recordBindings(prepared, statement);
+                        }
+                        return result;
+                    });
+                }
+            };
+        }
+
+        private static PreparedStatement recordBindings(PreparedStatement prepared, RecordedStatement statement) {
+            return proxy(PreparedStatement.class, prepared, (target, method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer) {
+                    statement.bindings().add(new ParameterBinding(method, args));
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, T target, TargetHandler<T> handler) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                    (proxy, method, args) -> handler.invoke(target, method, args)));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @FunctionalInterface
+        private interface TargetHandler<T> {
+            Object invoke(T target, Method method, Object[] args) throws Throwable;
+        }
+    }
+
+    /**
+     * Wraps the application data source so that the statements sent by the repositories can be recorded.
+     */
+    @TestConfiguration
+    static class RecordingConfig {
+
+        // Shared with the post-processor, which is created before any ordinary bean could be injected into it
+        static final StatementRecorder RECORDER = new StatementRecorder();
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? RECORDER.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.dhillon.twitterclone.repository;
 
+import com.dhillon.twitterclone.entity.Follow;
 import com.dhillon.twitterclone.entity.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -138,4 +139,37 @@ public class UserRepositoryTest {
         assertThat(users).hasSize(2);
         assertThat(users).extracting("username").containsOnly("testuser", "different");
     }
-} 
\ No newline at end of file
+    
+    @Test
+    public void addToFollowersCount_NeverGoesBelowZero() {
+        // Act
+        userRepository.addToFollowersCount(testUser.getId(), 2);
+        userRepository.addToFollowersCount(testUser.getId(), -5);
+        entityManager.clear();
+        
+        // Assert
+        assertThat(userRepository.findFollowersCountById(testUser.getId())).contains(0);
+    }
+    
+    @Test
+    public void repairFollowCounts_FixesOnlyDriftedUsers() {
+        // Arrange
+        User follower = new User();
+        follower.setUsername("follower");
+        follower.setEmail("follower@example.com");
+        follower.setPasswordHash("hashedpassword");
+        follower = entityManager.persistAndFlush(follower);
+        entityManager.persistAndFlush(new Follow(follower, testUser));
+        userRepository.addToFollowingCount(follower.getId(), 1);
+        
+        // Act
+        int repaired = userRepository.repairFollowCounts();
+        entityManager.clear();
+        
+        // Assert
+        assertThat(repaired).isEqualTo(1);
+        User reloaded = userRepository.findById(testUser.getId()).orElseThrow();
+        assertThat(reloaded.getFollowersCount()).isEqualTo(1);
+        assertThat(reloaded.getFollowingCount()).isZero();
+    }
+}
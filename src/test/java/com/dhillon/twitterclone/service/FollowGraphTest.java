@@ -0,0 +1,175 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.cache.CacheInvalidationBus;
+import com.dhillon.twitterclone.cache.CacheInvalidationTransport;
+import com.dhillon.twitterclone.cache.InMemoryCacheInvalidationTransport;
+import com.dhillon.twitterclone.config.CacheProperties;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
+import com.dhillon.twitterclone.repository.FollowRepository;
+import com.dhillon.twitterclone.service.impl.InMemoryFollowGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the in-memory FollowGraph.
+ */
+@ExtendWith(MockitoExtension.class)
+public class FollowGraphTest {
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private InMemoryFollowGraph followGraph;
+
+    private UUID alice;
+    private UUID bob;
+    private UUID carol;
+
+    @BeforeEach
+    public void setup() {
+        followGraph = new InMemoryFollowGraph(followRepository, null);
+        alice = UUID.randomUUID();
+        bob = UUID.randomUUID();
+        carol = UUID.randomUUID();
+    }
+
+    @Test
+    public void load_AnswersFollowsCountsAndMutuals() {
+        // Arrange
+        loadFollows(alice, bob, bob, alice, alice, carol, carol, bob);
+
+        // Act
+        followGraph.load();
+
+        // Assert
+        assertThat(followGraph.isLoaded()).isTrue();
+        assertThat(followGraph.follows(alice, bob)).isTrue();
+        assertThat(followGraph.follows(carol, alice)).isFalse();
+        assertThat(followGraph.followingCount(alice)).isEqualTo(2);
+        assertThat(followGraph.followerCount(bob)).isEqualTo(2);
+        assertThat(followGraph.followerCount(UUID.randomUUID())).isZero();
+        assertThat(followGraph.findMutualFollowIds(alice, 10)).containsExactly(bob);
+    }
+
+    @Test
+    public void onFollowChanged_AppliesFollowsAndUnfollows() {
+        // Arrange
+        loadFollows(alice, bob);
+        followGraph.load();
+
+        // Act
+        followGraph.onFollowChanged(new FollowChangedEvent(bob, alice, true));
+        followGraph.onFollowChanged(new FollowChangedEvent(alice, bob, false));
+        followGraph.onFollowChanged(new FollowChangedEvent(alice, bob, false));
+
+        // Assert
+        assertThat(followGraph.follows(bob, alice)).isTrue();
+        assertThat(followGraph.follows(alice, bob)).isFalse();
+        assertThat(followGraph.followerCount(bob)).isZero();
+        assertThat(followGraph.findMutualFollowIds(alice, 10)).isEmpty();
+    }
+
+    @Test
+    public void onFollowChanged_OnOtherNode_RereadsChangedEdgeOnceSent() {
+        // Arrange
+        CacheProperties properties = new CacheProperties("memory", 100, Duration.ofMinutes(1),
+                new CacheProperties.Ttl(Duration.ofMinutes(5), Duration.ofHours(1), Duration.ofMinutes(30)),
+                new CacheProperties.Invalidation("cache:invalidations", Duration.ofMillis(5), 100),
+                new CacheProperties.RefreshAhead(10, 0.1, 2, 1000));
+        CacheInvalidationTransport transport = new InMemoryCacheInvalidationTransport();
+        CacheInvalidationBus busA = new CacheInvalidationBus(transport, taskScheduler, properties);
+        InMemoryFollowGraph nodeA = new InMemoryFollowGraph(followRepository, busA);
+        InMemoryFollowGraph nodeB = new InMemoryFollowGraph(followRepository,
+                new CacheInvalidationBus(transport, taskScheduler, properties));
+        loadFollows(alice, bob);
+        nodeA.load();
+        nodeB.load();
+        when(followRepository.existsByFollowerIdAndFollowingId(alice, bob)).thenReturn(false);
+        when(followRepository.existsByFollowerIdAndFollowingId(carol, alice)).thenReturn(true);
+
+        // Act
+        nodeA.onFollowChanged(new FollowChangedEvent(alice, bob, false));
+        nodeA.onFollowChanged(new FollowChangedEvent(carol, alice, true));
+        boolean beforeSend = nodeB.follows(alice, bob);
+        busA.send();
+
+        // Assert
+        assertThat(beforeSend).isTrue();
+        assertThat(nodeB.follows(alice, bob)).isFalse();
+        assertThat(nodeB.follows(carol, alice)).isTrue();
+        assertThat(nodeB.followerCount(alice)).isEqualTo(1);
+    }
+
+    @Test
+    public void load_ReplaysChangesCommittedWhileLoading() {
+        // Arrange
+        doAnswer(invocation -> {
+            BiConsumer<UUID, UUID> consumer = invocation.getArgument(0);
+            consumer.accept(alice, bob);
+            // An unfollow commits after the scan has already read the follow
+            followGraph.onFollowChanged(new FollowChangedEvent(alice, bob, false));
+            return null;
+        }).when(followRepository).forEachFollow(any());
+
+        // Act
+        followGraph.load();
+
+        // Assert
+        assertThat(followGraph.follows(alice, bob)).isFalse();
+    }
+
+    @Test
+    public void findFollowSuggestions_RanksByTwoHopPathsAndSkipsFollowed() {
+        // Arrange
+        UUID dave = UUID.randomUUID();
+        UUID erin = UUID.randomUUID();
+        // alice follows bob and carol; both follow dave, only carol follows erin, and bob follows alice back
+        loadFollows(alice, bob, alice, carol, bob, dave, carol, dave, carol, erin, bob, alice, bob, carol);
+        followGraph.load();
+
+        // Act
+        List<UUID> suggestions = followGraph.findFollowSuggestions(alice, 10, 100, System.nanoTime() + 1_000_000_000L);
+
+        // Assert
+        assertThat(suggestions).containsExactly(dave, erin);
+    }
+
+    @Test
+    public void findFollowSuggestions_AfterDeadline_ReturnsNothingCounted() {
+        // Arrange
+        loadFollows(alice, bob, bob, carol);
+        followGraph.load();
+
+        // Act
+        List<UUID> suggestions = followGraph.findFollowSuggestions(alice, 10, 100, System.nanoTime() - 1);
+
+        // Assert
+        assertThat(suggestions).isEmpty();
+    }
+
+    private void loadFollows(UUID... pairs) {
+        doAnswer(invocation -> {
+            BiConsumer<UUID, UUID> consumer = invocation.getArgument(0);
+            for (int i = 0; i < pairs.length; i += 2) {
+                consumer.accept(pairs[i], pairs[i + 1]);
+            }
+            return null;
+        }).when(followRepository).forEachFollow(any());
+    }
+}
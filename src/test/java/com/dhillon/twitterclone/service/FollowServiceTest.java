@@ -0,0 +1,149 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.entity.Follow;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
+import com.dhillon.twitterclone.exception.BadRequestException;
+import com.dhillon.twitterclone.repository.FollowRepository;
+import com.dhillon.twitterclone.repository.UserRepository;
+import com.dhillon.twitterclone.service.impl.FollowServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the FollowService.
+ */
+@ExtendWith(MockitoExtension.class)
+public class FollowServiceTest {
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private FollowGraph followGraph;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private FollowServiceImpl followService;
+
+    private UUID followerId;
+    private UUID followingId;
+
+    @BeforeEach
+    public void setup() {
+        followerId = UUID.randomUUID();
+        followingId = UUID.randomUUID();
+    }
+
+    @Test
+    public void follow_WhenNew_SavesFollowAndIncrementsBothCounts() {
+        // Arrange
+        when(userRepository.existsById(any(UUID.class))).thenReturn(true);
+        when(followRepository.existsByFollowerIdAndFollowingId(followerId, followingId)).thenReturn(false);
+
+        // Act
+        boolean followed = followService.follow(followerId, followingId);
+
+        // Assert
+        assertThat(followed).isTrue();
+        verify(followRepository).save(any(Follow.class));
+        verify(userRepository).addToFollowingCount(followerId, 1);
+        verify(userRepository).addToFollowersCount(followingId, 1);
+        verify(eventPublisher).publishEvent(new FollowChangedEvent(followerId, followingId, true));
+    }
+
+    @Test
+    public void follow_WhenAlreadyFollowing_DoesNotChangeCounts() {
+        // Arrange
+        when(userRepository.existsById(any(UUID.class))).thenReturn(true);
+        when(followRepository.existsByFollowerIdAndFollowingId(followerId, followingId)).thenReturn(true);
+
+        // Act
+        boolean followed = followService.follow(followerId, followingId);
+
+        // Assert
+        assertThat(followed).isFalse();
+        verify(followRepository, never()).save(any(Follow.class));
+        verify(userRepository, never()).addToFollowersCount(any(UUID.class), anyInt());
+    }
+
+    @Test
+    public void follow_Self_ThrowsBadRequest() {
+        // Act & Assert
+        assertThatThrownBy(() -> followService.follow(followerId, followerId))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(followRepository);
+    }
+
+    @Test
+    public void unfollow_WhenNotFollowing_DoesNotChangeCounts() {
+        // Arrange
+        when(followRepository.deleteByFollowerIdAndFollowingId(followerId, followingId)).thenReturn(0);
+
+        // Act
+        boolean unfollowed = followService.unfollow(followerId, followingId);
+
+        // Assert
+        assertThat(unfollowed).isFalse();
+        verifyNoInteractions(userRepository, eventPublisher);
+    }
+
+    @Test
+    public void unfollow_WhenFollowing_DecrementsBothCounts() {
+        // Arrange
+        when(followRepository.deleteByFollowerIdAndFollowingId(followerId, followingId)).thenReturn(1);
+
+        // Act
+        boolean unfollowed = followService.unfollow(followerId, followingId);
+
+        // Assert
+        assertThat(unfollowed).isTrue();
+        verify(userRepository).addToFollowingCount(followerId, -1);
+        verify(userRepository).addToFollowersCount(followingId, -1);
+    }
+
+    @Test
+    public void isFollowing_WhenGraphLoaded_DoesNotQueryDatabase() {
+        // Arrange
+        when(followGraph.isLoaded()).thenReturn(true);
+        when(followGraph.follows(followerId, followingId)).thenReturn(true);
+
+        // Act
+        boolean following = followService.isFollowing(followerId, followingId);
+
+        // Assert
+        assertThat(following).isTrue();
+        verifyNoInteractions(followRepository);
+    }
+
+    @Test
+    public void isFollowing_WhenGraphNotLoaded_FallsBackToDatabase() {
+        // Arrange
+        when(followGraph.isLoaded()).thenReturn(false);
+        when(followRepository.existsByFollowerIdAndFollowingId(followerId, followingId)).thenReturn(true);
+
+        // Act
+        boolean following = followService.isFollowing(followerId, followingId);
+
+        // Assert
+        assertThat(following).isTrue();
+        verify(followGraph, never()).follows(any(UUID.class), any(UUID.class));
+    }
+}
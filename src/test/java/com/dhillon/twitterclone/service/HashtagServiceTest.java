@@ -0,0 +1,114 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.config.HashtagProperties;
+import com.dhillon.twitterclone.dto.HashtagDto;
+import com.dhillon.twitterclone.entity.Hashtag;
+import com.dhillon.twitterclone.event.HashtagUsageChangedEvent;
+import com.dhillon.twitterclone.repository.HashtagRepository;
+import com.dhillon.twitterclone.service.impl.HashtagServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the HashtagService.
+ */
+@ExtendWith(MockitoExtension.class)
+public class HashtagServiceTest {
+
+    @Mock
+    private HashtagRepository hashtagRepository;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private HashtagServiceImpl hashtagService;
+
+    @BeforeEach
+    public void setup() {
+        hashtagService = new HashtagServiceImpl(hashtagRepository, taskScheduler,
+                new HashtagProperties(Duration.ofSeconds(5), 2, new HashtagProperties.Trending(
+                        Duration.ofMinutes(1), 60, Duration.ofMinutes(30), 100, 1024, 4)));
+    }
+
+    @Test
+    public void flushPostCounts_AggregatesChangesIntoOneBatch() {
+        // Arrange
+        hashtagService.onHashtagUsageChanged(new HashtagUsageChangedEvent(Map.of("java", 1, "spring", 1)));
+        hashtagService.onHashtagUsageChanged(new HashtagUsageChangedEvent(Map.of("java", 1)));
+        hashtagService.onHashtagUsageChanged(new HashtagUsageChangedEvent(Map.of("spring", -1)));
+
+        // Act
+        hashtagService.flushPostCounts();
+        hashtagService.flushPostCounts();
+
+        // Assert
+        verify(hashtagRepository, times(1)).applyPostCountDeltas(Map.of("java", 2L));
+    }
+
+    @Test
+    public void flushPostCounts_WhenUpdateFails_RetriesOnNextFlush() {
+        // Arrange
+        hashtagService.onHashtagUsageChanged(new HashtagUsageChangedEvent(Map.of("java", 1)));
+        doThrow(new RuntimeException("database unavailable")).doNothing()
+                .when(hashtagRepository).applyPostCountDeltas(any());
+
+        // Act
+        hashtagService.flushPostCounts();
+        hashtagService.flushPostCounts();
+
+        // Assert
+        verify(hashtagRepository, times(2)).applyPostCountDeltas(Map.of("java", 1L));
+    }
+
+    @Test
+    public void getTopHashtags_KeepsHighestCountsAsChangesArrive() {
+        // Arrange
+        when(hashtagRepository.findAllByOrderByPostCountDesc(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(hashtag("java", 10), hashtag("spring", 5))));
+        hashtagService.loadTopHashtags();
+        when(hashtagRepository.findByNameIn(List.of("kotlin"))).thenReturn(List.of(hashtag("kotlin", 7)));
+
+        // Act
+        hashtagService.onHashtagUsageChanged(new HashtagUsageChangedEvent(Map.of("kotlin", 1, "java", -4)));
+        hashtagService.flushPostCounts();
+
+        // Assert
+        assertThat(hashtagService.getTopHashtags(10))
+                .containsExactly(new HashtagDto("kotlin", 7), new HashtagDto("java", 6));
+    }
+
+    @Test
+    public void getTrendingHashtags_RanksByRecentUseOnly() {
+        // Arrange
+        hashtagService.onHashtagUsageChanged(new HashtagUsageChangedEvent(Map.of("java", 1, "spring", 1)));
+        hashtagService.onHashtagUsageChanged(new HashtagUsageChangedEvent(Map.of("spring", 1)));
+        hashtagService.onHashtagUsageChanged(new HashtagUsageChangedEvent(Map.of("java", -1)));
+
+        // Act
+        List<HashtagDto> trending = hashtagService.getTrendingHashtags(Duration.ofMinutes(15), 10);
+
+        // Assert
+        assertThat(trending).containsExactly(new HashtagDto("spring", 2), new HashtagDto("java", 1));
+        verifyNoInteractions(hashtagRepository);
+    }
+
+    private Hashtag hashtag(String name, int postCount) {
+        Hashtag hashtag = new Hashtag(name);
+        hashtag.setPostCount(postCount);
+        return hashtag;
+    }
+}
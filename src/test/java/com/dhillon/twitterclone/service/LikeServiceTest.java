@@ -0,0 +1,158 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.cache.CacheNames;
+import com.dhillon.twitterclone.cache.TwoTierCacheManager;
+import com.dhillon.twitterclone.config.LikeProperties;
+import com.dhillon.twitterclone.entity.NotificationType;
+import com.dhillon.twitterclone.event.NotificationEvent;
+import com.dhillon.twitterclone.exception.ResourceNotFoundException;
+import com.dhillon.twitterclone.repository.LikeRepository;
+import com.dhillon.twitterclone.repository.LikeRepositoryCustom.LikeRef;
+import com.dhillon.twitterclone.repository.PostRepository;
+import com.dhillon.twitterclone.repository.UserRepository;
+import com.dhillon.twitterclone.service.impl.LikeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the LikeService.
+ */
+@ExtendWith(MockitoExtension.class)
+public class LikeServiceTest {
+
+    @Mock
+    private LikeRepository likeRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private LikeServiceImpl likeService;
+
+    private UUID postId;
+    private UUID authorId;
+
+    @BeforeEach
+    public void setup() {
+        likeService = new LikeServiceImpl(likeRepository, postRepository, userRepository, taskScheduler, eventPublisher,
+                new TwoTierCacheManager(Map.of(CacheNames.POSTS, Duration.ofMinutes(30)), 100, Duration.ofMinutes(1),
+                        null, null, null, null),
+                new LikeProperties(Duration.ofSeconds(2), 100));
+        postId = UUID.randomUUID();
+        authorId = UUID.randomUUID();
+        lenient().when(postRepository.findAuthorIdById(postId)).thenReturn(Optional.of(authorId));
+        lenient().when(userRepository.existsById(any())).thenReturn(true);
+    }
+
+    @Test
+    public void like_WhenAlreadyLiked_IsNotCountedTwice() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+
+        // Act
+        boolean first = likeService.like(userId, postId);
+        boolean second = likeService.like(userId, postId);
+
+        // Assert
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        verify(likeRepository, times(1)).existsByUserIdAndPostId(userId, postId);
+        verify(eventPublisher, times(1)).publishEvent(new NotificationEvent(authorId, userId, NotificationType.LIKE, postId));
+    }
+
+    @Test
+    public void flushLikes_RecountsPostOnFirstFlushThenAppliesDeltas() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        lenient().when(likeRepository.existsByUserIdAndPostId(third, postId)).thenReturn(true);
+
+        // Act
+        likeService.like(first, postId);
+        likeService.flushLikes();
+        likeService.like(second, postId);
+        likeService.unlike(third, postId);
+        likeService.flushLikes();
+
+        // Assert
+        verify(likeRepository).applyLikeChanges(Map.of(new LikeRef(first, postId), true), Map.of(), Set.of(postId));
+        verify(likeRepository).applyLikeChanges(
+                Map.of(new LikeRef(second, postId), true, new LikeRef(third, postId), false), Map.of(), Set.of());
+    }
+
+    @Test
+    public void flushLikes_SumsConcurrentLikesIntoOneDelta() {
+        // Arrange
+        likeService.like(UUID.randomUUID(), postId);
+        likeService.flushLikes();
+        UUID undecided = UUID.randomUUID();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            likeService.like(UUID.randomUUID(), postId);
+        }
+        likeService.like(undecided, postId);
+        likeService.unlike(undecided, postId);
+        likeService.flushLikes();
+
+        // Assert
+        verify(likeRepository).applyLikeChanges(argThat(changes -> changes.size() == 6),
+                eq(Map.of(postId, 5L)), eq(Set.of()));
+    }
+
+    @Test
+    public void flushLikes_WhenWriteFails_RetriesOnNextFlush() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        likeService.like(userId, postId);
+        doThrow(new RuntimeException("database unavailable")).doNothing()
+                .when(likeRepository).applyLikeChanges(anyMap(), anyMap(), any());
+
+        // Act
+        likeService.flushLikes();
+        boolean likedAgain = likeService.like(userId, postId);
+        likeService.flushLikes();
+
+        // Assert
+        assertThat(likedAgain).isFalse();
+        verify(likeRepository, times(2))
+                .applyLikeChanges(Map.of(new LikeRef(userId, postId), true), Map.of(), Set.of(postId));
+    }
+
+    @Test
+    public void like_WhenPostMissing_ThrowsResourceNotFoundException() {
+        // Arrange
+        UUID missingPostId = UUID.randomUUID();
+
+        // Act & Assert
+        assertThatThrownBy(() -> likeService.like(UUID.randomUUID(), missingPostId))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(likeRepository);
+    }
+}
@@ -0,0 +1,314 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.config.NotificationProperties;
+import com.dhillon.twitterclone.entity.NotificationType;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
+import com.dhillon.twitterclone.event.NotificationEvent;
+import com.dhillon.twitterclone.event.NotificationsReadEvent;
+import com.dhillon.twitterclone.repository.NotificationRepository;
+import com.dhillon.twitterclone.repository.NotificationRepositoryCustom.NewNotification;
+import com.dhillon.twitterclone.repository.NotificationRepositoryCustom.WriteResult;
+import com.dhillon.twitterclone.service.impl.InMemoryUnreadCountStore;
+import com.dhillon.twitterclone.service.impl.NotificationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the NotificationService.
+ */
+@ExtendWith(MockitoExtension.class)
+public class NotificationServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private UnreadCountStore unreadCountStore;
+    private NotificationServiceImpl notificationService;
+
+    private UUID recipientId;
+    private UUID actorId;
+
+    @BeforeEach
+    public void setup() {
+        // Room for three notifications, written two at a time, without waiting for space
+        NotificationProperties properties = new NotificationProperties(3, 2, Duration.ofMillis(500), Duration.ZERO,
+                Duration.ofHours(1), 1, new NotificationProperties.Unread("memory", 100, Duration.ofDays(1), 2));
+        unreadCountStore = new InMemoryUnreadCountStore(properties);
+        notificationService = new NotificationServiceImpl(notificationRepository, unreadCountStore, taskScheduler,
+                eventPublisher, properties);
+        recipientId = UUID.randomUUID();
+        actorId = UUID.randomUUID();
+    }
+
+    @Test
+    public void flushNotifications_WritesQueueInBatches() {
+        // Arrange
+        List<List<NewNotification>> batches = new ArrayList<>();
+        when(notificationRepository.insertNotifications(anyList())).thenAnswer(invocation -> {
+            List<NewNotification> batch = invocation.getArgument(0);
+            batches.add(List.copyOf(batch));
+            return written(batch);
+        });
+        for (int i = 0; i < 3; i++) {
+            notificationService.onNotification(like());
+        }
+
+        // Act
+        int written = notificationService.flushNotifications();
+
+        // Assert
+        assertThat(written).isEqualTo(3);
+        assertThat(batches).extracting(List::size).containsExactly(2, 1);
+        assertThat(notificationService.getQueueSize()).isZero();
+        assertThat(notificationService.getWrittenCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void flushNotifications_CoalescesLikesOfSamePost() {
+        // Arrange
+        UUID postId = UUID.randomUUID();
+        UUID firstActorId = UUID.randomUUID();
+        UUID lastActorId = UUID.randomUUID();
+        notificationService.onNotification(new NotificationEvent(recipientId, firstActorId, NotificationType.LIKE, postId));
+        notificationService.onNotification(new NotificationEvent(recipientId, lastActorId, NotificationType.LIKE, postId));
+        notificationService.onNotification(new NotificationEvent(recipientId, actorId, NotificationType.REPLY, postId));
+        when(notificationRepository.insertNotifications(anyList()))
+                .thenAnswer(invocation -> written(invocation.getArgument(0)));
+
+        // Act
+        notificationService.flushNotifications();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NewNotification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository, times(2)).insertNotifications(captor.capture());
+        NewNotification like = captor.getAllValues().get(0).get(0);
+        assertThat(captor.getAllValues().get(0)).hasSize(1);
+        assertThat(like.actorCount()).isEqualTo(2);
+        assertThat(like.actorId()).isEqualTo(lastActorId);
+        assertThat(like.sampleActorIds()).containsExactly(lastActorId, firstActorId);
+        assertThat(captor.getAllValues().get(1)).singleElement()
+                .satisfies(reply -> assertThat(reply.groupKey()).isNull());
+        assertThat(notificationService.getCoalescedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void flushNotifications_WhenActorLikesAgain_CountsActorOnce() {
+        // Arrange
+        UUID postId = UUID.randomUUID();
+        notificationService.onNotification(new NotificationEvent(recipientId, actorId, NotificationType.LIKE, postId));
+        notificationService.onNotification(new NotificationEvent(recipientId, actorId, NotificationType.LIKE, postId));
+        when(notificationRepository.insertNotifications(anyList()))
+                .thenAnswer(invocation -> written(invocation.getArgument(0)));
+
+        // Act
+        notificationService.flushNotifications();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NewNotification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).insertNotifications(captor.capture());
+        assertThat(captor.getValue()).singleElement().satisfies(like -> {
+            assertThat(like.actorCount()).isEqualTo(1);
+            assertThat(like.sampleActorIds()).containsExactly(actorId);
+        });
+    }
+
+    @Test
+    public void onNotification_WhenQueueFull_DropsAndCounts() {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            notificationService.onNotification(like());
+        }
+
+        // Assert
+        assertThat(notificationService.getQueuedCount()).isEqualTo(3);
+        assertThat(notificationService.getDroppedCount()).isEqualTo(2);
+        assertThat(notificationService.getRemainingCapacity()).isZero();
+    }
+
+    @Test
+    public void onNotification_ForOwnAction_IsIgnored() {
+        // Act
+        notificationService.onNotification(new NotificationEvent(actorId, actorId, NotificationType.LIKE, UUID.randomUUID()));
+
+        // Assert
+        assertThat(notificationService.getQueueSize()).isZero();
+    }
+
+    @Test
+    public void flushNotifications_WhenWriteFails_RetriesSameBatch() {
+        // Arrange
+        notificationService.onFollowChanged(new FollowChangedEvent(actorId, recipientId, true));
+        notificationService.onFollowChanged(new FollowChangedEvent(actorId, recipientId, false));
+        when(notificationRepository.insertNotifications(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenAnswer(invocation -> written(invocation.getArgument(0)));
+
+        // Act
+        int failed = notificationService.flushNotifications();
+        int retried = notificationService.flushNotifications();
+
+        // Assert
+        assertThat(failed).isZero();
+        assertThat(retried).isEqualTo(1);
+        assertThat(notificationService.getFailedBatchCount()).isEqualTo(1);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NewNotification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository, times(2)).insertNotifications(captor.capture());
+        assertThat(captor.getAllValues().get(1)).singleElement().satisfies(notification -> {
+            assertThat(notification.type()).isEqualTo(NotificationType.FOLLOW);
+            assertThat(notification.userId()).isEqualTo(recipientId);
+        });
+    }
+
+    @Test
+    public void flushNotifications_WhenBatchKeepsFailing_SplitsItAndDropsBadNotification() {
+        // Arrange
+        NotificationEvent bad = like();
+        NotificationEvent good = like();
+        notificationService.onNotification(bad);
+        notificationService.onNotification(good);
+        when(notificationRepository.insertNotifications(anyList())).thenAnswer(invocation -> {
+            List<NewNotification> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(notification -> notification.postId().equals(bad.postId()))) {
+                throw new DataAccessResourceFailureException("bad row");
+            }
+            return written(batch);
+        });
+
+        // Act
+        int total = 0;
+        for (int i = 0; i < 5; i++) {
+            total += notificationService.flushNotifications();
+        }
+
+        // Assert
+        assertThat(total).isEqualTo(1);
+        assertThat(notificationService.getDeadLetteredCount()).isEqualTo(1);
+        // The pair fails twice and is split, then the bad notification fails twice and is dropped
+        assertThat(notificationService.getFailedBatchCount()).isEqualTo(4);
+        verify(notificationRepository, times(5)).insertNotifications(anyList());
+    }
+
+    @Test
+    public void flushOnShutdown_DrainsQueue() {
+        // Arrange
+        when(notificationRepository.insertNotifications(anyList()))
+                .thenAnswer(invocation -> written(invocation.getArgument(0)));
+        notificationService.onNotification(like());
+
+        // Act
+        notificationService.flushOnShutdown();
+
+        // Assert
+        assertThat(notificationService.getQueueSize()).isZero();
+        verify(notificationRepository).insertNotifications(anyList());
+    }
+
+    @Test
+    public void getUnreadCount_CountsTableOnlyOnMiss() {
+        // Arrange
+        when(notificationRepository.countByUserIdAndReadFalse(recipientId)).thenReturn(4L);
+
+        // Act
+        long first = notificationService.getUnreadCount(recipientId);
+        long second = notificationService.getUnreadCount(recipientId);
+
+        // Assert
+        assertThat(first).isEqualTo(4);
+        assertThat(second).isEqualTo(4);
+        verify(notificationRepository, times(1)).countByUserIdAndReadFalse(recipientId);
+    }
+
+    @Test
+    public void flushNotifications_IncrementsCachedUnreadCount() {
+        // Arrange
+        unreadCountStore.put(recipientId, 1);
+        when(notificationRepository.insertNotifications(anyList()))
+                .thenAnswer(invocation -> written(invocation.getArgument(0)));
+        notificationService.onNotification(like());
+        notificationService.onNotification(like());
+
+        // Act
+        notificationService.flushNotifications();
+
+        // Assert
+        assertThat(notificationService.getUnreadCount(recipientId)).isEqualTo(3);
+        verify(notificationRepository, never()).countByUserIdAndReadFalse(any(UUID.class));
+    }
+
+    @Test
+    public void markAllAsRead_PublishesReadCountThatDecrementsCache() {
+        // Arrange
+        unreadCountStore.put(recipientId, 5);
+        when(notificationRepository.markAllAsRead(recipientId)).thenReturn(5);
+
+        // Act
+        notificationService.markAllAsRead(recipientId);
+
+        // Assert
+        ArgumentCaptor<NotificationsReadEvent> captor = ArgumentCaptor.forClass(NotificationsReadEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        notificationService.onNotificationsRead(captor.getValue());
+        assertThat(notificationService.getUnreadCount(recipientId)).isZero();
+    }
+
+    @Test
+    public void reconcileUnreadCounts_RecountsCachedUsersInBatches() {
+        // Arrange
+        UUID otherId = UUID.randomUUID();
+        UUID thirdId = UUID.randomUUID();
+        unreadCountStore.put(recipientId, 9);
+        unreadCountStore.put(otherId, 9);
+        unreadCountStore.put(thirdId, 9);
+        when(notificationRepository.countUnreadByUserIdIn(anyList()))
+                .thenAnswer(invocation -> invocation.<List<UUID>>getArgument(0).contains(recipientId)
+                        ? Map.of(recipientId, 2L) : Map.of());
+
+        // Act
+        int reconciled = notificationService.reconcileUnreadCounts();
+
+        // Assert
+        assertThat(reconciled).isEqualTo(3);
+        verify(notificationRepository, times(2)).countUnreadByUserIdIn(anyList());
+        assertThat(unreadCountStore.get(recipientId)).hasValue(2);
+        assertThat(unreadCountStore.get(otherId)).hasValue(0);
+        assertThat(unreadCountStore.get(thirdId)).hasValue(0);
+    }
+
+    private static WriteResult written(List<NewNotification> batch) {
+        Map<UUID, Integer> unreadAdded = new HashMap<>();
+        batch.forEach(notification -> unreadAdded.merge(notification.userId(), 1, Integer::sum));
+        return new WriteResult(batch.size(), unreadAdded);
+    }
+
+    private NotificationEvent like() {
+        return new NotificationEvent(recipientId, actorId, NotificationType.LIKE, UUID.randomUUID());
+    }
+}
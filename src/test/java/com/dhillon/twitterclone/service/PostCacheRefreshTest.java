@@ -0,0 +1,123 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.cache.CacheNames;
+import com.dhillon.twitterclone.cache.TwoTierCacheManager;
+import com.dhillon.twitterclone.config.CacheProperties;
+import com.dhillon.twitterclone.dto.PostDto;
+import com.dhillon.twitterclone.entity.Hashtag;
+import com.dhillon.twitterclone.entity.Post;
+import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.repository.HashtagRepository;
+import com.dhillon.twitterclone.repository.PostRepository;
+import com.dhillon.twitterclone.repository.UserRepository;
+import com.dhillon.twitterclone.service.impl.PostServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests of the early refresh of cached posts against the database.
+ * Runs outside the test transaction, as the refresh thread has no session of its own and reads committed rows.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PostCacheRefreshTest {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HashtagRepository hashtagRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService refreshExecutor;
+    private TwoTierCacheManager cacheManager;
+    private PostServiceImpl postService;
+    private User author;
+    private Hashtag hashtag;
+    private Post post;
+
+    @BeforeEach
+    public void setup() {
+        refreshExecutor = Executors.newSingleThreadExecutor();
+        // A window far longer than the lifetime makes every read of a cached post due for refresh
+        cacheManager = new TwoTierCacheManager(Map.of(CacheNames.POSTS, Duration.ofMinutes(30)), 100,
+                Duration.ofMinutes(1), null, null, new CacheProperties.RefreshAhead(0, 1e9, 1, 10), refreshExecutor);
+        postService = new PostServiceImpl(postRepository, hashtagRepository, mock(TimelineService.class),
+                mock(UserService.class), mock(ApplicationEventPublisher.class), cacheManager);
+
+        author = new User();
+        author.setUsername("hotauthor");
+        author.setEmail("hotauthor@example.com");
+        author.setPasswordHash("hashedpassword");
+        author = userRepository.save(author);
+        hashtag = hashtagRepository.save(new Hashtag("hot"));
+
+        post = new Post();
+        post.setUser(author);
+        post.setContent("Hot #hot");
+        post.setMedia(new ArrayList<>(List.of("https://example.com/hot.png")));
+        post.setHashtags(new HashSet<>(Set.of(hashtag)));
+        post = postRepository.save(post);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        refreshExecutor.shutdownNow();
+        postRepository.deleteById(post.getId());
+        hashtagRepository.deleteById(hashtag.getId());
+        userRepository.deleteById(author.getId());
+    }
+
+    @Test
+    public void findPostDto_WhenRefreshedOnExecutor_LoadsAuthorAndHashtagsWithoutSession() throws Exception {
+        // Arrange
+        postService.findPostDto(post.getId());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                postRepository.findById(post.getId()).orElseThrow().setContent("Edited #hot"));
+
+        // Act
+        Optional<PostDto> served = postService.findPostDto(post.getId());
+        refreshExecutor.shutdown();
+        assertThat(refreshExecutor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        PostDto refreshed = cacheManager.getCache(CacheNames.POSTS).get(post.getId(), PostDto.class);
+
+        // Assert
+        assertThat(served).map(PostDto::content).contains("Hot #hot");
+        assertThat(cacheManager.getEarlyRefreshCount()).isEqualTo(1);
+        assertThat(refreshed.content()).isEqualTo("Edited #hot");
+        assertThat(refreshed.username()).isEqualTo("hotauthor");
+        assertThat(refreshed.hashtags()).containsExactly("hot");
+        assertThat(refreshed.media()).containsExactly("https://example.com/hot.png");
+    }
+}
@@ -0,0 +1,274 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.cache.CacheNames;
+import com.dhillon.twitterclone.cache.TwoTierCacheManager;
+import com.dhillon.twitterclone.dto.CursorPage;
+import com.dhillon.twitterclone.dto.PostDto;
+import com.dhillon.twitterclone.dto.UserDto;
+import com.dhillon.twitterclone.entity.Hashtag;
+import com.dhillon.twitterclone.entity.Post;
+import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.event.HashtagUsageChangedEvent;
+import com.dhillon.twitterclone.repository.HashtagRepository;
+import com.dhillon.twitterclone.repository.PostRepository;
+import com.dhillon.twitterclone.service.impl.PostServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the PostService.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PostServiceTest {
+    
+    @Mock
+    private PostRepository postRepository;
+    
+    @Mock
+    private HashtagRepository hashtagRepository;
+    
+    @Mock
+    private TimelineService timelineService;
+    
+    @Mock
+    private UserService userService;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    private CacheManager cacheManager;
+    private PostServiceImpl postService;
+    
+    private User testUser;
+    
+    @BeforeEach
+    public void setup() {
+        cacheManager = new TwoTierCacheManager(
+                Map.of(CacheNames.POSTS, Duration.ofMinutes(30), CacheNames.POST_PAYLOADS, Duration.ofMinutes(30),
+                        CacheNames.TIMELINES, Duration.ofMinutes(5)),
+                100, Duration.ofMinutes(1), null, null, null, null);
+        postService = new PostServiceImpl(postRepository, hashtagRepository, timelineService, userService, eventPublisher,
+                cacheManager);
+        testUser = new User();
+        testUser.setId(UUID.randomUUID());
+        testUser.setUsername("testuser");
+    }
+    
+    @Test
+    public void createPost_WithRepeatedAndNewHashtags_ResolvesThemInOneBatch() {
+        // Arrange
+        Hashtag existing = hashtag("java");
+        Hashtag created = hashtag("spring");
+        when(hashtagRepository.findByNameIn(Set.of("java", "spring"))).thenReturn(List.of(existing));
+        when(hashtagRepository.findByNameIn(Set.of("spring"))).thenReturn(List.of(created));
+        when(postRepository.save(any(Post.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Post post = new Post();
+        post.setUser(testUser);
+        post.setContent("#Java and #java with #spring");
+        
+        // Act
+        Post result = postService.createPost(post);
+        
+        // Assert
+        assertThat(result.getHashtags()).containsExactlyInAnyOrder(existing, created);
+        verify(hashtagRepository).insertIfAbsent(Set.of("spring"));
+        verify(hashtagRepository, times(2)).findByNameIn(any());
+        verify(hashtagRepository, never()).findByName(any());
+        verify(hashtagRepository, never()).save(any(Hashtag.class));
+    }
+    
+    @Test
+    public void createPost_WhenAllHashtagsExist_DoesNotInsert() {
+        // Arrange
+        Hashtag existing = hashtag("java");
+        when(hashtagRepository.findByNameIn(Set.of("java"))).thenReturn(List.of(existing));
+        when(postRepository.save(any(Post.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Post post = new Post();
+        post.setUser(testUser);
+        post.setContent("Hello #java");
+        
+        // Act
+        Post result = postService.createPost(post);
+        
+        // Assert
+        assertThat(result.getHashtags()).containsExactly(existing);
+        verify(hashtagRepository, never()).insertIfAbsent(any());
+    }
+    
+    @Test
+    public void updatePost_PublishesHashtagChanges() {
+        // Arrange
+        Hashtag java = hashtag("java");
+        Hashtag spring = hashtag("spring");
+        Post existing = new Post();
+        existing.setId(UUID.randomUUID());
+        existing.setUser(testUser);
+        existing.setContent("#java");
+        existing.setHashtags(new HashSet<>(Set.of(java)));
+        when(postRepository.findById(existing.getId())).thenReturn(Optional.of(existing));
+        when(hashtagRepository.findByNameIn(Set.of("spring"))).thenReturn(List.of(spring));
+        when(postRepository.save(any(Post.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Post update = new Post();
+        update.setContent("Now #spring");
+        
+        // Act
+        postService.updatePost(existing.getId(), update);
+        
+        // Assert
+        verify(eventPublisher).publishEvent(new HashtagUsageChangedEvent(Map.of("java", -1, "spring", 1)));
+    }
+    
+    @Test
+    public void findPostDto_SecondRead_IsServedFromCacheUntilUpdated() {
+        // Arrange
+        Post existing = post("Hello");
+        when(postRepository.findWithDetailsById(existing.getId())).thenReturn(Optional.of(existing));
+        when(postRepository.findById(existing.getId())).thenReturn(Optional.of(existing));
+        when(postRepository.save(any(Post.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        postService.findPostDto(existing.getId());
+        Optional<PostDto> cached = postService.findPostDto(existing.getId());
+        Post update = new Post();
+        update.setContent("Edited");
+        postService.updatePost(existing.getId(), update);
+        Optional<PostDto> reloaded = postService.findPostDto(existing.getId());
+        
+        // Assert
+        assertThat(cached).map(PostDto::content).contains("Hello");
+        assertThat(reloaded).map(PostDto::content).contains("Edited");
+        verify(postRepository, times(2)).findWithDetailsById(existing.getId());
+    }
+    
+    @Test
+    public void updatePost_EvictsSerializedPayload() {
+        // Arrange
+        Post existing = post("Hello");
+        when(postRepository.findById(existing.getId())).thenReturn(Optional.of(existing));
+        when(postRepository.save(any(Post.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        cacheManager.getCache(CacheNames.POST_PAYLOADS).put(existing.getId(), "payload");
+        Post update = new Post();
+        update.setContent("Edited");
+        
+        // Act
+        postService.updatePost(existing.getId(), update);
+        
+        // Assert
+        assertThat(cacheManager.getCache(CacheNames.POST_PAYLOADS).get(existing.getId())).isNull();
+    }
+    
+    @Test
+    public void getHomeTimelineDtos_FirstPage_IsServedFromCacheWhileVersionUnchanged() {
+        // Arrange
+        UUID userId = testUser.getId();
+        Post first = post("First");
+        Post second = post("Second");
+        when(timelineService.getVersion(userId)).thenReturn("v1", "v1", "v2");
+        when(timelineService.getHomeTimeline(userId, null, 20))
+                .thenReturn(new CursorPage<>(List.of(first), null, false))
+                .thenReturn(new CursorPage<>(List.of(second, first), null, false));
+        
+        // Act
+        CursorPage<PostDto> loaded = postService.getHomeTimelineDtos(userId, null, 20);
+        CursorPage<PostDto> cached = postService.getHomeTimelineDtos(userId, null, 20);
+        CursorPage<PostDto> changed = postService.getHomeTimelineDtos(userId, null, 20);
+        
+        // Assert
+        assertThat(cached).isEqualTo(loaded);
+        assertThat(changed.content()).extracting(PostDto::content).containsExactly("Second", "First");
+        verify(timelineService, times(2)).getHomeTimeline(userId, null, 20);
+    }
+    
+    @Test
+    public void findPostDto_WhenAuthorEditsProfileAfterCaching_ShowsCurrentProfile() {
+        // Arrange
+        Post existing = post("Hello");
+        when(postRepository.findWithDetailsById(existing.getId())).thenReturn(Optional.of(existing));
+        when(userService.findProfileById(testUser.getId()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(profile("Renamed", "/images/new.png")));
+        postService.findPostDto(existing.getId());
+        
+        // Act
+        Optional<PostDto> post = postService.findPostDto(existing.getId());
+        
+        // Assert
+        assertThat(post).map(PostDto::displayName).contains("Renamed");
+        assertThat(post).map(PostDto::profileImage).contains("/images/new.png");
+        verify(postRepository, times(1)).findWithDetailsById(existing.getId());
+    }
+    
+    @Test
+    public void getHomeTimelineDtos_WhenAuthorEditsProfileAfterCaching_ShowsCurrentProfile() {
+        // Arrange
+        UUID userId = testUser.getId();
+        when(timelineService.getVersion(userId)).thenReturn("v1");
+        when(timelineService.getHomeTimeline(userId, null, 20))
+                .thenReturn(new CursorPage<>(List.of(post("First"), post("Second")), null, false));
+        when(userService.findProfileById(testUser.getId())).thenReturn(Optional.of(profile("Renamed", null)));
+        postService.getHomeTimelineDtos(userId, null, 20);
+        
+        // Act
+        CursorPage<PostDto> cached = postService.getHomeTimelineDtos(userId, null, 20);
+        
+        // Assert
+        assertThat(cached.content()).extracting(PostDto::displayName).containsExactly("Renamed", "Renamed");
+        verify(timelineService, times(1)).getHomeTimeline(userId, null, 20);
+        // One profile lookup for both posts of the author
+        verify(userService, times(1)).findProfileById(testUser.getId());
+    }
+    
+    @Test
+    public void getHomeTimelineDtos_WhenNotMaterialized_BypassesCache() {
+        // Arrange
+        UUID userId = testUser.getId();
+        when(timelineService.getVersion(userId)).thenReturn(null);
+        when(timelineService.getHomeTimeline(userId, null, 20)).thenReturn(CursorPage.empty());
+        
+        // Act
+        postService.getHomeTimelineDtos(userId, null, 20);
+        postService.getHomeTimelineDtos(userId, null, 20);
+        
+        // Assert
+        verify(timelineService, times(2)).getHomeTimeline(userId, null, 20);
+    }
+    
+    private Post post(String content) {
+        Post post = new Post();
+        post.setId(UUID.randomUUID());
+        post.setUser(testUser);
+        post.setContent(content);
+        return post;
+    }
+    
+    private UserDto profile(String displayName, String profileImage) {
+        return new UserDto(testUser.getId(), testUser.getUsername(), null, displayName, null, null, null, profileImage,
+                null, false, null, 0, 0, null);
+    }
+    
+    private Hashtag hashtag(String name) {
+        Hashtag hashtag = new Hashtag(name);
+        hashtag.setId(UUID.randomUUID());
+        return hashtag;
+    }
+}
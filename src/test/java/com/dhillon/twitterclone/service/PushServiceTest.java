@@ -0,0 +1,126 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.config.WebSocketProperties;
+import com.dhillon.twitterclone.dto.NotificationPushDto;
+import com.dhillon.twitterclone.dto.TimelineHintDto;
+import com.dhillon.twitterclone.entity.NotificationType;
+import com.dhillon.twitterclone.event.NotificationsWrittenEvent;
+import com.dhillon.twitterclone.event.TimelineUpdatedEvent;
+import com.dhillon.twitterclone.repository.NotificationRepositoryCustom.NewNotification;
+import com.dhillon.twitterclone.service.impl.StompPushService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the PushService.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PushServiceTest {
+
+    @Mock
+    private SimpMessageSendingOperations messagingTemplate;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private StompPushService pushService;
+
+    private UUID userId;
+
+    @BeforeEach
+    public void setup() {
+        WebSocketProperties properties = new WebSocketProperties("*", "/ws", "/user", "/app", "/topic",
+                Duration.ofSeconds(10), Duration.ofSeconds(10), DataSize.ofKilobytes(64), Duration.ofSeconds(2));
+        pushService = new StompPushService(messagingTemplate, taskScheduler, properties);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    public void flushTimelineHints_SumsPostsPerSubscribedUser() {
+        // Arrange
+        UUID unsubscribedId = UUID.randomUUID();
+        UUID authorId = UUID.randomUUID();
+        subscribe("session-1", "sub-1", "/topic/users/" + userId + "/timeline");
+        for (int i = 0; i < 3; i++) {
+            pushService.onTimelineUpdated(new TimelineUpdatedEvent(UUID.randomUUID(), authorId, List.of(userId, unsubscribedId)));
+        }
+
+        // Act
+        int sent = pushService.flushTimelineHints();
+        int sentAgain = pushService.flushTimelineHints();
+
+        // Assert
+        assertThat(sent).isEqualTo(1);
+        assertThat(sentAgain).isZero();
+        verify(messagingTemplate).convertAndSend("/topic/users/" + userId + "/timeline", new TimelineHintDto(3));
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    @Test
+    public void onNotificationsWritten_PushesOnlyToSubscribedRecipients() {
+        // Arrange
+        subscribe("session-1", "sub-1", "/topic/users/" + userId + "/notifications");
+        UUID actorId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        NewNotification subscribed = new NewNotification(userId, NotificationType.FOLLOW, actorId, null, now);
+        NewNotification unsubscribed = new NewNotification(UUID.randomUUID(), NotificationType.FOLLOW, actorId, null, now);
+
+        // Act
+        pushService.onNotificationsWritten(new NotificationsWrittenEvent(List.of(subscribed, unsubscribed)));
+
+        // Assert
+        verify(messagingTemplate).convertAndSend("/topic/users/" + userId + "/notifications",
+                new NotificationPushDto(NotificationType.FOLLOW, actorId, 1, null, now));
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    @Test
+    public void onDisconnect_ReleasesSubscriptionsAndPendingHints() {
+        // Arrange
+        subscribe("session-1", "sub-1", "/topic/users/" + userId + "/timeline");
+        subscribe("session-1", "sub-2", "/topic/users/" + userId + "/notifications");
+        pushService.onTimelineUpdated(new TimelineUpdatedEvent(UUID.randomUUID(), UUID.randomUUID(), List.of(userId)));
+        Message<byte[]> close = MessageBuilder.createMessage(new byte[0],
+                StompHeaderAccessor.create(StompCommand.DISCONNECT).getMessageHeaders());
+
+        // Act
+        pushService.onDisconnect(new SessionDisconnectEvent(this, close, "session-1", CloseStatus.NORMAL));
+
+        // Assert
+        assertThat(pushService.hasSubscribers(userId)).isFalse();
+        assertThat(pushService.flushTimelineHints()).isZero();
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    private void subscribe(String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        pushService.onSubscribe(new SessionSubscribeEvent(this,
+                MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders())));
+    }
+}
@@ -0,0 +1,146 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.config.TimelineProperties;
+import com.dhillon.twitterclone.service.impl.RedisHomeTimelineStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the RedisHomeTimelineStore.
+ */
+@ExtendWith(MockitoExtension.class)
+public class RedisHomeTimelineStoreTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    private RedisHomeTimelineStore timelineStore;
+
+    private UUID userId;
+
+    @BeforeEach
+    public void setup() {
+        TimelineProperties properties = new TimelineProperties("redis", 3, 100, Duration.ofDays(1), 1000,
+                Duration.ofSeconds(10), new TimelineProperties.Merge(10, 3, Duration.ofSeconds(5)));
+        timelineStore = new RedisHomeTimelineStore(redisTemplate, properties);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void replace_WithEmptyRebuild_MarksTimelineMaterialized() {
+        // Arrange
+        ArgumentCaptor<RedisScript<Long>> script = ArgumentCaptor.forClass(RedisScript.class);
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        timelineStore.replace(userId, 0, List.of());
+
+        // Assert
+        verify(redisTemplate).execute(script.capture(), keys.capture(), eq("3"), eq("86400"), eq("0"));
+        assertThat(keys.getValue()).contains("timeline:materialized:" + userId);
+        assertThat(script.getValue().getScriptAsString())
+                .contains("redis.call('SET', KEYS[2], '1', 'EX', ARGV[2])")
+                .doesNotContain("'DEL', KEYS[1]");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void replace_ChecksGenerationBeforeWriting() {
+        // Arrange
+        ArgumentCaptor<RedisScript<Long>> script = ArgumentCaptor.forClass(RedisScript.class);
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        when(redisTemplate.execute(script.capture(), keys.capture(), any(Object[].class))).thenReturn(0L);
+
+        // Act
+        boolean installed = timelineStore.replace(userId, 7, List.of());
+
+        // Assert
+        assertThat(installed).isFalse();
+        assertThat(keys.getValue()).endsWith("timeline:generation:" + userId);
+        assertThat(script.getValue().getScriptAsString())
+                .startsWith("if (redis.call('GET', KEYS[5]) or '0') ~= ARGV[3] then return 0 end");
+    }
+
+    @Test
+    public void isMaterialized_ChecksMarkerInsteadOfTimeline() {
+        // Arrange
+        when(redisTemplate.hasKey("timeline:materialized:" + userId)).thenReturn(true);
+
+        // Act & Assert
+        assertThat(timelineStore.isMaterialized(userId)).isTrue();
+        verify(redisTemplate, never()).hasKey("timeline:home:" + userId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void evict_DeletesTimelineAndMarkersAndAdvancesGeneration() {
+        // Arrange
+        ArgumentCaptor<RedisScript<Long>> script = ArgumentCaptor.forClass(RedisScript.class);
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        timelineStore.evict(userId);
+
+        // Assert
+        verify(redisTemplate).execute(script.capture(), keys.capture(), eq("86400"));
+        assertThat(keys.getValue()).containsExactly("timeline:home:" + userId, "timeline:materialized:" + userId,
+                "timeline:rebuilding:" + userId, "timeline:pending:" + userId, "timeline:generation:" + userId);
+        assertThat(script.getValue().getScriptAsString())
+                .contains("redis.call('DEL', KEYS[1], KEYS[2], KEYS[3], KEYS[4])")
+                .contains("redis.call('INCR', KEYS[5])");
+    }
+
+    @Test
+    public void getPullAuthors_WithinTtl_ReadsRedisOnce() {
+        // Arrange
+        UUID authorId = UUID.randomUUID();
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members("timeline:pull-authors")).thenReturn(Set.of(authorId.toString()));
+
+        // Act
+        timelineStore.getPullAuthors();
+        Set<UUID> pullAuthors = timelineStore.getPullAuthors();
+
+        // Assert
+        assertThat(pullAuthors).containsExactly(authorId);
+        verify(setOperations, times(1)).members("timeline:pull-authors");
+    }
+
+    @Test
+    public void addPullAuthor_ReloadsPullAuthorsOnNextRead() {
+        // Arrange
+        UUID authorId = UUID.randomUUID();
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members("timeline:pull-authors"))
+                .thenReturn(Set.of())
+                .thenReturn(Set.of(authorId.toString()));
+        timelineStore.getPullAuthors();
+
+        // Act
+        timelineStore.addPullAuthor(authorId);
+
+        // Assert
+        assertThat(timelineStore.getPullAuthors()).containsExactly(authorId);
+    }
+}
@@ -0,0 +1,108 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.config.SuggestionProperties;
+import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
+import com.dhillon.twitterclone.exception.BadRequestException;
+import com.dhillon.twitterclone.repository.UserRepository;
+import com.dhillon.twitterclone.service.impl.SuggestionServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the SuggestionService.
+ */
+@ExtendWith(MockitoExtension.class)
+public class SuggestionServiceTest {
+
+    @Mock
+    private FollowGraph followGraph;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SuggestionServiceImpl suggestionService;
+
+    private UUID userId;
+    private User first;
+    private User second;
+
+    @BeforeEach
+    public void setup() {
+        suggestionService = new SuggestionServiceImpl(followGraph, userRepository,
+                new SuggestionProperties(20, Duration.ofMillis(50), 100, Duration.ofMinutes(15), 1000));
+        userId = UUID.randomUUID();
+        first = user();
+        second = user();
+    }
+
+    @Test
+    public void getSuggestions_ComputesOnceAndServesFromCache() {
+        // Arrange
+        givenSuggestions(List.of(first.getId(), second.getId()));
+        when(userRepository.findAllById(anyList())).thenReturn(List.of(second, first));
+
+        // Act
+        List<User> firstRead = suggestionService.getSuggestions(userId, 10);
+        List<User> secondRead = suggestionService.getSuggestions(userId, 10);
+
+        // Assert
+        assertThat(firstRead).containsExactly(first, second);
+        assertThat(secondRead).containsExactly(first, second);
+        verify(followGraph, times(1)).findFollowSuggestions(eq(userId), anyInt(), anyInt(), anyLong());
+    }
+
+    @Test
+    public void onFollowChanged_DropsFollowedAccountAndRecomputesOnNextRead() {
+        // Arrange
+        givenSuggestions(List.of(first.getId(), second.getId()));
+        when(userRepository.findAllById(List.of(first.getId(), second.getId()))).thenReturn(List.of(first, second));
+        suggestionService.getSuggestions(userId, 10);
+        when(followGraph.findFollowSuggestions(eq(userId), anyInt(), anyInt(), anyLong()))
+                .thenReturn(List.of(second.getId()));
+        when(userRepository.findAllById(List.of(second.getId()))).thenReturn(List.of(second));
+
+        // Act
+        suggestionService.onFollowChanged(new FollowChangedEvent(userId, first.getId(), true));
+        List<User> suggestions = suggestionService.getSuggestions(userId, 10);
+
+        // Assert
+        assertThat(suggestions).containsExactly(second);
+        verify(followGraph, times(2)).findFollowSuggestions(eq(userId), anyInt(), anyInt(), anyLong());
+    }
+
+    @Test
+    public void getSuggestions_WithLimitAboveCachedCount_ThrowsBadRequest() {
+        // Act & Assert
+        assertThatThrownBy(() -> suggestionService.getSuggestions(userId, 21))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(followGraph);
+    }
+
+    private void givenSuggestions(List<UUID> ids) {
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(followGraph.isLoaded()).thenReturn(true);
+        when(followGraph.findFollowSuggestions(eq(userId), anyInt(), anyInt(), anyLong())).thenReturn(ids);
+    }
+
+    private User user() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+}
@@ -0,0 +1,364 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.config.TimelineProperties;
+import com.dhillon.twitterclone.dto.CursorPage;
+import com.dhillon.twitterclone.dto.TimelineEntry;
+import com.dhillon.twitterclone.entity.Post;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
+import com.dhillon.twitterclone.event.PostCreatedEvent;
+import com.dhillon.twitterclone.event.TimelineUpdatedEvent;
+import com.dhillon.twitterclone.repository.FollowRepository;
+import com.dhillon.twitterclone.repository.PostRepository;
+import com.dhillon.twitterclone.repository.UserRepository;
+import com.dhillon.twitterclone.service.impl.InMemoryHomeTimelineStore;
+import com.dhillon.twitterclone.service.impl.TimelineServiceImpl;
+import com.dhillon.twitterclone.util.CursorCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the TimelineService.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TimelineServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private HomeTimelineStore timelineStore;
+    private TimelineServiceImpl timelineService;
+
+    private UUID userId;
+    private LocalDateTime now;
+
+    @BeforeEach
+    public void setup() {
+        TimelineProperties properties = new TimelineProperties("memory", 3, 100, Duration.ofDays(1), 1000,
+                Duration.ofSeconds(10), new TimelineProperties.Merge(10, 3, Duration.ofSeconds(5)));
+        timelineStore = new InMemoryHomeTimelineStore(properties);
+        timelineService = new TimelineServiceImpl(timelineStore, postRepository, followRepository, userRepository,
+                eventPublisher, properties);
+
+        userId = UUID.randomUUID();
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    public void getHomeTimeline_WhenNotMaterialized_RebuildsFromDatabase() {
+        // Arrange
+        Post older = post(now.minusMinutes(5));
+        Post newer = post(now);
+        when(postRepository.findHomeTimelineEntries(eq(userId), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(entry(newer), entry(older)));
+        when(postRepository.findAllWithUserByIdIn(anyList())).thenReturn(List.of(older, newer));
+
+        // Act
+        CursorPage<Post> page = timelineService.getHomeTimeline(userId, null, 10);
+
+        // Assert
+        assertThat(page.content()).containsExactly(newer, older);
+        assertThat(page.hasNext()).isFalse();
+        assertThat(timelineStore.isMaterialized(userId)).isTrue();
+    }
+
+    @Test
+    public void getHomeTimeline_WhenPostFannedOutDuringRebuild_KeepsPost() {
+        // Arrange
+        UUID authorId = UUID.randomUUID();
+        Post older = post(now.minusMinutes(5));
+        Post committedDuringRebuild = post(now);
+        when(followRepository.findFollowerIdsByFollowingId(authorId)).thenReturn(List.of(userId));
+        // The post commits and is fanned out after the rebuild query has read the database
+        when(postRepository.findHomeTimelineEntries(eq(userId), any(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    timelineService.fanOut(new PostCreatedEvent(committedDuringRebuild.getId(), authorId, now));
+                    return List.of(entry(older));
+                });
+        when(postRepository.findAllWithUserByIdIn(anyList())).thenReturn(List.of(older, committedDuringRebuild));
+
+        // Act
+        CursorPage<Post> page = timelineService.getHomeTimeline(userId, null, 10);
+
+        // Assert
+        assertThat(page.content()).containsExactly(committedDuringRebuild, older);
+        assertThat(timelineStore.range(userId, CursorCodec.START, 10)).extracting(TimelineEntry::postId)
+                .containsExactly(committedDuringRebuild.getId(), older.getId());
+    }
+
+    @Test
+    public void getHomeTimeline_WhenEvictedDuringRebuild_DiscardsRebuildAndReadsDatabase() {
+        // Arrange
+        Post unfollowed = post(now.minusMinutes(5));
+        Post followed = post(now);
+        // The follow change commits after the rebuild query has read the database
+        when(postRepository.findHomeTimelineEntries(eq(userId), any(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    timelineService.onFollowChanged(new FollowChangedEvent(userId, UUID.randomUUID(), false));
+                    return List.of(entry(unfollowed));
+                })
+                .thenReturn(List.of(entry(followed)));
+        when(postRepository.findAllWithUserByIdIn(List.of(followed.getId()))).thenReturn(List.of(followed));
+
+        // Act
+        CursorPage<Post> page = timelineService.getHomeTimeline(userId, null, 10);
+
+        // Assert
+        assertThat(page.content()).containsExactly(followed);
+        assertThat(timelineStore.isMaterialized(userId)).isFalse();
+        assertThat(timelineStore.size(userId)).isZero();
+    }
+
+    @Test
+    public void fanOut_WhenTimelineNeitherMaterializedNorRebuilding_SkipsIt() {
+        // Arrange
+        UUID authorId = UUID.randomUUID();
+        when(followRepository.findFollowerIdsByFollowingId(authorId)).thenReturn(List.of(userId));
+
+        // Act
+        timelineService.fanOut(new PostCreatedEvent(UUID.randomUUID(), authorId, now));
+
+        // Assert
+        assertThat(timelineStore.isMaterialized(userId)).isFalse();
+        assertThat(timelineStore.size(userId)).isZero();
+    }
+
+    @Test
+    public void getHomeTimeline_WhenMaterialized_DoesNotQueryTimelineEntries() {
+        // Arrange
+        Post post = post(now);
+        materialize(userId, List.of(entry(post)));
+        when(postRepository.findAllWithUserByIdIn(anyList())).thenReturn(List.of(post));
+
+        // Act
+        CursorPage<Post> page = timelineService.getHomeTimeline(userId, null, 10);
+
+        // Assert
+        assertThat(page.content()).containsExactly(post);
+        verify(postRepository, never()).findHomeTimelineEntries(any(UUID.class), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    public void getHomeTimeline_SkipsDeletedPosts() {
+        // Arrange
+        Post kept = post(now);
+        Post deleted = post(now.minusMinutes(1));
+        materialize(userId, List.of(entry(kept), entry(deleted)));
+        when(postRepository.findAllWithUserByIdIn(anyList())).thenReturn(List.of(kept));
+
+        // Act
+        CursorPage<Post> page = timelineService.getHomeTimeline(userId, null, 10);
+
+        // Assert
+        assertThat(page.content()).containsExactly(kept);
+    }
+
+    @Test
+    public void fanOut_PushesToMaterializedFollowerAndAuthorTimelines() {
+        // Arrange
+        UUID authorId = UUID.randomUUID();
+        UUID followerId = UUID.randomUUID();
+        UUID coldFollowerId = UUID.randomUUID();
+        materialize(authorId, List.of());
+        materialize(followerId, List.of());
+        when(followRepository.findFollowerIdsByFollowingId(authorId)).thenReturn(List.of(followerId, coldFollowerId));
+
+        UUID postId = UUID.randomUUID();
+
+        // Act
+        timelineService.fanOut(new PostCreatedEvent(postId, authorId, now));
+
+        // Assert
+        assertThat(timelineStore.range(followerId, CursorCodec.START, 10)).extracting(TimelineEntry::postId).containsExactly(postId);
+        assertThat(timelineStore.range(authorId, CursorCodec.START, 10)).extracting(TimelineEntry::postId).containsExactly(postId);
+        assertThat(timelineStore.isMaterialized(coldFollowerId)).isFalse();
+        verify(eventPublisher).publishEvent(
+                new TimelineUpdatedEvent(postId, authorId, List.of(followerId, coldFollowerId, authorId)));
+    }
+
+    @Test
+    public void fanOut_TrimsTimelineToMaxSize() {
+        // Arrange
+        UUID authorId = UUID.randomUUID();
+        materialize(userId, List.of());
+        when(followRepository.findFollowerIdsByFollowingId(authorId)).thenReturn(List.of(userId));
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            timelineService.fanOut(new PostCreatedEvent(UUID.randomUUID(), authorId, now.plusSeconds(i)));
+        }
+
+        // Assert
+        assertThat(timelineStore.size(userId)).isEqualTo(3);
+        assertThat(timelineStore.range(userId, CursorCodec.START, 10)).extracting(TimelineEntry::createdAt)
+                .containsExactly(now.plusSeconds(4), now.plusSeconds(3), now.plusSeconds(2));
+    }
+
+    @Test
+    public void fanOut_WhenAuthorAboveThreshold_OnlyPushesToAuthorTimeline() {
+        // Arrange
+        UUID celebrityId = UUID.randomUUID();
+        materialize(userId, List.of());
+        materialize(celebrityId, List.of());
+        when(userRepository.findFollowersCountById(celebrityId)).thenReturn(Optional.of(5000));
+
+        // Act
+        timelineService.fanOut(new PostCreatedEvent(UUID.randomUUID(), celebrityId, now));
+
+        // Assert
+        assertThat(timelineStore.getPullAuthors()).containsExactly(celebrityId);
+        assertThat(timelineStore.size(celebrityId)).isEqualTo(1);
+        assertThat(timelineStore.size(userId)).isZero();
+        verify(followRepository, never()).findFollowerIdsByFollowingId(celebrityId);
+    }
+
+    @Test
+    public void getHomeTimeline_MergesPulledAccountsByCreatedAt() {
+        // Arrange
+        UUID celebrityId = UUID.randomUUID();
+        timelineStore.addPullAuthor(celebrityId);
+
+        Post pushedNewest = post(now);
+        Post pushedOldest = post(now.minusMinutes(10));
+        Post pulledMiddle = post(now.minusMinutes(5));
+        materialize(userId, List.of(entry(pushedNewest), entry(pushedOldest)));
+
+        when(followRepository.findFollowingIdsIn(eq(userId), any(), any(Pageable.class)))
+                .thenReturn(List.of(celebrityId));
+        when(postRepository.findTimelineEntriesByUserId(eq(celebrityId), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(entry(pulledMiddle)));
+        when(postRepository.findAllWithUserByIdIn(anyList())).thenReturn(List.of(pushedOldest, pulledMiddle, pushedNewest));
+
+        // Act
+        CursorPage<Post> page = timelineService.getHomeTimeline(userId, null, 10);
+
+        // Assert
+        assertThat(page.content()).containsExactly(pushedNewest, pulledMiddle, pushedOldest);
+    }
+
+    @Test
+    public void getHomeTimeline_WhenMorePulledAccountsThanSources_MergesRestWithOneQuery() {
+        // Arrange
+        List<UUID> celebrityIds = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            UUID celebrityId = UUID.randomUUID();
+            timelineStore.addPullAuthor(celebrityId);
+            celebrityIds.add(celebrityId);
+        }
+        materialize(userId, List.of());
+        Post overflowPost = post(now);
+        when(followRepository.findFollowingIdsIn(eq(userId), any(), any(Pageable.class))).thenReturn(celebrityIds);
+        when(postRepository.findTimelineEntriesByUserId(any(), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(postRepository.findTimelineEntriesByUserIdIn(eq(celebrityIds.subList(10, 12)), any(), any(),
+                any(Pageable.class))).thenReturn(List.of(entry(overflowPost)));
+        when(postRepository.findAllWithUserByIdIn(List.of(overflowPost.getId()))).thenReturn(List.of(overflowPost));
+
+        // Act
+        CursorPage<Post> page = timelineService.getHomeTimeline(userId, null, 10);
+        String version = timelineService.getVersion(userId);
+
+        // Assert
+        assertThat(page.content()).containsExactly(overflowPost);
+        assertThat(version).endsWith(overflowPost.getId().toString());
+        verify(postRepository, times(10)).findTimelineEntriesByUserId(any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    public void getVersion_WhenFollowedPulledAccountPosts_Changes() {
+        // Arrange
+        UUID celebrityId = UUID.randomUUID();
+        timelineStore.addPullAuthor(celebrityId);
+        materialize(userId, List.of(entry(post(now.minusMinutes(10)))));
+        Post pulled = post(now);
+        when(followRepository.findFollowingIdsIn(eq(userId), any(), any(Pageable.class)))
+                .thenReturn(List.of(celebrityId));
+        when(postRepository.findTimelineEntriesByUserId(eq(celebrityId), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(entry(pulled)));
+        String before = timelineService.getVersion(userId);
+
+        // Act
+        timelineService.fanOut(new PostCreatedEvent(pulled.getId(), celebrityId, now));
+        String after = timelineService.getVersion(userId);
+
+        // Assert
+        assertThat(after).isNotEqualTo(before).endsWith(pulled.getId().toString());
+        assertThat(timelineStore.size(userId)).isEqualTo(1);
+    }
+
+    @Test
+    public void getHomeTimeline_FollowsNextCursorToTheEnd() {
+        // Arrange
+        Post first = post(now);
+        Post second = post(now.minusMinutes(1));
+        Post third = post(now.minusMinutes(2));
+        materialize(userId, List.of(entry(first), entry(second), entry(third)));
+        when(postRepository.findAllWithUserByIdIn(List.of(first.getId(), second.getId()))).thenReturn(List.of(first, second));
+        when(postRepository.findAllWithUserByIdIn(List.of(third.getId()))).thenReturn(List.of(third));
+
+        // Act
+        CursorPage<Post> firstPage = timelineService.getHomeTimeline(userId, null, 2);
+        CursorPage<Post> secondPage = timelineService.getHomeTimeline(userId, firstPage.nextCursor(), 2);
+
+        // Assert
+        assertThat(firstPage.content()).containsExactly(first, second);
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(secondPage.content()).containsExactly(third);
+        assertThat(secondPage.hasNext()).isFalse();
+        assertThat(secondPage.nextCursor()).isNull();
+    }
+
+    @Test
+    public void onFollowChanged_EvictsFollowerTimeline() {
+        // Arrange
+        materialize(userId, List.of());
+
+        // Act
+        timelineService.onFollowChanged(new FollowChangedEvent(userId, UUID.randomUUID(), true));
+
+        // Assert
+        assertThat(timelineStore.isMaterialized(userId)).isFalse();
+    }
+
+    private Post post(LocalDateTime createdAt) {
+        Post post = new Post();
+        post.setId(UUID.randomUUID());
+        post.setCreatedAt(createdAt);
+        return post;
+    }
+
+    private void materialize(UUID userId, List<TimelineEntry> entries) {
+        timelineStore.replace(userId, timelineStore.beginRebuild(userId), entries);
+    }
+
+    private TimelineEntry entry(Post post) {
+        return new TimelineEntry(post.getId(), post.getCreatedAt());
+    }
+}
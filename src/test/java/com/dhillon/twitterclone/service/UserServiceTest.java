@@ -1,19 +1,25 @@
 package com.dhillon.twitterclone.service;
 
+import com.dhillon.twitterclone.cache.CacheNames;
+import com.dhillon.twitterclone.cache.TwoTierCacheManager;
+import com.dhillon.twitterclone.dto.UserDto;
 import com.dhillon.twitterclone.entity.User;
+import com.dhillon.twitterclone.event.FollowChangedEvent;
 import com.dhillon.twitterclone.exception.ResourceNotFoundException;
 import com.dhillon.twitterclone.repository.UserRepository;
 import com.dhillon.twitterclone.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -34,7 +40,6 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
     
-    @InjectMocks
     private UserServiceImpl userService;
     
     private User testUser;
@@ -42,6 +47,10 @@ public class UserServiceTest {
     
     @BeforeEach
     public void setup() {
+        CacheManager cacheManager = new TwoTierCacheManager(
+                Map.of(CacheNames.USER_PROFILES, Duration.ofHours(1), CacheNames.USERNAMES, Duration.ofHours(1)),
+                100, Duration.ofMinutes(1), null, null, null, null);
+        userService = new UserServiceImpl(userRepository, passwordEncoder, cacheManager);
         testUserId = UUID.randomUUID();
         testUser = new User();
         testUser.setId(testUserId);
@@ -93,6 +102,41 @@ public class UserServiceTest {
         verify(userRepository).findByUsername(username);
     }
     
+    @Test
+    public void findProfileByUsername_ThenById_LoadsProfileOnce() {
+        // Arrange
+        testUser.setFollowersCount(3);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        
+        // Act
+        Optional<UserDto> byUsername = userService.findProfileByUsername("testuser");
+        Optional<UserDto> byId = userService.findProfileById(testUserId);
+        Optional<UserDto> again = userService.findProfileByUsername("testuser");
+        
+        // Assert
+        assertThat(byUsername).map(UserDto::followersCount).contains(3);
+        assertThat(byId).isEqualTo(byUsername);
+        assertThat(again).isEqualTo(byUsername);
+        verify(userRepository).findByUsername("testuser");
+        verify(userRepository, never()).findById(testUserId);
+    }
+    
+    @Test
+    public void onFollowChanged_EvictsBothProfiles() {
+        // Arrange
+        when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
+        userService.findProfileById(testUserId);
+        testUser.setFollowingCount(1);
+        
+        // Act
+        userService.onFollowChanged(new FollowChangedEvent(testUserId, UUID.randomUUID(), true));
+        Optional<UserDto> result = userService.findProfileById(testUserId);
+        
+        // Assert
+        assertThat(result).map(UserDto::followingCount).contains(1);
+        verify(userRepository, times(2)).findById(testUserId);
+    }
+    
     @Test
     public void createUser_EncodesPasswordAndSetsDefaults() {
         // Arrange
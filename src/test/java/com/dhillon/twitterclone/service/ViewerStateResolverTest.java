@@ -0,0 +1,70 @@
+package com.dhillon.twitterclone.service;
+
+import com.dhillon.twitterclone.dto.ViewerState;
+import com.dhillon.twitterclone.repository.LikeRepository;
+import com.dhillon.twitterclone.repository.PostRepository;
+import com.dhillon.twitterclone.service.impl.ViewerStateResolverImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ViewerStateResolver.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ViewerStateResolverTest {
+
+    @Mock
+    private LikeRepository likeRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private LikeService likeService;
+
+    @InjectMocks
+    private ViewerStateResolverImpl viewerStateResolver;
+
+    @Test
+    public void resolve_UsesOneQueryEachAndOverlaysBufferedLikes() {
+        // Arrange
+        UUID viewerId = UUID.randomUUID();
+        UUID storedLike = UUID.randomUUID();
+        UUID bufferedUnlike = UUID.randomUUID();
+        UUID bufferedLike = UUID.randomUUID();
+        UUID reposted = UUID.randomUUID();
+        List<UUID> page = List.of(storedLike, bufferedUnlike, bufferedLike, reposted);
+        when(likeRepository.findLikedPostIds(viewerId, page)).thenReturn(List.of(storedLike, bufferedUnlike));
+        when(likeService.getPendingLikes(viewerId, page)).thenReturn(Map.of(bufferedUnlike, false, bufferedLike, true));
+        when(postRepository.findRepostedPostIds(viewerId, page)).thenReturn(List.of(reposted));
+
+        // Act
+        ViewerState state = viewerStateResolver.resolve(viewerId, page);
+
+        // Assert
+        assertThat(state.likedPostIds()).containsExactlyInAnyOrder(storedLike, bufferedLike);
+        assertThat(state.repostedPostIds()).containsExactly(reposted);
+        verify(likeRepository, times(1)).findLikedPostIds(viewerId, page);
+        verify(postRepository, times(1)).findRepostedPostIds(viewerId, page);
+    }
+
+    @Test
+    public void resolve_WithoutViewer_DoesNotQuery() {
+        // Act
+        ViewerState state = viewerStateResolver.resolve(null, List.of(UUID.randomUUID()));
+
+        // Assert
+        assertThat(state).isEqualTo(ViewerState.NONE);
+        verifyNoInteractions(likeRepository, postRepository, likeService);
+    }
+}
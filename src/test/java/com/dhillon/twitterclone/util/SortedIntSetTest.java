@@ -0,0 +1,72 @@
+package com.dhillon.twitterclone.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the SortedIntSet.
+ */
+public class SortedIntSetTest {
+
+    @Test
+    public void addAndRemove_KeepMembershipAndSize() {
+        // Arrange
+        SortedIntSet set = new SortedIntSet();
+
+        // Act
+        boolean addedFirst = set.add(5);
+        boolean addedAgain = set.add(5);
+        set.add(1);
+        set.add(9);
+        boolean removed = set.remove(1);
+        boolean removedMissing = set.remove(42);
+
+        // Assert
+        assertThat(addedFirst).isTrue();
+        assertThat(addedAgain).isFalse();
+        assertThat(removed).isTrue();
+        assertThat(removedMissing).isFalse();
+        assertThat(set.size()).isEqualTo(2);
+        assertThat(set.contains(5)).isTrue();
+        assertThat(set.contains(1)).isFalse();
+    }
+
+    @Test
+    public void compact_SortsAndDeduplicatesBulkLoadedValues() {
+        // Arrange
+        SortedIntSet set = new SortedIntSet();
+        for (int value : new int[] { 7, 3, 7, 1, 3, 100 }) {
+            set.appendUnordered(value);
+        }
+
+        // Act
+        set.compact();
+
+        // Assert
+        assertThat(set.size()).isEqualTo(4);
+        assertThat(set.contains(3)).isTrue();
+        assertThat(set.contains(100)).isTrue();
+        assertThat(set.add(50)).isTrue();
+        assertThat(set.intersect(set, 10)).containsExactly(1, 3, 7, 50, 100);
+    }
+
+    @Test
+    public void intersect_ReturnsCommonValuesUpToLimit() {
+        // Arrange
+        SortedIntSet a = new SortedIntSet();
+        SortedIntSet b = new SortedIntSet();
+        for (int i = 0; i < 100; i++) {
+            a.add(i * 2);
+            b.add(i * 3);
+        }
+
+        // Act
+        int[] all = a.intersect(b, 1000);
+        int[] limited = a.intersect(b, 3);
+
+        // Assert
+        assertThat(all).hasSize(34).startsWith(0, 6, 12);
+        assertThat(limited).containsExactly(0, 6, 12);
+    }
+}
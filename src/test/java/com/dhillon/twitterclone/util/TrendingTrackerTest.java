@@ -0,0 +1,74 @@
+package com.dhillon.twitterclone.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the TrendingTracker.
+ */
+public class TrendingTrackerTest {
+
+    private static final long MINUTE = 60_000;
+
+    private TrendingTracker<String> tracker;
+
+    @BeforeEach
+    public void setup() {
+        // One-minute buckets over an hour, half-life of ten minutes, room for two keys
+        tracker = new TrendingTracker<>(MINUTE, 60, 10 * MINUTE, 2, 256, 4);
+    }
+
+    @Test
+    public void top_WeightsRecentEventsAboveOlderOnes() {
+        // Arrange
+        tracker.add("old", 10, 0);
+        tracker.add("new", 6, 30 * MINUTE);
+
+        // Act
+        List<TrendingTracker.Trend<String>> trends = tracker.top(60 * MINUTE, 10, 30 * MINUTE);
+
+        // Assert
+        assertThat(trends).extracting(TrendingTracker.Trend::key).containsExactly("new", "old");
+        assertThat(trends).extracting(TrendingTracker.Trend::count).containsExactly(6L, 10L);
+    }
+
+    @Test
+    public void top_OnlyCountsEventsInsideTheWindow() {
+        // Arrange
+        tracker.add("java", 5, 0);
+        tracker.add("java", 2, 20 * MINUTE);
+
+        // Act
+        List<TrendingTracker.Trend<String>> lastTenMinutes = tracker.top(10 * MINUTE, 10, 25 * MINUTE);
+        List<TrendingTracker.Trend<String>> afterWindow = tracker.top(60 * MINUTE, 10, 90 * MINUTE);
+
+        // Assert
+        assertThat(lastTenMinutes).extracting(TrendingTracker.Trend::count).containsExactly(2L);
+        assertThat(afterWindow).isEmpty();
+        assertThat(tracker.size()).isZero();
+    }
+
+    @Test
+    public void add_KeepsTrackedKeysBoundedAndAdmitsRisingKeys() {
+        // Arrange
+        tracker.add("java", 5, 0);
+        tracker.add("spring", 4, 0);
+        for (int i = 0; i < 100; i++) {
+            tracker.add("tail" + i, 1, MINUTE);
+        }
+
+        // Act
+        for (int i = 0; i < 8; i++) {
+            tracker.add("kotlin", 1, 2 * MINUTE);
+        }
+        List<TrendingTracker.Trend<String>> trends = tracker.top(60 * MINUTE, 10, 3 * MINUTE);
+
+        // Assert
+        assertThat(tracker.size()).isLessThanOrEqualTo(2);
+        assertThat(trends).extracting(TrendingTracker.Trend::key).containsExactly("kotlin", "java");
+    }
+}